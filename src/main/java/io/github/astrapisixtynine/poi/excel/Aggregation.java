@@ -0,0 +1,119 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The record {@link Aggregation} describes an aggregate function over a column of a
+ * {@link SheetQuery}. Cells without a numeric value are ignored by all functions except
+ * {@link AggregateFunction#COUNT}
+ *
+ * @param function
+ *            the aggregate function
+ * @param column
+ *            the zero based index of the aggregated column or -1 for
+ *            {@link AggregateFunction#COUNT}
+ */
+public record Aggregation(AggregateFunction function, int column)
+{
+
+	/**
+	 * Creates a new {@link Aggregation}
+	 *
+	 * @param function
+	 *            the aggregate function
+	 * @param column
+	 *            the zero based index of the aggregated column or -1 for
+	 *            {@link AggregateFunction#COUNT}
+	 */
+	public Aggregation
+	{
+		Check.get().notNull(function, "function");
+		if (function == AggregateFunction.COUNT ? column != -1 : column < 0)
+		{
+			throw new IllegalArgumentException(
+				"Invalid column " + column + " for the aggregate function " + function);
+		}
+	}
+
+	/**
+	 * Creates the aggregation that counts the rows of a group
+	 *
+	 * @return the new {@link Aggregation} object
+	 */
+	public static Aggregation count()
+	{
+		return new Aggregation(AggregateFunction.COUNT, -1);
+	}
+
+	/**
+	 * Creates the aggregation that sums the values of the given column
+	 *
+	 * @param column
+	 *            the zero based column index
+	 * @return the new {@link Aggregation} object
+	 */
+	public static Aggregation sum(final int column)
+	{
+		return new Aggregation(AggregateFunction.SUM, column);
+	}
+
+	/**
+	 * Creates the aggregation that averages the values of the given column
+	 *
+	 * @param column
+	 *            the zero based column index
+	 * @return the new {@link Aggregation} object
+	 */
+	public static Aggregation avg(final int column)
+	{
+		return new Aggregation(AggregateFunction.AVG, column);
+	}
+
+	/**
+	 * Creates the aggregation that finds the minimum of the values of the given column
+	 *
+	 * @param column
+	 *            the zero based column index
+	 * @return the new {@link Aggregation} object
+	 */
+	public static Aggregation min(final int column)
+	{
+		return new Aggregation(AggregateFunction.MIN, column);
+	}
+
+	/**
+	 * Creates the aggregation that finds the maximum of the values of the given column
+	 *
+	 * @param column
+	 *            the zero based column index
+	 * @return the new {@link Aggregation} object
+	 */
+	public static Aggregation max(final int column)
+	{
+		return new Aggregation(AggregateFunction.MAX, column);
+	}
+}
@@ -0,0 +1,275 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.poi.ss.usermodel.Workbook;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link AsyncWorkbookOperations} provides asynchronous variants of the read and write
+ * operations of this library that return a {@link CompletableFuture}. The operations run on the
+ * given {@link Executor}, by default on a new virtual thread per operation.
+ * <p>
+ * The progress is reported as processed rows against the estimated total rows to an optional
+ * {@link ProgressListener}. Cancelling the returned future with
+ * {@link CompletableFuture#cancel(boolean)} stops the operation cooperatively at the next row,
+ * also in the middle of a sheet. A cancelled operation closes its readers, deletes its temporary
+ * files and deletes the partially written target file
+ */
+public final class AsyncWorkbookOperations
+{
+
+	private static final ThreadFactory VIRTUAL_THREAD_FACTORY = Thread.ofVirtual()
+		.name("poi-worker-async-", 0).factory();
+
+	/**
+	 * The executor that runs every task on a new virtual thread
+	 */
+	static final Executor VIRTUAL_THREAD_EXECUTOR = task -> VIRTUAL_THREAD_FACTORY.newThread(task)
+		.start();
+
+	private static final AsyncWorkbookOperations VIRTUAL_THREADS = new AsyncWorkbookOperations(
+		VIRTUAL_THREAD_EXECUTOR);
+
+	private final Executor executor;
+
+	private AsyncWorkbookOperations(final Executor executor)
+	{
+		this.executor = executor;
+	}
+
+	/**
+	 * Gets the {@link AsyncWorkbookOperations} that run every operation on a new virtual thread
+	 *
+	 * @return the {@link AsyncWorkbookOperations} object
+	 */
+	public static AsyncWorkbookOperations withVirtualThreads()
+	{
+		return VIRTUAL_THREADS;
+	}
+
+	/**
+	 * Creates a new {@link AsyncWorkbookOperations} that run the operations on the given executor.
+	 * The executor is not shut down by the operations
+	 *
+	 * @param executor
+	 *            the executor
+	 * @return the new {@link AsyncWorkbookOperations} object
+	 */
+	public static AsyncWorkbookOperations with(final Executor executor)
+	{
+		Check.get().notNull(executor, "executor");
+		return new AsyncWorkbookOperations(executor);
+	}
+
+	/**
+	 * Exports the rows and columns of the given Excel sheet {@link File} that are selected from
+	 * the given {@link ReadOptions} object asynchronously
+	 *
+	 * @param excelSheet
+	 *            the Excel sheet {@link File}
+	 * @param options
+	 *            the read options
+	 * @param listener
+	 *            the progress listener, may be null
+	 * @return the future of a two-dimensional array for every sheet
+	 * @see ExportExcelExtensions#exportWorkbook(File, ReadOptions)
+	 */
+	public CompletableFuture<List<String[][]>> exportWorkbook(final File excelSheet,
+		final ReadOptions options, final ProgressListener listener)
+	{
+		Check.get().notNull(excelSheet, "excelSheet").notNull(options, "options");
+		return submit(listener, null, tracker -> ExportExcelExtensions
+			.toArrays(ExportExcelExtensions.exportSelectedRows(excelSheet, options, tracker)));
+	}
+
+	/**
+	 * Exports the rows and columns of the given Excel sheet {@link File} that are selected from
+	 * the given {@link ReadOptions} object asynchronously as list of lists
+	 *
+	 * @param excelSheet
+	 *            the Excel sheet {@link File}
+	 * @param options
+	 *            the read options
+	 * @param listener
+	 *            the progress listener, may be null
+	 * @return the future of a list of lists containing the sheets and lists of the rows
+	 * @see ExportExcelExtensions#exportWorkbookAsStringList(File, ReadOptions)
+	 */
+	public CompletableFuture<List<List<List<String>>>> exportWorkbookAsStringList(
+		final File excelSheet, final ReadOptions options, final ProgressListener listener)
+	{
+		Check.get().notNull(excelSheet, "excelSheet").notNull(options, "options");
+		return submit(listener, null, tracker -> ExportExcelExtensions.toStringLists(
+			ExportExcelExtensions.exportSelectedRows(excelSheet, options, tracker)));
+	}
+
+	/**
+	 * Exports the given sheets to an Excel file asynchronously with a default
+	 * {@link ConcurrentXlsxWriter}
+	 *
+	 * @param excelFile
+	 *            the file to which the content should be written
+	 * @param sheets
+	 *            the content of the sheets in workbook order
+	 * @param listener
+	 *            the progress listener, may be null
+	 * @return the future that completes when the file is written
+	 * @see ExportExcelExtensions#exportToExcel(File, List)
+	 */
+	public CompletableFuture<Void> exportToExcel(final File excelFile,
+		final List<SheetContent> sheets, final ProgressListener listener)
+	{
+		return write(ConcurrentXlsxWriter.builder().build(), excelFile, sheets, listener);
+	}
+
+	/**
+	 * Writes the given sheets to an Excel file asynchronously with the given
+	 * {@link ConcurrentXlsxWriter}
+	 *
+	 * @param writer
+	 *            the writer
+	 * @param excelFile
+	 *            the file to which the content should be written
+	 * @param sheets
+	 *            the content of the sheets in workbook order
+	 * @param listener
+	 *            the progress listener, may be null
+	 * @return the future that completes when the file is written
+	 */
+	public CompletableFuture<Void> write(final ConcurrentXlsxWriter writer, final File excelFile,
+		final List<SheetContent> sheets, final ProgressListener listener)
+	{
+		Check.get().notNull(writer, "writer").notNull(excelFile, "excelFile").notEmpty(sheets,
+			"sheets");
+		return submit(listener, excelFile, tracker -> {
+			writer.write(excelFile, sheets, tracker);
+			return null;
+		});
+	}
+
+	/**
+	 * Writes the given Workbook to the given file asynchronously with the given write profile.
+	 * The progress is reported when the workbook has been written, the cancellation is checked on
+	 * every write to the file
+	 *
+	 * @param workbook
+	 *            the workbook
+	 * @param file
+	 *            the file
+	 * @param profile
+	 *            the write profile
+	 * @param listener
+	 *            the progress listener, may be null
+	 * @return the future of the written workbook
+	 * @see ExcelPoiFactory#writeWorkbook(Workbook, File, WriteProfile)
+	 */
+	public CompletableFuture<Workbook> writeWorkbook(final Workbook workbook, final File file,
+		final WriteProfile profile, final ProgressListener listener)
+	{
+		Check.get().notNull(workbook, "workbook").notNull(file, "file").notNull(profile,
+			"profile");
+		return submit(listener, file,
+			tracker -> ExcelPoiFactory.writeWorkbook(workbook, file, profile, tracker));
+	}
+
+	private <T> CompletableFuture<T> submit(final ProgressListener listener, final File target,
+		final Operation<T> operation)
+	{
+		final CompletableFuture<T> future = new CompletableFuture<>();
+		final ProgressTracker tracker = new ProgressTracker(listener, future::isCancelled);
+		try
+		{
+			executor.execute(() -> run(future, tracker, target, operation));
+		}
+		catch (RejectedExecutionException e)
+		{
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	private static <T> void run(final CompletableFuture<T> future, final ProgressTracker tracker,
+		final File target, final Operation<T> operation)
+	{
+		if (future.isCancelled())
+		{
+			return;
+		}
+		try
+		{
+			final T result = operation.run(tracker);
+			tracker.finish();
+			future.complete(result);
+		}
+		catch (Throwable e)
+		{
+			if (e instanceof CancellationException || future.isCancelled())
+			{
+				deletePartialTarget(target);
+				future.cancel(false);
+			}
+			else
+			{
+				future.completeExceptionally(e);
+			}
+		}
+	}
+
+	private static void deletePartialTarget(final File target)
+	{
+		if (target == null)
+		{
+			return;
+		}
+		try
+		{
+			Files.deleteIfExists(target.toPath());
+		}
+		catch (IOException e)
+		{
+			System.getLogger(AsyncWorkbookOperations.class.getName()).log(
+				System.Logger.Level.WARNING,
+				"The partially written file " + target + " could not be deleted", e);
+		}
+	}
+
+	@FunctionalInterface
+	private interface Operation<T>
+	{
+		T run(ProgressTracker tracker) throws IOException;
+	}
+}
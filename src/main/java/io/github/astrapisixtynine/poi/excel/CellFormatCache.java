@@ -0,0 +1,405 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Date1904Support;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.xssf.model.StylesTable;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link CellFormatCache} classifies the data format of every cell style of a workbook
+ * once and caches the result by the style index. Numeric cell values are then converted to
+ * {@link java.time.LocalDate}, {@link java.time.LocalDateTime} or {@link java.time.LocalTime}
+ * objects or to their display strings with an array lookup instead of parsing the format string
+ * of the cell again like {@link DateUtil#isCellDateFormatted(Cell)} does for every cell.
+ * <p>
+ * A {@link CellFormatCache} belongs to one workbook and is not thread-safe
+ */
+public final class CellFormatCache
+{
+
+	private static final StyleFormat GENERAL = new StyleFormat(FormatCategory.NUMBER, 0, null);
+
+	private final IntFunction<CellStyle> styles;
+
+	private final boolean date1904;
+
+	private final SharedStringCache strings;
+
+	private final DataFormatter dataFormatter = new DataFormatter();
+
+	private StyleFormat[] formats = new StyleFormat[16];
+
+	private CellFormatCache(final IntFunction<CellStyle> styles, final boolean date1904,
+		final SharedStringCache strings)
+	{
+		this.styles = styles;
+		this.date1904 = date1904;
+		this.strings = strings;
+	}
+
+	/**
+	 * Creates a new {@link CellFormatCache} for the cell styles of the given workbook. The string
+	 * cells of the workbook are resolved with a {@link SharedStringCache}
+	 *
+	 * @param workbook
+	 *            the workbook
+	 * @return the new {@link CellFormatCache} object
+	 */
+	public static CellFormatCache of(final Workbook workbook)
+	{
+		Check.get().notNull(workbook, "workbook");
+		final boolean date1904 = workbook instanceof Date1904Support
+			&& ((Date1904Support)workbook).isDate1904();
+		return new CellFormatCache(styleIndex -> styleIndex < workbook.getNumCellStyles()
+			? workbook.getCellStyleAt(styleIndex)
+			: null, date1904, SharedStringCache.of(workbook));
+	}
+
+	/**
+	 * Creates a new {@link CellFormatCache} for the cell styles of the given styles table of a
+	 * xlsx file
+	 *
+	 * @param stylesTable
+	 *            the styles table, may be null if the file has no styles part
+	 * @param date1904
+	 *            the flag if the workbook uses the 1904 date system
+	 * @return the new {@link CellFormatCache} object
+	 */
+	static CellFormatCache of(final StylesTable stylesTable, final boolean date1904)
+	{
+		if (stylesTable == null)
+		{
+			return new CellFormatCache(styleIndex -> null, date1904, null);
+		}
+		return new CellFormatCache(styleIndex -> styleIndex < stylesTable.getNumCellStyles()
+			? stylesTable.getStyleAt(styleIndex)
+			: null, date1904, null);
+	}
+
+	/**
+	 * Gets the category of the data format of the cell style with the given index
+	 *
+	 * @param styleIndex
+	 *            the index of the cell style
+	 * @return the format category
+	 */
+	public FormatCategory getCategory(final int styleIndex)
+	{
+		return formatOf(styleIndex).category;
+	}
+
+	/**
+	 * Gets the category of the data format of the given cell
+	 *
+	 * @param cell
+	 *            the cell
+	 * @return the format category
+	 */
+	public FormatCategory getCategory(final Cell cell)
+	{
+		return formatOf(cell.getCellStyle().getIndex()).category;
+	}
+
+	/**
+	 * Converts the given numeric value of a cell with the cell style with the given index to the
+	 * Java type of its format category. Dates are converted to {@link java.time.LocalDate}, date
+	 * times to {@link LocalDateTime} and times to {@link java.time.LocalTime}, all other values are
+	 * returned as {@link Double}
+	 *
+	 * @param styleIndex
+	 *            the index of the cell style
+	 * @param value
+	 *            the numeric value
+	 * @return the converted value
+	 */
+	public Object convert(final int styleIndex, final double value)
+	{
+		final FormatCategory category = formatOf(styleIndex).category;
+		if (!category.isDate() || !DateUtil.isValidExcelDate(value))
+		{
+			return value;
+		}
+		final LocalDateTime dateTime = DateUtil.getLocalDateTime(value, date1904);
+		switch (category)
+		{
+			case DATE :
+				return dateTime.toLocalDate();
+			case TIME :
+				return dateTime.toLocalTime();
+			default :
+				return dateTime;
+		}
+	}
+
+	/**
+	 * Formats the given numeric value of a cell with the cell style with the given index like
+	 * Excel displays it
+	 *
+	 * @param styleIndex
+	 *            the index of the cell style
+	 * @param value
+	 *            the numeric value
+	 * @return the display string
+	 */
+	public String format(final int styleIndex, final double value)
+	{
+		final StyleFormat format = formatOf(styleIndex);
+		if (format.formatString == null)
+		{
+			return NumberToTextConverter.toText(value);
+		}
+		return dataFormatter.formatRawCellContents(value, format.formatIndex, format.formatString,
+			date1904);
+	}
+
+	/**
+	 * Gets the value of the given cell as the Java type of its format category. Formula cells
+	 * return their cached result
+	 *
+	 * @param cell
+	 *            the cell
+	 * @return the cell value, an empty String if the cell is null, blank or an error
+	 * @see #convert(int, double)
+	 */
+	public Object getCellValue(final Cell cell)
+	{
+		if (cell == null)
+		{
+			return "";
+		}
+		switch (resultTypeOf(cell))
+		{
+			case NUMERIC :
+				return convert(cell.getCellStyle().getIndex(), cell.getNumericCellValue());
+			case BOOLEAN :
+				return cell.getBooleanCellValue();
+			case STRING :
+				return getString(cell);
+			default :
+				return "";
+		}
+	}
+
+	/**
+	 * Gets the value of the given cell as display string. Formula cells return their cached
+	 * result
+	 *
+	 * @param cell
+	 *            the cell
+	 * @return the display string, an empty String if the cell is null, blank or an error
+	 * @see #format(int, double)
+	 */
+	public String formatCellValue(final Cell cell)
+	{
+		if (cell == null)
+		{
+			return "";
+		}
+		switch (resultTypeOf(cell))
+		{
+			case NUMERIC :
+				return format(cell.getCellStyle().getIndex(), cell.getNumericCellValue());
+			case BOOLEAN :
+				return Boolean.toString(cell.getBooleanCellValue());
+			case STRING :
+				return getString(cell);
+			default :
+				return "";
+		}
+	}
+
+	/**
+	 * Classifies the given data format
+	 *
+	 * @param formatIndex
+	 *            the index of the data format
+	 * @param formatString
+	 *            the data format string, may be null
+	 * @return the format category
+	 */
+	static FormatCategory classify(final int formatIndex, final String formatString)
+	{
+		if (formatString == null || formatIndex == 0 || "General".equalsIgnoreCase(formatString))
+		{
+			return FormatCategory.NUMBER;
+		}
+		if ("@".equals(formatString))
+		{
+			return FormatCategory.TEXT;
+		}
+		final boolean date = DateUtil.isADateFormat(formatIndex, formatString);
+		boolean hasDay = false;
+		boolean hasMonth = false;
+		boolean hasTime = false;
+		boolean hasPercent = false;
+		boolean quoted = false;
+		boolean bracketed = false;
+		for (int i = 0; i < formatString.length(); i++)
+		{
+			final char character = Character.toLowerCase(formatString.charAt(i));
+			if (character == '"')
+			{
+				quoted = !quoted;
+			}
+			else if (quoted)
+			{
+				continue;
+			}
+			else if (character == '\\' || character == '_' || character == '*')
+			{
+				i++;
+			}
+			else if (character == '[')
+			{
+				bracketed = true;
+			}
+			else if (character == ']')
+			{
+				bracketed = false;
+			}
+			else if (character == ';')
+			{
+				break;
+			}
+			else if (date && (character == 'h' || character == 's'))
+			{
+				hasTime = true;
+			}
+			else if (bracketed)
+			{
+				continue;
+			}
+			else if (character == 'y' || character == 'd')
+			{
+				hasDay = true;
+			}
+			else if (character == 'm')
+			{
+				hasMonth = true;
+			}
+			else if (character == '%')
+			{
+				hasPercent = true;
+			}
+		}
+		if (date)
+		{
+			final boolean hasDate = hasDay || hasMonth && !hasTime;
+			if (hasDate)
+			{
+				return hasTime ? FormatCategory.DATE_TIME : FormatCategory.DATE;
+			}
+			return FormatCategory.TIME;
+		}
+		return hasPercent ? FormatCategory.PERCENT : FormatCategory.NUMBER;
+	}
+
+	private StyleFormat formatOf(final int styleIndex)
+	{
+		if (styleIndex < 0)
+		{
+			return GENERAL;
+		}
+		if (formats.length <= styleIndex)
+		{
+			formats = Arrays.copyOf(formats, Math.max(styleIndex + 1, formats.length * 2));
+		}
+		StyleFormat format = formats[styleIndex];
+		if (format == null)
+		{
+			format = compile(styles.apply(styleIndex));
+			formats[styleIndex] = format;
+		}
+		return format;
+	}
+
+	private static StyleFormat compile(final CellStyle style)
+	{
+		if (style == null)
+		{
+			return GENERAL;
+		}
+		final int formatIndex = style.getDataFormat();
+		String formatString = style.getDataFormatString();
+		if (formatString == null)
+		{
+			formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+		}
+		final FormatCategory category = classify(formatIndex, formatString);
+		if (category == FormatCategory.NUMBER
+			&& (formatIndex == 0 || formatString == null || "General".equalsIgnoreCase(formatString)))
+		{
+			return GENERAL;
+		}
+		return new StyleFormat(category, formatIndex, formatString);
+	}
+
+	private String getString(final Cell cell)
+	{
+		return strings == null
+			? cell.getRichStringCellValue().getString()
+			: strings.getString(cell);
+	}
+
+	private static CellType resultTypeOf(final Cell cell)
+	{
+		final CellType cellType = cell.getCellType();
+		return cellType == CellType.FORMULA ? cell.getCachedFormulaResultType() : cellType;
+	}
+
+	/**
+	 * The class {@link StyleFormat} holds the classified data format of a cell style
+	 */
+	private static final class StyleFormat
+	{
+		private final FormatCategory category;
+
+		private final int formatIndex;
+
+		private final String formatString;
+
+		private StyleFormat(final FormatCategory category, final int formatIndex,
+			final String formatString)
+		{
+			this.category = category;
+			this.formatIndex = formatIndex;
+			this.formatString = formatString;
+		}
+	}
+}
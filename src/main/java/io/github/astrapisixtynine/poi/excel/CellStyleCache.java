@@ -0,0 +1,121 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
+import org.apache.poi.xssf.usermodel.XSSFFont;
+
+/**
+ * The class {@link CellStyleCache} maps the cell styles of source workbooks to the cell styles of
+ * a target {@link Workbook}. Source styles that look the same share one target style, so the
+ * number of styles in the target grows with the number of distinct styles and not with the number
+ * of sources. The cache is not thread-safe like the target workbook itself
+ */
+final class CellStyleCache
+{
+
+	private final Workbook target;
+
+	private final Map<List<Object>, CellStyle> styles = new HashMap<>();
+
+	/**
+	 * Creates a new {@link CellStyleCache} for the given target {@link Workbook}
+	 *
+	 * @param target
+	 *            the target workbook
+	 */
+	CellStyleCache(final Workbook target)
+	{
+		this.target = target;
+	}
+
+	/**
+	 * Gets the target style that looks like the given source style and creates it on the first
+	 * call
+	 *
+	 * @param source
+	 *            the style of a source workbook
+	 * @return the target style
+	 */
+	CellStyle map(final XSSFCellStyle source)
+	{
+		return styles.computeIfAbsent(keyOf(source), key -> {
+			final CellStyle style = target.createCellStyle();
+			style.cloneStyleFrom(source);
+			return style;
+		});
+	}
+
+	/**
+	 * Gets the number of distinct target styles
+	 *
+	 * @return the number of styles
+	 */
+	int size()
+	{
+		return styles.size();
+	}
+
+	private static List<Object> keyOf(final XSSFCellStyle style)
+	{
+		final XSSFFont font = style.getFont();
+		return Arrays.asList(style.getDataFormatString(), font.getFontName(),
+			font.getFontHeight(), font.getBold(), font.getItalic(), font.getUnderline(),
+			font.getStrikeout(), font.getTypeOffset(), colorOf(font.getXSSFColor()),
+			style.getFillPattern(), colorOf(style.getFillForegroundXSSFColor()),
+			colorOf(style.getFillBackgroundXSSFColor()), style.getBorderTop(),
+			style.getBorderRight(), style.getBorderBottom(), style.getBorderLeft(),
+			colorOf(style.getTopBorderXSSFColor()), colorOf(style.getRightBorderXSSFColor()),
+			colorOf(style.getBottomBorderXSSFColor()), colorOf(style.getLeftBorderXSSFColor()),
+			style.getAlignment(), style.getVerticalAlignment(), style.getWrapText(),
+			style.getIndention(), style.getRotation(), style.getLocked(), style.getHidden(),
+			style.getShrinkToFit(), style.getQuotePrefixed());
+	}
+
+	private static String colorOf(final XSSFColor color)
+	{
+		if (color == null)
+		{
+			return null;
+		}
+		if (color.isThemed())
+		{
+			return "theme " + color.getTheme() + " " + color.getTint();
+		}
+		if (color.isIndexed())
+		{
+			return "indexed " + color.getIndexed() + " " + color.getTint();
+		}
+		return color.getARGBHex();
+	}
+}
@@ -0,0 +1,293 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The class {@link ChunkedScan} runs the parallel tasks of a scan over the sheets of a xlsx file.
+ * Without a chunk size a scan runs one task per sheet, with a chunk size it builds the
+ * {@link SheetRowIndex} of every sheet and runs one task per chunk between two checkpoints. A scan
+ * creates a fixed thread pool with one thread per available processor if no executor is given.
+ * Closing the scan cancels all tasks that are still running and shuts down its own thread pool
+ */
+final class ChunkedScan implements Closeable
+{
+
+	/**
+	 * The task that scans one sheet or one chunk of a sheet
+	 *
+	 * @param <T>
+	 *            the type of the partial result
+	 */
+	@FunctionalInterface
+	interface ChunkTask<T>
+	{
+
+		/**
+		 * Scans the chunk that starts at the given checkpoint of the given row index
+		 *
+		 * @param sheetIndex
+		 *            the zero based index of the sheet
+		 * @param rowIndex
+		 *            the row index of the sheet or null to scan the whole sheet
+		 * @param checkpoint
+		 *            the checkpoint where the chunk starts
+		 * @return the partial result of the chunk
+		 * @throws IOException
+		 *             Signals that an I/O exception has occurred
+		 */
+		T scan(int sheetIndex, SheetRowIndex rowIndex, int checkpoint) throws IOException;
+	}
+
+	/**
+	 * The handler that merges the partial results of a scan
+	 *
+	 * @param <T>
+	 *            the type of the partial result
+	 */
+	@FunctionalInterface
+	interface PartialHandler<T>
+	{
+
+		/**
+		 * Merges the given partial result
+		 *
+		 * @param partial
+		 *            the partial result of a sheet or a chunk
+		 * @throws IOException
+		 *             Signals that an I/O exception has occurred
+		 */
+		void merge(T partial) throws IOException;
+	}
+
+	private final ExecutorService executorService;
+
+	private final boolean ownExecutor;
+
+	private final String taskName;
+
+	private final List<Future<?>> futures = new ArrayList<>();
+
+	/**
+	 * Creates a new {@link ChunkedScan} object
+	 *
+	 * @param executor
+	 *            the executor of the tasks or null for an own fixed thread pool
+	 * @param taskName
+	 *            the name of a task in the messages of the exceptions, for example
+	 *            <code>validation</code>
+	 */
+	ChunkedScan(final ExecutorService executor, final String taskName)
+	{
+		this.executorService = executor != null
+			? executor
+			: Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		this.ownExecutor = executor == null;
+		this.taskName = taskName;
+	}
+
+	/**
+	 * Runs the given task over the given sheets and passes the partial results to the given
+	 * handler in the order their tasks complete, so a partial result is merged while the other
+	 * tasks are still running. The handler is only called from the calling thread
+	 *
+	 * @param <T>
+	 *            the type of the partial result
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @param sheetIndexes
+	 *            the zero based indexes of the sheets
+	 * @param chunkRows
+	 *            the number of rows of a chunk or 0 for one task per sheet
+	 * @param task
+	 *            the task that scans a sheet or a chunk
+	 * @param handler
+	 *            the handler that merges the partial results
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred in a task or the handler
+	 */
+	<T> void run(final File workbookFile, final int[] sheetIndexes, final int chunkRows,
+		final ChunkTask<T> task, final PartialHandler<T> handler) throws IOException
+	{
+		final CompletionService<T> completionService = new ExecutorCompletionService<>(
+			executorService);
+		int pending = 0;
+		if (chunkRows == 0)
+		{
+			for (final int sheetIndex : sheetIndexes)
+			{
+				futures.add(completionService.submit(() -> task.scan(sheetIndex, null, 0)));
+				pending++;
+			}
+		}
+		else
+		{
+			final List<Future<SheetRowIndex>> indexes = new ArrayList<>();
+			for (final int sheetIndex : sheetIndexes)
+			{
+				indexes.add(submitIndex(workbookFile, sheetIndex, chunkRows));
+			}
+			for (int i = 0; i < sheetIndexes.length; i++)
+			{
+				final int sheetIndex = sheetIndexes[i];
+				final SheetRowIndex rowIndex = await(indexes.get(i));
+				for (int checkpoint = 0; checkpoint < rowIndex.getCheckpointCount(); checkpoint++)
+				{
+					final int chunk = checkpoint;
+					futures.add(completionService
+						.submit(() -> task.scan(sheetIndex, rowIndex, chunk)));
+					pending++;
+				}
+				for (Future<T> done; (done = completionService.poll()) != null; pending--)
+				{
+					handler.merge(await(done));
+				}
+			}
+		}
+		for (; 0 < pending; pending--)
+		{
+			handler.merge(await(take(completionService)));
+		}
+	}
+
+	/**
+	 * Submits the build of the row index of the given sheet
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param chunkRows
+	 *            the number of rows between two checkpoints
+	 * @return the future of the row index
+	 */
+	Future<SheetRowIndex> submitIndex(final File workbookFile, final int sheetIndex,
+		final int chunkRows)
+	{
+		final Future<SheetRowIndex> future = executorService
+			.submit(() -> SheetRowIndex.build(workbookFile, sheetIndex, chunkRows));
+		futures.add(future);
+		return future;
+	}
+
+	/**
+	 * Submits the tasks of the chunks of the given sheet in the order of the chunks
+	 *
+	 * @param <T>
+	 *            the type of the partial result
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param rowIndex
+	 *            the row index of the sheet or null for a single task over the whole sheet
+	 * @param task
+	 *            the task that scans a sheet or a chunk
+	 * @return the futures of the chunks in the order of the chunks
+	 */
+	<T> List<Future<T>> submitChunks(final int sheetIndex, final SheetRowIndex rowIndex,
+		final ChunkTask<T> task)
+	{
+		final List<Future<T>> chunks = new ArrayList<>();
+		final int checkpoints = rowIndex == null ? 1 : rowIndex.getCheckpointCount();
+		for (int checkpoint = 0; checkpoint < checkpoints; checkpoint++)
+		{
+			final int chunk = checkpoint;
+			chunks.add(executorService.submit(() -> task.scan(sheetIndex, rowIndex, chunk)));
+		}
+		futures.addAll(chunks);
+		return chunks;
+	}
+
+	/**
+	 * Waits for the result of the given task
+	 *
+	 * @param <T>
+	 *            the type of the result
+	 * @param future
+	 *            the future of the task
+	 * @return the result of the task
+	 * @throws IOException
+	 *             Signals that the task failed or the calling thread was interrupted
+	 */
+	<T> T await(final Future<T> future) throws IOException
+	{
+		try
+		{
+			return future.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a sheet " + taskName);
+		}
+		catch (ExecutionException e)
+		{
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException ioException)
+			{
+				throw ioException;
+			}
+			if (cause instanceof RuntimeException runtimeException)
+			{
+				throw runtimeException;
+			}
+			throw new IOException("A sheet " + taskName + " failed", cause);
+		}
+	}
+
+	private <T> Future<T> take(final CompletionService<T> completionService) throws IOException
+	{
+		try
+		{
+			return completionService.take();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a sheet " + taskName);
+		}
+	}
+
+	@Override
+	public void close()
+	{
+		futures.forEach(future -> future.cancel(true));
+		if (ownExecutor)
+		{
+			executorService.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,207 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.util.List;
+
+/**
+ * The class {@link ColumnProfile} holds the statistics of a column that a {@link SheetProfiler}
+ * collected in a single pass over the rows of one or more sheets. The distinct count and the top
+ * values are estimated by fixed memory sketches, all other statistics are exact
+ */
+public final class ColumnProfile
+{
+
+	private final int column;
+
+	private final String name;
+
+	private final long rows;
+
+	private final long count;
+
+	private final long numericCount;
+
+	private final double min;
+
+	private final double max;
+
+	private final double mean;
+
+	private final double variance;
+
+	private final long distinctCount;
+
+	private final List<TopValue> topValues;
+
+	ColumnProfile(final int column, final String name, final long rows, final long count,
+		final long numericCount, final double min, final double max, final double mean,
+		final double variance, final long distinctCount, final List<TopValue> topValues)
+	{
+		this.column = column;
+		this.name = name;
+		this.rows = rows;
+		this.count = count;
+		this.numericCount = numericCount;
+		this.min = min;
+		this.max = max;
+		this.mean = mean;
+		this.variance = variance;
+		this.distinctCount = distinctCount;
+		this.topValues = List.copyOf(topValues);
+	}
+
+	/**
+	 * Gets the zero based index of the column
+	 *
+	 * @return the column index
+	 */
+	public int getColumn()
+	{
+		return column;
+	}
+
+	/**
+	 * Gets the name of the column in the header row
+	 *
+	 * @return the column name or null if the profile has no header row
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Gets the number of cells with a value
+	 *
+	 * @return the number of cells with a value
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Gets the number of blank or error cells of the profiled rows, including the missing cells
+	 * after the last cell of a row
+	 *
+	 * @return the number of cells without a value
+	 */
+	public long getNullCount()
+	{
+		return rows - count;
+	}
+
+	/**
+	 * Gets the number of cells with a numeric value. Text that is a number and boolean values
+	 * are numeric as well
+	 *
+	 * @return the number of numeric cells
+	 */
+	public long getNumericCount()
+	{
+		return numericCount;
+	}
+
+	/**
+	 * Gets the minimum of the numeric values
+	 *
+	 * @return the minimum or {@link Double#NaN} if the column has no numeric value
+	 */
+	public double getMin()
+	{
+		return min;
+	}
+
+	/**
+	 * Gets the maximum of the numeric values
+	 *
+	 * @return the maximum or {@link Double#NaN} if the column has no numeric value
+	 */
+	public double getMax()
+	{
+		return max;
+	}
+
+	/**
+	 * Gets the arithmetic mean of the numeric values
+	 *
+	 * @return the mean or {@link Double#NaN} if the column has no numeric value
+	 */
+	public double getMean()
+	{
+		return mean;
+	}
+
+	/**
+	 * Gets the sample variance of the numeric values
+	 *
+	 * @return the variance or {@link Double#NaN} if the column has less than two numeric values
+	 */
+	public double getVariance()
+	{
+		return variance;
+	}
+
+	/**
+	 * Gets the sample standard deviation of the numeric values
+	 *
+	 * @return the standard deviation or {@link Double#NaN} if the column has less than two
+	 *         numeric values
+	 */
+	public double getStandardDeviation()
+	{
+		return Math.sqrt(variance);
+	}
+
+	/**
+	 * Gets the estimated number of distinct values
+	 *
+	 * @return the estimated number of distinct values
+	 */
+	public long getDistinctCount()
+	{
+		return distinctCount;
+	}
+
+	/**
+	 * Gets the most frequent values ordered by descending count
+	 *
+	 * @return an unmodifiable list of the most frequent values
+	 */
+	public List<TopValue> getTopValues()
+	{
+		return topValues;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ColumnProfile{" + "column=" + column + ", name=" + name + ", count=" + count
+			+ ", nullCount=" + getNullCount() + ", numericCount=" + numericCount + ", min=" + min
+			+ ", max=" + max + ", mean=" + mean + ", variance=" + variance + ", distinctCount="
+			+ distinctCount + ", topValues=" + topValues + '}';
+	}
+}
@@ -0,0 +1,145 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.util.Arrays;
+
+/**
+ * The class {@link ColumnProjection} maps the column indexes of a sheet to the output positions of
+ * the columns that are selected from a {@link ReadOptions} object
+ */
+final class ColumnProjection
+{
+
+	/**
+	 * The projection that selects all columns at the position of their column index
+	 */
+	static final ColumnProjection ALL = new ColumnProjection(null);
+
+	private final int[] columns;
+
+	private final int[] positionByColumn;
+
+	private ColumnProjection(final int[] columns)
+	{
+		this.columns = columns;
+		if (columns == null)
+		{
+			this.positionByColumn = null;
+			return;
+		}
+		int maxColumn = -1;
+		for (final int column : columns)
+		{
+			maxColumn = Math.max(maxColumn, column);
+		}
+		this.positionByColumn = new int[maxColumn + 1];
+		Arrays.fill(this.positionByColumn, -1);
+		for (int position = 0; position < columns.length; position++)
+		{
+			this.positionByColumn[columns[position]] = position;
+		}
+	}
+
+	/**
+	 * Resolves the projection of the given {@link ReadOptions} object
+	 *
+	 * @param options
+	 *            the read options
+	 * @param headerValues
+	 *            the values of the header row, may be null if no column is selected by name
+	 * @return the column projection
+	 */
+	static ColumnProjection of(final ReadOptions options, final String[] headerValues)
+	{
+		final int[] columns = options.resolveColumns(headerValues);
+		return columns == null ? ALL : new ColumnProjection(columns);
+	}
+
+	/**
+	 * Checks if this projection selects all columns
+	 *
+	 * @return true if all columns are selected otherwise false
+	 */
+	boolean isAll()
+	{
+		return columns == null;
+	}
+
+	/**
+	 * Gets the number of selected columns
+	 *
+	 * @return the number of selected columns or 0 if all columns are selected
+	 */
+	int width()
+	{
+		return columns == null ? 0 : columns.length;
+	}
+
+	/**
+	 * Gets the column index of the given output position
+	 *
+	 * @param position
+	 *            the output position
+	 * @return the column index
+	 */
+	int columnAt(final int position)
+	{
+		return columns == null ? position : columns[position];
+	}
+
+	/**
+	 * Gets the output position for every column index
+	 *
+	 * @return the output positions indexed by column index, negative for unselected columns, or
+	 *         null if all columns are selected
+	 */
+	int[] positionByColumn()
+	{
+		return positionByColumn;
+	}
+
+	/**
+	 * Projects the given row values to the selected columns
+	 *
+	 * @param values
+	 *            the values of all columns of a row
+	 * @return the values of the selected columns
+	 */
+	String[] project(final String[] values)
+	{
+		if (columns == null)
+		{
+			return values;
+		}
+		final String[] projected = new String[columns.length];
+		for (int position = 0; position < columns.length; position++)
+		{
+			final int column = columns[position];
+			projected[position] = column < values.length ? values[column] : "";
+		}
+		return projected;
+	}
+}
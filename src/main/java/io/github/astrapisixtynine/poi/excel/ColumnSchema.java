@@ -0,0 +1,66 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The record {@link ColumnSchema} describes a column of a {@link SheetSchema}
+ *
+ * @param name
+ *            the name of the column from the header row or the column letter if the sheet has no
+ *            header row
+ * @param columnIndex
+ *            the zero based index of the column in the sheet
+ * @param type
+ *            the value type of the column
+ * @param nullable
+ *            the flag if the column contains blank cells
+ */
+public record ColumnSchema(String name, int columnIndex, ColumnType type, boolean nullable)
+{
+
+	/**
+	 * Creates a new {@link ColumnSchema}
+	 *
+	 * @param name
+	 *            the name of the column
+	 * @param columnIndex
+	 *            the zero based index of the column in the sheet
+	 * @param type
+	 *            the value type of the column
+	 * @param nullable
+	 *            the flag if the column contains blank cells
+	 */
+	public ColumnSchema
+	{
+		Check.get().notNull(name, "name").notNull(type, "type");
+		if (columnIndex < 0)
+		{
+			throw new IllegalArgumentException(
+				"Column index must not be negative: " + columnIndex);
+		}
+	}
+}
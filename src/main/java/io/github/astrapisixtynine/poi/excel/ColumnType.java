@@ -0,0 +1,68 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+/**
+ * The enum {@link ColumnType} represents the value type of a column that is inferred from the
+ * cells of a sheet
+ */
+public enum ColumnType
+{
+
+	/** Whole numbers that fit into a <code>long</code> */
+	INTEGER,
+
+	/** Numbers with a fraction */
+	DECIMAL,
+
+	/** Boolean values */
+	BOOLEAN,
+
+	/** Dates and date times, numeric cells with a date format or ISO 8601 date cells */
+	DATE,
+
+	/** Text values, this is also the type of columns with mixed value types */
+	STRING;
+
+	/**
+	 * Merges this type with the given type of another cell of the same column
+	 *
+	 * @param other
+	 *            the type of the other cell, may be null if the type is not known yet
+	 * @return the type that can hold the values of both cells
+	 */
+	ColumnType merge(final ColumnType other)
+	{
+		if (other == null || other == this)
+		{
+			return this;
+		}
+		if ((this == INTEGER || this == DECIMAL) && (other == INTEGER || other == DECIMAL))
+		{
+			return DECIMAL;
+		}
+		return STRING;
+	}
+}
@@ -0,0 +1,98 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class {@link ConcurrentSharedStrings} is a shared strings table that can be filled from
+ * several sheet writers at the same time. Every distinct string gets an index the first time it
+ * is added
+ */
+final class ConcurrentSharedStrings
+{
+
+	private final ConcurrentHashMap<String, Integer> indexes = new ConcurrentHashMap<>();
+
+	private final AtomicInteger nextIndex = new AtomicInteger();
+
+	private final AtomicLong references = new AtomicLong();
+
+	/**
+	 * Gets the index of the given string and adds it to the table if it is not present
+	 *
+	 * @param value
+	 *            the string
+	 * @return the index of the string
+	 */
+	int indexOf(final String value)
+	{
+		references.incrementAndGet();
+		final Integer index = indexes.get(value);
+		if (index != null)
+		{
+			return index;
+		}
+		return indexes.computeIfAbsent(value, key -> nextIndex.getAndIncrement());
+	}
+
+	/**
+	 * Gets the number of distinct strings
+	 *
+	 * @return the number of distinct strings
+	 */
+	int getUniqueCount()
+	{
+		return indexes.size();
+	}
+
+	/**
+	 * Writes the shared strings part. Must only be called after all sheet writers are finished
+	 *
+	 * @param writer
+	 *            the writer
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	void write(final Writer writer) throws IOException
+	{
+		final String[] values = new String[indexes.size()];
+		indexes.forEach((value, index) -> values[index] = value);
+		writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+		writer.write("<sst xmlns=\"" + XlsxPackageWriter.MAIN_NAMESPACE + "\" count=\""
+			+ references.get() + "\" uniqueCount=\"" + values.length + "\">");
+		for (final String value : values)
+		{
+			writer.write("<si><t xml:space=\"preserve\">");
+			XmlEscaper.escape(value, writer);
+			writer.write("</t></si>");
+		}
+		writer.write("</sst>");
+	}
+}
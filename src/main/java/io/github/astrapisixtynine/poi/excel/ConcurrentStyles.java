@@ -0,0 +1,193 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+
+/**
+ * The class {@link ConcurrentStyles} is a styles table that can be filled from several sheet
+ * writers at the same time. Every distinct {@link XlsxCellStyle} gets the index of its cell
+ * format the first time it is used, the default style always has the index 0
+ */
+final class ConcurrentStyles
+{
+
+	private final ConcurrentHashMap<XlsxCellStyle, Integer> indexes = new ConcurrentHashMap<>();
+
+	private final List<XlsxCellStyle> styles = new ArrayList<>();
+
+	/**
+	 * Creates a new {@link ConcurrentStyles} object that contains the default style
+	 */
+	ConcurrentStyles()
+	{
+		indexOf(XlsxCellStyle.DEFAULT);
+	}
+
+	/**
+	 * Gets the index of the given style and adds it to the table if it is not present
+	 *
+	 * @param style
+	 *            the style
+	 * @return the index of the cell format of the style
+	 */
+	int indexOf(final XlsxCellStyle style)
+	{
+		final Integer index = indexes.get(style);
+		if (index != null)
+		{
+			return index;
+		}
+		synchronized (styles)
+		{
+			return indexes.computeIfAbsent(style, key -> {
+				styles.add(key);
+				final StyleCreatedEvent event = new StyleCreatedEvent();
+				if (event.shouldCommit())
+				{
+					event.style = key.toString();
+					event.styleCount = styles.size();
+					event.commit();
+				}
+				return styles.size() - 1;
+			});
+		}
+	}
+
+	/**
+	 * Gets the number of distinct styles
+	 *
+	 * @return the number of distinct styles
+	 */
+	int size()
+	{
+		synchronized (styles)
+		{
+			return styles.size();
+		}
+	}
+
+	/**
+	 * Writes the styles part. Must only be called after all sheet writers are finished
+	 *
+	 * @param writer
+	 *            the writer
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	void write(final Writer writer) throws IOException
+	{
+		final List<XlsxCellStyle> cellStyles;
+		synchronized (styles)
+		{
+			cellStyles = new ArrayList<>(styles);
+		}
+		final Map<String, Integer> numberFormats = new LinkedHashMap<>();
+		final Map<XlsxCellStyle, Integer> fonts = new LinkedHashMap<>();
+		final int[] numberFormatIds = new int[cellStyles.size()];
+		final int[] fontIds = new int[cellStyles.size()];
+		for (int i = 0; i < cellStyles.size(); i++)
+		{
+			final XlsxCellStyle style = cellStyles.get(i);
+			if (style.dataFormat() != null)
+			{
+				final int builtinFormat = BuiltinFormats.getBuiltinFormat(style.dataFormat());
+				numberFormatIds[i] = 0 <= builtinFormat
+					? builtinFormat
+					: numberFormats.computeIfAbsent(style.dataFormat(),
+						key -> BuiltinFormats.FIRST_USER_DEFINED_FORMAT_INDEX
+							+ numberFormats.size());
+			}
+			if (style.hasFont())
+			{
+				final XlsxCellStyle font = new XlsxCellStyle(style.fontName(),
+					style.fontHeightInPoints(), style.bold(), null);
+				fontIds[i] = fonts.computeIfAbsent(font, key -> fonts.size() + 1);
+			}
+		}
+		writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+		writer.write("<styleSheet xmlns=\"" + XlsxPackageWriter.MAIN_NAMESPACE + "\">");
+		if (!numberFormats.isEmpty())
+		{
+			writer.write("<numFmts count=\"" + numberFormats.size() + "\">");
+			for (final Map.Entry<String, Integer> numberFormat : numberFormats.entrySet())
+			{
+				writer.write("<numFmt numFmtId=\"" + numberFormat.getValue() + "\" formatCode=\"");
+				XmlEscaper.escape(numberFormat.getKey(), writer);
+				writer.write("\"/>");
+			}
+			writer.write("</numFmts>");
+		}
+		writer.write("<fonts count=\"" + (fonts.size() + 1) + "\">");
+		writer.write("<font><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>");
+		for (final XlsxCellStyle font : fonts.keySet())
+		{
+			writer.write("<font>");
+			if (font.bold())
+			{
+				writer.write("<b/>");
+			}
+			writer.write("<sz val=\""
+				+ (font.fontHeightInPoints() == 0 ? 11 : font.fontHeightInPoints()) + "\"/>");
+			writer.write("<name val=\"");
+			XmlEscaper.escape(font.fontName() == null ? "Calibri" : font.fontName(), writer);
+			writer.write("\"/></font>");
+		}
+		writer.write("</fonts>");
+		writer.write("<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+			+ "<fill><patternFill patternType=\"gray125\"/></fill></fills>");
+		writer.write("<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/>"
+			+ "</border></borders>");
+		writer.write("<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\""
+			+ " borderId=\"0\"/></cellStyleXfs>");
+		writer.write("<cellXfs count=\"" + cellStyles.size() + "\">");
+		for (int i = 0; i < cellStyles.size(); i++)
+		{
+			writer.write("<xf numFmtId=\"" + numberFormatIds[i] + "\" fontId=\"" + fontIds[i]
+				+ "\" fillId=\"0\" borderId=\"0\" xfId=\"0\"");
+			if (numberFormatIds[i] != 0)
+			{
+				writer.write(" applyNumberFormat=\"1\"");
+			}
+			if (fontIds[i] != 0)
+			{
+				writer.write(" applyFont=\"1\"");
+			}
+			writer.write("/>");
+		}
+		writer.write("</cellXfs>");
+		writer.write("<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\""
+			+ " builtinId=\"0\"/></cellStyles>");
+		writer.write("</styleSheet>");
+	}
+}
@@ -0,0 +1,479 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link ConcurrentXlsxWriter} writes a xlsx file with several sheets where the xml of
+ * every sheet is built on its own thread. Every sheet is written with its own row buffer into its
+ * own temporary file, the strings and styles of all sheets are collected in a shared thread-safe
+ * shared strings and styles table. When all sheets are finished the temporary files are assembled
+ * into the zip package and deleted. If a sheet fails the other sheets are cancelled and the
+ * temporary files are deleted only after all sheet writers have stopped
+ */
+public final class ConcurrentXlsxWriter
+{
+
+	private final ExecutorService executor;
+
+	private final Path temporaryDirectory;
+
+	private final WriteProfile profile;
+
+	private ConcurrentXlsxWriter(final Builder builder)
+	{
+		this.executor = builder.executor;
+		this.temporaryDirectory = builder.temporaryDirectory;
+		this.profile = builder.profile;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for {@link ConcurrentXlsxWriter} objects
+	 *
+	 * @return the new builder
+	 */
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
+	/**
+	 * Writes the given sheets to the given xlsx {@link File}
+	 *
+	 * @param file
+	 *            the target file
+	 * @param sheets
+	 *            the content of the sheets in workbook order
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or a sheet could not be produced
+	 * @throws IllegalArgumentException
+	 *             if two sheets have the same safe name, compared case-insensitive
+	 */
+	public void write(final File file, final List<SheetContent> sheets) throws IOException
+	{
+		write(file, sheets, ProgressTracker.NONE);
+	}
+
+	/**
+	 * Writes the given sheets to the given xlsx {@link File} and counts the written rows on the
+	 * given {@link ProgressTracker}
+	 *
+	 * @param file
+	 *            the target file
+	 * @param sheets
+	 *            the content of the sheets in workbook order
+	 * @param tracker
+	 *            the progress tracker
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or a sheet could not be produced
+	 */
+	void write(final File file, final List<SheetContent> sheets, final ProgressTracker tracker)
+		throws IOException
+	{
+		Check.get().notNull(file, "file");
+		try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file),
+			profile.getOutputBufferSize()))
+		{
+			write(outputStream, sheets, file.getPath(), tracker);
+		}
+	}
+
+	/**
+	 * Writes the given sheets as xlsx package to the given {@link OutputStream}. The stream is not
+	 * closed
+	 *
+	 * @param outputStream
+	 *            the target stream
+	 * @param sheets
+	 *            the content of the sheets in workbook order
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or a sheet could not be produced
+	 * @throws IllegalArgumentException
+	 *             if two sheets have the same safe name, compared case-insensitive
+	 */
+	public void write(final OutputStream outputStream, final List<SheetContent> sheets)
+		throws IOException
+	{
+		write(outputStream, sheets, "stream", ProgressTracker.NONE);
+	}
+
+	private void write(final OutputStream outputStream, final List<SheetContent> sheets,
+		final String target, final ProgressTracker tracker) throws IOException
+	{
+		Check.get().notNull(outputStream, "outputStream").notEmpty(sheets, "sheets");
+		final List<String> sheetNames = new ArrayList<>(sheets.size());
+		for (final SheetContent sheet : sheets)
+		{
+			sheetNames.add(sheet.getName());
+		}
+		XlsxPackageWriter.checkUniqueSheetNames(sheetNames);
+		tracker.setEstimatedTotalRows(estimateRows(sheets));
+		final OperationReporter reporter = OperationReporter
+			.start(WorkbookOperation.CONCURRENT_WRITE);
+		final WorkbookWrittenEvent event = new WorkbookWrittenEvent();
+		event.begin();
+		final ConcurrentSharedStrings sharedStrings = profile.isSharedStrings()
+			? new ConcurrentSharedStrings()
+			: null;
+		final ConcurrentStyles styles = new ConcurrentStyles();
+		final List<Path> sheetFiles = new ArrayList<>(sheets.size());
+		final List<SheetTask> tasks = new ArrayList<>(sheets.size());
+		final ExecutorService executorService = executor != null
+			? executor
+			: Executors.newFixedThreadPool(
+				Math.min(sheets.size(), Runtime.getRuntime().availableProcessors()));
+		try
+		{
+			for (final SheetContent sheet : sheets)
+			{
+				final Path sheetFile = temporaryDirectory == null
+					? Files.createTempFile("poi-worker-sheet", ".xml")
+					: Files.createTempFile(temporaryDirectory, "poi-worker-sheet", ".xml");
+				sheetFiles.add(sheetFile);
+				final SheetTask task = new SheetTask(
+					() -> writeSheet(sheet, sheetFile, sharedStrings, styles, tracker, reporter));
+				task.future = executorService.submit(task);
+				tasks.add(task);
+			}
+			awaitAll(tasks);
+			tracker.checkCancelled();
+			final long start = System.nanoTime();
+			final CountingOutputStream countingOutputStream = new CountingOutputStream(
+				outputStream);
+			assemble(countingOutputStream, sheetNames, sheetFiles, sharedStrings, styles);
+			reporter.phaseCompleted(WorkbookPhase.WRITE, System.nanoTime() - start);
+			reporter.bytesTransferred(0, countingOutputStream.getCount());
+			reporter.stylesCounted(styles.size());
+			if (event.shouldCommit())
+			{
+				event.target = target;
+				event.workbookType = ConcurrentXlsxWriter.class.getSimpleName();
+				event.sheets = sheets.size();
+				event.styles = styles.size();
+				event.bytes = countingOutputStream.getCount();
+				event.commit();
+			}
+		}
+		finally
+		{
+			for (final SheetTask task : tasks)
+			{
+				task.cancelAndAwait();
+			}
+			if (executor == null)
+			{
+				executorService.shutdownNow();
+			}
+			for (final Path sheetFile : sheetFiles)
+			{
+				Files.deleteIfExists(sheetFile);
+			}
+		}
+	}
+
+	private static long estimateRows(final List<SheetContent> sheets)
+	{
+		long estimatedRows = 0;
+		for (final SheetContent sheet : sheets)
+		{
+			if (sheet.getEstimatedRows() < 0)
+			{
+				return -1;
+			}
+			estimatedRows += sheet.getEstimatedRows() + (sheet.getHeaders().length == 0 ? 0 : 1);
+		}
+		return estimatedRows;
+	}
+
+	private Void writeSheet(final SheetContent sheet, final Path sheetFile,
+		final ConcurrentSharedStrings sharedStrings, final ConcurrentStyles styles,
+		final ProgressTracker tracker, final OperationReporter reporter) throws IOException
+	{
+		final long start = System.nanoTime();
+		final SheetXmlWriter sheetWriter;
+		try (Writer writer = new BufferedWriter(
+			new OutputStreamWriter(newTemporaryOutputStream(sheetFile), StandardCharsets.UTF_8),
+			profile.getRowBufferSize()))
+		{
+			sheetWriter = new SheetXmlWriter(writer, sheet.getName(), sharedStrings, styles,
+				tracker);
+			final String[] headers = sheet.getHeaders();
+			if (0 < headers.length)
+			{
+				sheetWriter.writeRow(XlsxCellStyle.HEADER, (Object[])headers);
+			}
+			sheet.getProducer().produce(sheetWriter);
+			sheetWriter.finish();
+		}
+		reporter.phaseCompleted(WorkbookPhase.CONVERT, System.nanoTime() - start);
+		reporter.sheetCompleted(sheet.getName(), sheetWriter.getRowCount(),
+			sheetWriter.getCellCount());
+		return null;
+	}
+
+	private OutputStream newTemporaryOutputStream(final Path sheetFile) throws IOException
+	{
+		final OutputStream outputStream = Files.newOutputStream(sheetFile);
+		return profile.isCompressTempFiles()
+			? new GZIPOutputStream(outputStream, profile.getOutputBufferSize())
+			: outputStream;
+	}
+
+	private InputStream newTemporaryInputStream(final Path sheetFile) throws IOException
+	{
+		final InputStream inputStream = Files.newInputStream(sheetFile);
+		return profile.isCompressTempFiles()
+			? new GZIPInputStream(inputStream, profile.getOutputBufferSize())
+			: inputStream;
+	}
+
+	private static void awaitAll(final List<SheetTask> tasks) throws IOException
+	{
+		try
+		{
+			for (final SheetTask task : tasks)
+			{
+				task.future.get();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the sheet writers");
+		}
+		catch (ExecutionException e)
+		{
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException ioException)
+			{
+				throw ioException;
+			}
+			if (cause instanceof CancellationException cancellationException)
+			{
+				throw cancellationException;
+			}
+			throw new IOException("A sheet could not be written", cause);
+		}
+	}
+
+	private void assemble(final OutputStream outputStream, final List<String> sheetNames,
+		final List<Path> sheetFiles, final ConcurrentSharedStrings sharedStrings,
+		final ConcurrentStyles styles) throws IOException
+	{
+		final ZipOutputStream zip = new ZipOutputStream(outputStream);
+		zip.setLevel(profile.getCompressionLevel());
+		XlsxPackageWriter.writeWorkbookParts(zip, sheetNames, sharedStrings != null);
+		zip.putNextEntry(new ZipEntry("xl/styles.xml"));
+		final Writer stylesWriter = XlsxPackageWriter.entryWriter(zip);
+		styles.write(stylesWriter);
+		stylesWriter.flush();
+		zip.closeEntry();
+		if (sharedStrings != null)
+		{
+			zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+			final Writer sharedStringsWriter = XlsxPackageWriter.entryWriter(zip);
+			sharedStrings.write(sharedStringsWriter);
+			sharedStringsWriter.flush();
+			zip.closeEntry();
+		}
+		for (int i = 0; i < sheetFiles.size(); i++)
+		{
+			zip.putNextEntry(new ZipEntry(XlsxPackageWriter.sheetEntryName(i)));
+			try (InputStream inputStream = newTemporaryInputStream(sheetFiles.get(i)))
+			{
+				inputStream.transferTo(zip);
+			}
+			zip.closeEntry();
+		}
+		zip.finish();
+	}
+
+	/**
+	 * The class {@link SheetTask} writes one sheet and tracks if the writer has stopped. A cancelled
+	 * {@link Future} completes at once even if its task is still running, so the temporary file of
+	 * the sheet may only be deleted after {@link #cancelAndAwait()} returned
+	 */
+	private static final class SheetTask implements Callable<Void>
+	{
+		private final Callable<Void> body;
+
+		private final AtomicBoolean started = new AtomicBoolean();
+
+		private final CountDownLatch finished = new CountDownLatch(1);
+
+		private Future<Void> future;
+
+		private SheetTask(final Callable<Void> body)
+		{
+			this.body = body;
+		}
+
+		@Override
+		public Void call() throws Exception
+		{
+			if (!started.compareAndSet(false, true))
+			{
+				return null;
+			}
+			try
+			{
+				return body.call();
+			}
+			finally
+			{
+				finished.countDown();
+			}
+		}
+
+		/**
+		 * Cancels the task if it is still running and waits until it has stopped. A task that has
+		 * not started yet is prevented from starting
+		 */
+		private void cancelAndAwait()
+		{
+			future.cancel(true);
+			if (started.compareAndSet(false, true))
+			{
+				return;
+			}
+			boolean interrupted = false;
+			while (true)
+			{
+				try
+				{
+					finished.await();
+					break;
+				}
+				catch (InterruptedException e)
+				{
+					interrupted = true;
+				}
+			}
+			if (interrupted)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * The class {@link Builder} creates {@link ConcurrentXlsxWriter} objects
+	 */
+	public static final class Builder
+	{
+		private ExecutorService executor;
+
+		private Path temporaryDirectory;
+
+		private WriteProfile profile = WriteProfile.DEFAULT;
+
+		private Builder()
+		{
+		}
+
+		/**
+		 * Sets the executor that writes the sheets. The executor is not shut down by the writer.
+		 * Default is a fixed thread pool with one thread per sheet up to the number of available
+		 * processors that is created for every write operation
+		 *
+		 * @param executor
+		 *            the executor
+		 * @return this builder
+		 */
+		public Builder executor(final ExecutorService executor)
+		{
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Sets the directory for the temporary sheet files. Default is the temporary directory of
+		 * the system
+		 *
+		 * @param temporaryDirectory
+		 *            the temporary directory
+		 * @return this builder
+		 */
+		public Builder temporaryDirectory(final Path temporaryDirectory)
+		{
+			this.temporaryDirectory = temporaryDirectory;
+			return this;
+		}
+
+		/**
+		 * Sets the write profile with the deflate level, the string storage, the compression of
+		 * the temporary sheet files and the buffer sizes. Default is {@link WriteProfile#DEFAULT}
+		 *
+		 * @param profile
+		 *            the write profile
+		 * @return this builder
+		 */
+		public Builder profile(final WriteProfile profile)
+		{
+			Check.get().notNull(profile, "profile");
+			this.profile = profile;
+			return this;
+		}
+
+		/**
+		 * Builds the {@link ConcurrentXlsxWriter} object
+		 *
+		 * @return the new {@link ConcurrentXlsxWriter} object
+		 */
+		public ConcurrentXlsxWriter build()
+		{
+			return new ConcurrentXlsxWriter(this);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The class {@link CountingOutputStream} counts the bytes that are written to the underlying
+ * {@link OutputStream}
+ */
+final class CountingOutputStream extends FilterOutputStream
+{
+
+	private long count;
+
+	/**
+	 * Creates a new {@link CountingOutputStream} over the given stream
+	 *
+	 * @param outputStream
+	 *            the underlying stream
+	 */
+	CountingOutputStream(final OutputStream outputStream)
+	{
+		super(outputStream);
+	}
+
+	@Override
+	public void write(final int b) throws IOException
+	{
+		out.write(b);
+		count++;
+	}
+
+	@Override
+	public void write(final byte[] bytes, final int offset, final int length) throws IOException
+	{
+		out.write(bytes, offset, length);
+		count += length;
+	}
+
+	/**
+	 * Gets the number of written bytes
+	 *
+	 * @return the number of written bytes
+	 */
+	long getCount()
+	{
+		return count;
+	}
+}
@@ -0,0 +1,71 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * The class {@link CsvFields} writes the fields of the CSV files after RFC 4180 that the
+ * {@link WorkbookProcessor#csvExport()} and the {@link ValidationReport} produce
+ */
+final class CsvFields
+{
+
+	/**
+	 * Private constructor to prevent instantiation
+	 */
+	private CsvFields()
+	{
+	}
+
+	/**
+	 * Writes the given value as a CSV field and quotes it if it contains a separator, a quote or
+	 * a line break
+	 *
+	 * @param value
+	 *            the value, null is written as an empty field
+	 * @param writer
+	 *            the target writer
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	static void writeCsvField(final String value, final Writer writer) throws IOException
+	{
+		if (value == null)
+		{
+			return;
+		}
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+			&& value.indexOf('\r') < 0)
+		{
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+}
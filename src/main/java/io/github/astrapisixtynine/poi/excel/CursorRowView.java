@@ -0,0 +1,131 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+/**
+ * The class {@link CursorRowView} is the {@link RowView} over the current row of a
+ * {@link SheetRowCursor}. The cells are decoded from their raw xml values on access
+ */
+final class CursorRowView implements RowView
+{
+
+	private final SheetRowCursor cursor;
+
+	private final CellFormatCache formats;
+
+	/**
+	 * Creates a new {@link CursorRowView} over the given cursor
+	 *
+	 * @param cursor
+	 *            the cursor
+	 * @param formats
+	 *            the format cache or null for the general format
+	 */
+	CursorRowView(final SheetRowCursor cursor, final CellFormatCache formats)
+	{
+		this.cursor = cursor;
+		this.formats = formats;
+	}
+
+	@Override
+	public int getRowIndex()
+	{
+		return cursor.getRowIndex();
+	}
+
+	@Override
+	public int getWidth()
+	{
+		return cursor.getWidth();
+	}
+
+	@Override
+	public CellType getCellType(final int position)
+	{
+		if (cursor.getWidth() <= position || cursor.getRawValue(position) == null)
+		{
+			return CellType.BLANK;
+		}
+		switch (cursor.getType(position))
+		{
+			case NUMBER :
+				return CellType.NUMERIC;
+			case BOOLEAN :
+				return CellType.BOOLEAN;
+			case ERROR :
+				return CellType.ERROR;
+			case BLANK :
+				return CellType.BLANK;
+			default :
+				return CellType.STRING;
+		}
+	}
+
+	@Override
+	public double getDouble(final int position)
+	{
+		switch (getCellType(position))
+		{
+			case NUMERIC :
+				return Double.parseDouble(cursor.getRawValue(position));
+			case BOOLEAN :
+				return getBoolean(position) ? 1 : 0;
+			default :
+				throw new IllegalStateException(
+					"The cell at position " + position + " is not numeric");
+		}
+	}
+
+	@Override
+	public boolean getBoolean(final int position)
+	{
+		final String rawValue;
+		switch (getCellType(position))
+		{
+			case BOOLEAN :
+				rawValue = cursor.getRawValue(position);
+				return "1".equals(rawValue) || "true".equals(rawValue);
+			case NUMERIC :
+				return Double.parseDouble(cursor.getRawValue(position)) != 0;
+			default :
+				throw new IllegalStateException(
+					"The cell at position " + position + " is not boolean");
+		}
+	}
+
+	@Override
+	public String getString(final int position)
+	{
+		return cursor.getWidth() <= position ? "" : cursor.getString(position, formats);
+	}
+
+	@Override
+	public String[] copy()
+	{
+		return cursor.toStringArray(formats);
+	}
+}
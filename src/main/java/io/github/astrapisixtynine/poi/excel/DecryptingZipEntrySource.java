@@ -0,0 +1,226 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.poi.openxml4j.util.ZipEntrySource;
+import org.apache.poi.poifs.crypt.Decryptor;
+import org.apache.poi.poifs.crypt.EncryptionInfo;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+
+/**
+ * The class {@link DecryptingZipEntrySource} is a {@link ZipEntrySource} over the encrypted
+ * package of a password protected OOXML file. The decrypted package is never stored: every entry
+ * is read from a new stream of {@link Decryptor#getDataStream(POIFSFileSystem)} that is decrypted
+ * and unzipped up to the entry. Only the entries up to {@link #CACHE_THRESHOLD} bytes, like the
+ * relationships, the workbook and the styles part, are kept decrypted in memory, so the large
+ * sheet parts are streamed straight from the encrypted file into the parser
+ */
+final class DecryptingZipEntrySource implements ZipEntrySource
+{
+
+	/**
+	 * The maximum size of an entry that is kept decrypted in memory
+	 */
+	static final int CACHE_THRESHOLD = 256 * 1024;
+
+	private final POIFSFileSystem fileSystem;
+
+	private final Decryptor decryptor;
+
+	private final Map<String, ZipArchiveEntry> entries = new LinkedHashMap<>();
+
+	private final Map<String, byte[]> cachedContents = new HashMap<>();
+
+	private boolean closed;
+
+	private DecryptingZipEntrySource(final POIFSFileSystem fileSystem, final Decryptor decryptor)
+	{
+		this.fileSystem = fileSystem;
+		this.decryptor = decryptor;
+	}
+
+	/**
+	 * Opens the encrypted package of the given file with the given password and scans its
+	 * entries in one decrypting pass
+	 *
+	 * @param file
+	 *            the encrypted OOXML file
+	 * @param password
+	 *            the password
+	 * @return the new {@link DecryptingZipEntrySource} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred, the file is not encrypted or the
+	 *             password is wrong
+	 */
+	static DecryptingZipEntrySource open(final File file, final String password)
+		throws IOException
+	{
+		final POIFSFileSystem fileSystem;
+		try
+		{
+			fileSystem = new POIFSFileSystem(file, true);
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new IOException("The file " + file + " is not an encrypted OOXML file", e);
+		}
+		try
+		{
+			final Decryptor decryptor = Decryptor.getInstance(new EncryptionInfo(fileSystem));
+			if (!decryptor.verifyPassword(password))
+			{
+				throw new IOException("The password of the file " + file + " is not valid");
+			}
+			final DecryptingZipEntrySource source = new DecryptingZipEntrySource(fileSystem,
+				decryptor);
+			source.scan();
+			return source;
+		}
+		catch (GeneralSecurityException e)
+		{
+			fileSystem.close();
+			throw new IOException(e);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			fileSystem.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public Enumeration<? extends ZipArchiveEntry> getEntries()
+	{
+		return Collections.enumeration(entries.values());
+	}
+
+	@Override
+	public ZipArchiveEntry getEntry(final String path)
+	{
+		return entries.get(path);
+	}
+
+	@Override
+	public InputStream getInputStream(final ZipArchiveEntry entry) throws IOException
+	{
+		final byte[] cachedContent = cachedContents.get(entry.getName());
+		if (cachedContent != null)
+		{
+			return new ByteArrayInputStream(cachedContent);
+		}
+		final ZipArchiveInputStream zip = newZipStream();
+		try
+		{
+			ZipArchiveEntry current;
+			while ((current = zip.getNextEntry()) != null)
+			{
+				if (current.getName().equals(entry.getName()))
+				{
+					return zip;
+				}
+			}
+		}
+		catch (IOException | RuntimeException e)
+		{
+			zip.close();
+			throw e;
+		}
+		zip.close();
+		throw new IOException("The entry " + entry.getName() + " does not exist");
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		closed = true;
+		cachedContents.clear();
+		fileSystem.close();
+	}
+
+	@Override
+	public boolean isClosed()
+	{
+		return closed;
+	}
+
+	/**
+	 * Reads all entries of the package once, records their sizes and keeps the small entries
+	 */
+	private void scan() throws IOException
+	{
+		try (ZipArchiveInputStream zip = newZipStream())
+		{
+			ZipArchiveEntry entry;
+			while ((entry = zip.getNextEntry()) != null)
+			{
+				final byte[] head = zip.readNBytes(CACHE_THRESHOLD + 1);
+				long size = head.length;
+				if (head.length <= CACHE_THRESHOLD)
+				{
+					cachedContents.put(entry.getName(), head);
+				}
+				else
+				{
+					size += zip.transferTo(OutputStream.nullOutputStream());
+				}
+				final ZipArchiveEntry scannedEntry = new ZipArchiveEntry(entry);
+				scannedEntry.setSize(size);
+				entries.put(entry.getName(), scannedEntry);
+			}
+		}
+	}
+
+	private ZipArchiveInputStream newZipStream() throws IOException
+	{
+		if (closed)
+		{
+			throw new IOException("The encrypted package is closed");
+		}
+		try
+		{
+			return new ZipArchiveInputStream(decryptor.copy().getDataStream(fileSystem),
+				StandardCharsets.UTF_8.name(), true, true);
+		}
+		catch (GeneralSecurityException e)
+		{
+			throw new IOException(e);
+		}
+	}
+}
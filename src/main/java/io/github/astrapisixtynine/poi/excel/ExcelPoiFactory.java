@@ -24,9 +24,20 @@
  */
 package io.github.astrapisixtynine.poi.excel;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -70,6 +81,7 @@ public final class ExcelPoiFactory
 	{
 		final CellStyle boldFontCellStyle = workbook.createCellStyle();
 		boldFontCellStyle.setFont(newFont(workbook, fontName, bold, height));
+		styleCreated(workbook, fontName + " " + height + (bold ? " bold" : ""));
 		return boldFontCellStyle;
 	}
 
@@ -87,9 +99,21 @@ public final class ExcelPoiFactory
 		final CellStyle dateCellStyle = workbook.createCellStyle();
 		dateCellStyle
 			.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat(dateFormat));
+		styleCreated(workbook, dateFormat);
 		return dateCellStyle;
 	}
 
+	private static void styleCreated(final Workbook workbook, final String style)
+	{
+		final StyleCreatedEvent event = new StyleCreatedEvent();
+		if (event.shouldCommit())
+		{
+			event.style = style;
+			event.styleCount = workbook.getNumCellStyles();
+			event.commit();
+		}
+	}
+
 	/**
 	 * Creates a new font from the given parameters.
 	 *
@@ -199,6 +223,21 @@ public final class ExcelPoiFactory
 		return writeWorkbook(new SXSSFWorkbook(), file);
 	}
 
+	/**
+	 * Creates a new SXSSFWorkbook that is configured from the given write profile. The row access
+	 * window, the compression of the temporary files, the string storage and the deflate level of
+	 * the profile are applied
+	 *
+	 * @param profile
+	 *            the write profile
+	 * @return the SXSSFWorkbook
+	 */
+	public static SXSSFWorkbook newSXSSFWorkbook(final WriteProfile profile)
+	{
+		Check.get().notNull(profile, "profile");
+		return new ProfiledSXSSFWorkbook(profile);
+	}
+
 	/**
 	 * Writes the given Workbook to the given file.
 	 *
@@ -213,10 +252,217 @@ public final class ExcelPoiFactory
 	public static Workbook writeWorkbook(final Workbook workbook, final File file)
 		throws IOException
 	{
-		final FileOutputStream fileOutputStream = new FileOutputStream(file);
-		workbook.write(fileOutputStream);
-		fileOutputStream.close();
+		return writeWorkbook(workbook, file, WriteProfile.DEFAULT);
+	}
+
+	/**
+	 * Writes the given Workbook to the given file with the given write profile.
+	 *
+	 * @param workbook
+	 *            the workbook
+	 * @param file
+	 *            the file
+	 * @param profile
+	 *            the write profile
+	 * @return the Workbook
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public static Workbook writeWorkbook(final Workbook workbook, final File file,
+		final WriteProfile profile) throws IOException
+	{
+		return writeWorkbook(workbook, file, profile, ProgressTracker.NONE);
+	}
+
+	/**
+	 * Writes the given Workbook to the given file with the given write profile. The rows of the
+	 * workbook are counted on the given progress tracker when the workbook is written, which is
+	 * checked for cancellation on every write to the file.
+	 *
+	 * @param workbook
+	 *            the workbook
+	 * @param file
+	 *            the file
+	 * @param profile
+	 *            the write profile
+	 * @param tracker
+	 *            the progress tracker
+	 * @return the Workbook
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	static Workbook writeWorkbook(final Workbook workbook, final File file,
+		final WriteProfile profile, final ProgressTracker tracker) throws IOException
+	{
+		Check.get().notNull(workbook, "workbook").notNull(file, "file");
+		long rows = 0;
+		for (final Sheet sheet : workbook)
+		{
+			rows += sheet.getLastRowNum() + 1;
+		}
+		tracker.setEstimatedTotalRows(rows);
+		try (OutputStream outputStream = tracker.cancellable(new FileOutputStream(file)))
+		{
+			writeWorkbook(workbook, outputStream, profile, file.getPath());
+		}
+		tracker.rowsProcessed(rows);
+		return workbook;
+	}
+
+	/**
+	 * Writes the given Workbook to the given channel with the given write profile. The channel is
+	 * not closed.
+	 *
+	 * @param workbook
+	 *            the workbook
+	 * @param channel
+	 *            the target channel
+	 * @param profile
+	 *            the write profile
+	 * @return the Workbook
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public static Workbook writeWorkbook(final Workbook workbook,
+		final WritableByteChannel channel, final WriteProfile profile) throws IOException
+	{
+		Check.get().notNull(channel, "channel");
+		return writeWorkbook(workbook, Channels.newOutputStream(channel), profile, "channel");
+	}
+
+	/**
+	 * Writes the given Workbook to a buffer that is acquired from the given pool. The caller
+	 * releases the returned buffer when its content has been consumed.
+	 *
+	 * @param workbook
+	 *            the workbook
+	 * @param pool
+	 *            the buffer pool
+	 * @param profile
+	 *            the write profile
+	 * @return the buffer with the written workbook
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public static WorkbookBufferPool.PooledBuffer writeWorkbook(final Workbook workbook,
+		final WorkbookBufferPool pool, final WriteProfile profile) throws IOException
+	{
+		Check.get().notNull(pool, "pool");
+		final WorkbookBufferPool.PooledBuffer buffer = pool.acquire();
+		try
+		{
+			writeWorkbook(workbook, buffer, profile, "pooled buffer");
+			return buffer;
+		}
+		catch (IOException | RuntimeException e)
+		{
+			buffer.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes the given Workbook to the given stream with the given write profile. The stream is
+	 * flushed but not closed
+	 * <p>
+	 * The deflate level of the profile applies to xlsx workbooks. A SXSSFWorkbook that was created
+	 * with {@link #newSXSSFWorkbook(WriteProfile)} deflates its package directly if it was created
+	 * with the same level, any other xlsx workbook is written to a temporary file first and its
+	 * package is deflated again with the level of the profile. The xls format is not compressed,
+	 * so HSSFWorkbook objects are always written unchanged
+	 *
+	 * @param workbook
+	 *            the workbook
+	 * @param outputStream
+	 *            the target stream
+	 * @param profile
+	 *            the write profile
+	 * @return the Workbook
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public static Workbook writeWorkbook(final Workbook workbook, final OutputStream outputStream,
+		final WriteProfile profile) throws IOException
+	{
+		return writeWorkbook(workbook, outputStream, profile, "stream");
+	}
+
+	private static Workbook writeWorkbook(final Workbook workbook,
+		final OutputStream outputStream, final WriteProfile profile, final String target)
+		throws IOException
+	{
+		Check.get().notNull(workbook, "workbook").notNull(outputStream, "outputStream")
+			.notNull(profile, "profile");
+		final WorkbookWrittenEvent event = new WorkbookWrittenEvent();
+		event.begin();
+		final OperationReporter reporter = OperationReporter
+			.start(WorkbookOperation.WRITE_WORKBOOK);
+		final long start = System.nanoTime();
+		final CountingOutputStream countingOutputStream = new CountingOutputStream(outputStream);
+		final BufferedOutputStream bufferedOutputStream = new BufferedOutputStream(
+			countingOutputStream, profile.getOutputBufferSize());
+		// a profiled workbook deflates with the level of its own profile, so it can only be
+		// written directly if that level is the requested one, even for the default level
+		final boolean direct = workbook instanceof ProfiledSXSSFWorkbook profiled
+			? profiled.getProfile().getCompressionLevel() == profile.getCompressionLevel()
+			: profile.isDefaultCompressionLevel() || workbook instanceof HSSFWorkbook;
+		if (direct)
+		{
+			workbook.write(bufferedOutputStream);
+		}
+		else
+		{
+			writeDeflated(workbook, bufferedOutputStream, profile);
+		}
+		bufferedOutputStream.flush();
+		reporter.phaseCompleted(WorkbookPhase.WRITE, System.nanoTime() - start);
+		reporter.bytesTransferred(0, countingOutputStream.getCount());
+		reporter.stylesCounted(workbook.getNumCellStyles());
+		if (event.shouldCommit())
+		{
+			event.target = target;
+			event.workbookType = workbook.getClass().getSimpleName();
+			event.sheets = workbook.getNumberOfSheets();
+			event.styles = workbook.getNumCellStyles();
+			event.bytes = countingOutputStream.getCount();
+			event.commit();
+		}
 		return workbook;
 	}
 
+	private static void writeDeflated(final Workbook workbook, final OutputStream outputStream,
+		final WriteProfile profile) throws IOException
+	{
+		final Path temporaryFile = Files.createTempFile("poi-worker-workbook", ".xlsx");
+		try
+		{
+			try (OutputStream temporaryOutputStream = new BufferedOutputStream(
+				Files.newOutputStream(temporaryFile), profile.getOutputBufferSize()))
+			{
+				workbook.write(temporaryOutputStream);
+			}
+			try (ZipFile zipFile = new ZipFile(temporaryFile.toFile()))
+			{
+				final ZipOutputStream zip = new ZipOutputStream(outputStream);
+				zip.setLevel(profile.getCompressionLevel());
+				final Enumeration<? extends ZipEntry> entries = zipFile.entries();
+				while (entries.hasMoreElements())
+				{
+					final ZipEntry entry = entries.nextElement();
+					zip.putNextEntry(new ZipEntry(entry.getName()));
+					try (InputStream inputStream = zipFile.getInputStream(entry))
+					{
+						inputStream.transferTo(zip);
+					}
+					zip.closeEntry();
+				}
+				zip.finish();
+			}
+		}
+		finally
+		{
+			Files.deleteIfExists(temporaryFile);
+		}
+	}
+
 }
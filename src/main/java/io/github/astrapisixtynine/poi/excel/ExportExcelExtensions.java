@@ -30,12 +30,14 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.poi.hssf.usermodel.HSSFCell;
 import org.apache.poi.hssf.usermodel.HSSFRow;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.usermodel.Cell;
@@ -44,6 +46,7 @@ import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.util.NumberToTextConverter;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
+import io.github.astrapi69.check.Check;
 
 /**
  * The class {@link ExportExcelExtensions} provides methods to export Excel sheets as {@link File}
@@ -77,6 +80,10 @@ public final class ExportExcelExtensions
 	public static void exportToExcel(File excelFile, String[] headers, String[][] content,
 		final String sheetName) throws IOException
 	{
+		final OperationReporter reporter = OperationReporter
+			.start(WorkbookOperation.EXPORT_TO_EXCEL);
+		long start = System.nanoTime();
+		long cells = headers.length;
 		Workbook workbook = new XSSFWorkbook();
 		Sheet sheet = ExcelPoiFactory.newSheet(workbook, sheetName);
 
@@ -97,19 +104,64 @@ public final class ExportExcelExtensions
 			{
 				row.createCell(j).setCellValue(content[i][j]);
 			}
+			cells += content[i].length;
 		}
 
 		// Auto-size all columns based on the headers length
 		for (int i = 0; i < headers.length; i++)
 		{
+			final AutoSizeEvent autoSizeEvent = new AutoSizeEvent();
+			autoSizeEvent.begin();
 			sheet.autoSizeColumn(i);
+			if (autoSizeEvent.shouldCommit())
+			{
+				autoSizeEvent.sheet = sheet.getSheetName();
+				autoSizeEvent.column = i;
+				autoSizeEvent.rows = content.length + 1;
+				autoSizeEvent.commit();
+			}
 		}
 
+		reporter.phaseCompleted(WorkbookPhase.CONVERT, System.nanoTime() - start);
+		reporter.sheetCompleted(sheet.getSheetName(), content.length + 1, cells);
+		reporter.stylesCounted(workbook.getNumCellStyles());
+
 		// Write the workbook to the file
+		final WorkbookWrittenEvent writtenEvent = new WorkbookWrittenEvent();
+		writtenEvent.begin();
+		start = System.nanoTime();
 		try (FileOutputStream fileOut = new FileOutputStream(excelFile))
 		{
 			workbook.write(fileOut);
 		}
+		if (writtenEvent.shouldCommit())
+		{
+			writtenEvent.target = excelFile.getPath();
+			writtenEvent.workbookType = workbook.getClass().getSimpleName();
+			writtenEvent.sheets = workbook.getNumberOfSheets();
+			writtenEvent.styles = workbook.getNumCellStyles();
+			writtenEvent.bytes = excelFile.length();
+			writtenEvent.commit();
+		}
+		reporter.phaseCompleted(WorkbookPhase.WRITE, System.nanoTime() - start);
+		reporter.bytesTransferred(0, excelFile.length());
+	}
+
+	/**
+	 * Exports the given sheets to an Excel file. Every sheet is built on its own thread with the
+	 * {@link ConcurrentXlsxWriter}
+	 *
+	 * @param excelFile
+	 *            the file to which the content should be written
+	 * @param sheets
+	 *            the content of the sheets in workbook order
+	 * @throws IOException
+	 *             if an I/O error occurs while writing the file
+	 */
+	public static void exportToExcel(final File excelFile, final List<SheetContent> sheets)
+		throws IOException
+	{
+		ConcurrentXlsxWriter.builder().build().write(excelFile, sheets);
 	}
 
 	/**
@@ -141,8 +193,24 @@ public final class ExportExcelExtensions
 	 * @param cell
 	 *            the cell
 	 * @return the cell value
+	 * @see CellFormatCache#getCellValue(Cell) for dates as java.time objects
 	 */
 	public static Object getCellValue(Cell cell)
+	{
+		return getCellValue(cell, null);
+	}
+
+	/**
+	 * Gets the cell value as an object from the given {@link Cell} object and resolves string
+	 * cells from the given {@link SharedStringCache}
+	 *
+	 * @param cell
+	 *            the cell
+	 * @param strings
+	 *            the shared string cache of the workbook of the cell or null
+	 * @return the cell value
+	 */
+	public static Object getCellValue(final Cell cell, final SharedStringCache strings)
 	{
 		Object result = null;
 		if (cell == null)
@@ -173,7 +241,7 @@ public final class ExportExcelExtensions
 		}
 		else if (CellType.STRING.equals(cellType))
 		{
-			result = cell.getRichStringCellValue().getString();
+			result = getString(cell, strings);
 		}
 		return result;
 	}
@@ -193,13 +261,24 @@ public final class ExportExcelExtensions
 	public static List<String[][]> exportWorkbook(final File excelSheet)
 		throws IOException, FileNotFoundException
 	{
+		final OperationReporter reporter = OperationReporter
+			.start(WorkbookOperation.EXPORT_WORKBOOK);
+		final WorkbookOpenEvent openEvent = new WorkbookOpenEvent();
+		openEvent.begin();
+		long start = System.nanoTime();
 		final POIFSFileSystem fs = new POIFSFileSystem(new FileInputStream(excelSheet));
 		final HSSFWorkbook wb = new HSSFWorkbook(fs);
+		reporter.phaseCompleted(WorkbookPhase.OPEN, System.nanoTime() - start);
+		reporter.bytesTransferred(excelSheet.length(), 0);
+		commitOpenEvent(openEvent, excelSheet, wb);
 
+		start = System.nanoTime();
 		final int numberOfSheets = wb.getNumberOfSheets();
 		final List<String[][]> sheetList = new ArrayList<>();
 		for (int sheetNumber = 0; sheetNumber < numberOfSheets; sheetNumber++)
 		{
+			final SheetParsedEvent parsedEvent = new SheetParsedEvent();
+			parsedEvent.begin();
 			HSSFSheet sheet = wb.getSheetAt(sheetNumber);
 			final int rows = sheet.getLastRowNum();
 			final int columns = sheet.getRow(0).getLastCellNum();
@@ -216,11 +295,35 @@ public final class ExportExcelExtensions
 				}
 			}
 			sheetList.add(excelSheetInTDArray);
+			reporter.sheetCompleted(sheet.getSheetName(), rows + 1, (rows + 1L) * columns);
+			commitParsedEvent(parsedEvent, excelSheet, sheet.getSheetName(), rows + 1,
+				(rows + 1L) * columns);
 		}
+		reporter.phaseCompleted(WorkbookPhase.CONVERT, System.nanoTime() - start);
 		wb.close();
 		return sheetList;
 	}
 
+	/**
+	 * Exports the given Excel sheet {@link File} and returns a two-dimensional array for every
+	 * sheet which holds the rows and columns that are selected from the given {@link ReadOptions}
+	 * object. The file can be a xls or a xlsx file, xlsx files are read with the
+	 * {@link XlsxStreamReader} without loading the workbook into memory
+	 *
+	 * @param excelSheet
+	 *            the Excel sheet {@link File}
+	 * @param options
+	 *            the read options
+	 * @return a two-dimensional array for every sheet which holds the selected rows and columns
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static List<String[][]> exportWorkbook(final File excelSheet,
+		final ReadOptions options) throws IOException
+	{
+		return toArrays(exportSelectedRows(excelSheet, options, ProgressTracker.NONE));
+	}
+
 	/**
 	 * Gets the cell value as a String from the given {@link Cell} object
 	 *
@@ -229,6 +332,21 @@ public final class ExportExcelExtensions
 	 * @return the cell value
 	 */
 	public static String getCellValueAsString(Cell cell)
+	{
+		return getCellValueAsString(cell, null);
+	}
+
+	/**
+	 * Gets the cell value as a String from the given {@link Cell} object and resolves string
+	 * cells from the given {@link SharedStringCache}
+	 *
+	 * @param cell
+	 *            the cell
+	 * @param strings
+	 *            the shared string cache of the workbook of the cell or null
+	 * @return the cell value
+	 */
+	public static String getCellValueAsString(final Cell cell, final SharedStringCache strings)
 	{
 		String result = null;
 		if (cell == null)
@@ -259,7 +377,7 @@ public final class ExportExcelExtensions
 		}
 		else if (CellType.STRING.equals(cellType))
 		{
-			result = cell.getRichStringCellValue().getString();
+			result = getString(cell, strings);
 		}
 		return result;
 	}
@@ -277,16 +395,341 @@ public final class ExportExcelExtensions
 	public static List<List<List<String>>> exportWorkbookAsStringList(final File excelSheet)
 		throws IOException
 	{
-		final HSSFWorkbook wb = ReadExcelExtensions.readHSSFWorkbook(excelSheet);
-		return convertToListofLists(wb);
+		final OperationReporter reporter = OperationReporter
+			.start(WorkbookOperation.EXPORT_WORKBOOK);
+		final WorkbookOpenEvent openEvent = new WorkbookOpenEvent();
+		openEvent.begin();
+		final long start = System.nanoTime();
+		final HSSFWorkbook wb = new HSSFWorkbook(
+			new POIFSFileSystem(new FileInputStream(excelSheet)));
+		reporter.phaseCompleted(WorkbookPhase.OPEN, System.nanoTime() - start);
+		reporter.bytesTransferred(excelSheet.length(), 0);
+		commitOpenEvent(openEvent, excelSheet, wb);
+		return convertToListofLists(wb, excelSheet, reporter);
+	}
+
+	/**
+	 * Exports the given Excel sheet {@link File} in a list of lists containing the sheets and lists
+	 * of the rows and columns that are selected from the given {@link ReadOptions} object. The file
+	 * can be a xls or a xlsx file, xlsx files are read with the {@link XlsxStreamReader} without
+	 * loading the workbook into memory
+	 *
+	 * @param excelSheet
+	 *            the Excel sheet {@link File}
+	 * @param options
+	 *            the read options
+	 * @return a list of lists containing the sheets and lists of the selected rows
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static List<List<List<String>>> exportWorkbookAsStringList(final File excelSheet,
+		final ReadOptions options) throws IOException
+	{
+		return toStringLists(exportSelectedRows(excelSheet, options, ProgressTracker.NONE));
+	}
+
+	/**
+	 * Converts the rows of every sheet to a two-dimensional array
+	 *
+	 * @param sheets
+	 *            the rows of every sheet
+	 * @return a two-dimensional array for every sheet
+	 */
+	static List<String[][]> toArrays(final List<List<String[]>> sheets)
+	{
+		final List<String[][]> sheetList = new ArrayList<>(sheets.size());
+		for (final List<String[]> rows : sheets)
+		{
+			sheetList.add(rows.toArray(new String[rows.size()][]));
+		}
+		return sheetList;
+	}
+
+	/**
+	 * Converts the rows of every sheet to a list of lists
+	 *
+	 * @param sheets
+	 *            the rows of every sheet
+	 * @return a list of lists containing the sheets and lists of the rows
+	 */
+	static List<List<List<String>>> toStringLists(final List<List<String[]>> sheets)
+	{
+		final List<List<List<String>>> sheetList = new ArrayList<>(sheets.size());
+		for (final List<String[]> rows : sheets)
+		{
+			final List<List<String>> excelSheetList = new ArrayList<>(rows.size());
+			for (final String[] row : rows)
+			{
+				excelSheetList.add(new ArrayList<>(Arrays.asList(row)));
+			}
+			sheetList.add(excelSheetList);
+		}
+		return sheetList;
+	}
+
+	/**
+	 * Iterates over the rows of the sheet with the given index of the given Excel sheet
+	 * {@link File} that are selected from the given {@link ReadOptions} object and passes them to
+	 * the given {@link RowViewHandler}. The file can be a xls or a xlsx file, xlsx files are read
+	 * with the {@link XlsxStreamReader} without loading the workbook into memory
+	 *
+	 * @param excelSheet
+	 *            the Excel sheet {@link File}
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param options
+	 *            the read options
+	 * @param handler
+	 *            the row view handler
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static void forEachRow(final File excelSheet, final int sheetIndex,
+		final ReadOptions options, final RowViewHandler handler) throws IOException
+	{
+		Check.get().notNull(excelSheet, "excelSheet");
+		if (FileMagic.valueOf(excelSheet) == FileMagic.OOXML)
+		{
+			try (XlsxStreamReader reader = XlsxStreamReader.open(excelSheet))
+			{
+				reader.forEachRow(sheetIndex, options, handler);
+			}
+			return;
+		}
+		try (HSSFWorkbook wb = new HSSFWorkbook(new POIFSFileSystem(excelSheet, true)))
+		{
+			forEachRow(wb.getSheetAt(sheetIndex), options, handler);
+		}
+	}
+
+	/**
+	 * Iterates over the rows of the given {@link Sheet} that are selected from the given
+	 * {@link ReadOptions} object and passes them to the given {@link RowViewHandler}. One
+	 * {@link RowView} is reused for every row, so no row array is allocated and only the accessed
+	 * cells are decoded
+	 *
+	 * @param sheet
+	 *            the sheet
+	 * @param options
+	 *            the read options
+	 * @param handler
+	 *            the row view handler
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static void forEachRow(final Sheet sheet, final ReadOptions options,
+		final RowViewHandler handler) throws IOException
+	{
+		Check.get().notNull(sheet, "sheet").notNull(options, "options").notNull(handler,
+			"handler");
+		ColumnProjection projection = ColumnProjection.ALL;
+		if (options.hasColumnSelection())
+		{
+			final String[] headerValues = options.hasColumnNames()
+				? getRowValues(sheet.getRow(options.getHeaderRowIndex()), ColumnProjection.ALL,
+					null)
+				: null;
+			projection = ColumnProjection.of(options, headerValues);
+		}
+		final Workbook workbook = sheet.getWorkbook();
+		final SheetRowView view = new SheetRowView(projection, SharedStringCache.of(workbook),
+			options.isFormattedValues() ? CellFormatCache.of(workbook) : null);
+		final int lastRow = Math.min(options.getLastRow(), sheet.getLastRowNum());
+		for (int i = options.getFirstRow(); i <= lastRow; i++)
+		{
+			final Row row = sheet.getRow(i);
+			if (row != null && options.isRowSelected(i))
+			{
+				view.moveTo(row);
+				handler.handle(view);
+			}
+		}
+	}
+
+	/**
+	 * Exports the rows and columns of every sheet of the given Excel sheet {@link File} that are
+	 * selected from the given {@link ReadOptions} object and counts the rows on the given
+	 * {@link ProgressTracker}
+	 *
+	 * @param excelSheet
+	 *            the Excel sheet {@link File}
+	 * @param options
+	 *            the read options
+	 * @param tracker
+	 *            the progress tracker
+	 * @return the selected rows of every sheet
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	static List<List<String[]>> exportSelectedRows(final File excelSheet,
+		final ReadOptions options, final ProgressTracker tracker) throws IOException
+	{
+		final List<List<String[]>> sheetList = new ArrayList<>();
+		if (FileMagic.valueOf(excelSheet) == FileMagic.OOXML)
+		{
+			try (XlsxStreamReader reader = XlsxStreamReader.open(excelSheet))
+			{
+				if (tracker != ProgressTracker.NONE)
+				{
+					long estimatedTotalRows = 0;
+					for (int sheetNumber = 0; sheetNumber < reader.getNumberOfSheets()
+						&& 0 <= estimatedTotalRows; sheetNumber++)
+					{
+						final long estimatedRows = reader.estimateRows(sheetNumber, options);
+						estimatedTotalRows = estimatedRows < 0
+							? -1
+							: estimatedTotalRows + estimatedRows;
+					}
+					tracker.setEstimatedTotalRows(estimatedTotalRows);
+				}
+				for (int sheetNumber = 0; sheetNumber < reader.getNumberOfSheets(); sheetNumber++)
+				{
+					final List<String[]> rows = new ArrayList<>();
+					reader.readSheet(sheetNumber, options, (rowIndex, values) -> rows.add(values),
+						tracker);
+					sheetList.add(rows);
+				}
+			}
+			return sheetList;
+		}
+		final OperationReporter reporter = OperationReporter
+			.start(WorkbookOperation.EXPORT_WORKBOOK);
+		final WorkbookOpenEvent openEvent = new WorkbookOpenEvent();
+		openEvent.begin();
+		long start = System.nanoTime();
+		try (HSSFWorkbook wb = new HSSFWorkbook(new POIFSFileSystem(excelSheet, true)))
+		{
+			reporter.phaseCompleted(WorkbookPhase.OPEN, System.nanoTime() - start);
+			reporter.bytesTransferred(excelSheet.length(), 0);
+			commitOpenEvent(openEvent, excelSheet, wb);
+			final CellFormatCache formats = options.isFormattedValues()
+				? CellFormatCache.of(wb)
+				: null;
+			long estimatedTotalRows = 0;
+			for (int sheetNumber = 0; sheetNumber < wb.getNumberOfSheets(); sheetNumber++)
+			{
+				final int lastRow = Math.min(options.getLastRow(),
+					wb.getSheetAt(sheetNumber).getLastRowNum());
+				estimatedTotalRows += Math.max(0, lastRow + 1 - options.getFirstRow());
+			}
+			tracker.setEstimatedTotalRows(estimatedTotalRows);
+			start = System.nanoTime();
+			for (int sheetNumber = 0; sheetNumber < wb.getNumberOfSheets(); sheetNumber++)
+			{
+				final SheetParsedEvent parsedEvent = new SheetParsedEvent();
+				parsedEvent.begin();
+				final Sheet sheet = wb.getSheetAt(sheetNumber);
+				final List<String[]> rows = readSelectedRows(sheet, options, formats, tracker);
+				sheetList.add(rows);
+				final long cells = countCells(rows);
+				reporter.sheetCompleted(sheet.getSheetName(), rows.size(), cells);
+				commitParsedEvent(parsedEvent, excelSheet, sheet.getSheetName(), rows.size(),
+					cells);
+			}
+			reporter.phaseCompleted(WorkbookPhase.CONVERT, System.nanoTime() - start);
+		}
+		return sheetList;
+	}
+
+	private static void commitOpenEvent(final WorkbookOpenEvent event, final File excelSheet,
+		final Workbook workbook)
+	{
+		if (event.shouldCommit())
+		{
+			event.file = excelSheet.getPath();
+			event.format = "xls";
+			event.fileSize = excelSheet.length();
+			event.sheets = workbook.getNumberOfSheets();
+			event.commit();
+		}
+	}
+
+	private static void commitParsedEvent(final SheetParsedEvent event, final File excelSheet,
+		final String sheetName, final long rows, final long cells)
+	{
+		if (event.shouldCommit())
+		{
+			event.file = excelSheet.getPath();
+			event.sheet = sheetName;
+			event.rows = rows;
+			event.cells = cells;
+			event.commit();
+		}
+	}
+
+	private static String getString(final Cell cell, final SharedStringCache strings)
+	{
+		return strings == null
+			? cell.getRichStringCellValue().getString()
+			: strings.getString(cell);
+	}
+
+	private static long countCells(final List<String[]> rows)
+	{
+		long cells = 0;
+		for (final String[] row : rows)
+		{
+			cells += row.length;
+		}
+		return cells;
+	}
+
+	private static List<String[]> readSelectedRows(final Sheet sheet, final ReadOptions options,
+		final CellFormatCache formats, final ProgressTracker tracker)
+	{
+		final List<String[]> rows = new ArrayList<>();
+		ColumnProjection projection = ColumnProjection.ALL;
+		if (options.hasColumnSelection())
+		{
+			final String[] headerValues = options.hasColumnNames()
+				? getRowValues(sheet.getRow(options.getHeaderRowIndex()), ColumnProjection.ALL,
+					null)
+				: null;
+			projection = ColumnProjection.of(options, headerValues);
+		}
+		final int lastRow = Math.min(options.getLastRow(), sheet.getLastRowNum());
+		for (int i = options.getFirstRow(); i <= lastRow; i++)
+		{
+			tracker.checkCancelled();
+			final Row row = sheet.getRow(i);
+			if (row != null && options.isRowSelected(i))
+			{
+				rows.add(getRowValues(row, projection, formats));
+				tracker.rowProcessed();
+			}
+		}
+		return rows;
+	}
+
+	private static String[] getRowValues(final Row row, final ColumnProjection projection,
+		final CellFormatCache formats)
+	{
+		if (row == null)
+		{
+			return null;
+		}
+		final int width = projection.isAll() ? Math.max(row.getLastCellNum(), 0) : projection.width();
+		final String[] values = new String[width];
+		for (int position = 0; position < width; position++)
+		{
+			final Cell cell = row.getCell(projection.columnAt(position));
+			values[position] = formats == null
+				? getCellValueAsString(cell)
+				: formats.formatCellValue(cell);
+		}
+		return values;
 	}
 
-	private static List<List<List<String>>> convertToListofLists(HSSFWorkbook wb) throws IOException
+	private static List<List<List<String>>> convertToListofLists(HSSFWorkbook wb,
+		final File excelSheet, final OperationReporter reporter) throws IOException
 	{
+		final long start = System.nanoTime();
 		final int numberOfSheets = wb.getNumberOfSheets();
 		final List<List<List<String>>> sl = new ArrayList<>();
 		for (int sheetNumber = 0; sheetNumber < numberOfSheets; sheetNumber++)
 		{
+			final SheetParsedEvent parsedEvent = new SheetParsedEvent();
+			parsedEvent.begin();
 			HSSFSheet sheet = wb.getSheetAt(sheetNumber);
 			final int rows = sheet.getLastRowNum();
 			final int columns = sheet.getRow(0).getLastCellNum();
@@ -305,7 +748,12 @@ public final class ExportExcelExtensions
 				}
 			}
 			sl.add(excelSheetList);
+			reporter.sheetCompleted(sheet.getSheetName(), excelSheetList.size(),
+				(long)excelSheetList.size() * columns);
+			commitParsedEvent(parsedEvent, excelSheet, sheet.getSheetName(),
+				excelSheetList.size(), (long)excelSheetList.size() * columns);
 		}
+		reporter.phaseCompleted(WorkbookPhase.CONVERT, System.nanoTime() - start);
 		wb.close();
 		return sl;
 	}
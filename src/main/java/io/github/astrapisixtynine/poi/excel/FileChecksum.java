@@ -0,0 +1,72 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.zip.CRC32C;
+
+/**
+ * The class {@link FileChecksum} computes the checksums that are used for detect if a derived file
+ * like an index is stale against its source workbook
+ */
+final class FileChecksum
+{
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Private constructor to prevent instantiation
+	 */
+	private FileChecksum()
+	{
+	}
+
+	/**
+	 * Computes the CRC32C checksum of the content of the given {@link File}
+	 *
+	 * @param file
+	 *            the file
+	 * @return the checksum
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	static long of(final File file) throws IOException
+	{
+		final CRC32C crc = new CRC32C();
+		final byte[] buffer = new byte[BUFFER_SIZE];
+		try (InputStream inputStream = Files.newInputStream(file.toPath()))
+		{
+			int read;
+			while ((read = inputStream.read(buffer)) != -1)
+			{
+				crc.update(buffer, 0, read);
+			}
+		}
+		return crc.getValue();
+	}
+}
@@ -0,0 +1,61 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+/**
+ * The enum {@link FormatCategory} classifies the data format of a cell style by the kind of value
+ * that a numeric cell with this style displays
+ */
+public enum FormatCategory
+{
+
+	/** A date format without a time part like <code>yyyy-mm-dd</code> */
+	DATE,
+
+	/** A format with a date and a time part like <code>yyyy-mm-dd hh:mm:ss</code> */
+	DATE_TIME,
+
+	/** A time format without a date part like <code>hh:mm</code> */
+	TIME,
+
+	/** A percent format like <code>0.00%</code> */
+	PERCENT,
+
+	/** The general format or any other number format */
+	NUMBER,
+
+	/** The text format <code>@</code> */
+	TEXT;
+
+	/**
+	 * Checks if numeric cells with this format are dates or times
+	 *
+	 * @return true if this is a date, date time or time format otherwise false
+	 */
+	public boolean isDate()
+	{
+		return this == DATE || this == DATE_TIME || this == TIME;
+	}
+}
@@ -0,0 +1,238 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The class {@link HeavyHitters} finds the most frequent values of a stream in a fixed amount of
+ * memory with the space saving algorithm. It keeps a counter for at most <code>capacity</code>
+ * values. A value without a counter takes over the counter with the lowest count when all counters
+ * are in use and inherits its count as overestimation error, so every value that occurs more than
+ * <code>n / capacity</code> times in a stream of <code>n</code> values is guaranteed to have a
+ * counter.
+ * <p>
+ * The counters are ordered in a binary min heap, so both an increment and a takeover cost
+ * <code>O(log capacity)</code>. Two sketches are merged by adding the counts of the same value
+ * and keeping the <code>capacity</code> highest counts
+ */
+final class HeavyHitters
+{
+
+	private final int capacity;
+
+	private final String[] values;
+
+	private final long[] counts;
+
+	private final long[] errors;
+
+	private final Map<String, Integer> slots;
+
+	private int size;
+
+	/**
+	 * Creates a new empty {@link HeavyHitters} sketch with the given capacity
+	 *
+	 * @param capacity
+	 *            the maximum number of counters
+	 */
+	HeavyHitters(final int capacity)
+	{
+		if (capacity < 1)
+		{
+			throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+		}
+		this.capacity = capacity;
+		this.values = new String[capacity];
+		this.counts = new long[capacity];
+		this.errors = new long[capacity];
+		this.slots = new HashMap<>(capacity * 2);
+	}
+
+	/**
+	 * Counts one occurrence of the given value
+	 *
+	 * @param value
+	 *            the value
+	 */
+	void add(final String value)
+	{
+		add(value, 1, 0);
+	}
+
+	/**
+	 * Merges the given sketch into this sketch. A value that has no counter in one of the sketches
+	 * is counted with the lowest count of that sketch if the sketch is full, because the value may
+	 * have been evicted there
+	 *
+	 * @param other
+	 *            the other sketch
+	 */
+	void merge(final HeavyHitters other)
+	{
+		final long minCount = isFull() ? counts[0] : 0;
+		final long otherMinCount = other.isFull() ? other.counts[0] : 0;
+		final Map<String, long[]> merged = new HashMap<>((size + other.size) * 2);
+		for (int slot = 0; slot < size; slot++)
+		{
+			merged.put(values[slot], new long[] { counts[slot] + otherMinCount,
+					errors[slot] + otherMinCount });
+		}
+		for (int slot = 0; slot < other.size; slot++)
+		{
+			final long[] counter = merged.get(other.values[slot]);
+			if (counter == null)
+			{
+				merged.put(other.values[slot], new long[] { other.counts[slot] + minCount,
+						other.errors[slot] + minCount });
+			}
+			else
+			{
+				counter[0] += other.counts[slot] - otherMinCount;
+				counter[1] += other.errors[slot] - otherMinCount;
+			}
+		}
+		final List<Map.Entry<String, long[]>> entries = new ArrayList<>(merged.entrySet());
+		entries.sort(Comparator.comparingLong(entry -> -entry.getValue()[0]));
+		slots.clear();
+		size = 0;
+		for (int i = 0; i < entries.size() && i < capacity; i++)
+		{
+			final long[] counter = entries.get(i).getValue();
+			add(entries.get(i).getKey(), counter[0], counter[1]);
+		}
+	}
+
+	/**
+	 * Gets the given number of values with the highest counts
+	 *
+	 * @param limit
+	 *            the maximum number of values
+	 * @return the values ordered by descending count
+	 */
+	List<TopValue> top(final int limit)
+	{
+		final Integer[] order = new Integer[size];
+		Arrays.setAll(order, slot -> slot);
+		Arrays.sort(order, Comparator.<Integer> comparingLong(slot -> -counts[slot])
+			.thenComparing(slot -> values[slot]));
+		final List<TopValue> top = new ArrayList<>(Math.min(limit, size));
+		for (int i = 0; i < order.length && i < limit; i++)
+		{
+			final int slot = order[i];
+			top.add(new TopValue(values[slot], counts[slot], errors[slot]));
+		}
+		return top;
+	}
+
+	private boolean isFull()
+	{
+		return size == capacity;
+	}
+
+	private void add(final String value, final long count, final long error)
+	{
+		final Integer slot = slots.get(value);
+		if (slot != null)
+		{
+			counts[slot] += count;
+			errors[slot] += error;
+			siftDown(slot);
+			return;
+		}
+		if (!isFull())
+		{
+			values[size] = value;
+			counts[size] = count;
+			errors[size] = error;
+			slots.put(value, size);
+			siftUp(size++);
+			return;
+		}
+		slots.remove(values[0]);
+		values[0] = value;
+		errors[0] = counts[0] + error;
+		counts[0] += count;
+		slots.put(value, 0);
+		siftDown(0);
+	}
+
+	private void siftUp(final int start)
+	{
+		int slot = start;
+		while (0 < slot)
+		{
+			final int parent = (slot - 1) >>> 1;
+			if (counts[parent] <= counts[slot])
+			{
+				return;
+			}
+			swap(slot, parent);
+			slot = parent;
+		}
+	}
+
+	private void siftDown(final int start)
+	{
+		int slot = start;
+		while (true)
+		{
+			final int left = 2 * slot + 1;
+			if (size <= left)
+			{
+				return;
+			}
+			final int right = left + 1;
+			final int child = right < size && counts[right] < counts[left] ? right : left;
+			if (counts[slot] <= counts[child])
+			{
+				return;
+			}
+			swap(slot, child);
+			slot = child;
+		}
+	}
+
+	private void swap(final int first, final int second)
+	{
+		final String value = values[first];
+		values[first] = values[second];
+		values[second] = value;
+		final long count = counts[first];
+		counts[first] = counts[second];
+		counts[second] = count;
+		final long error = errors[first];
+		errors[first] = errors[second];
+		errors[second] = error;
+		slots.put(values[first], first);
+		slots.put(values[second], second);
+	}
+}
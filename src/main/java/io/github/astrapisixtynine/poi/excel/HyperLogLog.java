@@ -0,0 +1,139 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+/**
+ * The class {@link HyperLogLog} estimates the number of distinct values of a stream in a fixed
+ * amount of memory. Every value is added as a 64 bit hash, the first bits of the hash select one
+ * of <code>2^precision</code> registers and the register keeps the maximum number of leading zeros
+ * of the remaining bits. The relative standard error of the estimate is about
+ * <code>1.04 / sqrt(2^precision)</code>, so the default precision of 14 needs 16 KB and is
+ * accurate to about one percent.
+ * <p>
+ * Two sketches with the same precision are merged by taking the maximum of every register, so
+ * the sketches of sheets or chunks that are profiled in parallel give the same estimate as a
+ * single sketch over all values
+ */
+final class HyperLogLog
+{
+
+	/**
+	 * The default precision
+	 */
+	static final int DEFAULT_PRECISION = 14;
+
+	private final int precision;
+
+	private final byte[] registers;
+
+	/**
+	 * Creates a new empty {@link HyperLogLog} with the given precision
+	 *
+	 * @param precision
+	 *            the number of hash bits that select the register, between 4 and 18
+	 */
+	HyperLogLog(final int precision)
+	{
+		if (precision < 4 || 18 < precision)
+		{
+			throw new IllegalArgumentException(
+				"Precision must be between 4 and 18: " + precision);
+		}
+		this.precision = precision;
+		this.registers = new byte[1 << precision];
+	}
+
+	/**
+	 * Adds the value with the given hash
+	 *
+	 * @param hash
+	 *            the 64 bit hash of the value
+	 */
+	void add(final long hash)
+	{
+		final int index = (int)(hash >>> (64 - precision));
+		final int rank = Long.numberOfLeadingZeros(hash << precision | 1L << precision - 1) + 1;
+		if (registers[index] < rank)
+		{
+			registers[index] = (byte)rank;
+		}
+	}
+
+	/**
+	 * Merges the given sketch into this sketch
+	 *
+	 * @param other
+	 *            the sketch with the same precision
+	 */
+	void merge(final HyperLogLog other)
+	{
+		if (other.precision != precision)
+		{
+			throw new IllegalArgumentException("Cannot merge a sketch with the precision "
+				+ other.precision + " into a sketch with the precision " + precision);
+		}
+		for (int i = 0; i < registers.length; i++)
+		{
+			if (registers[i] < other.registers[i])
+			{
+				registers[i] = other.registers[i];
+			}
+		}
+	}
+
+	/**
+	 * Estimates the number of distinct values that were added. Small cardinalities are estimated
+	 * from the number of empty registers, which is exact for a few values
+	 *
+	 * @return the estimated number of distinct values
+	 */
+	long estimate()
+	{
+		final int m = registers.length;
+		double sum = 0;
+		int emptyRegisters = 0;
+		for (final byte register : registers)
+		{
+			sum += Math.scalb(1.0, -register);
+			if (register == 0)
+			{
+				emptyRegisters++;
+			}
+		}
+		final double alpha = switch (m)
+		{
+			case 16 -> 0.673;
+			case 32 -> 0.697;
+			case 64 -> 0.709;
+			default -> 0.7213 / (1 + 1.079 / m);
+		};
+		final double estimate = alpha * m * m / sum;
+		if (estimate <= 2.5 * m && 0 < emptyRegisters)
+		{
+			return Math.round(m * Math.log((double)m / emptyRegisters));
+		}
+		return Math.round(estimate);
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link LoggingWorkbookListener} is a {@link WorkbookListener} that writes every
+ * reported measurement with its operation and operation id to a {@link Logger}. The platform
+ * logger is used, so the messages end up in the logging framework of the application without a
+ * dependency on a specific framework
+ */
+public final class LoggingWorkbookListener implements WorkbookListener
+{
+
+	private final Logger logger;
+
+	private final Level level;
+
+	/**
+	 * Creates a new {@link LoggingWorkbookListener} that logs with the level
+	 * {@link Level#DEBUG} to the logger with the name of this class
+	 */
+	public LoggingWorkbookListener()
+	{
+		this(System.getLogger(LoggingWorkbookListener.class.getName()), Level.DEBUG);
+	}
+
+	/**
+	 * Creates a new {@link LoggingWorkbookListener} that logs with the given level to the given
+	 * logger
+	 *
+	 * @param logger
+	 *            the logger
+	 * @param level
+	 *            the log level
+	 */
+	public LoggingWorkbookListener(final Logger logger, final Level level)
+	{
+		Check.get().notNull(logger, "logger").notNull(level, "level");
+		this.logger = logger;
+		this.level = level;
+	}
+
+	@Override
+	public void phaseCompleted(final WorkbookOperation operation, final long operationId,
+		final WorkbookPhase phase, final long durationNanos)
+	{
+		if (logger.isLoggable(level))
+		{
+			logger.log(level, "{0}#{1} {2} took {3} ms", operation, Long.toString(operationId),
+				phase, String.format("%.3f", durationNanos / 1_000_000.0));
+		}
+	}
+
+	@Override
+	public void sheetCompleted(final WorkbookOperation operation, final long operationId,
+		final String sheetName, final long rows, final long cells)
+	{
+		if (logger.isLoggable(level))
+		{
+			logger.log(level, "{0}#{1} sheet ''{2}'' with {3} rows and {4} cells", operation,
+				Long.toString(operationId), sheetName, Long.toString(rows), Long.toString(cells));
+		}
+	}
+
+	@Override
+	public void bytesTransferred(final WorkbookOperation operation, final long operationId,
+		final long bytesIn, final long bytesOut)
+	{
+		if (logger.isLoggable(level))
+		{
+			logger.log(level, "{0}#{1} read {2} bytes and wrote {3} bytes", operation,
+				Long.toString(operationId), Long.toString(bytesIn), Long.toString(bytesOut));
+		}
+	}
+
+	@Override
+	public void stylesCounted(final WorkbookOperation operation, final long operationId,
+		final int styleCount)
+	{
+		if (logger.isLoggable(level))
+		{
+			logger.log(level, "{0}#{1} workbook with {2} cell styles", operation,
+				Long.toString(operationId), Integer.toString(styleCount));
+		}
+	}
+}
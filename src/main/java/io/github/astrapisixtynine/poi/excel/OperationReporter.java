@@ -0,0 +1,132 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+/**
+ * The class {@link OperationReporter} reports the events of one operation with its operation id
+ * to the listener that was bound when the operation started. The reporter is taken on the thread
+ * that starts the operation and handed to the worker threads of the operation
+ */
+final class OperationReporter
+{
+
+	/**
+	 * The reporter of the internal operations that report to no listener
+	 */
+	static final OperationReporter NONE = new OperationReporter(WorkbookOperation.STREAM_READ, 0,
+		new WorkbookListener()
+		{
+		});
+
+	private final WorkbookOperation operation;
+
+	private final long operationId;
+
+	private final WorkbookListener listener;
+
+	private OperationReporter(final WorkbookOperation operation, final long operationId,
+		final WorkbookListener listener)
+	{
+		this.operation = operation;
+		this.operationId = operationId;
+		this.listener = listener;
+	}
+
+	/**
+	 * Starts the given operation with a new operation id and the listeners that are bound to the
+	 * calling thread
+	 *
+	 * @param operation
+	 *            the operation
+	 * @return the new {@link OperationReporter} object
+	 */
+	static OperationReporter start(final WorkbookOperation operation)
+	{
+		return new OperationReporter(operation, WorkbookListeners.nextOperationId(),
+			WorkbookListeners.current());
+	}
+
+	/**
+	 * Gets the id of the operation
+	 *
+	 * @return the id of the operation
+	 */
+	long getOperationId()
+	{
+		return operationId;
+	}
+
+	/**
+	 * Reports a completed phase
+	 *
+	 * @param phase
+	 *            the completed phase
+	 * @param durationNanos
+	 *            the duration of the phase in nanoseconds
+	 */
+	void phaseCompleted(final WorkbookPhase phase, final long durationNanos)
+	{
+		listener.phaseCompleted(operation, operationId, phase, durationNanos);
+	}
+
+	/**
+	 * Reports a completed sheet
+	 *
+	 * @param sheetName
+	 *            the name of the sheet
+	 * @param rows
+	 *            the number of read or written rows
+	 * @param cells
+	 *            the number of read or written cells
+	 */
+	void sheetCompleted(final String sheetName, final long rows, final long cells)
+	{
+		listener.sheetCompleted(operation, operationId, sheetName, rows, cells);
+	}
+
+	/**
+	 * Reports the transferred bytes
+	 *
+	 * @param bytesIn
+	 *            the number of read bytes
+	 * @param bytesOut
+	 *            the number of written bytes
+	 */
+	void bytesTransferred(final long bytesIn, final long bytesOut)
+	{
+		listener.bytesTransferred(operation, operationId, bytesIn, bytesOut);
+	}
+
+	/**
+	 * Reports the number of cell styles
+	 *
+	 * @param styleCount
+	 *            the number of cell styles
+	 */
+	void stylesCounted(final int styleCount)
+	{
+		listener.stylesCounted(operation, operationId, styleCount);
+	}
+}
@@ -0,0 +1,218 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.streaming.SheetDataWriter;
+
+/**
+ * The class {@link ProfiledSXSSFWorkbook} is a {@link SXSSFWorkbook} that is configured from a
+ * {@link WriteProfile} and writes its zip package with the deflate level of the profile. A
+ * workbook of a {@link SXSSFSession} creates its temporary sheet files in the directory of the
+ * session and reserves their bytes from the {@link TempDiskBudget} of the session
+ */
+final class ProfiledSXSSFWorkbook extends SXSSFWorkbook
+{
+
+	private final WriteProfile profile;
+
+	private final SXSSFSession session;
+
+	private final AtomicLong tempBytes = new AtomicLong();
+
+	/**
+	 * Creates a new {@link ProfiledSXSSFWorkbook} from the given {@link WriteProfile}
+	 *
+	 * @param profile
+	 *            the write profile
+	 */
+	ProfiledSXSSFWorkbook(final WriteProfile profile)
+	{
+		this(profile, null);
+	}
+
+	/**
+	 * Creates a new {@link ProfiledSXSSFWorkbook} from the given {@link WriteProfile} that belongs
+	 * to the given {@link SXSSFSession}
+	 *
+	 * @param profile
+	 *            the write profile
+	 * @param session
+	 *            the session or null if the workbook does not belong to a session
+	 */
+	ProfiledSXSSFWorkbook(final WriteProfile profile, final SXSSFSession session)
+	{
+		super(null, profile.getRowAccessWindowSize(), profile.isCompressTempFiles(),
+			profile.isSharedStrings());
+		this.profile = profile;
+		this.session = session;
+	}
+
+	/**
+	 * Gets the write profile of this workbook
+	 *
+	 * @return the write profile
+	 */
+	WriteProfile getProfile()
+	{
+		return profile;
+	}
+
+	/**
+	 * Gets the number of bytes that were written to the temporary sheet files of this workbook
+	 *
+	 * @return the temporary bytes
+	 */
+	long getTempBytes()
+	{
+		return tempBytes.get();
+	}
+
+	@Override
+	protected ZipArchiveOutputStream createArchiveOutputStream(final OutputStream outputStream)
+	{
+		final ZipArchiveOutputStream zip = super.createArchiveOutputStream(outputStream);
+		zip.setLevel(profile.getCompressionLevel());
+		return zip;
+	}
+
+	@Override
+	protected SheetDataWriter createSheetDataWriter() throws IOException
+	{
+		if (session == null)
+		{
+			return super.createSheetDataWriter();
+		}
+		return new SessionSheetDataWriter();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			super.close();
+		}
+		finally
+		{
+			if (session != null)
+			{
+				session.workbookClosed(this, tempBytes.getAndSet(0));
+			}
+		}
+	}
+
+	/**
+	 * The sheet data writer of a workbook of a session. The constructor of the super class creates
+	 * the temporary file, so the state of the session is read from the enclosing workbook
+	 */
+	private final class SessionSheetDataWriter extends SheetDataWriter
+	{
+
+		private SessionSheetDataWriter() throws IOException
+		{
+			super(getSharedStringSource());
+		}
+
+		/**
+		 * Creates the temporary file in the directory of the session. POI deprecates this hook
+		 * without a replacement for file backed sheets, the constructor that takes a
+		 * {@link java.io.Writer} has no temporary file to read the sheet back from and the
+		 * {@link org.apache.poi.util.TempFile} strategy is global for the whole process
+		 */
+		@Override
+		@SuppressWarnings("deprecation")
+		public File createTempFile() throws IOException
+		{
+			return Files.createTempFile(session.getDirectory(), "poi-sxssf-sheet",
+				profile.isCompressTempFiles() ? ".xml.gz" : ".xml").toFile();
+		}
+
+		@Override
+		protected OutputStream decorateOutputStream(final FileOutputStream fileOutputStream)
+			throws IOException
+		{
+			final OutputStream outputStream = new BudgetedOutputStream(fileOutputStream);
+			return profile.isCompressTempFiles()
+				? new GZIPOutputStream(outputStream)
+				: outputStream;
+		}
+
+		@Override
+		protected InputStream decorateInputStream(final FileInputStream fileInputStream)
+			throws IOException
+		{
+			return profile.isCompressTempFiles()
+				? new GZIPInputStream(fileInputStream)
+				: fileInputStream;
+		}
+	}
+
+	/**
+	 * An output stream that reserves the bytes of every write from the budget of the session
+	 */
+	private final class BudgetedOutputStream extends FilterOutputStream
+	{
+
+		private BudgetedOutputStream(final OutputStream outputStream)
+		{
+			super(outputStream);
+		}
+
+		@Override
+		public void write(final int value) throws IOException
+		{
+			reserve(1);
+			out.write(value);
+		}
+
+		@Override
+		public void write(final byte[] bytes, final int offset, final int length)
+			throws IOException
+		{
+			reserve(length);
+			out.write(bytes, offset, length);
+		}
+
+		private void reserve(final int length) throws IOException
+		{
+			session.getBudget().acquire(length);
+			tempBytes.addAndGet(length);
+		}
+	}
+}
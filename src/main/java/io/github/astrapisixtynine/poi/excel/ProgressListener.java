@@ -0,0 +1,46 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+/**
+ * The functional interface {@link ProgressListener} receives the progress of an asynchronous
+ * operation of {@link AsyncWorkbookOperations}. The listener is called from the thread that does
+ * the work, for the concurrent writer from several threads, so implementations must be
+ * thread-safe and return quickly
+ */
+@FunctionalInterface
+public interface ProgressListener
+{
+
+	/**
+	 * Called when the progress of the operation has changed
+	 *
+	 * @param processedRows
+	 *            the number of processed rows
+	 * @param estimatedTotalRows
+	 *            the estimated total number of rows or -1 if the total is unknown
+	 */
+	void progress(long processedRows, long estimatedTotalRows);
+}
@@ -0,0 +1,197 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The class {@link ProgressTracker} counts the processed rows of an operation, reports them to a
+ * {@link ProgressListener} and checks if the operation was cancelled. The read and write loops
+ * call it for every row, so a cancelled operation stops in the middle of a sheet. This class is
+ * thread-safe
+ */
+final class ProgressTracker
+{
+
+	/**
+	 * The number of processed rows between two progress reports
+	 */
+	static final int REPORT_INTERVAL = 1000;
+
+	/**
+	 * The tracker of the synchronous operations that neither reports nor can be cancelled
+	 */
+	static final ProgressTracker NONE = new ProgressTracker(null, null);
+
+	private final ProgressListener listener;
+
+	private final BooleanSupplier cancelled;
+
+	private final AtomicLong processedRows = new AtomicLong();
+
+	private volatile long estimatedTotalRows = -1;
+
+	/**
+	 * Creates a new {@link ProgressTracker}
+	 *
+	 * @param listener
+	 *            the progress listener or null for no progress reports
+	 * @param cancelled
+	 *            the supplier that returns true if the operation was cancelled or null if the
+	 *            operation cannot be cancelled
+	 */
+	ProgressTracker(final ProgressListener listener, final BooleanSupplier cancelled)
+	{
+		this.listener = listener;
+		this.cancelled = cancelled;
+	}
+
+	/**
+	 * Sets the estimated total number of rows
+	 *
+	 * @param estimatedTotalRows
+	 *            the estimated total number of rows or -1 if the total is unknown
+	 */
+	void setEstimatedTotalRows(final long estimatedTotalRows)
+	{
+		this.estimatedTotalRows = estimatedTotalRows;
+	}
+
+	/**
+	 * Checks if the operation was cancelled
+	 *
+	 * @throws CancellationException
+	 *             if the operation was cancelled
+	 */
+	void checkCancelled()
+	{
+		if (cancelled != null && cancelled.getAsBoolean())
+		{
+			throw new CancellationException("The workbook operation was cancelled");
+		}
+	}
+
+	/**
+	 * Counts a processed row, reports the progress after every {@link #REPORT_INTERVAL} rows and
+	 * checks if the operation was cancelled
+	 *
+	 * @throws CancellationException
+	 *             if the operation was cancelled
+	 */
+	void rowProcessed()
+	{
+		if (this == NONE)
+		{
+			return;
+		}
+		checkCancelled();
+		final long processed = processedRows.incrementAndGet();
+		if (listener != null && processed % REPORT_INTERVAL == 0)
+		{
+			listener.progress(processed, estimatedTotalRows);
+		}
+	}
+
+	/**
+	 * Counts the given number of processed rows at once and reports the progress. This is used by
+	 * operations that cannot count single rows
+	 *
+	 * @param rows
+	 *            the number of processed rows
+	 */
+	void rowsProcessed(final long rows)
+	{
+		if (this == NONE)
+		{
+			return;
+		}
+		final long processed = processedRows.addAndGet(rows);
+		if (listener != null)
+		{
+			listener.progress(processed, estimatedTotalRows);
+		}
+	}
+
+	/**
+	 * Creates a new {@link OutputStream} over the given stream that checks on every write if the
+	 * operation was cancelled
+	 *
+	 * @param outputStream
+	 *            the underlying stream
+	 * @return the new stream or the given stream if this tracker cannot be cancelled
+	 */
+	OutputStream cancellable(final OutputStream outputStream)
+	{
+		if (cancelled == null)
+		{
+			return outputStream;
+		}
+		return new FilterOutputStream(outputStream)
+		{
+			@Override
+			public void write(final int b) throws IOException
+			{
+				checkCancelled();
+				out.write(b);
+			}
+
+			@Override
+			public void write(final byte[] bytes, final int offset, final int length)
+				throws IOException
+			{
+				checkCancelled();
+				out.write(bytes, offset, length);
+			}
+		};
+	}
+
+	/**
+	 * Gets the number of processed rows
+	 *
+	 * @return the number of processed rows
+	 */
+	long getProcessedRows()
+	{
+		return processedRows.get();
+	}
+
+	/**
+	 * Reports the final progress, the estimated total is corrected to the number of processed
+	 * rows
+	 */
+	void finish()
+	{
+		if (listener != null)
+		{
+			final long processed = processedRows.get();
+			listener.progress(processed, processed);
+		}
+	}
+}
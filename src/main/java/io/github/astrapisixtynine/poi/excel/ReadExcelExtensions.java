@@ -57,8 +57,12 @@ public final class ReadExcelExtensions
 	 */
 	public static XSSFWorkbook readXSSFWorkbook(File workbookFile) throws IOException
 	{
+		final WorkbookOpenEvent event = new WorkbookOpenEvent();
+		event.begin();
+		final long start = System.nanoTime();
 		FileInputStream inputStream = new FileInputStream(workbookFile);
 		XSSFWorkbook workbook = new XSSFWorkbook(inputStream);
+		opened(workbookFile, start, event, "xlsx", workbook.getNumberOfSheets());
 		return workbook;
 	}
 
@@ -73,8 +77,28 @@ public final class ReadExcelExtensions
 	 */
 	public static HSSFWorkbook readHSSFWorkbook(File workbookFile) throws IOException
 	{
+		final WorkbookOpenEvent event = new WorkbookOpenEvent();
+		event.begin();
+		final long start = System.nanoTime();
 		FileInputStream inputStream = new FileInputStream(workbookFile);
 		HSSFWorkbook workbook = new HSSFWorkbook(inputStream);
+		opened(workbookFile, start, event, "xls", workbook.getNumberOfSheets());
 		return workbook;
 	}
+
+	private static void opened(final File workbookFile, final long start,
+		final WorkbookOpenEvent event, final String format, final int sheets)
+	{
+		final OperationReporter reporter = OperationReporter.start(WorkbookOperation.READ_WORKBOOK);
+		reporter.phaseCompleted(WorkbookPhase.OPEN, System.nanoTime() - start);
+		reporter.bytesTransferred(workbookFile.length(), 0);
+		if (event.shouldCommit())
+		{
+			event.file = workbookFile.getPath();
+			event.format = format;
+			event.fileSize = workbookFile.length();
+			event.sheets = sheets;
+			event.commit();
+		}
+	}
 }
@@ -0,0 +1,394 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * The class {@link ReadOptions} holds the selection of columns and rows that a read operation
+ * should return. Columns can be selected by their zero based index or by the name in the header
+ * row, rows can be selected by a zero based range and an optional predicate on the row index.
+ * <p>
+ * Unselected cells are skipped by the readers before their values are decoded, and the streaming
+ * reader stops parsing a sheet as soon as the last selected row has been passed
+ */
+public final class ReadOptions
+{
+
+	/**
+	 * The options that select all columns and all rows
+	 */
+	public static final ReadOptions ALL = builder().build();
+
+	private final int[] columnIndexes;
+
+	private final String[] columnNames;
+
+	private final int headerRowIndex;
+
+	private final int firstRow;
+
+	private final int lastRow;
+
+	private final IntPredicate rowFilter;
+
+	private final boolean formattedValues;
+
+	private ReadOptions(final Builder builder)
+	{
+		this.columnIndexes = builder.columnIndexes;
+		this.columnNames = builder.columnNames;
+		this.headerRowIndex = builder.headerRowIndex;
+		this.firstRow = builder.firstRow;
+		this.lastRow = builder.lastRow;
+		this.rowFilter = builder.rowFilter;
+		this.formattedValues = builder.formattedValues;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for {@link ReadOptions} objects
+	 *
+	 * @return the new builder
+	 */
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
+	/**
+	 * Gets the selected column indexes
+	 *
+	 * @return a copy of the selected column indexes or an empty array if no column was selected
+	 *         by index
+	 */
+	public int[] getColumnIndexes()
+	{
+		return columnIndexes == null ? new int[0] : columnIndexes.clone();
+	}
+
+	/**
+	 * Gets the selected column names
+	 *
+	 * @return a copy of the selected column names or an empty array if no column was selected by
+	 *         name
+	 */
+	public String[] getColumnNames()
+	{
+		return columnNames == null ? new String[0] : columnNames.clone();
+	}
+
+	/**
+	 * Gets the zero based index of the header row that is used for resolve the column names
+	 *
+	 * @return the header row index
+	 */
+	public int getHeaderRowIndex()
+	{
+		return headerRowIndex;
+	}
+
+	/**
+	 * Gets the zero based index of the first row that will be read
+	 *
+	 * @return the first row index
+	 */
+	public int getFirstRow()
+	{
+		return firstRow;
+	}
+
+	/**
+	 * Gets the zero based and inclusive index of the last row that will be read
+	 *
+	 * @return the last row index
+	 */
+	public int getLastRow()
+	{
+		return lastRow;
+	}
+
+	/**
+	 * Checks if columns are selected by index or by name
+	 *
+	 * @return true if columns are selected otherwise false
+	 */
+	public boolean hasColumnSelection()
+	{
+		return columnIndexes != null || columnNames != null;
+	}
+
+	/**
+	 * Checks if columns are selected by the name in the header row
+	 *
+	 * @return true if columns are selected by name otherwise false
+	 */
+	public boolean hasColumnNames()
+	{
+		return columnNames != null;
+	}
+
+	/**
+	 * Checks if numeric cells are read as display strings of their data format
+	 *
+	 * @return true if numeric cells are formatted otherwise false
+	 */
+	public boolean isFormattedValues()
+	{
+		return formattedValues;
+	}
+
+	/**
+	 * Checks if the row with the given index is selected
+	 *
+	 * @param rowIndex
+	 *            the zero based row index
+	 * @return true if the row is selected otherwise false
+	 */
+	public boolean isRowSelected(final int rowIndex)
+	{
+		return firstRow <= rowIndex && rowIndex <= lastRow
+			&& (rowFilter == null || rowFilter.test(rowIndex));
+	}
+
+	/**
+	 * Checks if the row with the given index comes after the last selected row
+	 *
+	 * @param rowIndex
+	 *            the zero based row index
+	 * @return true if no row at or after the given index can be selected otherwise false
+	 */
+	public boolean isAfterLastRow(final int rowIndex)
+	{
+		return lastRow < rowIndex;
+	}
+
+	/**
+	 * Resolves the selected columns to their zero based indexes in the order they were selected.
+	 * Columns selected by index come first, followed by the columns selected by name
+	 *
+	 * @param headerValues
+	 *            the values of the header row, may be null if no column was selected by name
+	 * @return the resolved column indexes or null if no column was selected
+	 * @throws IllegalArgumentException
+	 *             if a selected column name does not exist in the header row or a column is
+	 *             selected twice
+	 */
+	int[] resolveColumns(final String[] headerValues)
+	{
+		if (!hasColumnSelection())
+		{
+			return null;
+		}
+		final int indexCount = columnIndexes == null ? 0 : columnIndexes.length;
+		final int nameCount = columnNames == null ? 0 : columnNames.length;
+		final int[] resolved = new int[indexCount + nameCount];
+		if (columnIndexes != null)
+		{
+			System.arraycopy(columnIndexes, 0, resolved, 0, indexCount);
+		}
+		for (int i = 0; i < nameCount; i++)
+		{
+			resolved[indexCount + i] = indexOfHeader(headerValues, columnNames[i]);
+		}
+		for (int i = 0; i < resolved.length; i++)
+		{
+			for (int j = i + 1; j < resolved.length; j++)
+			{
+				if (resolved[i] == resolved[j])
+				{
+					throw new IllegalArgumentException(
+						"The column with index " + resolved[i] + " is selected more than once");
+				}
+			}
+		}
+		return resolved;
+	}
+
+	private static int indexOfHeader(final String[] headerValues, final String columnName)
+	{
+		if (headerValues != null)
+		{
+			for (int i = 0; i < headerValues.length; i++)
+			{
+				if (columnName.equals(headerValues[i]))
+				{
+					return i;
+				}
+			}
+		}
+		throw new IllegalArgumentException(
+			"The column with the header name '" + columnName + "' does not exist");
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ReadOptions{" + "columnIndexes=" + Arrays.toString(columnIndexes)
+			+ ", columnNames=" + Arrays.toString(columnNames) + ", headerRowIndex="
+			+ headerRowIndex + ", firstRow=" + firstRow + ", lastRow=" + lastRow + ", rowFilter="
+			+ rowFilter + ", formattedValues=" + formattedValues + '}';
+	}
+
+	/**
+	 * The class {@link Builder} creates {@link ReadOptions} objects
+	 */
+	public static final class Builder
+	{
+		private int[] columnIndexes;
+
+		private String[] columnNames;
+
+		private int headerRowIndex;
+
+		private int firstRow;
+
+		private int lastRow = Integer.MAX_VALUE;
+
+		private IntPredicate rowFilter;
+
+		private boolean formattedValues;
+
+		private Builder()
+		{
+		}
+
+		/**
+		 * Selects the columns with the given zero based indexes
+		 *
+		 * @param columnIndexes
+		 *            the column indexes
+		 * @return this builder
+		 */
+		public Builder columns(final int... columnIndexes)
+		{
+			for (final int columnIndex : columnIndexes)
+			{
+				if (columnIndex < 0)
+				{
+					throw new IllegalArgumentException(
+						"Column index must not be negative: " + columnIndex);
+				}
+			}
+			this.columnIndexes = columnIndexes.clone();
+			return this;
+		}
+
+		/**
+		 * Selects the columns with the given names in the header row
+		 *
+		 * @param columnNames
+		 *            the column names
+		 * @return this builder
+		 */
+		public Builder columnNames(final String... columnNames)
+		{
+			this.columnNames = columnNames.clone();
+			return this;
+		}
+
+		/**
+		 * Sets the zero based index of the header row that is used for resolve the column names.
+		 * Default is the first row
+		 *
+		 * @param headerRowIndex
+		 *            the header row index
+		 * @return this builder
+		 */
+		public Builder headerRowIndex(final int headerRowIndex)
+		{
+			this.headerRowIndex = headerRowIndex;
+			return this;
+		}
+
+		/**
+		 * Selects the rows between the given zero based indexes
+		 *
+		 * @param firstRow
+		 *            the index of the first row
+		 * @param lastRow
+		 *            the inclusive index of the last row
+		 * @return this builder
+		 */
+		public Builder rows(final int firstRow, final int lastRow)
+		{
+			this.firstRow = firstRow;
+			this.lastRow = lastRow;
+			return this;
+		}
+
+		/**
+		 * Sets the predicate on the zero based row index that a row must satisfy to be read. The
+		 * predicate is evaluated before any cell of the row is decoded
+		 *
+		 * @param rowFilter
+		 *            the row filter
+		 * @return this builder
+		 */
+		public Builder rowFilter(final IntPredicate rowFilter)
+		{
+			this.rowFilter = rowFilter;
+			return this;
+		}
+
+		/**
+		 * Sets the flag if numeric cells are read as display strings of their data format, so
+		 * dates are read like <code>2024-01-31</code> instead of the date serial number. The data
+		 * format of every cell style is classified only once per read operation. Default is false
+		 *
+		 * @param formattedValues
+		 *            the flag if numeric cells are formatted
+		 * @return this builder
+		 */
+		public Builder formattedValues(final boolean formattedValues)
+		{
+			this.formattedValues = formattedValues;
+			return this;
+		}
+
+		/**
+		 * Builds the {@link ReadOptions} object
+		 *
+		 * @return the new {@link ReadOptions} object
+		 * @throws IllegalArgumentException
+		 *             if the row range is invalid or the header row comes after the first row
+		 *             while columns are selected by name
+		 */
+		public ReadOptions build()
+		{
+			if (firstRow < 0 || lastRow < firstRow)
+			{
+				throw new IllegalArgumentException(
+					"Invalid row range from " + firstRow + " to " + lastRow);
+			}
+			if (columnNames != null && (headerRowIndex < 0 || firstRow < headerRowIndex))
+			{
+				throw new IllegalArgumentException("The header row " + headerRowIndex
+					+ " must not come after the first row " + firstRow);
+			}
+			return new ReadOptions(this);
+		}
+	}
+}
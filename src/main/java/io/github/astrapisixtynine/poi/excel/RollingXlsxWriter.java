@@ -0,0 +1,446 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.util.WorkbookUtil;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link RollingXlsxWriter} streams rows into xlsx files and starts a new sheet when a
+ * sheet reaches the row threshold, and a new file when a file reaches the sheet or the byte
+ * threshold. The header row is repeated on every sheet and all files share one styles table, so a
+ * style keeps its index across the parts.
+ * <p>
+ * The xml of a sheet is written straight into the zip entry of the sheet and the strings are
+ * written inline, so the memory stays constant regardless of the number of rows. The first file
+ * has the name of the base file, the following files get the suffix <code>-2</code>,
+ * <code>-3</code> and so on in front of the extension. The sheets of a file are named like the
+ * base sheet name with the suffix <code> (2)</code>, <code> (3)</code> and so on across all files
+ */
+public final class RollingXlsxWriter implements SheetRowWriter, Closeable
+{
+
+	/**
+	 * The maximum number of rows of a sheet in a xlsx file
+	 */
+	public static final int MAX_XLSX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+	/**
+	 * The maximum number of rows of a sheet in a xls file
+	 */
+	public static final int MAX_XLS_ROWS = SpreadsheetVersion.EXCEL97.getMaxRows();
+
+	private static final int MAX_SHEET_NAME_LENGTH = 31;
+
+	private final File baseFile;
+
+	private final String sheetName;
+
+	private final String[] headers;
+
+	private final int maxRowsPerSheet;
+
+	private final int maxSheetsPerFile;
+
+	private final long maxBytesPerFile;
+
+	private final WriteProfile profile;
+
+	private final ConcurrentStyles styles = new ConcurrentStyles();
+
+	private final List<RolloverPart> parts = new ArrayList<>();
+
+	private final List<String> fileSheetNames = new ArrayList<>();
+
+	private File currentFile;
+
+	private CountingOutputStream countingOutputStream;
+
+	private ZipOutputStream zip;
+
+	private SheetXmlWriter sheetXmlWriter;
+
+	private int fileCount;
+
+	private int sheetRows;
+
+	private long dataRows;
+
+	private boolean closed;
+
+	private RollingXlsxWriter(final Builder builder)
+	{
+		this.baseFile = builder.baseFile;
+		this.sheetName = builder.sheetName;
+		this.headers = builder.headers;
+		this.maxRowsPerSheet = builder.maxRowsPerSheet;
+		this.maxSheetsPerFile = builder.maxSheetsPerFile;
+		this.maxBytesPerFile = builder.maxBytesPerFile;
+		this.profile = builder.profile;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for {@link RollingXlsxWriter} objects that write to the given
+	 * base {@link File} and its rollover files
+	 *
+	 * @param baseFile
+	 *            the first target file
+	 * @return the new builder
+	 */
+	public static Builder builder(final File baseFile)
+	{
+		Check.get().notNull(baseFile, "baseFile");
+		return new Builder(baseFile);
+	}
+
+	/**
+	 * Gets the file of the part with the given number, the first part is the base file
+	 *
+	 * @param baseFile
+	 *            the base file
+	 * @param fileNumber
+	 *            the one based number of the file
+	 * @return the file of the part
+	 */
+	public static File getPartFile(final File baseFile, final int fileNumber)
+	{
+		if (fileNumber == 1)
+		{
+			return baseFile;
+		}
+		final String name = baseFile.getName();
+		final int dot = name.lastIndexOf('.');
+		final String partName = dot < 1
+			? name + "-" + fileNumber
+			: name.substring(0, dot) + "-" + fileNumber + name.substring(dot);
+		return new File(baseFile.getParentFile(), partName);
+	}
+
+	@Override
+	public void writeRow(final Object... values) throws IOException
+	{
+		writeRow(null, values);
+	}
+
+	@Override
+	public void writeRow(final XlsxCellStyle style, final Object... values) throws IOException
+	{
+		if (closed)
+		{
+			throw new IOException("The writer is closed");
+		}
+		if (zip == null)
+		{
+			startFile();
+		}
+		else if (0 < maxBytesPerFile && maxBytesPerFile <= countingOutputStream.getCount())
+		{
+			finishFile();
+			startFile();
+		}
+		else if (sheetRows == maxRowsPerSheet)
+		{
+			if (fileSheetNames.size() == maxSheetsPerFile)
+			{
+				finishFile();
+				startFile();
+			}
+			else
+			{
+				finishSheet();
+				startSheet();
+			}
+		}
+		sheetXmlWriter.writeRow(style, values);
+		sheetRows++;
+		dataRows++;
+	}
+
+	/**
+	 * Gets the sheets that were written so far. The current sheet is reported once it is finished
+	 *
+	 * @return the written parts in their order
+	 */
+	public List<RolloverPart> getParts()
+	{
+		return List.copyOf(parts);
+	}
+
+	/**
+	 * Finishes the current sheet and file. If no row was written a single file with the header
+	 * row is created
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (closed)
+		{
+			return;
+		}
+		closed = true;
+		if (zip == null)
+		{
+			startFile();
+		}
+		finishFile();
+	}
+
+	private void startFile() throws IOException
+	{
+		fileCount++;
+		currentFile = getPartFile(baseFile, fileCount);
+		countingOutputStream = new CountingOutputStream(new BufferedOutputStream(
+			new FileOutputStream(currentFile), profile.getOutputBufferSize()));
+		zip = new ZipOutputStream(countingOutputStream);
+		zip.setLevel(profile.getCompressionLevel());
+		fileSheetNames.clear();
+		startSheet();
+	}
+
+	private void startSheet() throws IOException
+	{
+		final int sheetIndex = fileSheetNames.size();
+		final int sheetNumber = parts.size() + 1;
+		fileSheetNames.add(sheetNameOf(sheetNumber));
+		zip.putNextEntry(new ZipEntry(XlsxPackageWriter.sheetEntryName(sheetIndex)));
+		final Writer sheetWriter = new BufferedWriter(XlsxPackageWriter.entryWriter(zip),
+			profile.getRowBufferSize());
+		sheetXmlWriter = new SheetXmlWriter(sheetWriter, fileSheetNames.get(sheetIndex), null,
+			styles, ProgressTracker.NONE);
+		sheetRows = 0;
+		dataRows = 0;
+		if (0 < headers.length)
+		{
+			sheetXmlWriter.writeRow(XlsxCellStyle.HEADER, (Object[])headers);
+			sheetRows++;
+		}
+	}
+
+	private String sheetNameOf(final int sheetNumber)
+	{
+		if (sheetNumber == 1)
+		{
+			return sheetName;
+		}
+		final String suffix = " (" + sheetNumber + ")";
+		return sheetName.substring(0,
+			Math.min(sheetName.length(), MAX_SHEET_NAME_LENGTH - suffix.length())) + suffix;
+	}
+
+	private void finishSheet() throws IOException
+	{
+		sheetXmlWriter.finish();
+		zip.closeEntry();
+		parts.add(new RolloverPart(currentFile, fileSheetNames.size() - 1,
+			fileSheetNames.get(fileSheetNames.size() - 1), dataRows));
+	}
+
+	private void finishFile() throws IOException
+	{
+		try
+		{
+			finishSheet();
+			XlsxPackageWriter.writeWorkbookParts(zip, fileSheetNames, false);
+			zip.putNextEntry(new ZipEntry("xl/styles.xml"));
+			final Writer stylesWriter = XlsxPackageWriter.entryWriter(zip);
+			styles.write(stylesWriter);
+			stylesWriter.flush();
+			zip.closeEntry();
+			zip.finish();
+		}
+		finally
+		{
+			zip.close();
+			zip = null;
+		}
+	}
+
+	/**
+	 * The class {@link Builder} creates {@link RollingXlsxWriter} objects
+	 */
+	public static final class Builder
+	{
+		private final File baseFile;
+
+		private String sheetName = "Sheet";
+
+		private String[] headers = new String[0];
+
+		private int maxRowsPerSheet = MAX_XLSX_ROWS;
+
+		private int maxSheetsPerFile = Integer.MAX_VALUE;
+
+		private long maxBytesPerFile;
+
+		private WriteProfile profile = WriteProfile.DEFAULT;
+
+		private Builder(final File baseFile)
+		{
+			this.baseFile = baseFile;
+		}
+
+		/**
+		 * Sets the name of the first sheet, the following sheets get a numbered suffix. Default
+		 * is <code>Sheet</code>
+		 *
+		 * @param sheetName
+		 *            the sheet name
+		 * @return this builder
+		 * @throws IllegalArgumentException
+		 *             if the sheet name is longer than 31 characters, contains one of the
+		 *             characters <code>/\?*:[]</code> or starts or ends with an apostrophe
+		 */
+		public Builder sheetName(final String sheetName)
+		{
+			Check.get().notEmpty(sheetName, "sheetName");
+			WorkbookUtil.validateSheetName(sheetName);
+			this.sheetName = sheetName;
+			return this;
+		}
+
+		/**
+		 * Sets the header row that is written as the first row of every sheet. Default is no
+		 * header row
+		 *
+		 * @param headers
+		 *            the header values
+		 * @return this builder
+		 */
+		public Builder headers(final String... headers)
+		{
+			this.headers = headers.clone();
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of rows of a sheet including the header row. Default is
+		 * {@link #MAX_XLSX_ROWS}, use {@link #MAX_XLS_ROWS} for parts that are converted to xls
+		 * later
+		 *
+		 * @param maxRowsPerSheet
+		 *            the maximum number of rows of a sheet
+		 * @return this builder
+		 */
+		public Builder maxRowsPerSheet(final int maxRowsPerSheet)
+		{
+			if (maxRowsPerSheet < 1 || MAX_XLSX_ROWS < maxRowsPerSheet)
+			{
+				throw new IllegalArgumentException(
+					"Invalid maximum number of rows per sheet: " + maxRowsPerSheet);
+			}
+			this.maxRowsPerSheet = maxRowsPerSheet;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of sheets of a file. Default is no limit
+		 *
+		 * @param maxSheetsPerFile
+		 *            the maximum number of sheets of a file
+		 * @return this builder
+		 */
+		public Builder maxSheetsPerFile(final int maxSheetsPerFile)
+		{
+			if (maxSheetsPerFile < 1)
+			{
+				throw new IllegalArgumentException(
+					"Invalid maximum number of sheets per file: " + maxSheetsPerFile);
+			}
+			this.maxSheetsPerFile = maxSheetsPerFile;
+			return this;
+		}
+
+		/**
+		 * Sets the number of compressed bytes after which a new file is started. The threshold
+		 * is checked before every row against the bytes that left the deflater, so a file can
+		 * exceed it by the size of the deflater buffer and the closing parts. Default is 0 for no
+		 * limit
+		 *
+		 * @param maxBytesPerFile
+		 *            the byte threshold of a file
+		 * @return this builder
+		 */
+		public Builder maxBytesPerFile(final long maxBytesPerFile)
+		{
+			if (maxBytesPerFile < 0)
+			{
+				throw new IllegalArgumentException(
+					"Invalid maximum number of bytes per file: " + maxBytesPerFile);
+			}
+			this.maxBytesPerFile = maxBytesPerFile;
+			return this;
+		}
+
+		/**
+		 * Sets the write profile with the deflate level and the buffer sizes. The strings are
+		 * always written inline. Default is {@link WriteProfile#DEFAULT}
+		 *
+		 * @param profile
+		 *            the write profile
+		 * @return this builder
+		 */
+		public Builder profile(final WriteProfile profile)
+		{
+			Check.get().notNull(profile, "profile");
+			this.profile = profile;
+			return this;
+		}
+
+		/**
+		 * Builds the {@link RollingXlsxWriter} object. The first file is created with the first
+		 * row
+		 *
+		 * @return the new {@link RollingXlsxWriter} object
+		 * @throws IllegalArgumentException
+		 *             if the header row leaves no room for data rows in a sheet
+		 */
+		public RollingXlsxWriter build()
+		{
+			if (0 < headers.length && maxRowsPerSheet < 2)
+			{
+				throw new IllegalArgumentException(
+					"A sheet with a header row needs room for at least one data row");
+			}
+			return new RollingXlsxWriter(this);
+		}
+	}
+}
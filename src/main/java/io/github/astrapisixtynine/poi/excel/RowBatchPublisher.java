@@ -0,0 +1,405 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link RowBatchPublisher} is a {@link Flow.Publisher} that publishes the rows of a
+ * sheet of a xlsx file in batches. Every subscriber gets its own {@link XlsxStreamReader} that
+ * parses the sheet on a thread of the configured executor, by default on a new virtual thread.
+ * <p>
+ * The parser only runs ahead of the subscriber by one batch. When the subscriber has no
+ * outstanding demand the parsing thread waits until more batches are requested or the
+ * subscription is cancelled, so a slow subscriber never causes unbounded buffering. A cancelled
+ * subscription stops the parser at the next row and closes the reader
+ */
+public final class RowBatchPublisher implements Flow.Publisher<List<String[]>>
+{
+
+	/**
+	 * The default number of rows in a batch
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	private final File workbookFile;
+
+	private final int sheetIndex;
+
+	private final String sheetName;
+
+	private final ReadOptions options;
+
+	private final int batchSize;
+
+	private final Executor executor;
+
+	private RowBatchPublisher(final Builder builder)
+	{
+		this.workbookFile = builder.workbookFile;
+		this.sheetIndex = builder.sheetIndex;
+		this.sheetName = builder.sheetName;
+		this.options = builder.options;
+		this.batchSize = builder.batchSize;
+		this.executor = builder.executor;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for {@link RowBatchPublisher} objects that publish the rows of
+	 * the given xlsx file
+	 *
+	 * @param workbookFile
+	 *            the xlsx file
+	 * @return the new builder
+	 */
+	public static Builder builder(final File workbookFile)
+	{
+		Check.get().notNull(workbookFile, "workbookFile");
+		return new Builder(workbookFile);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void subscribe(final Flow.Subscriber<? super List<String[]>> subscriber)
+	{
+		Check.get().notNull(subscriber, "subscriber");
+		final RowBatchSubscription subscription = new RowBatchSubscription(subscriber);
+		subscriber.onSubscribe(subscription);
+		try
+		{
+			executor.execute(subscription);
+		}
+		catch (RejectedExecutionException e)
+		{
+			subscriber.onError(e);
+		}
+	}
+
+	/**
+	 * The class {@link RowBatchSubscription} parses the sheet for one subscriber and hands the
+	 * batches over as the subscriber requests them
+	 */
+	private final class RowBatchSubscription implements Flow.Subscription, Runnable
+	{
+		private final Flow.Subscriber<? super List<String[]>> subscriber;
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final Condition demandChanged = lock.newCondition();
+
+		private long demand;
+
+		private boolean cancelled;
+
+		private IllegalArgumentException invalidRequest;
+
+		private List<String[]> batch;
+
+		private RowBatchSubscription(final Flow.Subscriber<? super List<String[]>> subscriber)
+		{
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(final long n)
+		{
+			lock.lock();
+			try
+			{
+				if (n <= 0)
+				{
+					invalidRequest = new IllegalArgumentException(
+						"The number of requested batches must be positive: " + n);
+				}
+				else
+				{
+					demand = Long.MAX_VALUE - demand < n ? Long.MAX_VALUE : demand + n;
+				}
+				demandChanged.signalAll();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public void cancel()
+		{
+			lock.lock();
+			try
+			{
+				cancelled = true;
+				demandChanged.signalAll();
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		@Override
+		public void run()
+		{
+			final ProgressTracker tracker = new ProgressTracker(null, this::isCancelled);
+			batch = new ArrayList<>(batchSize);
+			try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+			{
+				reader.readSheet(resolveSheetIndex(reader), options, (rowIndex, values) -> {
+					batch.add(values);
+					if (batch.size() == batchSize)
+					{
+						publishBatch();
+					}
+				}, tracker);
+				if (!batch.isEmpty())
+				{
+					publishBatch();
+				}
+				lock.lock();
+				try
+				{
+					checkSubscription();
+				}
+				finally
+				{
+					lock.unlock();
+				}
+				subscriber.onComplete();
+			}
+			catch (CancellationException e)
+			{
+				// the subscriber cancelled the subscription and expects no further signal
+			}
+			catch (Exception e)
+			{
+				if (!isCancelled())
+				{
+					cancel();
+					subscriber.onError(e);
+				}
+			}
+		}
+
+		private int resolveSheetIndex(final XlsxStreamReader reader)
+		{
+			if (sheetName == null)
+			{
+				return sheetIndex;
+			}
+			final int index = reader.getSheetIndex(sheetName);
+			if (index < 0)
+			{
+				throw new IllegalArgumentException(
+					"The sheet with the name '" + sheetName + "' does not exist");
+			}
+			return index;
+		}
+
+		/**
+		 * Waits until the subscriber requested at least one batch, consumes it and hands the
+		 * current batch over to the subscriber. The parser is paused while this thread waits
+		 */
+		private void publishBatch()
+		{
+			lock.lock();
+			try
+			{
+				while (demand == 0 && !cancelled && invalidRequest == null)
+				{
+					demandChanged.await();
+				}
+				checkSubscription();
+				if (demand != Long.MAX_VALUE)
+				{
+					demand--;
+				}
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				cancelled = true;
+				throw new CancellationException("The publishing thread was interrupted");
+			}
+			finally
+			{
+				lock.unlock();
+			}
+			final List<String[]> rows = batch;
+			batch = new ArrayList<>(batchSize);
+			subscriber.onNext(rows);
+		}
+
+		private void checkSubscription()
+		{
+			if (invalidRequest != null)
+			{
+				throw invalidRequest;
+			}
+			if (cancelled)
+			{
+				throw new CancellationException("The subscription was cancelled");
+			}
+		}
+
+		private boolean isCancelled()
+		{
+			lock.lock();
+			try
+			{
+				return cancelled;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * The class {@link Builder} creates {@link RowBatchPublisher} objects
+	 */
+	public static final class Builder
+	{
+		private final File workbookFile;
+
+		private int sheetIndex;
+
+		private String sheetName;
+
+		private ReadOptions options = ReadOptions.ALL;
+
+		private int batchSize = DEFAULT_BATCH_SIZE;
+
+		private Executor executor = AsyncWorkbookOperations.VIRTUAL_THREAD_EXECUTOR;
+
+		private Builder(final File workbookFile)
+		{
+			this.workbookFile = workbookFile;
+		}
+
+		/**
+		 * Selects the sheet with the given zero based index. Default is the first sheet
+		 *
+		 * @param sheetIndex
+		 *            the sheet index
+		 * @return this builder
+		 */
+		public Builder sheet(final int sheetIndex)
+		{
+			if (sheetIndex < 0)
+			{
+				throw new IllegalArgumentException(
+					"Sheet index must not be negative: " + sheetIndex);
+			}
+			this.sheetIndex = sheetIndex;
+			this.sheetName = null;
+			return this;
+		}
+
+		/**
+		 * Selects the sheet with the given name
+		 *
+		 * @param sheetName
+		 *            the sheet name
+		 * @return this builder
+		 */
+		public Builder sheet(final String sheetName)
+		{
+			Check.get().notNull(sheetName, "sheetName");
+			this.sheetName = sheetName;
+			return this;
+		}
+
+		/**
+		 * Sets the read options that select the published columns and rows. Default are all
+		 * columns and rows
+		 *
+		 * @param options
+		 *            the read options
+		 * @return this builder
+		 */
+		public Builder options(final ReadOptions options)
+		{
+			Check.get().notNull(options, "options");
+			this.options = options;
+			return this;
+		}
+
+		/**
+		 * Sets the number of rows in a batch. Default is {@link #DEFAULT_BATCH_SIZE}
+		 *
+		 * @param batchSize
+		 *            the batch size
+		 * @return this builder
+		 */
+		public Builder batchSize(final int batchSize)
+		{
+			if (batchSize < 1)
+			{
+				throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+			}
+			this.batchSize = batchSize;
+			return this;
+		}
+
+		/**
+		 * Sets the executor that runs the parser of every subscriber. Default is a new virtual
+		 * thread per subscriber
+		 *
+		 * @param executor
+		 *            the executor
+		 * @return this builder
+		 */
+		public Builder executor(final Executor executor)
+		{
+			Check.get().notNull(executor, "executor");
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Builds the {@link RowBatchPublisher} object
+		 *
+		 * @return the new {@link RowBatchPublisher} object
+		 */
+		public RowBatchPublisher build()
+		{
+			return new RowBatchPublisher(this);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The flight recorder event {@link RowBatchWrittenEvent} covers the writing of a batch of rows of
+ * a sheet. The event is disabled by default and has to be enabled in the recording settings with
+ * its name
+ */
+@Name(RowBatchWrittenEvent.NAME)
+@Label("Row Batch Written")
+@Category({ "POI Worker", "Write" })
+@Description("Writing of a batch of rows of a sheet")
+@Enabled(false)
+@StackTrace(false)
+final class RowBatchWrittenEvent extends Event
+{
+
+	/**
+	 * The name of the event
+	 */
+	static final String NAME = "io.github.astrapisixtynine.poi.RowBatchWritten";
+
+	/**
+	 * The number of rows of a batch
+	 */
+	static final int BATCH_SIZE = 1000;
+
+	@Label("Sheet")
+	String sheet;
+
+	@Label("First Row")
+	@Description("The zero based index of the first row of the batch")
+	long firstRow;
+
+	@Label("Rows")
+	long rows;
+
+	@Label("Cells")
+	long cells;
+}
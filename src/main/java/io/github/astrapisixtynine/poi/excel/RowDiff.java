@@ -0,0 +1,50 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.util.List;
+
+/**
+ * The record {@link RowDiff} describes a row that differs between two workbooks
+ *
+ * @param type
+ *            the kind of difference
+ * @param sheetName
+ *            the name of the sheet
+ * @param oldRowIndex
+ *            the zero based row index in the old workbook or -1 if the row was added
+ * @param newRowIndex
+ *            the zero based row index in the new workbook or -1 if the row was removed
+ * @param oldValues
+ *            the values in the old workbook or null if the row was added
+ * @param newValues
+ *            the values in the new workbook or null if the row was removed
+ * @param cellChanges
+ *            the changed cells of a changed row, an empty list for added and removed rows
+ */
+public record RowDiff(DiffType type, String sheetName, int oldRowIndex, int newRowIndex,
+	String[] oldValues, String[] newValues, List<CellChange> cellChanges)
+{
+}
@@ -0,0 +1,334 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The class {@link RowHashTable} holds a 64 bit key hash and a 64 bit content hash for every row
+ * of a sheet in primitive arrays. The entries are kept in row order and are found by their key
+ * hash over an open addressing table with linear probing that holds the first entry of every
+ * distinct key hash. Rows with equal key hashes, like duplicate or blank keys, are chained in row
+ * order and a cursor per key hash skips the matched entries, so they are matched in row order in
+ * constant time per entry
+ */
+final class RowHashTable
+{
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private long[] keyHashes = new long[256];
+
+	private long[] rowHashes = new long[256];
+
+	private int[] rowIndexes = new int[256];
+
+	private int[] nextEntries = new int[256];
+
+	private int[] lastEntries = new int[256];
+
+	private int[] unmatchedEntries = new int[256];
+
+	private final BitSet matched = new BitSet();
+
+	private int size;
+
+	private int keyCount;
+
+	private int[] slots = new int[512];
+
+	/**
+	 * Adds the given row
+	 *
+	 * @param keyHash
+	 *            the hash of the key of the row
+	 * @param rowHash
+	 *            the hash of the content of the row
+	 * @param rowIndex
+	 *            the zero based row index
+	 */
+	void add(final long keyHash, final long rowHash, final int rowIndex)
+	{
+		if (size == keyHashes.length)
+		{
+			keyHashes = Arrays.copyOf(keyHashes, size * 2);
+			rowHashes = Arrays.copyOf(rowHashes, size * 2);
+			rowIndexes = Arrays.copyOf(rowIndexes, size * 2);
+			nextEntries = Arrays.copyOf(nextEntries, size * 2);
+			lastEntries = Arrays.copyOf(lastEntries, size * 2);
+			unmatchedEntries = Arrays.copyOf(unmatchedEntries, size * 2);
+		}
+		final int entry = size++;
+		keyHashes[entry] = keyHash;
+		rowHashes[entry] = rowHash;
+		rowIndexes[entry] = rowIndex;
+		nextEntries[entry] = -1;
+		final int first = findFirst(keyHash);
+		if (0 <= first)
+		{
+			nextEntries[lastEntries[first]] = entry;
+			lastEntries[first] = entry;
+			if (unmatchedEntries[first] < 0)
+			{
+				unmatchedEntries[first] = entry;
+			}
+			return;
+		}
+		lastEntries[entry] = entry;
+		unmatchedEntries[entry] = entry;
+		keyCount++;
+		if (slots.length < keyCount * 2)
+		{
+			rehash(slots.length * 2);
+		}
+		else
+		{
+			insertSlot(entry);
+		}
+	}
+
+	/**
+	 * Appends all entries of the given table. The entries of the given table must follow the
+	 * entries of this table in row order
+	 *
+	 * @param table
+	 *            the table
+	 */
+	void addAll(final RowHashTable table)
+	{
+		for (int entry = 0; entry < table.size; entry++)
+		{
+			add(table.keyHashes[entry], table.rowHashes[entry], table.rowIndexes[entry]);
+		}
+	}
+
+	/**
+	 * Finds the first entry with the given key hash that is not matched yet
+	 *
+	 * @param keyHash
+	 *            the key hash
+	 * @return the entry or -1 if no unmatched entry has the given key hash
+	 */
+	int findUnmatched(final long keyHash)
+	{
+		final int first = findFirst(keyHash);
+		if (first < 0)
+		{
+			return -1;
+		}
+		int entry = unmatchedEntries[first];
+		while (0 <= entry && matched.get(entry))
+		{
+			entry = nextEntries[entry];
+		}
+		unmatchedEntries[first] = entry;
+		return entry;
+	}
+
+	private int findFirst(final long keyHash)
+	{
+		final int mask = slots.length - 1;
+		for (int slot = (int)keyHash & mask; slots[slot] != 0; slot = (slot + 1) & mask)
+		{
+			final int entry = slots[slot] - 1;
+			if (keyHashes[entry] == keyHash)
+			{
+				return entry;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Marks the given entry as matched
+	 *
+	 * @param entry
+	 *            the entry
+	 */
+	void markMatched(final int entry)
+	{
+		matched.set(entry);
+	}
+
+	/**
+	 * Checks if the given entry is matched
+	 *
+	 * @param entry
+	 *            the entry
+	 * @return true if the entry is matched otherwise false
+	 */
+	boolean isMatched(final int entry)
+	{
+		return matched.get(entry);
+	}
+
+	/**
+	 * Gets the number of entries
+	 *
+	 * @return the number of entries
+	 */
+	int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Gets the key hash of the given entry
+	 *
+	 * @param entry
+	 *            the entry
+	 * @return the key hash
+	 */
+	long getKeyHash(final int entry)
+	{
+		return keyHashes[entry];
+	}
+
+	/**
+	 * Gets the content hash of the given entry
+	 *
+	 * @param entry
+	 *            the entry
+	 * @return the content hash
+	 */
+	long getRowHash(final int entry)
+	{
+		return rowHashes[entry];
+	}
+
+	/**
+	 * Gets the row index of the given entry
+	 *
+	 * @param entry
+	 *            the entry
+	 * @return the zero based row index
+	 */
+	int getRowIndex(final int entry)
+	{
+		return rowIndexes[entry];
+	}
+
+	/**
+	 * Computes a 64 bit hash of the given values. Trailing empty values are ignored, so a row
+	 * with trailing blank cells has the same hash as the row without them
+	 *
+	 * @param values
+	 *            the values of a row
+	 * @param columns
+	 *            the indexes of the values that are hashed or null for all values
+	 * @return the hash
+	 */
+	static long hash(final String[] values, final int[] columns)
+	{
+		long hash = FNV_OFFSET_BASIS;
+		final int count = columns == null ? values.length : columns.length;
+		int last = count - 1;
+		while (0 <= last && valueAt(values, columns, last).isEmpty())
+		{
+			last--;
+		}
+		for (int i = 0; i <= last; i++)
+		{
+			final String value = valueAt(values, columns, i);
+			for (int j = 0; j < value.length(); j++)
+			{
+				hash = (hash ^ value.charAt(j)) * FNV_PRIME;
+			}
+			hash = (hash ^ 0x1f) * FNV_PRIME;
+		}
+		return mix(hash);
+	}
+
+	/**
+	 * Computes a 64 bit hash of the given value
+	 *
+	 * @param value
+	 *            the value
+	 * @return the hash
+	 */
+	static long hash(final String value)
+	{
+		long hash = FNV_OFFSET_BASIS;
+		for (int i = 0; i < value.length(); i++)
+		{
+			hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+		}
+		return mix(hash);
+	}
+
+	/**
+	 * Computes a 64 bit hash of the given row index
+	 *
+	 * @param rowIndex
+	 *            the row index
+	 * @return the hash
+	 */
+	static long hash(final int rowIndex)
+	{
+		return mix(rowIndex);
+	}
+
+	private static String valueAt(final String[] values, final int[] columns, final int i)
+	{
+		final int column = columns == null ? i : columns[i];
+		return column < values.length && values[column] != null ? values[column] : "";
+	}
+
+	private static long mix(final long value)
+	{
+		long hash = value;
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+	private void rehash(final int capacity)
+	{
+		slots = new int[capacity];
+		for (int entry = 0; entry < size; entry++)
+		{
+			if (findFirst(keyHashes[entry]) < 0)
+			{
+				insertSlot(entry);
+			}
+		}
+	}
+
+	private void insertSlot(final int entry)
+	{
+		final int mask = slots.length - 1;
+		int slot = (int)keyHashes[entry] & mask;
+		while (slots[slot] != 0)
+		{
+			slot = (slot + 1) & mask;
+		}
+		slots[slot] = entry + 1;
+	}
+}
@@ -0,0 +1,737 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link RowIngestionPipeline} writes the rows of any number of producer threads into
+ * one sheet of a SXSSF workbook. A POI workbook is not thread-safe, so instead of synchronizing
+ * the producers on the workbook they submit their rows into a bounded lock-free ring buffer, and
+ * a single dedicated writer thread drains the buffer in batches into the workbook.
+ * <p>
+ * The methods {@link #writeRow(Object...)} and {@link #writeRow(XlsxCellStyle, Object...)} can
+ * be called from any thread. The rows of one producer thread are written in the order they were
+ * submitted, the rows of different producers are interleaved in the order they claimed their
+ * slot in the buffer. A producer waits while the buffer is full, so a slow writer throttles the
+ * producers instead of buffering an unbounded number of rows.
+ * <p>
+ * The method {@link #close()} waits until all submitted rows are written and saves the workbook
+ * to the target file. The throughput, the queue depth and the time the producers waited for free
+ * slots can be read at any time
+ */
+public final class RowIngestionPipeline implements SheetRowWriter, Closeable
+{
+
+	/**
+	 * The default number of slots of the ring buffer
+	 */
+	public static final int DEFAULT_CAPACITY = 8192;
+
+	/**
+	 * The default maximum number of rows that the writer thread drains at once
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 512;
+
+	private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private static final int SPINS = 64;
+
+	private final File file;
+
+	private final String sheetName;
+
+	private final String[] headers;
+
+	private final WriteProfile profile;
+
+	private final SXSSFSession session;
+
+	private final int batchSize;
+
+	private final int mask;
+
+	private final Object[][] rows;
+
+	private final XlsxCellStyle[] styles;
+
+	private final AtomicLongArray sequences;
+
+	private final AtomicLong tail = new AtomicLong();
+
+	private final AtomicInteger activeProducers = new AtomicInteger();
+
+	private final LongAdder backpressureNanos = new LongAdder();
+
+	private final Thread writerThread;
+
+	private final long startNanos;
+
+	private volatile long head;
+
+	private volatile long maxQueueDepth;
+
+	private volatile long batchCount;
+
+	private volatile long finishNanos;
+
+	private volatile boolean closed;
+
+	private volatile boolean writerParked;
+
+	private volatile Throwable failure;
+
+	private RowIngestionPipeline(final Builder builder)
+	{
+		this.file = builder.file;
+		this.sheetName = builder.sheetName;
+		this.headers = builder.headers;
+		this.profile = builder.profile;
+		this.session = builder.session;
+		this.batchSize = builder.batchSize;
+		this.mask = builder.capacity - 1;
+		this.rows = new Object[builder.capacity][];
+		this.styles = new XlsxCellStyle[builder.capacity];
+		this.sequences = new AtomicLongArray(builder.capacity);
+		for (int i = 0; i < builder.capacity; i++)
+		{
+			sequences.set(i, i);
+		}
+		this.startNanos = System.nanoTime();
+		this.writerThread = builder.threadFactory.newThread(this::drain);
+		writerThread.start();
+	}
+
+	/**
+	 * Creates a new {@link Builder} for {@link RowIngestionPipeline} objects that write to the
+	 * given xlsx file
+	 *
+	 * @param file
+	 *            the target file
+	 * @return the new builder
+	 */
+	public static Builder builder(final File file)
+	{
+		Check.get().notNull(file, "file");
+		return new Builder(file);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This method can be called from any thread and waits while the ring buffer is full
+	 */
+	@Override
+	public void writeRow(final Object... values) throws IOException
+	{
+		writeRow(null, values);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * This method can be called from any thread and waits while the ring buffer is full
+	 */
+	@Override
+	public void writeRow(final XlsxCellStyle style, final Object... values) throws IOException
+	{
+		Check.get().notNull(values, "values");
+		activeProducers.incrementAndGet();
+		try
+		{
+			checkOpen();
+			final long position = claim();
+			final int slot = (int)position & mask;
+			rows[slot] = values.clone();
+			styles[slot] = style;
+			sequences.set(slot, position + 1);
+			if (writerParked)
+			{
+				LockSupport.unpark(writerThread);
+			}
+		}
+		finally
+		{
+			activeProducers.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Waits until all submitted rows are written, saves the workbook to the target file and stops
+	 * the writer thread. Rows that are submitted after this method was called are rejected
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred in the writer thread
+	 * @throws Error
+	 *             if the writer thread failed with an error
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		closed = true;
+		LockSupport.unpark(writerThread);
+		try
+		{
+			writerThread.join();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the writer thread");
+		}
+		if (failure instanceof Error error)
+		{
+			throw error;
+		}
+		rethrowFailure();
+	}
+
+	/**
+	 * Gets the number of slots of the ring buffer
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity()
+	{
+		return rows.length;
+	}
+
+	/**
+	 * Gets the number of rows that were submitted by the producers
+	 *
+	 * @return the submitted rows
+	 */
+	public long getSubmittedRows()
+	{
+		return tail.get();
+	}
+
+	/**
+	 * Gets the number of rows that the writer thread has written to the workbook
+	 *
+	 * @return the written rows
+	 */
+	public long getWrittenRows()
+	{
+		return head;
+	}
+
+	/**
+	 * Gets the number of rows that are waiting in the ring buffer
+	 *
+	 * @return the current queue depth
+	 */
+	public long getQueueDepth()
+	{
+		return Math.max(0, tail.get() - head);
+	}
+
+	/**
+	 * Gets the largest number of rows that the writer thread found waiting in the ring buffer
+	 *
+	 * @return the maximum queue depth
+	 */
+	public long getMaxQueueDepth()
+	{
+		return maxQueueDepth;
+	}
+
+	/**
+	 * Gets the number of batches that the writer thread has drained
+	 *
+	 * @return the batch count
+	 */
+	public long getBatchCount()
+	{
+		return batchCount;
+	}
+
+	/**
+	 * Gets the total time that the producers waited for a free slot in the ring buffer
+	 *
+	 * @return the backpressure time in nanoseconds
+	 */
+	public long getBackpressureNanos()
+	{
+		return backpressureNanos.sum();
+	}
+
+	/**
+	 * Gets the number of written rows per second since the pipeline was built until now or until
+	 * the writer thread has finished
+	 *
+	 * @return the throughput in rows per second
+	 */
+	public double getRowsPerSecond()
+	{
+		final long end = finishNanos == 0 ? System.nanoTime() : finishNanos;
+		final long elapsed = Math.max(1, end - startNanos);
+		return head * (double)TimeUnit.SECONDS.toNanos(1) / elapsed;
+	}
+
+	/**
+	 * Claims the next slot of the ring buffer and waits with a bounded backoff while the buffer
+	 * is full
+	 */
+	private long claim() throws IOException
+	{
+		long waitStart = 0;
+		long parkNanos = 1_000;
+		int spins = 0;
+		while (true)
+		{
+			final long position = tail.get();
+			final long difference = sequences.get((int)position & mask) - position;
+			if (difference == 0)
+			{
+				if (tail.compareAndSet(position, position + 1))
+				{
+					if (waitStart != 0)
+					{
+						backpressureNanos.add(System.nanoTime() - waitStart);
+					}
+					return position;
+				}
+			}
+			else if (difference < 0)
+			{
+				if (waitStart == 0)
+				{
+					waitStart = System.nanoTime();
+				}
+				rethrowFailure();
+				if (spins < SPINS)
+				{
+					spins++;
+					Thread.onSpinWait();
+				}
+				else
+				{
+					LockSupport.parkNanos(this, parkNanos);
+					parkNanos = Math.min(parkNanos * 2, MAX_PARK_NANOS);
+					if (Thread.interrupted())
+					{
+						Thread.currentThread().interrupt();
+						throw new InterruptedIOException(
+							"Interrupted while waiting for a free slot");
+					}
+				}
+			}
+		}
+	}
+
+	private void checkOpen() throws IOException
+	{
+		rethrowFailure();
+		if (closed)
+		{
+			throw new IOException("The pipeline is closed");
+		}
+	}
+
+	private void rethrowFailure() throws IOException
+	{
+		final Throwable throwable = failure;
+		if (throwable != null)
+		{
+			throw new IOException("The writer thread failed: " + throwable.getMessage(),
+				throwable);
+		}
+	}
+
+	/**
+	 * The loop of the writer thread that drains the ring buffer into the workbook and saves the
+	 * workbook with its write profile when the pipeline is closed and all rows are written. A
+	 * partially written file is deleted if the save fails. Any failure, errors included, closes the
+	 * pipeline, so waiting and later producers fail fast, and is rethrown by {@link #close()}
+	 */
+	private void drain()
+	{
+		try (SXSSFWorkbook workbook = session == null
+			? new ProfiledSXSSFWorkbook(profile)
+			: session.newWorkbook())
+		{
+			final Sheet sheet = workbook.createSheet(sheetName);
+			final CellStyles cellStyles = new CellStyles(workbook);
+			int rowNumber = 0;
+			if (headers != null)
+			{
+				writeCells(sheet.createRow(rowNumber++), XlsxCellStyle.HEADER, headers,
+					cellStyles);
+			}
+			long position = head;
+			while (true)
+			{
+				final long depth = tail.get() - position;
+				int drained = 0;
+				while (drained < batchSize)
+				{
+					final int slot = (int)position & mask;
+					if (sequences.get(slot) != position + 1)
+					{
+						break;
+					}
+					if (RollingXlsxWriter.MAX_XLSX_ROWS <= rowNumber)
+					{
+						throw new IOException("The sheet exceeds the maximum number of "
+							+ RollingXlsxWriter.MAX_XLSX_ROWS + " rows");
+					}
+					writeCells(sheet.createRow(rowNumber++), styles[slot], rows[slot],
+						cellStyles);
+					rows[slot] = null;
+					styles[slot] = null;
+					sequences.set(slot, position + rows.length);
+					position++;
+					drained++;
+				}
+				if (0 < drained)
+				{
+					head = position;
+					batchCount++;
+					if (maxQueueDepth < depth)
+					{
+						maxQueueDepth = depth;
+					}
+				}
+				else if (closed && activeProducers.get() == 0 && tail.get() == position)
+				{
+					break;
+				}
+				else
+				{
+					writerParked = true;
+					if (sequences.get((int)position & mask) != position + 1 && !closed)
+					{
+						LockSupport.parkNanos(this, MAX_PARK_NANOS);
+					}
+					writerParked = false;
+				}
+			}
+			// a session workbook is written with the profile of the session it was created from
+			final WriteProfile writeProfile = workbook instanceof ProfiledSXSSFWorkbook profiled
+				? profiled.getProfile()
+				: profile;
+			try
+			{
+				ExcelPoiFactory.writeWorkbook(workbook, file, writeProfile);
+			}
+			catch (IOException | RuntimeException e)
+			{
+				if (file.isFile())
+				{
+					Files.delete(file.toPath());
+				}
+				throw e;
+			}
+		}
+		catch (Throwable throwable)
+		{
+			failure = throwable;
+			closed = true;
+		}
+		finally
+		{
+			finishNanos = System.nanoTime();
+		}
+	}
+
+	private static void writeCells(final Row row, final XlsxCellStyle style, final Object[] values,
+		final CellStyles cellStyles)
+	{
+		for (int column = 0; column < values.length; column++)
+		{
+			final Object value = values[column];
+			if (value == null)
+			{
+				continue;
+			}
+			final Cell cell = row.createCell(column);
+			if (value instanceof Number number)
+			{
+				cell.setCellValue(number.doubleValue());
+			}
+			else if (value instanceof Boolean bool)
+			{
+				cell.setCellValue(bool);
+			}
+			else if (value instanceof LocalDateTime dateTime)
+			{
+				cell.setCellValue(dateTime);
+			}
+			else if (value instanceof LocalDate date)
+			{
+				cell.setCellValue(date);
+			}
+			else if (value instanceof Date date)
+			{
+				cell.setCellValue(date);
+			}
+			else
+			{
+				cell.setCellValue(value.toString());
+			}
+			final CellStyle cellStyle = cellStyles.get(style, value);
+			if (cellStyle != null)
+			{
+				cell.setCellStyle(cellStyle);
+			}
+		}
+	}
+
+	/**
+	 * The class {@link CellStyles} converts the {@link XlsxCellStyle} of a cell to a
+	 * {@link CellStyle} of the workbook. Date values get the date format merged into the style of
+	 * their row, and every distinct style is created only once
+	 */
+	private static final class CellStyles
+	{
+		private final SXSSFWorkbook workbook;
+
+		private final Map<XlsxCellStyle, CellStyle> cellStyles = new HashMap<>();
+
+		private CellStyles(final SXSSFWorkbook workbook)
+		{
+			this.workbook = workbook;
+		}
+
+		private CellStyle get(final XlsxCellStyle style, final Object value)
+		{
+			XlsxCellStyle cellStyle = style;
+			if (value instanceof LocalDate)
+			{
+				cellStyle = style == null
+					? XlsxCellStyle.DATE
+					: style.withDefaultDataFormat(XlsxCellStyle.DATE.dataFormat());
+			}
+			else if (value instanceof LocalDateTime || value instanceof Date)
+			{
+				cellStyle = style == null
+					? XlsxCellStyle.DATE_TIME
+					: style.withDefaultDataFormat(XlsxCellStyle.DATE_TIME.dataFormat());
+			}
+			if (cellStyle == null || XlsxCellStyle.DEFAULT.equals(cellStyle))
+			{
+				return null;
+			}
+			return cellStyles.computeIfAbsent(cellStyle, this::create);
+		}
+
+		private CellStyle create(final XlsxCellStyle style)
+		{
+			final CellStyle cellStyle = workbook.createCellStyle();
+			if (style.hasFont())
+			{
+				final Font font = workbook.createFont();
+				if (style.fontName() != null)
+				{
+					font.setFontName(style.fontName());
+				}
+				if (style.fontHeightInPoints() != 0)
+				{
+					font.setFontHeightInPoints(style.fontHeightInPoints());
+				}
+				font.setBold(style.bold());
+				cellStyle.setFont(font);
+			}
+			if (style.dataFormat() != null)
+			{
+				cellStyle.setDataFormat(workbook.createDataFormat().getFormat(style.dataFormat()));
+			}
+			return cellStyle;
+		}
+	}
+
+	/**
+	 * The class {@link Builder} creates {@link RowIngestionPipeline} objects
+	 */
+	public static final class Builder
+	{
+		private final File file;
+
+		private String sheetName = "Sheet1";
+
+		private String[] headers;
+
+		private int capacity = DEFAULT_CAPACITY;
+
+		private int batchSize = DEFAULT_BATCH_SIZE;
+
+		private WriteProfile profile = WriteProfile.DEFAULT;
+
+		private SXSSFSession session;
+
+		private ThreadFactory threadFactory = Thread.ofPlatform()
+			.name("row-ingestion-writer-", 0).daemon(true).factory();
+
+		private Builder(final File file)
+		{
+			this.file = file;
+		}
+
+		/**
+		 * Sets the name of the sheet. Default is <code>Sheet1</code>
+		 *
+		 * @param sheetName
+		 *            the sheet name
+		 * @return this builder
+		 */
+		public Builder sheetName(final String sheetName)
+		{
+			Check.get().notEmpty(sheetName, "sheetName");
+			this.sheetName = sheetName;
+			return this;
+		}
+
+		/**
+		 * Sets the header row that is written before the first submitted row
+		 *
+		 * @param headers
+		 *            the header names
+		 * @return this builder
+		 */
+		public Builder headers(final String... headers)
+		{
+			Check.get().notNull(headers, "headers");
+			this.headers = headers.clone();
+			return this;
+		}
+
+		/**
+		 * Sets the number of slots of the ring buffer. It is rounded up to the next power of two.
+		 * Default is {@link #DEFAULT_CAPACITY}
+		 *
+		 * @param capacity
+		 *            the capacity
+		 * @return this builder
+		 */
+		public Builder capacity(final int capacity)
+		{
+			if (capacity < 2 || 1 << 30 < capacity)
+			{
+				throw new IllegalArgumentException(
+					"Capacity must be between 2 and 2^30: " + capacity);
+			}
+			this.capacity = Integer.highestOneBit(capacity - 1) << 1;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of rows that the writer thread drains at once. Default is
+		 * {@link #DEFAULT_BATCH_SIZE}
+		 *
+		 * @param batchSize
+		 *            the batch size
+		 * @return this builder
+		 */
+		public Builder batchSize(final int batchSize)
+		{
+			if (batchSize < 1)
+			{
+				throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+			}
+			this.batchSize = batchSize;
+			return this;
+		}
+
+		/**
+		 * Sets the write profile of the workbook. Default is {@link WriteProfile#DEFAULT}
+		 *
+		 * @param profile
+		 *            the write profile
+		 * @return this builder
+		 */
+		public Builder profile(final WriteProfile profile)
+		{
+			Check.get().notNull(profile, "profile");
+			this.profile = profile;
+			return this;
+		}
+
+		/**
+		 * Sets the {@link SXSSFSession} that creates the workbook, so the temporary sheet file is
+		 * kept in the session directory and counted against its disk budget. The profile of the
+		 * session replaces the profile of this builder
+		 *
+		 * @param session
+		 *            the session
+		 * @return this builder
+		 */
+		public Builder session(final SXSSFSession session)
+		{
+			Check.get().notNull(session, "session");
+			this.session = session;
+			return this;
+		}
+
+		/**
+		 * Sets the factory of the writer thread. Default is a factory of daemon platform threads
+		 *
+		 * @param threadFactory
+		 *            the thread factory
+		 * @return this builder
+		 */
+		public Builder threadFactory(final ThreadFactory threadFactory)
+		{
+			Check.get().notNull(threadFactory, "threadFactory");
+			this.threadFactory = threadFactory;
+			return this;
+		}
+
+		/**
+		 * Builds the {@link RowIngestionPipeline} object and starts its writer thread
+		 *
+		 * @return the new {@link RowIngestionPipeline} object
+		 */
+		public RowIngestionPipeline build()
+		{
+			return new RowIngestionPipeline(this);
+		}
+	}
+}
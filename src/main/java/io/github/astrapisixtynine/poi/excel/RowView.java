@@ -0,0 +1,126 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+/**
+ * The interface {@link RowView} gives typed access to the cells of the current row of an
+ * iteration over a sheet. One view object is moved from row to row, so an iteration allocates no
+ * row objects and decodes a cell only when it is accessed. A view must not be kept after the
+ * {@link RowViewHandler} returns, the values of a row that are needed later can be taken with
+ * {@link #copy()}.
+ * <p>
+ * The cells are addressed by their position in the selected columns of the {@link ReadOptions}
+ * or by their column index if no column is selected. Positions after the last cell of the row are
+ * blank. Formula cells have the type and the value of their cached result
+ */
+public interface RowView
+{
+
+	/**
+	 * Gets the zero based index of the current row in the sheet
+	 *
+	 * @return the row index
+	 */
+	int getRowIndex();
+
+	/**
+	 * Gets the number of cell positions of the current row
+	 *
+	 * @return the width of the current row
+	 */
+	int getWidth();
+
+	/**
+	 * Gets the type of the cell at the given position
+	 *
+	 * @param position
+	 *            the position of the cell
+	 * @return the cell type, one of {@link CellType#NUMERIC}, {@link CellType#STRING},
+	 *         {@link CellType#BOOLEAN}, {@link CellType#ERROR} or {@link CellType#BLANK}
+	 */
+	CellType getCellType(int position);
+
+	/**
+	 * Checks if the cell at the given position is blank
+	 *
+	 * @param position
+	 *            the position of the cell
+	 * @return true if the cell has no value otherwise false
+	 */
+	default boolean isBlank(final int position)
+	{
+		return getCellType(position) == CellType.BLANK;
+	}
+
+	/**
+	 * Gets the value of the cell at the given position as <code>double</code>
+	 *
+	 * @param position
+	 *            the position of the cell
+	 * @return the numeric value, 1 or 0 for a boolean cell
+	 * @throws IllegalStateException
+	 *             if the cell is not numeric or boolean
+	 */
+	double getDouble(int position);
+
+	/**
+	 * Gets the value of the cell at the given position as <code>boolean</code>
+	 *
+	 * @param position
+	 *            the position of the cell
+	 * @return the boolean value, true for a numeric cell that is not zero
+	 * @throws IllegalStateException
+	 *             if the cell is not boolean or numeric
+	 */
+	boolean getBoolean(int position);
+
+	/**
+	 * Gets the value of the cell at the given position as String. Numeric values are converted
+	 * like Excel displays them in the general format or in the data format of their cell style if
+	 * formatted values are read
+	 *
+	 * @param position
+	 *            the position of the cell
+	 * @return the cell value as String, an empty String if the cell is blank or an error
+	 */
+	String getString(int position);
+
+	/**
+	 * Copies the values of all cells of the current row
+	 *
+	 * @return a new array with the values of the cells as String
+	 */
+	default String[] copy()
+	{
+		final String[] values = new String[getWidth()];
+		for (int position = 0; position < values.length; position++)
+		{
+			values[position] = getString(position);
+		}
+		return values;
+	}
+}
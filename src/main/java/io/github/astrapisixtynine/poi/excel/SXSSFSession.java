@@ -0,0 +1,330 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link SXSSFSession} owns the {@link SXSSFWorkbook} objects that are created with
+ * {@link #newWorkbook()} and their temporary sheet files. The temporary files of a session are
+ * created in a private directory below the configured temporary directory, and every write to
+ * them is reserved from a {@link TempDiskBudget} that can be shared by all sessions of a process.
+ * <p>
+ * Closing a workbook deletes its temporary files and releases its bytes from the budget. Closing
+ * the session closes all of its open workbooks and deletes its directory, and sessions that are
+ * still open when the JVM shuts down are closed by a shutdown hook, so no temporary files are left
+ * behind
+ */
+public final class SXSSFSession implements Closeable
+{
+
+	private static final Set<SXSSFSession> OPEN_SESSIONS = ConcurrentHashMap.newKeySet();
+
+	static
+	{
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			for (final SXSSFSession session : List.copyOf(OPEN_SESSIONS))
+			{
+				try
+				{
+					session.close();
+				}
+				catch (IOException e)
+				{
+					// nothing can be reported while the JVM shuts down
+				}
+			}
+		}, "poi-worker-sxssf-cleanup"));
+	}
+
+	private final Path directory;
+
+	private final TempDiskBudget budget;
+
+	private final WriteProfile profile;
+
+	private final Set<ProfiledSXSSFWorkbook> workbooks = ConcurrentHashMap.newKeySet();
+
+	private final AtomicLong releasedBytes = new AtomicLong();
+
+	private volatile boolean closed;
+
+	private SXSSFSession(final Builder builder) throws IOException
+	{
+		this.directory = builder.temporaryDirectory == null
+			? Files.createTempDirectory("poi-worker-sxssf")
+			: Files.createTempDirectory(builder.temporaryDirectory, "poi-worker-sxssf");
+		this.budget = builder.budget;
+		this.profile = builder.profile;
+		OPEN_SESSIONS.add(this);
+	}
+
+	/**
+	 * Creates a new {@link Builder} for {@link SXSSFSession} objects
+	 *
+	 * @return the new builder
+	 */
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
+	/**
+	 * Creates a new {@link SXSSFWorkbook} that is configured from the write profile of this
+	 * session and keeps its temporary files in the directory of this session. The workbook can be
+	 * written with {@link ExcelPoiFactory#writeWorkbook(org.apache.poi.ss.usermodel.Workbook,
+	 * java.io.File, WriteProfile)} and is closed by the caller or with this session
+	 *
+	 * @return the new workbook
+	 * @throws IllegalStateException
+	 *             if this session is closed
+	 */
+	public SXSSFWorkbook newWorkbook()
+	{
+		if (closed)
+		{
+			throw new IllegalStateException("The session is closed");
+		}
+		final ProfiledSXSSFWorkbook workbook = new ProfiledSXSSFWorkbook(profile, this);
+		workbooks.add(workbook);
+		return workbook;
+	}
+
+	/**
+	 * Gets the directory of the temporary files of this session
+	 *
+	 * @return the temporary directory
+	 */
+	public Path getDirectory()
+	{
+		return directory;
+	}
+
+	/**
+	 * Gets the budget that the temporary files of this session are reserved from
+	 *
+	 * @return the disk budget
+	 */
+	public TempDiskBudget getBudget()
+	{
+		return budget;
+	}
+
+	/**
+	 * Gets the number of bytes of the temporary files of the open workbooks of this session
+	 *
+	 * @return the temporary bytes in use
+	 */
+	public long getTempBytesInUse()
+	{
+		long bytes = 0;
+		for (final ProfiledSXSSFWorkbook workbook : workbooks)
+		{
+			bytes += workbook.getTempBytes();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Gets the number of bytes of the temporary files of the workbooks of this session that were
+	 * already closed
+	 *
+	 * @return the released temporary bytes
+	 */
+	public long getReleasedTempBytes()
+	{
+		return releasedBytes.get();
+	}
+
+	/**
+	 * Gets the number of open workbooks of this session
+	 *
+	 * @return the number of open workbooks
+	 */
+	public int getOpenWorkbooks()
+	{
+		return workbooks.size();
+	}
+
+	/**
+	 * Checks if this session is closed
+	 *
+	 * @return true if this session is closed otherwise false
+	 */
+	public boolean isClosed()
+	{
+		return closed;
+	}
+
+	/**
+	 * Closes all open workbooks of this session and deletes the temporary directory
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		if (closed)
+		{
+			return;
+		}
+		closed = true;
+		OPEN_SESSIONS.remove(this);
+		IOException failure = null;
+		for (final ProfiledSXSSFWorkbook workbook : List.copyOf(workbooks))
+		{
+			try
+			{
+				workbook.close();
+			}
+			catch (IOException e)
+			{
+				failure = e;
+			}
+		}
+		try (Stream<Path> paths = Files.walk(directory))
+		{
+			for (final Path path : paths.sorted(Comparator.reverseOrder()).toList())
+			{
+				Files.deleteIfExists(path);
+			}
+		}
+		if (failure != null)
+		{
+			throw failure;
+		}
+	}
+
+	/**
+	 * Releases the temporary bytes of the given workbook that was closed
+	 *
+	 * @param workbook
+	 *            the closed workbook
+	 * @param tempBytes
+	 *            the bytes of the temporary files of the workbook
+	 */
+	void workbookClosed(final ProfiledSXSSFWorkbook workbook, final long tempBytes)
+	{
+		if (workbooks.remove(workbook))
+		{
+			budget.release(tempBytes);
+			releasedBytes.addAndGet(tempBytes);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "SXSSFSession{" + "directory=" + directory + ", budget=" + budget
+			+ ", openWorkbooks=" + getOpenWorkbooks() + ", tempBytesInUse="
+			+ getTempBytesInUse() + ", closed=" + closed + '}';
+	}
+
+	/**
+	 * The class {@link Builder} creates {@link SXSSFSession} objects
+	 */
+	public static final class Builder
+	{
+		private Path temporaryDirectory;
+
+		private TempDiskBudget budget = TempDiskBudget.unlimited();
+
+		private WriteProfile profile = WriteProfile.DEFAULT;
+
+		private Builder()
+		{
+		}
+
+		/**
+		 * Sets the directory that the private directory of the session is created in. Default is
+		 * the temporary directory of the system
+		 *
+		 * @param temporaryDirectory
+		 *            the temporary directory
+		 * @return this builder
+		 */
+		public Builder temporaryDirectory(final Path temporaryDirectory)
+		{
+			this.temporaryDirectory = temporaryDirectory;
+			return this;
+		}
+
+		/**
+		 * Sets the budget that the temporary files are reserved from. Default is a new unlimited
+		 * budget for every session
+		 *
+		 * @param budget
+		 *            the disk budget
+		 * @return this builder
+		 */
+		public Builder budget(final TempDiskBudget budget)
+		{
+			Check.get().notNull(budget, "budget");
+			this.budget = budget;
+			return this;
+		}
+
+		/**
+		 * Sets the write profile of the workbooks with the row access window, the compression of
+		 * the temporary files and the string storage. Default is {@link WriteProfile#DEFAULT}
+		 *
+		 * @param profile
+		 *            the write profile
+		 * @return this builder
+		 */
+		public Builder profile(final WriteProfile profile)
+		{
+			Check.get().notNull(profile, "profile");
+			this.profile = profile;
+			return this;
+		}
+
+		/**
+		 * Builds the {@link SXSSFSession} object and creates its temporary directory
+		 *
+		 * @return the new {@link SXSSFSession} object
+		 * @throws IOException
+		 *             Signals that an I/O exception has occurred
+		 */
+		public SXSSFSession build() throws IOException
+		{
+			return new SXSSFSession(this);
+		}
+	}
+}
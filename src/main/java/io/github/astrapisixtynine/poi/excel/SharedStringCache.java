@@ -0,0 +1,316 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.model.SharedStringsTable;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link SharedStringCache} resolves the index of a shared string of a xlsx workbook
+ * straight to a plain {@link String}. The text of every shared string is decoded only once and
+ * then cached by its index, where {@link Cell#getRichStringCellValue()} wraps a new rich text
+ * object around the xml of the shared string on every call. The formatting runs of a string are
+ * only decoded if the rich text is requested with {@link #getRichString(Cell)}.
+ * <p>
+ * The streaming reader parses the shared strings part straight into plain strings without
+ * creating a rich text object at all. A {@link SharedStringCache} belongs to one workbook. The
+ * cache of a workbook is not thread-safe, the cache of the streaming reader holds all strings
+ * decoded and is read-only, so the readers of parallel tasks can share it
+ */
+public final class SharedStringCache
+{
+
+	private static final XMLInputFactory XML_INPUT_FACTORY = XMLHelper.newXMLInputFactory();
+
+	private static final Pattern UTF_ESCAPE = Pattern.compile("_x([0-9A-Fa-f]{4})_");
+
+	private static final String[] NO_STRINGS = new String[0];
+
+	/**
+	 * The cache without shared strings for readers that only scan the raw sheet xml
+	 */
+	static final SharedStringCache EMPTY = new SharedStringCache(null, NO_STRINGS);
+
+	private final SharedStringsTable table;
+
+	private String[] strings;
+
+	private SharedStringCache(final SharedStringsTable table, final String[] strings)
+	{
+		this.table = table;
+		this.strings = strings;
+	}
+
+	/**
+	 * Creates a new {@link SharedStringCache} for the shared strings of the given workbook. The
+	 * fast path is used for the cells of a {@link XSSFWorkbook}, the cells of other workbooks
+	 * fall back to {@link Cell#getRichStringCellValue()}
+	 *
+	 * @param workbook
+	 *            the workbook
+	 * @return the new {@link SharedStringCache} object
+	 */
+	public static SharedStringCache of(final Workbook workbook)
+	{
+		Check.get().notNull(workbook, "workbook");
+		if (workbook instanceof XSSFWorkbook xssfWorkbook)
+		{
+			final SharedStringsTable table = xssfWorkbook.getSharedStringSource();
+			return new SharedStringCache(table, new String[table.getUniqueCount()]);
+		}
+		return new SharedStringCache(null, NO_STRINGS);
+	}
+
+	/**
+	 * Reads the shared strings part of the given package into plain strings. Phonetic runs are
+	 * skipped like {@link org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable} does
+	 *
+	 * @param opcPackage
+	 *            the package of the xlsx file
+	 * @return the new {@link SharedStringCache} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	static SharedStringCache read(final OPCPackage opcPackage) throws IOException
+	{
+		final List<PackagePart> parts = opcPackage
+			.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+		if (parts.isEmpty())
+		{
+			return EMPTY;
+		}
+		try (InputStream inputStream = parts.get(0).getInputStream())
+		{
+			return read(inputStream);
+		}
+	}
+
+	/**
+	 * Reads the given xml of a shared strings part into plain strings
+	 *
+	 * @param inputStream
+	 *            the xml of the shared strings part
+	 * @return the new {@link SharedStringCache} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	static SharedStringCache read(final InputStream inputStream) throws IOException
+	{
+		String[] strings = NO_STRINGS;
+		int count = 0;
+		try
+		{
+			final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+			final StringBuilder text = new StringBuilder();
+			int phoneticDepth = 0;
+			while (reader.hasNext())
+			{
+				final int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT)
+				{
+					switch (reader.getLocalName())
+					{
+						case "sst" :
+							strings = new String[parseCount(
+								reader.getAttributeValue(null, "uniqueCount"))];
+							break;
+						case "si" :
+							text.setLength(0);
+							break;
+						case "rPh" :
+							phoneticDepth++;
+							break;
+						case "t" :
+							final String elementText = reader.getElementText();
+							if (phoneticDepth == 0)
+							{
+								text.append(elementText);
+							}
+							break;
+						default :
+							break;
+					}
+				}
+				else if (event == XMLStreamConstants.END_ELEMENT)
+				{
+					if ("rPh".equals(reader.getLocalName()))
+					{
+						phoneticDepth--;
+					}
+					else if ("si".equals(reader.getLocalName()))
+					{
+						if (count == strings.length)
+						{
+							strings = Arrays.copyOf(strings, Math.max(16, count * 2));
+						}
+						strings[count++] = decode(text.toString());
+					}
+				}
+			}
+			reader.close();
+		}
+		catch (XMLStreamException e)
+		{
+			throw new IOException(e);
+		}
+		return new SharedStringCache(null,
+			count == strings.length ? strings : Arrays.copyOf(strings, count));
+	}
+
+	/**
+	 * Gets the plain text of the shared string with the given index
+	 *
+	 * @param index
+	 *            the zero based index of the shared string
+	 * @return the plain text
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range
+	 */
+	public String getString(final int index)
+	{
+		if (table == null)
+		{
+			return strings[index];
+		}
+		if (strings.length <= index)
+		{
+			strings = Arrays.copyOf(strings, Math.max(table.getUniqueCount(), index + 1));
+		}
+		String string = strings[index];
+		if (string == null)
+		{
+			string = table.getItemAt(index).getString();
+			strings[index] = string;
+		}
+		return string;
+	}
+
+	/**
+	 * Gets the plain text of the given string cell. A cell of a {@link XSSFWorkbook} that refers
+	 * to a shared string is resolved from this cache, every other cell falls back to
+	 * {@link Cell#getRichStringCellValue()}. The cell must belong to the workbook of this cache
+	 *
+	 * @param cell
+	 *            the string cell
+	 * @return the plain text
+	 */
+	public String getString(final Cell cell)
+	{
+		if (table != null && cell instanceof XSSFCell xssfCell)
+		{
+			final CTCell ctCell = xssfCell.getCTCell();
+			if (ctCell.getT() == STCellType.S && ctCell.isSetV())
+			{
+				return getString(Integer.parseInt(ctCell.getV()));
+			}
+		}
+		return cell.getRichStringCellValue().getString();
+	}
+
+	/**
+	 * Gets the rich text with the formatting runs of the given string cell. Use this method only
+	 * if the formatting is needed, {@link #getString(Cell)} is much faster
+	 *
+	 * @param cell
+	 *            the string cell
+	 * @return the rich text
+	 */
+	public RichTextString getRichString(final Cell cell)
+	{
+		return cell.getRichStringCellValue();
+	}
+
+	/**
+	 * Gets the number of unique shared strings
+	 *
+	 * @return the number of unique shared strings
+	 */
+	public int getUniqueCount()
+	{
+		return table == null ? strings.length : table.getUniqueCount();
+	}
+
+	private static int parseCount(final String count)
+	{
+		try
+		{
+			return count == null ? 16 : Math.max(0, Math.min(Integer.parseInt(count), 1 << 16));
+		}
+		catch (NumberFormatException e)
+		{
+			return 16;
+		}
+	}
+
+	/**
+	 * Decodes the escaped characters like <code>_x000D_</code> of the given text the same way
+	 * {@link org.apache.poi.xssf.usermodel.XSSFRichTextString#getString()} does
+	 */
+	private static String decode(final String text)
+	{
+		if (text.indexOf("_x") < 0)
+		{
+			return text;
+		}
+		final Matcher matcher = UTF_ESCAPE.matcher(text);
+		final StringBuilder decoded = new StringBuilder(text.length());
+		int position = 0;
+		while (matcher.find())
+		{
+			decoded.append(text, position, matcher.start());
+			decoded.append((char)Integer.parseInt(matcher.group(1), 16));
+			position = matcher.end();
+		}
+		if (position == 0)
+		{
+			return text;
+		}
+		return decoded.append(text, position, text.length()).toString();
+	}
+}
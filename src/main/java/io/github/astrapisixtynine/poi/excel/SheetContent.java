@@ -0,0 +1,155 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import org.apache.poi.ss.util.WorkbookUtil;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link SheetContent} holds the name, the header row and the producer of the rows of a
+ * sheet that is written by one of the xlsx writers
+ */
+public final class SheetContent
+{
+
+	private final String name;
+
+	private final String[] headers;
+
+	private final SheetRowProducer producer;
+
+	private final long estimatedRows;
+
+	private SheetContent(final String name, final String[] headers,
+		final SheetRowProducer producer, final long estimatedRows)
+	{
+		this.name = WorkbookUtil.createSafeSheetName(name);
+		this.headers = headers == null ? new String[0] : headers.clone();
+		this.producer = producer;
+		this.estimatedRows = estimatedRows;
+	}
+
+	/**
+	 * Creates a new {@link SheetContent} from the given parameters
+	 *
+	 * @param name
+	 *            the name of the sheet, it is converted to a safe sheet name
+	 * @param headers
+	 *            the column headers of the first row or null for no header row
+	 * @param producer
+	 *            the producer of the rows
+	 * @return the new {@link SheetContent} object
+	 */
+	public static SheetContent of(final String name, final String[] headers,
+		final SheetRowProducer producer)
+	{
+		return of(name, headers, -1, producer);
+	}
+
+	/**
+	 * Creates a new {@link SheetContent} from the given parameters with the estimated number of
+	 * rows that the producer writes. The estimate is used for progress reports
+	 *
+	 * @param name
+	 *            the name of the sheet, it is converted to a safe sheet name
+	 * @param headers
+	 *            the column headers of the first row or null for no header row
+	 * @param estimatedRows
+	 *            the estimated number of rows without the header row or -1 if unknown
+	 * @param producer
+	 *            the producer of the rows
+	 * @return the new {@link SheetContent} object
+	 */
+	public static SheetContent of(final String name, final String[] headers,
+		final long estimatedRows, final SheetRowProducer producer)
+	{
+		Check.get().notNull(name, "name").notNull(producer, "producer");
+		return new SheetContent(name, headers, producer, estimatedRows);
+	}
+
+	/**
+	 * Creates a new {@link SheetContent} from the given parameters
+	 *
+	 * @param name
+	 *            the name of the sheet, it is converted to a safe sheet name
+	 * @param headers
+	 *            the column headers of the first row or null for no header row
+	 * @param content
+	 *            a two-dimensional array of strings representing the rows of the sheet
+	 * @return the new {@link SheetContent} object
+	 */
+	public static SheetContent of(final String name, final String[] headers,
+		final String[][] content)
+	{
+		Check.get().notNull(content, "content");
+		return of(name, headers, content.length, writer -> {
+			for (final String[] row : content)
+			{
+				writer.writeRow((Object[])row);
+			}
+		});
+	}
+
+	/**
+	 * Gets the safe name of the sheet
+	 *
+	 * @return the sheet name
+	 */
+	public String getName()
+	{
+		return name;
+	}
+
+	/**
+	 * Gets the column headers
+	 *
+	 * @return a copy of the column headers, empty if the sheet has no header row
+	 */
+	public String[] getHeaders()
+	{
+		return headers.clone();
+	}
+
+	/**
+	 * Gets the estimated number of rows that the producer writes
+	 *
+	 * @return the estimated number of rows without the header row or -1 if unknown
+	 */
+	public long getEstimatedRows()
+	{
+		return estimatedRows;
+	}
+
+	/**
+	 * Gets the producer of the rows
+	 *
+	 * @return the row producer
+	 */
+	public SheetRowProducer getProducer()
+	{
+		return producer;
+	}
+}
@@ -0,0 +1,647 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link SheetKeyIndex} maps the values of one or more key columns of a sheet to the
+ * indexes of the rows that contain them. The index is built from a single streaming read of the
+ * sheet and is held in primitive arrays with an open addressing hash table, so a point lookup
+ * takes constant time and no boxed entry is created. Rows with equal keys are chained in row
+ * order, rows whose key columns are all blank are not indexed.
+ * <p>
+ * Like a {@link SheetRowIndex} an index can be saved as a sidecar file next to the workbook that
+ * is keyed by the checksum of the workbook file, so a stale index is detected and rebuilt, as is a
+ * truncated or corrupt sidecar file
+ */
+public final class SheetKeyIndex
+{
+
+	/**
+	 * The file extension of sidecar key index files
+	 */
+	public static final String FILE_EXTENSION = ".keyidx";
+
+	private static final int MAGIC = 0x4b494458;
+
+	private static final int VERSION = 2;
+
+	private static final char KEY_SEPARATOR = '\u001f';
+
+	private final long checksum;
+
+	private final int sheetIndex;
+
+	private final int headerRowIndex;
+
+	private final int[] keyColumns;
+
+	private final String[] keys;
+
+	private final int[] rowIndexes;
+
+	private final int[] hashes;
+
+	private final int[] nextEntries;
+
+	private final int[] slots;
+
+	private final int keyCount;
+
+	private SheetKeyIndex(final long checksum, final int sheetIndex, final int headerRowIndex,
+		final int[] keyColumns, final String[] keys, final int[] rowIndexes)
+	{
+		this.checksum = checksum;
+		this.sheetIndex = sheetIndex;
+		this.headerRowIndex = headerRowIndex;
+		this.keyColumns = keyColumns;
+		this.keys = keys;
+		this.rowIndexes = rowIndexes;
+		this.hashes = new int[keys.length];
+		this.nextEntries = new int[keys.length];
+		this.slots = new int[Math.max(2, Integer.highestOneBit(Math.max(1, keys.length)) * 4)];
+		final int[] lastEntries = new int[keys.length];
+		int distinctKeys = 0;
+		final int mask = slots.length - 1;
+		for (int entry = 0; entry < keys.length; entry++)
+		{
+			hashes[entry] = hash(keys[entry]);
+			nextEntries[entry] = -1;
+			int slot = hashes[entry] & mask;
+			while (true)
+			{
+				final int first = slots[slot] - 1;
+				if (first < 0)
+				{
+					slots[slot] = entry + 1;
+					lastEntries[entry] = entry;
+					distinctKeys++;
+					break;
+				}
+				if (hashes[first] == hashes[entry] && keys[first].equals(keys[entry]))
+				{
+					nextEntries[lastEntries[first]] = entry;
+					lastEntries[first] = entry;
+					break;
+				}
+				slot = (slot + 1) & mask;
+			}
+		}
+		this.keyCount = distinctKeys;
+	}
+
+	/**
+	 * Builds the index over the given key columns of the sheet with the given index in the given
+	 * xlsx {@link File}
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param headerRowIndex
+	 *            the zero based index of the header row that is not indexed or -1 if the sheet
+	 *            has no header row
+	 * @param keyColumns
+	 *            the zero based indexes of the key columns
+	 * @return the new {@link SheetKeyIndex} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static SheetKeyIndex build(final File workbookFile, final int sheetIndex,
+		final int headerRowIndex, final int... keyColumns) throws IOException
+	{
+		Check.get().notNull(workbookFile, "workbookFile");
+		final KeyCollector collector = new KeyCollector(checkKeyColumns(keyColumns), null);
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			reader.readSheet(sheetIndex, dataRows(headerRowIndex), collector);
+		}
+		return collector.toIndex(FileChecksum.of(workbookFile), sheetIndex, headerRowIndex);
+	}
+
+	/**
+	 * Loads the index over the given key columns of the sheet with the given index from its
+	 * sidecar file if the sidecar file exists and matches the checksum of the given workbook
+	 * {@link File}, otherwise the index is built and saved to the sidecar file. A truncated or
+	 * corrupt sidecar file is rebuilt as well
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param headerRowIndex
+	 *            the zero based index of the header row or -1 if the sheet has no header row
+	 * @param keyColumns
+	 *            the zero based indexes of the key columns
+	 * @return the {@link SheetKeyIndex} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static SheetKeyIndex loadOrBuild(final File workbookFile, final int sheetIndex,
+		final int headerRowIndex, final int... keyColumns) throws IOException
+	{
+		final File sidecarFile = getSidecarFile(workbookFile, sheetIndex, keyColumns);
+		if (sidecarFile.exists())
+		{
+			try
+			{
+				final SheetKeyIndex index = load(sidecarFile);
+				if (index.sheetIndex == sheetIndex && index.headerRowIndex == headerRowIndex
+					&& Arrays.equals(index.keyColumns, keyColumns)
+					&& index.isValidFor(workbookFile))
+				{
+					return index;
+				}
+			}
+			catch (IOException | RuntimeException e)
+			{
+				// a truncated or corrupt sidecar file is replaced by a new index
+			}
+		}
+		final SheetKeyIndex index = build(workbookFile, sheetIndex, headerRowIndex, keyColumns);
+		index.save(sidecarFile);
+		return index;
+	}
+
+	/**
+	 * Gets the sidecar file for the index over the given key columns of the sheet with the given
+	 * index
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param keyColumns
+	 *            the zero based indexes of the key columns
+	 * @return the sidecar file
+	 */
+	public static File getSidecarFile(final File workbookFile, final int sheetIndex,
+		final int... keyColumns)
+	{
+		final StringBuilder name = new StringBuilder(workbookFile.getName()).append('.')
+			.append(sheetIndex);
+		for (final int keyColumn : keyColumns)
+		{
+			name.append('.').append(keyColumn);
+		}
+		return new File(workbookFile.getParentFile(), name.append(FILE_EXTENSION).toString());
+	}
+
+	/**
+	 * Loads an index from the given sidecar {@link File}
+	 *
+	 * @param indexFile
+	 *            the sidecar file
+	 * @return the loaded {@link SheetKeyIndex} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the file is not an index file or
+	 *             is truncated or corrupt
+	 */
+	public static SheetKeyIndex load(final File indexFile) throws IOException
+	{
+		final long size = Files.size(indexFile.toPath());
+		try (DataInputStream input = new DataInputStream(
+			new BufferedInputStream(Files.newInputStream(indexFile.toPath()))))
+		{
+			if (input.readInt() != MAGIC || input.readInt() != VERSION)
+			{
+				throw new IOException("The file " + indexFile + " is not a sheet key index file");
+			}
+			final long checksum = input.readLong();
+			final int sheetIndex = input.readInt();
+			final int headerRowIndex = input.readInt();
+			final int[] keyColumns = new int[checkLength(input.readInt(), size / 4, indexFile)];
+			for (int i = 0; i < keyColumns.length; i++)
+			{
+				keyColumns[i] = input.readInt();
+			}
+			final int entries = checkLength(input.readInt(), size / 8, indexFile);
+			final String[] keys = new String[entries];
+			final int[] rowIndexes = new int[entries];
+			for (int entry = 0; entry < entries; entry++)
+			{
+				final byte[] key = new byte[checkLength(input.readInt(), size, indexFile)];
+				input.readFully(key);
+				keys[entry] = new String(key, StandardCharsets.UTF_8);
+				rowIndexes[entry] = input.readInt();
+			}
+			if (input.read() != -1)
+			{
+				throw new IOException("The sheet key index file " + indexFile + " is corrupt");
+			}
+			return new SheetKeyIndex(checksum, sheetIndex, headerRowIndex, keyColumns, keys,
+				rowIndexes);
+		}
+	}
+
+	private static int checkLength(final int length, final long maxLength, final File indexFile)
+		throws IOException
+	{
+		if (length < 0 || maxLength < length)
+		{
+			throw new IOException("The sheet key index file " + indexFile + " is corrupt");
+		}
+		return length;
+	}
+
+	/**
+	 * Saves this index to the given sidecar {@link File}. The file is written to a temporary file
+	 * first and then moved, so readers never see a partially written index
+	 *
+	 * @param indexFile
+	 *            the sidecar file
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void save(final File indexFile) throws IOException
+	{
+		final Path target = indexFile.toPath();
+		final Path temporary = target.resolveSibling(indexFile.getName() + ".tmp");
+		try
+		{
+			try (DataOutputStream output = new DataOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(temporary))))
+			{
+				output.writeInt(MAGIC);
+				output.writeInt(VERSION);
+				output.writeLong(checksum);
+				output.writeInt(sheetIndex);
+				output.writeInt(headerRowIndex);
+				output.writeInt(keyColumns.length);
+				for (final int keyColumn : keyColumns)
+				{
+					output.writeInt(keyColumn);
+				}
+				output.writeInt(keys.length);
+				for (int entry = 0; entry < keys.length; entry++)
+				{
+					final byte[] key = keys[entry].getBytes(StandardCharsets.UTF_8);
+					output.writeInt(key.length);
+					output.write(key);
+					output.writeInt(rowIndexes[entry]);
+				}
+			}
+			Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally
+		{
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Checks if this index was built from the current content of the given workbook {@link File}
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @return true if the checksum of the file matches otherwise false
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public boolean isValidFor(final File workbookFile) throws IOException
+	{
+		return checksum == FileChecksum.of(workbookFile);
+	}
+
+	/**
+	 * Finds the first row with the given key
+	 *
+	 * @param key
+	 *            the values of the key columns in the order of the key columns
+	 * @return the zero based index of the first row with the key or -1 if no row has the key
+	 */
+	public int lookup(final String... key)
+	{
+		final int entry = findEntry(key);
+		return entry < 0 ? -1 : rowIndexes[entry];
+	}
+
+	/**
+	 * Finds all rows with the given key
+	 *
+	 * @param key
+	 *            the values of the key columns in the order of the key columns
+	 * @return the zero based indexes of the rows with the key in row order, an empty array if no
+	 *         row has the key
+	 */
+	public int[] lookupAll(final String... key)
+	{
+		int count = 0;
+		for (int entry = findEntry(key); 0 <= entry; entry = nextEntries[entry])
+		{
+			count++;
+		}
+		final int[] result = new int[count];
+		int i = 0;
+		for (int entry = findEntry(key); 0 <= entry; entry = nextEntries[entry])
+		{
+			result[i++] = rowIndexes[entry];
+		}
+		return result;
+	}
+
+	/**
+	 * Checks if a row has the given key
+	 *
+	 * @param key
+	 *            the values of the key columns in the order of the key columns
+	 * @return true if a row has the key otherwise false
+	 */
+	public boolean contains(final String... key)
+	{
+		return 0 <= findEntry(key);
+	}
+
+	/**
+	 * Gets the checksum of the workbook file this index was built from
+	 *
+	 * @return the checksum
+	 */
+	public long getChecksum()
+	{
+		return checksum;
+	}
+
+	/**
+	 * Gets the zero based index of the indexed sheet
+	 *
+	 * @return the sheet index
+	 */
+	public int getSheetIndex()
+	{
+		return sheetIndex;
+	}
+
+	/**
+	 * Gets the zero based index of the header row
+	 *
+	 * @return the header row index or -1 if the sheet has no header row
+	 */
+	public int getHeaderRowIndex()
+	{
+		return headerRowIndex;
+	}
+
+	/**
+	 * Gets the zero based indexes of the key columns
+	 *
+	 * @return a copy of the key column indexes
+	 */
+	public int[] getKeyColumns()
+	{
+		return keyColumns.clone();
+	}
+
+	/**
+	 * Gets the number of indexed rows
+	 *
+	 * @return the number of indexed rows
+	 */
+	public int size()
+	{
+		return keys.length;
+	}
+
+	/**
+	 * Gets the number of distinct keys
+	 *
+	 * @return the number of distinct keys
+	 */
+	public int getKeyCount()
+	{
+		return keyCount;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "SheetKeyIndex{" + "checksum=" + checksum + ", sheetIndex=" + sheetIndex
+			+ ", headerRowIndex=" + headerRowIndex + ", keyColumns=" + Arrays.toString(keyColumns)
+			+ ", rows=" + keys.length + ", keys=" + keyCount + '}';
+	}
+
+	/**
+	 * Finds the first entry with the given key. The entries are numbered in row order
+	 *
+	 * @param key
+	 *            the values of the key columns
+	 * @return the first entry or -1 if no row has the key
+	 */
+	int findEntry(final String... key)
+	{
+		if (key.length != keyColumns.length)
+		{
+			throw new IllegalArgumentException("The key has " + key.length
+				+ " values but the index has " + keyColumns.length + " key columns");
+		}
+		final String compositeKey = compositeKey(key, null);
+		final int hash = hash(compositeKey);
+		final int mask = slots.length - 1;
+		for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask)
+		{
+			final int entry = slots[slot] - 1;
+			if (hashes[entry] == hash && keys[entry].equals(compositeKey))
+			{
+				return entry;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the entry after the given entry with the same key
+	 *
+	 * @param entry
+	 *            the entry
+	 * @return the next entry or -1 if the given entry is the last entry with its key
+	 */
+	int nextEntry(final int entry)
+	{
+		return nextEntries[entry];
+	}
+
+	/**
+	 * Gets the row index of the given entry
+	 *
+	 * @param entry
+	 *            the entry
+	 * @return the zero based row index
+	 */
+	int getRowIndex(final int entry)
+	{
+		return rowIndexes[entry];
+	}
+
+	/**
+	 * Builds the composite key of the given values
+	 *
+	 * @param values
+	 *            the values of a row or the values of a key
+	 * @param columns
+	 *            the indexes of the key columns in the given values or null if the values are the
+	 *            key values
+	 * @return the composite key or null if all key values are empty
+	 */
+	static String compositeKey(final String[] values, final int[] columns)
+	{
+		final int count = columns == null ? values.length : columns.length;
+		if (count == 1)
+		{
+			final String value = valueAt(values, columns, 0);
+			return columns != null && value.isEmpty() ? null : value;
+		}
+		final StringBuilder key = new StringBuilder();
+		boolean blank = true;
+		for (int i = 0; i < count; i++)
+		{
+			final String value = valueAt(values, columns, i);
+			blank &= value.isEmpty();
+			if (0 < i)
+			{
+				key.append(KEY_SEPARATOR);
+			}
+			key.append(value);
+		}
+		return columns != null && blank ? null : key.toString();
+	}
+
+	/**
+	 * Gets the read options that select the rows after the given header row
+	 *
+	 * @param headerRowIndex
+	 *            the zero based index of the header row or -1 if the sheet has no header row
+	 * @return the read options
+	 */
+	static ReadOptions dataRows(final int headerRowIndex)
+	{
+		if (headerRowIndex < -1)
+		{
+			throw new IllegalArgumentException("Invalid header row index: " + headerRowIndex);
+		}
+		return ReadOptions.builder().rows(headerRowIndex + 1, Integer.MAX_VALUE).build();
+	}
+
+	/**
+	 * Checks the given key columns
+	 *
+	 * @param keyColumns
+	 *            the zero based indexes of the key columns
+	 * @return a copy of the key columns
+	 */
+	static int[] checkKeyColumns(final int[] keyColumns)
+	{
+		if (keyColumns.length == 0)
+		{
+			throw new IllegalArgumentException("At least one key column is required");
+		}
+		for (final int keyColumn : keyColumns)
+		{
+			if (keyColumn < 0)
+			{
+				throw new IllegalArgumentException(
+					"Column index must not be negative: " + keyColumn);
+			}
+		}
+		return keyColumns.clone();
+	}
+
+	private static String valueAt(final String[] values, final int[] columns, final int i)
+	{
+		final int column = columns == null ? i : columns[i];
+		return column < values.length && values[column] != null ? values[column] : "";
+	}
+
+	private static int hash(final String key)
+	{
+		final int hash = key.hashCode() * 0x9e3779b9;
+		return hash ^ (hash >>> 16);
+	}
+
+	/**
+	 * The class {@link KeyCollector} collects the keys and row indexes of a sheet and optionally
+	 * the values of the indexed rows
+	 */
+	static final class KeyCollector implements RowHandler
+	{
+		private final int[] keyColumns;
+
+		private final List<String[]> rows;
+
+		private String[] keys = new String[256];
+
+		private int[] rowIndexes = new int[256];
+
+		private int size;
+
+		KeyCollector(final int[] keyColumns, final List<String[]> rows)
+		{
+			this.keyColumns = keyColumns;
+			this.rows = rows;
+		}
+
+		@Override
+		public void handle(final int rowIndex, final String[] values)
+		{
+			final String key = compositeKey(values, keyColumns);
+			if (key == null)
+			{
+				return;
+			}
+			if (size == keys.length)
+			{
+				keys = Arrays.copyOf(keys, size * 2);
+				rowIndexes = Arrays.copyOf(rowIndexes, size * 2);
+			}
+			keys[size] = key;
+			rowIndexes[size] = rowIndex;
+			size++;
+			if (rows != null)
+			{
+				rows.add(values);
+			}
+		}
+
+		SheetKeyIndex toIndex(final long checksum, final int sheetIndex,
+			final int headerRowIndex)
+		{
+			return new SheetKeyIndex(checksum, sheetIndex, headerRowIndex, keyColumns,
+				Arrays.copyOf(keys, size), Arrays.copyOf(rowIndexes, size));
+		}
+	}
+}
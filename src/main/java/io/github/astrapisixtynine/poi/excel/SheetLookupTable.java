@@ -0,0 +1,152 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link SheetLookupTable} holds the rows of a reference sheet together with a
+ * {@link SheetKeyIndex} over its key columns, so rows and single values can be looked up by key
+ * in constant time like the <code>VLOOKUP</code> function of Excel does
+ */
+public final class SheetLookupTable
+{
+
+	private final SheetKeyIndex index;
+
+	private final List<String[]> rows;
+
+	private SheetLookupTable(final SheetKeyIndex index, final List<String[]> rows)
+	{
+		this.index = index;
+		this.rows = rows;
+	}
+
+	/**
+	 * Reads the sheet with the given index of the given xlsx {@link File} once and indexes its
+	 * rows by the given key columns
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param headerRowIndex
+	 *            the zero based index of the header row that is not indexed or -1 if the sheet
+	 *            has no header row
+	 * @param keyColumns
+	 *            the zero based indexes of the key columns
+	 * @return the new {@link SheetLookupTable} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static SheetLookupTable load(final File workbookFile, final int sheetIndex,
+		final int headerRowIndex, final int... keyColumns) throws IOException
+	{
+		Check.get().notNull(workbookFile, "workbookFile");
+		final List<String[]> rows = new ArrayList<>();
+		final SheetKeyIndex.KeyCollector collector = new SheetKeyIndex.KeyCollector(
+			SheetKeyIndex.checkKeyColumns(keyColumns), rows);
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			reader.readSheet(sheetIndex, SheetKeyIndex.dataRows(headerRowIndex), collector);
+		}
+		return new SheetLookupTable(
+			collector.toIndex(FileChecksum.of(workbookFile), sheetIndex, headerRowIndex), rows);
+	}
+
+	/**
+	 * Gets the values of the first row with the given key
+	 *
+	 * @param key
+	 *            the values of the key columns in the order of the key columns
+	 * @return the values of the row or null if no row has the key
+	 */
+	public String[] get(final String... key)
+	{
+		final int entry = index.findEntry(key);
+		return entry < 0 ? null : rows.get(entry);
+	}
+
+	/**
+	 * Gets the values of all rows with the given key
+	 *
+	 * @param key
+	 *            the values of the key columns in the order of the key columns
+	 * @return the values of the rows in row order, an empty list if no row has the key
+	 */
+	public List<String[]> getAll(final String... key)
+	{
+		final List<String[]> result = new ArrayList<>();
+		for (int entry = index.findEntry(key); 0 <= entry; entry = index.nextEntry(entry))
+		{
+			result.add(rows.get(entry));
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the value of the given column of the first row with the given key
+	 *
+	 * @param resultColumn
+	 *            the zero based index of the column whose value is returned
+	 * @param key
+	 *            the values of the key columns in the order of the key columns
+	 * @return the value or null if no row has the key, an empty String if the cell is blank
+	 */
+	public String lookup(final int resultColumn, final String... key)
+	{
+		final String[] row = get(key);
+		if (row == null)
+		{
+			return null;
+		}
+		return resultColumn < row.length ? row[resultColumn] : "";
+	}
+
+	/**
+	 * Gets the key index of this table
+	 *
+	 * @return the key index
+	 */
+	public SheetKeyIndex getIndex()
+	{
+		return index;
+	}
+
+	/**
+	 * Gets the number of indexed rows
+	 *
+	 * @return the number of indexed rows
+	 */
+	public int size()
+	{
+		return rows.size();
+	}
+}
@@ -0,0 +1,478 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link SheetProfiler} profiles the columns of the sheets of a xlsx file in a single
+ * streaming pass without loading a sheet into memory. For every column it counts the values and
+ * the blank cells, keeps the minimum, the maximum, the mean and the variance of the numeric values
+ * and estimates the number of distinct values with a {@link HyperLogLog} sketch and the most
+ * frequent values with a {@link HeavyHitters} sketch. The memory of a column is fixed and does not
+ * grow with the number of rows.
+ * <p>
+ * Every sheet is profiled by its own task in parallel and the partial profiles are merged at the
+ * end, the mean and the variance with the parallel algorithm of Chan et al. and the sketches by
+ * their merge operations. With {@link Builder#chunkRows(int)} a sheet is additionally split into
+ * chunks with a {@link SheetRowIndex}, so the chunks of a single large sheet are profiled in
+ * parallel as well
+ */
+public final class SheetProfiler
+{
+
+	private final File workbookFile;
+
+	private final int[] sheets;
+
+	private final int headerRowIndex;
+
+	private final int chunkRows;
+
+	private final int topValues;
+
+	private final int precision;
+
+	private final ExecutorService executor;
+
+	private SheetProfiler(final Builder builder)
+	{
+		this.workbookFile = builder.workbookFile;
+		this.sheets = builder.sheets;
+		this.headerRowIndex = builder.headerRowIndex;
+		this.chunkRows = builder.chunkRows;
+		this.topValues = builder.topValues;
+		this.precision = builder.precision;
+		this.executor = builder.executor;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for {@link SheetProfiler} objects over the given xlsx
+	 * {@link File}
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @return the new builder
+	 */
+	public static Builder builder(final File workbookFile)
+	{
+		Check.get().notNull(workbookFile, "workbookFile");
+		return new Builder(workbookFile);
+	}
+
+	/**
+	 * Profiles the columns of the selected sheets. The rows of all selected sheets are profiled
+	 * together, so a column profile covers the column with the same index in every sheet
+	 *
+	 * @return the column profiles ordered by column index, one for every column up to the last
+	 *         column that has a cell in any profiled row
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public List<ColumnProfile> profile() throws IOException
+	{
+		final int[] sheetIndexes;
+		String[] headerValues = new String[0];
+		final SharedStringCache sharedStrings;
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			sharedStrings = reader.getSharedStrings();
+			final int sheetCount = reader.getSheetNames().size();
+			if (sheets == null)
+			{
+				sheetIndexes = new int[sheetCount];
+				Arrays.setAll(sheetIndexes, i -> i);
+			}
+			else
+			{
+				for (final int sheetIndex : sheets)
+				{
+					if (sheetCount <= sheetIndex)
+					{
+						throw new IllegalArgumentException(
+							"The sheet with index " + sheetIndex + " does not exist");
+					}
+				}
+				sheetIndexes = sheets;
+			}
+			if (0 <= headerRowIndex && 0 < sheetIndexes.length)
+			{
+				final List<String[]> headerRows = reader.readSheet(sheetIndexes[0],
+					ReadOptions.builder().rows(headerRowIndex, headerRowIndex).build());
+				if (!headerRows.isEmpty())
+				{
+					headerValues = headerRows.get(0);
+				}
+			}
+		}
+		final PartialProfile result = new PartialProfile();
+		try (ChunkedScan scan = new ChunkedScan(executor, "profile"))
+		{
+			scan.run(workbookFile, sheetIndexes, chunkRows,
+				(sheetIndex, rowIndex, checkpoint) -> profile(sheetIndex, rowIndex, checkpoint,
+					sharedStrings),
+				result::merge);
+		}
+		return result.toProfiles(headerValues, topValues);
+	}
+
+	private PartialProfile profile(final int sheetIndex, final SheetRowIndex rowIndex,
+		final int checkpoint, final SharedStringCache sharedStrings) throws IOException
+	{
+		final int lastRow = rowIndex == null || checkpoint + 1 == rowIndex.getCheckpointCount()
+			? Integer.MAX_VALUE
+			: rowIndex.getRowIndex(checkpoint + 1) - 1;
+		final PartialProfile partial = new PartialProfile();
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile, sharedStrings);
+			SheetRowCursor cursor = rowIndex == null
+				? reader.openCursor(sheetIndex)
+				: reader.openCursor(sheetIndex, rowIndex, checkpoint))
+		{
+			while (cursor.nextRow())
+			{
+				final int row = cursor.getRowIndex();
+				if (lastRow < row)
+				{
+					break;
+				}
+				if (row <= headerRowIndex)
+				{
+					continue;
+				}
+				cursor.readRow(null, 0);
+				partial.rows++;
+				for (int position = 0; position < cursor.getWidth(); position++)
+				{
+					final XlsxCellType type = cursor.getType(position);
+					if (type == XlsxCellType.BLANK || type == XlsxCellType.ERROR
+						|| cursor.getRawValue(position) == null)
+					{
+						continue;
+					}
+					final String value = cursor.getString(position);
+					if (!value.isEmpty())
+					{
+						partial.columnAt(position, precision, topValues)
+							.add(value, SheetQuery.toNumber(cursor, position));
+					}
+				}
+			}
+		}
+		return partial;
+	}
+
+	/**
+	 * The statistics and sketches of a column of a sheet or a chunk of a sheet
+	 */
+	private static final class ColumnAccumulator
+	{
+		private final HyperLogLog distinct;
+
+		private final HeavyHitters heavyHitters;
+
+		private long count;
+
+		private long numericCount;
+
+		private double min = Double.POSITIVE_INFINITY;
+
+		private double max = Double.NEGATIVE_INFINITY;
+
+		private double mean;
+
+		private double squaredDeviations;
+
+		private ColumnAccumulator(final int precision, final int topValues)
+		{
+			this.distinct = new HyperLogLog(precision);
+			this.heavyHitters = new HeavyHitters(Math.max(4 * topValues, 32));
+		}
+
+		private void add(final String value, final double number)
+		{
+			count++;
+			distinct.add(RowHashTable.hash(value));
+			heavyHitters.add(value);
+			if (!Double.isNaN(number))
+			{
+				numericCount++;
+				min = Math.min(min, number);
+				max = Math.max(max, number);
+				final double delta = number - mean;
+				mean += delta / numericCount;
+				squaredDeviations += delta * (number - mean);
+			}
+		}
+
+		private void merge(final ColumnAccumulator other)
+		{
+			count += other.count;
+			distinct.merge(other.distinct);
+			heavyHitters.merge(other.heavyHitters);
+			if (other.numericCount == 0)
+			{
+				return;
+			}
+			final long total = numericCount + other.numericCount;
+			final double delta = other.mean - mean;
+			mean += delta * other.numericCount / total;
+			squaredDeviations += other.squaredDeviations
+				+ delta * delta * numericCount * other.numericCount / total;
+			numericCount = total;
+			min = Math.min(min, other.min);
+			max = Math.max(max, other.max);
+		}
+
+		private ColumnProfile toProfile(final int column, final String name, final long rows,
+			final int topValues)
+		{
+			final boolean numeric = 0 < numericCount;
+			return new ColumnProfile(column, name, rows, count, numericCount,
+				numeric ? min : Double.NaN, numeric ? max : Double.NaN,
+				numeric ? mean : Double.NaN,
+				1 < numericCount ? squaredDeviations / (numericCount - 1) : Double.NaN,
+				distinct.estimate(), heavyHitters.top(topValues));
+		}
+	}
+
+	/**
+	 * The partial profile of a sheet or a chunk of a sheet with an accumulator per column
+	 */
+	private static final class PartialProfile
+	{
+		private ColumnAccumulator[] columns = new ColumnAccumulator[0];
+
+		private long rows;
+
+		private ColumnAccumulator columnAt(final int column, final int precision,
+			final int topValues)
+		{
+			if (columns.length <= column)
+			{
+				columns = Arrays.copyOf(columns, Math.max(column + 1, columns.length * 2));
+			}
+			if (columns[column] == null)
+			{
+				columns[column] = new ColumnAccumulator(precision, topValues);
+			}
+			return columns[column];
+		}
+
+		private void merge(final PartialProfile other)
+		{
+			rows += other.rows;
+			if (columns.length < other.columns.length)
+			{
+				columns = Arrays.copyOf(columns, other.columns.length);
+			}
+			for (int column = 0; column < other.columns.length; column++)
+			{
+				if (other.columns[column] != null)
+				{
+					if (columns[column] == null)
+					{
+						columns[column] = other.columns[column];
+					}
+					else
+					{
+						columns[column].merge(other.columns[column]);
+					}
+				}
+			}
+		}
+
+		private List<ColumnProfile> toProfiles(final String[] headerValues, final int topValues)
+		{
+			int width = columns.length;
+			while (0 < width && columns[width - 1] == null)
+			{
+				width--;
+			}
+			final List<ColumnProfile> profiles = new ArrayList<>(width);
+			for (int column = 0; column < width; column++)
+			{
+				final String name = column < headerValues.length ? headerValues[column] : null;
+				final ColumnAccumulator accumulator = columns[column] == null
+					? new ColumnAccumulator(4, topValues)
+					: columns[column];
+				profiles.add(accumulator.toProfile(column, name, rows, topValues));
+			}
+			return profiles;
+		}
+	}
+
+	/**
+	 * The class {@link Builder} creates {@link SheetProfiler} objects
+	 */
+	public static final class Builder
+	{
+		private final File workbookFile;
+
+		private int[] sheets;
+
+		private int headerRowIndex = -1;
+
+		private int chunkRows;
+
+		private int topValues = 10;
+
+		private int precision = HyperLogLog.DEFAULT_PRECISION;
+
+		private ExecutorService executor;
+
+		private Builder(final File workbookFile)
+		{
+			this.workbookFile = workbookFile;
+		}
+
+		/**
+		 * Sets the zero based indexes of the sheets that are profiled. Default are all sheets
+		 *
+		 * @param sheets
+		 *            the sheet indexes
+		 * @return this builder
+		 */
+		public Builder sheets(final int... sheets)
+		{
+			for (final int sheet : sheets)
+			{
+				if (sheet < 0)
+				{
+					throw new IllegalArgumentException("Sheet index must not be negative: " + sheet);
+				}
+			}
+			this.sheets = sheets.length == 0 ? null : sheets.clone();
+			return this;
+		}
+
+		/**
+		 * Sets the zero based index of the header row of every profiled sheet. The header row
+		 * and all rows before it are not profiled and the values of the header row of the first
+		 * profiled sheet are the column names. Default is -1 for no header row
+		 *
+		 * @param headerRowIndex
+		 *            the header row index
+		 * @return this builder
+		 */
+		public Builder headerRowIndex(final int headerRowIndex)
+		{
+			if (headerRowIndex < -1)
+			{
+				throw new IllegalArgumentException("Invalid header row index: " + headerRowIndex);
+			}
+			this.headerRowIndex = headerRowIndex;
+			return this;
+		}
+
+		/**
+		 * Sets the number of rows of the chunks that a sheet is split into for the parallel
+		 * profiling. The chunks are found with a {@link SheetRowIndex} that is built for the
+		 * profile. Default is 0, then every sheet is profiled as a single chunk
+		 *
+		 * @param chunkRows
+		 *            the number of rows of a chunk
+		 * @return this builder
+		 */
+		public Builder chunkRows(final int chunkRows)
+		{
+			if (chunkRows < 0)
+			{
+				throw new IllegalArgumentException("Chunk rows must not be negative: " + chunkRows);
+			}
+			this.chunkRows = chunkRows;
+			return this;
+		}
+
+		/**
+		 * Sets the number of most frequent values that are reported for every column. The heavy
+		 * hitter sketch of a column keeps four times as many counters, at least 32. Default is 10
+		 *
+		 * @param topValues
+		 *            the number of most frequent values
+		 * @return this builder
+		 */
+		public Builder topValues(final int topValues)
+		{
+			if (topValues < 1)
+			{
+				throw new IllegalArgumentException("Top values must be positive: " + topValues);
+			}
+			this.topValues = topValues;
+			return this;
+		}
+
+		/**
+		 * Sets the precision of the distinct count sketch of every column. A sketch needs
+		 * <code>2^precision</code> bytes and has a relative standard error of about
+		 * <code>1.04 / sqrt(2^precision)</code>. Default is 14
+		 *
+		 * @param precision
+		 *            the precision between 4 and 18
+		 * @return this builder
+		 */
+		public Builder precision(final int precision)
+		{
+			if (precision < 4 || 18 < precision)
+			{
+				throw new IllegalArgumentException(
+					"Precision must be between 4 and 18: " + precision);
+			}
+			this.precision = precision;
+			return this;
+		}
+
+		/**
+		 * Sets the executor that profiles the sheets and chunks. The executor is not shut down by
+		 * the profiler. Default is a fixed thread pool with one thread per available processor
+		 * that is created for every profile
+		 *
+		 * @param executor
+		 *            the executor
+		 * @return this builder
+		 */
+		public Builder executor(final ExecutorService executor)
+		{
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Builds the {@link SheetProfiler} object
+		 *
+		 * @return the new {@link SheetProfiler} object
+		 */
+		public SheetProfiler build()
+		{
+			return new SheetProfiler(this);
+		}
+	}
+}
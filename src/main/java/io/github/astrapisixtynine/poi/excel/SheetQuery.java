@@ -0,0 +1,809 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.function.DoublePredicate;
+import java.util.function.Predicate;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link SheetQuery} runs a filter, group by and aggregate query directly over the
+ * streamed rows of the sheets of a xlsx file without loading a sheet into memory. Only the
+ * columns that the query references are decoded. The rows are collected into columnar batches of
+ * primitive values, the filters narrow the selection of a batch column by column and the
+ * aggregations update primitive accumulators per group.
+ * <p>
+ * Every sheet is aggregated by its own task in parallel and the partial results are merged at the
+ * end. With {@link Builder#chunkRows(int)} a sheet is additionally split into chunks with a
+ * {@link SheetRowIndex}, so the chunks of a single large sheet are parsed in parallel as well
+ */
+public final class SheetQuery
+{
+
+	/**
+	 * The number of rows of a columnar batch
+	 */
+	static final int BATCH_SIZE = 4096;
+
+	private final File workbookFile;
+
+	private final int[] sheets;
+
+	private final int headerRowIndex;
+
+	private final List<ColumnFilter> filters;
+
+	private final int[] groupByColumns;
+
+	private final Aggregation[] aggregations;
+
+	private final int chunkRows;
+
+	private final ExecutorService executor;
+
+	private final int[] positionByColumn;
+
+	private final boolean[] numericPositions;
+
+	private final boolean[] textPositions;
+
+	private SheetQuery(final Builder builder)
+	{
+		this.workbookFile = builder.workbookFile;
+		this.sheets = builder.sheets;
+		this.headerRowIndex = builder.headerRowIndex;
+		this.filters = List.copyOf(builder.filters);
+		this.groupByColumns = builder.groupByColumns;
+		this.aggregations = builder.aggregations.toArray(new Aggregation[0]);
+		this.chunkRows = builder.chunkRows;
+		this.executor = builder.executor;
+		int maxColumn = -1;
+		for (final ColumnFilter filter : filters)
+		{
+			maxColumn = Math.max(maxColumn, filter.column);
+		}
+		for (final int column : groupByColumns)
+		{
+			maxColumn = Math.max(maxColumn, column);
+		}
+		for (final Aggregation aggregation : aggregations)
+		{
+			maxColumn = Math.max(maxColumn, aggregation.column());
+		}
+		this.positionByColumn = new int[maxColumn + 1];
+		Arrays.fill(positionByColumn, -1);
+		final List<Boolean> numeric = new ArrayList<>();
+		final List<Boolean> text = new ArrayList<>();
+		for (final ColumnFilter filter : filters)
+		{
+			reference(filter.column, filter.numericPredicate != null, numeric, text);
+		}
+		for (final int column : groupByColumns)
+		{
+			reference(column, false, numeric, text);
+		}
+		for (final Aggregation aggregation : aggregations)
+		{
+			if (aggregation.function() != AggregateFunction.COUNT)
+			{
+				reference(aggregation.column(), true, numeric, text);
+			}
+		}
+		this.numericPositions = new boolean[numeric.size()];
+		this.textPositions = new boolean[text.size()];
+		for (int i = 0; i < numericPositions.length; i++)
+		{
+			numericPositions[i] = numeric.get(i);
+			textPositions[i] = text.get(i);
+		}
+	}
+
+	/**
+	 * Creates a new {@link Builder} for {@link SheetQuery} objects over the given xlsx
+	 * {@link File}
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @return the new builder
+	 */
+	public static Builder builder(final File workbookFile)
+	{
+		Check.get().notNull(workbookFile, "workbookFile");
+		return new Builder(workbookFile);
+	}
+
+	/**
+	 * Runs this query
+	 *
+	 * @return the result rows, one for every group in the order of the first row of the group.
+	 *         Without group by columns the result is a single row with an empty key, even if no
+	 *         row passed the filters
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public List<AggregateRow> execute() throws IOException
+	{
+		final int[] sheetIndexes;
+		final SharedStringCache sharedStrings;
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			sharedStrings = reader.getSharedStrings();
+			final int sheetCount = reader.getSheetNames().size();
+			if (sheets == null)
+			{
+				sheetIndexes = new int[sheetCount];
+				Arrays.setAll(sheetIndexes, i -> i);
+			}
+			else
+			{
+				for (final int sheetIndex : sheets)
+				{
+					if (sheetCount <= sheetIndex)
+					{
+						throw new IllegalArgumentException(
+							"The sheet with index " + sheetIndex + " does not exist");
+					}
+				}
+				sheetIndexes = sheets;
+			}
+		}
+		final PartialAggregate result = new PartialAggregate(aggregations.length, Long.MAX_VALUE);
+		try (ChunkedScan scan = new ChunkedScan(executor, "aggregation"))
+		{
+			scan.run(workbookFile, sheetIndexes, chunkRows,
+				(sheetIndex, rowIndex, checkpoint) -> aggregate(sheetIndex, rowIndex, checkpoint,
+					chunkOrder(sheetIndexes, sheetIndex, checkpoint), sharedStrings),
+				result::merge);
+		}
+		if (groupByColumns.length == 0 && result.size() == 0)
+		{
+			result.groupOf(new String[0]);
+		}
+		return result.toRows(aggregations);
+	}
+
+	/**
+	 * Gets the order of the chunk at the given checkpoint of the given sheet among all chunks of
+	 * the query, so the groups keep the order of their first row no matter in which order the
+	 * chunks complete
+	 */
+	private static long chunkOrder(final int[] sheetIndexes, final int sheetIndex,
+		final int checkpoint)
+	{
+		int position = 0;
+		while (sheetIndexes[position] != sheetIndex)
+		{
+			position++;
+		}
+		return (long)position << 32 | checkpoint;
+	}
+
+	private void reference(final int column, final boolean numeric, final List<Boolean> numerics,
+		final List<Boolean> texts)
+	{
+		int position = positionByColumn[column];
+		if (position < 0)
+		{
+			position = numerics.size();
+			positionByColumn[column] = position;
+			numerics.add(false);
+			texts.add(false);
+		}
+		if (numeric)
+		{
+			numerics.set(position, true);
+		}
+		else
+		{
+			texts.set(position, true);
+		}
+	}
+
+	private PartialAggregate aggregate(final int sheetIndex, final SheetRowIndex rowIndex,
+		final int checkpoint, final long chunkOrder, final SharedStringCache sharedStrings)
+		throws IOException
+	{
+		final int lastRow = rowIndex == null || checkpoint + 1 == rowIndex.getCheckpointCount()
+			? Integer.MAX_VALUE
+			: rowIndex.getRowIndex(checkpoint + 1) - 1;
+		final PartialAggregate partial = new PartialAggregate(aggregations.length, chunkOrder);
+		final ColumnBatch batch = new ColumnBatch(numericPositions, textPositions);
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile, sharedStrings);
+			SheetRowCursor cursor = rowIndex == null
+				? reader.openCursor(sheetIndex)
+				: reader.openCursor(sheetIndex, rowIndex, checkpoint))
+		{
+			while (cursor.nextRow())
+			{
+				final int row = cursor.getRowIndex();
+				if (lastRow < row)
+				{
+					break;
+				}
+				if (row <= headerRowIndex)
+				{
+					continue;
+				}
+				cursor.readRow(positionByColumn, numericPositions.length);
+				batch.add(cursor);
+				if (batch.size == BATCH_SIZE)
+				{
+					process(batch, partial);
+				}
+			}
+			if (0 < batch.size)
+			{
+				process(batch, partial);
+			}
+		}
+		return partial;
+	}
+
+	private void process(final ColumnBatch batch, final PartialAggregate partial)
+	{
+		int selected = batch.selectAll();
+		for (final ColumnFilter filter : filters)
+		{
+			selected = filter.apply(batch, positionByColumn[filter.column], selected);
+		}
+		final int[] selection = batch.selection;
+		final int[] groups = batch.groups;
+		final String[] key = new String[groupByColumns.length];
+		for (int i = 0; i < selected; i++)
+		{
+			for (int k = 0; k < key.length; k++)
+			{
+				key[k] = batch.text[positionByColumn[groupByColumns[k]]][selection[i]];
+			}
+			groups[i] = partial.groupOf(key);
+			partial.rows[groups[i]]++;
+		}
+		for (int a = 0; a < aggregations.length; a++)
+		{
+			if (aggregations[a].function() != AggregateFunction.COUNT)
+			{
+				partial.accumulate(a,
+					batch.numeric[positionByColumn[aggregations[a].column()]], selection, groups,
+					selected);
+			}
+		}
+		batch.size = 0;
+	}
+
+	/**
+	 * Converts the cell at the given position of the current row of the given cursor to a number
+	 *
+	 * @param cursor
+	 *            the cursor
+	 * @param position
+	 *            the position of the cell
+	 * @return the numeric value or {@link Double#NaN} if the cell is blank or has no numeric value
+	 */
+	static double toNumber(final SheetRowCursor cursor, final int position)
+	{
+		if (cursor.getWidth() <= position)
+		{
+			return Double.NaN;
+		}
+		final String rawValue = cursor.getRawValue(position);
+		if (rawValue == null)
+		{
+			return Double.NaN;
+		}
+		switch (cursor.getType(position))
+		{
+			case NUMBER :
+				return parseNumber(rawValue);
+			case BOOLEAN :
+				return "1".equals(rawValue) ? 1 : 0;
+			case SHARED_STRING :
+			case INLINE_STRING :
+			case FORMULA_STRING :
+				return parseNumber(cursor.getString(position).trim());
+			default :
+				return Double.NaN;
+		}
+	}
+
+	private static double parseNumber(final String value)
+	{
+		if (value.isEmpty())
+		{
+			return Double.NaN;
+		}
+		final char first = value.charAt(0);
+		if ((first < '0' || '9' < first) && first != '-' && first != '+' && first != '.')
+		{
+			return Double.NaN;
+		}
+		try
+		{
+			return Double.parseDouble(value);
+		}
+		catch (NumberFormatException e)
+		{
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * A filter on the numeric or the string values of a column
+	 */
+	private static final class ColumnFilter
+	{
+		private final int column;
+
+		private final DoublePredicate numericPredicate;
+
+		private final Predicate<String> textPredicate;
+
+		private ColumnFilter(final int column, final DoublePredicate numericPredicate,
+			final Predicate<String> textPredicate)
+		{
+			this.column = column;
+			this.numericPredicate = numericPredicate;
+			this.textPredicate = textPredicate;
+		}
+
+		private int apply(final ColumnBatch batch, final int position, final int selected)
+		{
+			final int[] selection = batch.selection;
+			int kept = 0;
+			if (numericPredicate != null)
+			{
+				final double[] values = batch.numeric[position];
+				for (int i = 0; i < selected; i++)
+				{
+					final double value = values[selection[i]];
+					if (!Double.isNaN(value) && numericPredicate.test(value))
+					{
+						selection[kept++] = selection[i];
+					}
+				}
+			}
+			else
+			{
+				final String[] values = batch.text[position];
+				for (int i = 0; i < selected; i++)
+				{
+					if (textPredicate.test(values[selection[i]]))
+					{
+						selection[kept++] = selection[i];
+					}
+				}
+			}
+			return kept;
+		}
+	}
+
+	/**
+	 * A batch of rows that stores every referenced column in its own array
+	 */
+	private static final class ColumnBatch
+	{
+		private final double[][] numeric;
+
+		private final String[][] text;
+
+		private final int[] selection = new int[BATCH_SIZE];
+
+		private final int[] groups = new int[BATCH_SIZE];
+
+		private int size;
+
+		private ColumnBatch(final boolean[] numericPositions, final boolean[] textPositions)
+		{
+			numeric = new double[numericPositions.length][];
+			text = new String[textPositions.length][];
+			for (int i = 0; i < numericPositions.length; i++)
+			{
+				if (numericPositions[i])
+				{
+					numeric[i] = new double[BATCH_SIZE];
+				}
+				if (textPositions[i])
+				{
+					text[i] = new String[BATCH_SIZE];
+				}
+			}
+		}
+
+		private void add(final SheetRowCursor cursor)
+		{
+			for (int i = 0; i < numeric.length; i++)
+			{
+				if (numeric[i] != null)
+				{
+					numeric[i][size] = toNumber(cursor, i);
+				}
+				if (text[i] != null)
+				{
+					text[i][size] = i < cursor.getWidth() ? cursor.getString(i) : null;
+				}
+			}
+			size++;
+		}
+
+		private int selectAll()
+		{
+			for (int i = 0; i < size; i++)
+			{
+				selection[i] = i;
+			}
+			return size;
+		}
+	}
+
+	/**
+	 * The partial aggregate of a sheet or a chunk of a sheet with primitive accumulators per
+	 * aggregation and group. Every group remembers the chunk and the position in the chunk where
+	 * it first occurred, so merged partials keep the order of the first row of a group
+	 */
+	private static final class PartialAggregate
+	{
+		private final Map<List<String>, Integer> groupIds = new HashMap<>();
+
+		private final List<String[]> keys = new ArrayList<>();
+
+		private long[] rows = new long[16];
+
+		private final long chunkOrder;
+
+		private long[] firstChunks = new long[16];
+
+		private int[] firstGroups = new int[16];
+
+		private final long[][] counts;
+
+		private final double[][] sums;
+
+		private final double[][] mins;
+
+		private final double[][] maxs;
+
+		private PartialAggregate(final int aggregationCount, final long chunkOrder)
+		{
+			this.chunkOrder = chunkOrder;
+			counts = new long[aggregationCount][rows.length];
+			sums = new double[aggregationCount][rows.length];
+			mins = new double[aggregationCount][rows.length];
+			maxs = new double[aggregationCount][rows.length];
+		}
+
+		private int size()
+		{
+			return keys.size();
+		}
+
+		private int groupOf(final String[] key)
+		{
+			final Integer groupId = groupIds.get(Arrays.asList(key));
+			if (groupId != null)
+			{
+				return groupId;
+			}
+			final int newId = keys.size();
+			if (newId == rows.length)
+			{
+				final int capacity = newId * 2;
+				rows = Arrays.copyOf(rows, capacity);
+				firstChunks = Arrays.copyOf(firstChunks, capacity);
+				firstGroups = Arrays.copyOf(firstGroups, capacity);
+				for (int a = 0; a < counts.length; a++)
+				{
+					counts[a] = Arrays.copyOf(counts[a], capacity);
+					sums[a] = Arrays.copyOf(sums[a], capacity);
+					mins[a] = Arrays.copyOf(mins[a], capacity);
+					maxs[a] = Arrays.copyOf(maxs[a], capacity);
+				}
+			}
+			final String[] copy = key.clone();
+			keys.add(copy);
+			groupIds.put(Arrays.asList(copy), newId);
+			firstChunks[newId] = chunkOrder;
+			firstGroups[newId] = newId;
+			for (int a = 0; a < counts.length; a++)
+			{
+				mins[a][newId] = Double.POSITIVE_INFINITY;
+				maxs[a][newId] = Double.NEGATIVE_INFINITY;
+			}
+			return newId;
+		}
+
+		private void accumulate(final int aggregation, final double[] values,
+			final int[] selection, final int[] groups, final int selected)
+		{
+			final long[] count = counts[aggregation];
+			final double[] sum = sums[aggregation];
+			final double[] min = mins[aggregation];
+			final double[] max = maxs[aggregation];
+			for (int i = 0; i < selected; i++)
+			{
+				final double value = values[selection[i]];
+				if (!Double.isNaN(value))
+				{
+					final int group = groups[i];
+					count[group]++;
+					sum[group] += value;
+					min[group] = Math.min(min[group], value);
+					max[group] = Math.max(max[group], value);
+				}
+			}
+		}
+
+		private void merge(final PartialAggregate other)
+		{
+			for (int source = 0; source < other.size(); source++)
+			{
+				final int target = groupOf(other.keys.get(source));
+				if (other.firstChunks[source] < firstChunks[target]
+					|| other.firstChunks[source] == firstChunks[target]
+						&& other.firstGroups[source] < firstGroups[target])
+				{
+					firstChunks[target] = other.firstChunks[source];
+					firstGroups[target] = other.firstGroups[source];
+				}
+				rows[target] += other.rows[source];
+				for (int a = 0; a < counts.length; a++)
+				{
+					counts[a][target] += other.counts[a][source];
+					sums[a][target] += other.sums[a][source];
+					mins[a][target] = Math.min(mins[a][target], other.mins[a][source]);
+					maxs[a][target] = Math.max(maxs[a][target], other.maxs[a][source]);
+				}
+			}
+		}
+
+		private List<AggregateRow> toRows(final Aggregation[] aggregations)
+		{
+			final List<AggregateRow> result = new ArrayList<>(keys.size());
+			final Integer[] order = new Integer[keys.size()];
+			Arrays.setAll(order, group -> group);
+			Arrays.sort(order, (left, right) -> firstChunks[left] != firstChunks[right]
+				? Long.compare(firstChunks[left], firstChunks[right])
+				: Integer.compare(firstGroups[left], firstGroups[right]));
+			for (final int group : order)
+			{
+				final double[] values = new double[aggregations.length];
+				for (int a = 0; a < aggregations.length; a++)
+				{
+					final boolean empty = counts[a][group] == 0;
+					values[a] = switch (aggregations[a].function())
+					{
+						case COUNT -> rows[group];
+						case SUM -> sums[a][group];
+						case AVG -> empty ? Double.NaN : sums[a][group] / counts[a][group];
+						case MIN -> empty ? Double.NaN : mins[a][group];
+						case MAX -> empty ? Double.NaN : maxs[a][group];
+					};
+				}
+				result.add(new AggregateRow(keys.get(group), rows[group], values));
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * The class {@link Builder} creates {@link SheetQuery} objects
+	 */
+	public static final class Builder
+	{
+		private final File workbookFile;
+
+		private int[] sheets;
+
+		private int headerRowIndex = -1;
+
+		private final List<ColumnFilter> filters = new ArrayList<>();
+
+		private int[] groupByColumns = new int[0];
+
+		private final List<Aggregation> aggregations = new ArrayList<>();
+
+		private int chunkRows;
+
+		private ExecutorService executor;
+
+		private Builder(final File workbookFile)
+		{
+			this.workbookFile = workbookFile;
+		}
+
+		/**
+		 * Sets the zero based indexes of the sheets that are queried. Default are all sheets
+		 *
+		 * @param sheets
+		 *            the sheet indexes
+		 * @return this builder
+		 */
+		public Builder sheets(final int... sheets)
+		{
+			for (final int sheet : sheets)
+			{
+				if (sheet < 0)
+				{
+					throw new IllegalArgumentException("Sheet index must not be negative: " + sheet);
+				}
+			}
+			this.sheets = sheets.length == 0 ? null : sheets.clone();
+			return this;
+		}
+
+		/**
+		 * Sets the zero based index of the header row of every queried sheet. The header row and
+		 * all rows before it are not queried. Default is -1 for no header row
+		 *
+		 * @param headerRowIndex
+		 *            the header row index
+		 * @return this builder
+		 */
+		public Builder headerRowIndex(final int headerRowIndex)
+		{
+			if (headerRowIndex < -1)
+			{
+				throw new IllegalArgumentException("Invalid header row index: " + headerRowIndex);
+			}
+			this.headerRowIndex = headerRowIndex;
+			return this;
+		}
+
+		/**
+		 * Adds a filter on the numeric values of the given column. Rows without a numeric value
+		 * in the column never pass the filter
+		 *
+		 * @param column
+		 *            the zero based column index
+		 * @param predicate
+		 *            the predicate that the value of a passing row satisfies
+		 * @return this builder
+		 */
+		public Builder where(final int column, final DoublePredicate predicate)
+		{
+			Check.get().notNull(predicate, "predicate");
+			filters.add(new ColumnFilter(checkColumn(column), predicate, null));
+			return this;
+		}
+
+		/**
+		 * Adds a filter on the string values of the given column. The value of a blank cell is
+		 * null
+		 *
+		 * @param column
+		 *            the zero based column index
+		 * @param predicate
+		 *            the predicate that the value of a passing row satisfies
+		 * @return this builder
+		 */
+		public Builder whereText(final int column, final Predicate<String> predicate)
+		{
+			Check.get().notNull(predicate, "predicate");
+			filters.add(new ColumnFilter(checkColumn(column), null, predicate));
+			return this;
+		}
+
+		/**
+		 * Sets the zero based indexes of the columns whose string values form the key of a group.
+		 * Default is no group by column, then all rows form a single group
+		 *
+		 * @param columns
+		 *            the group by column indexes
+		 * @return this builder
+		 */
+		public Builder groupBy(final int... columns)
+		{
+			for (final int column : columns)
+			{
+				checkColumn(column);
+			}
+			this.groupByColumns = columns.clone();
+			return this;
+		}
+
+		/**
+		 * Adds the given aggregations to the query
+		 *
+		 * @param aggregations
+		 *            the aggregations
+		 * @return this builder
+		 */
+		public Builder aggregate(final Aggregation... aggregations)
+		{
+			for (final Aggregation aggregation : aggregations)
+			{
+				Check.get().notNull(aggregation, "aggregation");
+				this.aggregations.add(aggregation);
+			}
+			return this;
+		}
+
+		/**
+		 * Sets the number of rows of the chunks that a sheet is split into for the parallel
+		 * aggregation. The chunks are found with a {@link SheetRowIndex} that is built for the
+		 * query. Default is 0, then every sheet is aggregated as a single chunk
+		 *
+		 * @param chunkRows
+		 *            the number of rows of a chunk
+		 * @return this builder
+		 */
+		public Builder chunkRows(final int chunkRows)
+		{
+			if (chunkRows < 0)
+			{
+				throw new IllegalArgumentException("Chunk rows must not be negative: " + chunkRows);
+			}
+			this.chunkRows = chunkRows;
+			return this;
+		}
+
+		/**
+		 * Sets the executor that aggregates the sheets and chunks. The executor is not shut down
+		 * by the query. Default is a fixed thread pool with one thread per available processor
+		 * that is created for every execution
+		 *
+		 * @param executor
+		 *            the executor
+		 * @return this builder
+		 */
+		public Builder executor(final ExecutorService executor)
+		{
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Builds the {@link SheetQuery} object
+		 *
+		 * @return the new {@link SheetQuery} object
+		 * @throws IllegalArgumentException
+		 *             if no aggregation was added
+		 */
+		public SheetQuery build()
+		{
+			if (aggregations.isEmpty())
+			{
+				throw new IllegalArgumentException("At least one aggregation is required");
+			}
+			return new SheetQuery(this);
+		}
+
+		private static int checkColumn(final int column)
+		{
+			if (column < 0)
+			{
+				throw new IllegalArgumentException("Column index must not be negative: " + column);
+			}
+			return column;
+		}
+	}
+}
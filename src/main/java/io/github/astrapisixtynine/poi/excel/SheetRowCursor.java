@@ -0,0 +1,520 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.XMLHelper;
+
+/**
+ * The class {@link SheetRowCursor} is a forward only pull parser over the xml of a single sheet in
+ * a xlsx file. The cursor is moved from row to row and the caller decides for every row if it
+ * should be skipped or read, and for every cell if its value is stored at all. Skipped rows and
+ * unselected cells are passed over on the xml event level, so no value of them is decoded.
+ * <p>
+ * The cells of the current row are held in reused arrays that are indexed by the output position
+ * of the cell
+ */
+final class SheetRowCursor implements Closeable
+{
+	private static final XMLInputFactory XML_INPUT_FACTORY = XMLHelper.newXMLInputFactory();
+
+	private final InputStream inputStream;
+
+	private final XMLStreamReader reader;
+
+	private final SharedStringCache sharedStrings;
+
+	private String dimension;
+
+	private int rowIndex = -1;
+
+	private boolean rowPending;
+
+	private boolean finished;
+
+	private XlsxCellType[] types = new XlsxCellType[16];
+
+	private String[] rawValues = new String[16];
+
+	private int[] styles = new int[16];
+
+	private int width;
+
+	/**
+	 * Creates a new {@link SheetRowCursor} over the given sheet xml stream and moves it in front of
+	 * the first row
+	 *
+	 * @param inputStream
+	 *            the input stream of the sheet xml
+	 * @param sharedStrings
+	 *            the shared strings table of the workbook
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	SheetRowCursor(final InputStream inputStream, final SharedStringCache sharedStrings)
+		throws IOException
+	{
+		this.inputStream = inputStream;
+		this.sharedStrings = sharedStrings;
+		try
+		{
+			this.reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+			moveToSheetData();
+		}
+		catch (XMLStreamException e)
+		{
+			inputStream.close();
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Parses the column index from the given cell reference like <code>AB12</code>
+	 *
+	 * @param cellReference
+	 *            the cell reference
+	 * @return the zero based column index
+	 */
+	static int columnIndexOf(final String cellReference)
+	{
+		int column = 0;
+		for (int i = 0; i < cellReference.length(); i++)
+		{
+			final char character = cellReference.charAt(i);
+			if (character < 'A' || 'Z' < character)
+			{
+				break;
+			}
+			column = column * 26 + (character - 'A' + 1);
+		}
+		return column - 1;
+	}
+
+	/**
+	 * Gets the value of the <code>dimension</code> element of the sheet
+	 *
+	 * @return the dimension like <code>A1:F200</code> or null if the sheet does not declare one
+	 */
+	String getDimension()
+	{
+		return dimension;
+	}
+
+	/**
+	 * Moves the cursor to the next row. If the current row was not read it is skipped
+	 *
+	 * @return true if the cursor is positioned on a row, false if the end of the sheet data was
+	 *         reached
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	boolean nextRow() throws IOException
+	{
+		if (finished)
+		{
+			return false;
+		}
+		try
+		{
+			if (rowPending)
+			{
+				skipElement();
+				rowPending = false;
+			}
+			while (reader.hasNext())
+			{
+				final int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT && "row".equals(reader.getLocalName()))
+				{
+					final String reference = reader.getAttributeValue(null, "r");
+					rowIndex = reference == null ? rowIndex + 1 : Integer.parseInt(reference) - 1;
+					rowPending = true;
+					width = 0;
+					return true;
+				}
+				if (event == XMLStreamConstants.END_ELEMENT
+					&& "sheetData".equals(reader.getLocalName()))
+				{
+					break;
+				}
+			}
+			finished = true;
+			return false;
+		}
+		catch (XMLStreamException e)
+		{
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Gets the zero based index of the current row
+	 *
+	 * @return the row index
+	 */
+	int getRowIndex()
+	{
+		return rowIndex;
+	}
+
+	/**
+	 * Reads the cells of the current row into the cell arrays of this cursor
+	 *
+	 * @param positionByColumn
+	 *            the output position for every column index, a negative position skips the
+	 *            column. If null every cell is stored at the position of its column index
+	 * @param selectedWidth
+	 *            the number of output positions if <code>positionByColumn</code> is given
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	void readRow(final int[] positionByColumn, final int selectedWidth) throws IOException
+	{
+		if (!rowPending)
+		{
+			throw new IllegalStateException("The cursor is not positioned on an unread row");
+		}
+		rowPending = false;
+		width = positionByColumn == null ? 0 : selectedWidth;
+		ensureCapacity(width);
+		Arrays.fill(types, 0, width, XlsxCellType.BLANK);
+		Arrays.fill(rawValues, 0, width, null);
+		Arrays.fill(styles, 0, width, 0);
+		try
+		{
+			int nextColumn = 0;
+			while (reader.hasNext())
+			{
+				final int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT && "c".equals(reader.getLocalName()))
+				{
+					final String reference = reader.getAttributeValue(null, "r");
+					final int column = reference == null ? nextColumn : columnIndexOf(reference);
+					nextColumn = column + 1;
+					final int position = positionOf(positionByColumn, column);
+					if (position < 0)
+					{
+						skipElement();
+						continue;
+					}
+					readCell(position);
+				}
+				else if (event == XMLStreamConstants.END_ELEMENT
+					&& "row".equals(reader.getLocalName()))
+				{
+					return;
+				}
+			}
+		}
+		catch (XMLStreamException e)
+		{
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Gets the number of cell positions of the current row
+	 *
+	 * @return the width of the current row
+	 */
+	int getWidth()
+	{
+		return width;
+	}
+
+	/**
+	 * Gets the raw type of the cell at the given position
+	 *
+	 * @param position
+	 *            the position of the cell
+	 * @return the cell type
+	 */
+	XlsxCellType getType(final int position)
+	{
+		return types[position];
+	}
+
+	/**
+	 * Gets the raw undecoded value of the cell at the given position
+	 *
+	 * @param position
+	 *            the position of the cell
+	 * @return the raw value or null if the cell is blank
+	 */
+	String getRawValue(final int position)
+	{
+		return rawValues[position];
+	}
+
+	/**
+	 * Gets the style index of the cell at the given position
+	 *
+	 * @param position
+	 *            the position of the cell
+	 * @return the style index
+	 */
+	int getStyleIndex(final int position)
+	{
+		return styles[position];
+	}
+
+	/**
+	 * Decodes the value of the cell at the given position to a String. Numeric values are
+	 * converted like Excel displays them in the general format and formula cells return the cached
+	 * result of the formula
+	 *
+	 * @param position
+	 *            the position of the cell
+	 * @return the cell value as String, an empty String if the cell is blank or an error
+	 */
+	String getString(final int position)
+	{
+		return getString(position, null);
+	}
+
+	/**
+	 * Decodes the value of the cell at the given position to a String. Numeric values are
+	 * formatted with the data format of their cell style from the given {@link CellFormatCache}
+	 *
+	 * @param position
+	 *            the position of the cell
+	 * @param formats
+	 *            the format cache or null for the general format
+	 * @return the cell value as String, an empty String if the cell is blank or an error
+	 */
+	String getString(final int position, final CellFormatCache formats)
+	{
+		final String rawValue = rawValues[position];
+		if (rawValue == null)
+		{
+			return "";
+		}
+		switch (types[position])
+		{
+			case NUMBER :
+				return formats == null
+					? NumberToTextConverter.toText(Double.parseDouble(rawValue))
+					: formats.format(styles[position], Double.parseDouble(rawValue));
+			case SHARED_STRING :
+				return sharedStrings.getString(Integer.parseInt(rawValue));
+			case BOOLEAN :
+				return Boolean.toString("1".equals(rawValue) || "true".equals(rawValue));
+			case ERROR :
+			case BLANK :
+				return "";
+			default :
+				return rawValue;
+		}
+	}
+
+	/**
+	 * Decodes all cells of the current row to Strings
+	 *
+	 * @return a new array with the decoded cell values
+	 */
+	String[] toStringArray()
+	{
+		return toStringArray(null);
+	}
+
+	/**
+	 * Decodes all cells of the current row to Strings and formats numeric values with the given
+	 * {@link CellFormatCache}
+	 *
+	 * @param formats
+	 *            the format cache or null for the general format
+	 * @return a new array with the decoded cell values
+	 */
+	String[] toStringArray(final CellFormatCache formats)
+	{
+		final String[] values = new String[width];
+		for (int i = 0; i < width; i++)
+		{
+			values[i] = getString(i, formats);
+		}
+		return values;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		finished = true;
+		try
+		{
+			reader.close();
+		}
+		catch (XMLStreamException e)
+		{
+			throw new IOException(e);
+		}
+		finally
+		{
+			inputStream.close();
+		}
+	}
+
+	private static int positionOf(final int[] positionByColumn, final int column)
+	{
+		if (positionByColumn == null)
+		{
+			return column;
+		}
+		return column < positionByColumn.length ? positionByColumn[column] : -1;
+	}
+
+	private void moveToSheetData() throws XMLStreamException
+	{
+		while (reader.hasNext())
+		{
+			if (reader.next() == XMLStreamConstants.START_ELEMENT)
+			{
+				final String localName = reader.getLocalName();
+				if ("dimension".equals(localName))
+				{
+					dimension = reader.getAttributeValue(null, "ref");
+				}
+				else if ("sheetData".equals(localName))
+				{
+					return;
+				}
+			}
+		}
+		finished = true;
+	}
+
+	private void readCell(final int position) throws XMLStreamException
+	{
+		if (width <= position)
+		{
+			ensureCapacity(position + 1);
+			for (int i = width; i <= position; i++)
+			{
+				types[i] = XlsxCellType.BLANK;
+				rawValues[i] = null;
+				styles[i] = 0;
+			}
+			width = position + 1;
+		}
+		final String style = reader.getAttributeValue(null, "s");
+		styles[position] = style == null ? 0 : Integer.parseInt(style);
+		final XlsxCellType type = XlsxCellType.of(reader.getAttributeValue(null, "t"));
+		String rawValue = null;
+		while (reader.hasNext())
+		{
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT)
+			{
+				final String localName = reader.getLocalName();
+				if ("v".equals(localName))
+				{
+					rawValue = reader.getElementText();
+				}
+				else if ("is".equals(localName))
+				{
+					rawValue = readInlineString();
+				}
+				else
+				{
+					skipElement();
+				}
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT)
+			{
+				break;
+			}
+		}
+		types[position] = rawValue == null ? XlsxCellType.BLANK : type;
+		rawValues[position] = rawValue;
+	}
+
+	private String readInlineString() throws XMLStreamException
+	{
+		final StringBuilder text = new StringBuilder();
+		int depth = 1;
+		while (0 < depth && reader.hasNext())
+		{
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT)
+			{
+				final String localName = reader.getLocalName();
+				if ("t".equals(localName))
+				{
+					text.append(reader.getElementText());
+				}
+				else if ("rPh".equals(localName))
+				{
+					skipElement();
+				}
+				else
+				{
+					depth++;
+				}
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT)
+			{
+				depth--;
+			}
+		}
+		return text.toString();
+	}
+
+	private void skipElement() throws XMLStreamException
+	{
+		int depth = 1;
+		while (0 < depth && reader.hasNext())
+		{
+			final int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT)
+			{
+				depth++;
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT)
+			{
+				depth--;
+			}
+		}
+	}
+
+	private void ensureCapacity(final int capacity)
+	{
+		if (types.length < capacity)
+		{
+			final int newCapacity = Math.max(capacity, types.length * 2);
+			types = Arrays.copyOf(types, newCapacity);
+			rawValues = Arrays.copyOf(rawValues, newCapacity);
+			styles = Arrays.copyOf(styles, newCapacity);
+		}
+	}
+}
@@ -0,0 +1,634 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link SheetRowIndex} records the byte offsets of the <code>row</code> elements in the
+ * uncompressed sheet xml of a xlsx file at a fixed interval of rows. With an index a window of
+ * rows can be read with {@link XlsxStreamReader#readWindow(int, SheetRowIndex, ReadOptions,
+ * RowHandler)} by jumping to the closest checkpoint in front of the window, so only the rows of
+ * the window are parsed.
+ * <p>
+ * An index can be saved as a small sidecar file next to the workbook. The sidecar file is keyed
+ * by the checksum of the workbook file, so a stale index is detected and rebuilt
+ */
+public final class SheetRowIndex
+{
+
+	/**
+	 * The default number of rows between two checkpoints
+	 */
+	public static final int DEFAULT_INTERVAL = 1000;
+
+	/**
+	 * The file extension of sidecar index files
+	 */
+	public static final String FILE_EXTENSION = ".rowidx";
+
+	private static final int MAGIC = 0x52494458;
+
+	private static final int VERSION = 2;
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final byte[] COMMENT_START = "!--".getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] COMMENT_END = "-->".getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] CDATA_START = "![CDATA[".getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] CDATA_END = "]]>".getBytes(StandardCharsets.US_ASCII);
+
+	private static final Pattern NAMESPACE_DECLARATION = Pattern
+		.compile("xmlns(:[\\w.-]+)?\\s*=\\s*(\"[^\"]*\"|'[^']*')");
+
+	private final long checksum;
+
+	private final int sheetIndex;
+
+	private final int interval;
+
+	private final int rowCount;
+
+	private final int lastRowIndex;
+
+	private final String fragmentStart;
+
+	private final int[] rowIndexes;
+
+	private final long[] byteOffsets;
+
+	private SheetRowIndex(final long checksum, final int sheetIndex, final int interval,
+		final int rowCount, final int lastRowIndex, final String fragmentStart,
+		final int[] rowIndexes, final long[] byteOffsets)
+	{
+		this.checksum = checksum;
+		this.sheetIndex = sheetIndex;
+		this.interval = interval;
+		this.rowCount = rowCount;
+		this.lastRowIndex = lastRowIndex;
+		this.fragmentStart = fragmentStart;
+		this.rowIndexes = rowIndexes;
+		this.byteOffsets = byteOffsets;
+	}
+
+	/**
+	 * Builds the index of the sheet with the given index in the given xlsx {@link File}
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param interval
+	 *            the number of rows between two checkpoints
+	 * @return the new {@link SheetRowIndex} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static SheetRowIndex build(final File workbookFile, final int sheetIndex,
+		final int interval) throws IOException
+	{
+		Check.get().notNull(workbookFile, "workbookFile");
+		if (interval < 1)
+		{
+			throw new IllegalArgumentException("Interval must be positive: " + interval);
+		}
+		final long checksum = FileChecksum.of(workbookFile);
+		// the scan only reads the raw sheet xml, so the shared strings are not parsed at all
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile,
+			SharedStringCache.EMPTY))
+		{
+			return build(reader, checksum, sheetIndex, interval);
+		}
+	}
+
+	/**
+	 * Builds the index of the sheet with the given index from the given open
+	 * {@link XlsxStreamReader}
+	 *
+	 * @param reader
+	 *            the reader of the workbook
+	 * @param checksum
+	 *            the checksum of the workbook file
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param interval
+	 *            the number of rows between two checkpoints
+	 * @return the new {@link SheetRowIndex} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	static SheetRowIndex build(final XlsxStreamReader reader, final long checksum,
+		final int sheetIndex, final int interval) throws IOException
+	{
+		try (InputStream inputStream = reader.getSheetPart(sheetIndex).getInputStream())
+		{
+			return scan(inputStream, checksum, sheetIndex, interval);
+		}
+	}
+
+	/**
+	 * Loads the index of the sheet with the given index from its sidecar file if the sidecar file
+	 * exists and matches the checksum of the given workbook {@link File}, otherwise the index is
+	 * built and saved to the sidecar file. A sidecar file of an older version or a truncated or
+	 * corrupt sidecar file is replaced
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param interval
+	 *            the number of rows between two checkpoints if the index has to be built
+	 * @return the {@link SheetRowIndex} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static SheetRowIndex loadOrBuild(final File workbookFile, final int sheetIndex,
+		final int interval) throws IOException
+	{
+		final File sidecarFile = getSidecarFile(workbookFile, sheetIndex);
+		if (sidecarFile.exists())
+		{
+			try
+			{
+				final SheetRowIndex index = load(sidecarFile);
+				if (index.sheetIndex == sheetIndex && index.isValidFor(workbookFile))
+				{
+					return index;
+				}
+			}
+			catch (IOException | RuntimeException e)
+			{
+				// a sidecar file of an older version or a truncated or corrupt one is replaced
+				// by a new index
+			}
+		}
+		final SheetRowIndex index = build(workbookFile, sheetIndex, interval);
+		index.save(sidecarFile);
+		return index;
+	}
+
+	/**
+	 * Gets the sidecar file for the index of the sheet with the given index
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @return the sidecar file
+	 */
+	public static File getSidecarFile(final File workbookFile, final int sheetIndex)
+	{
+		return new File(workbookFile.getParentFile(),
+			workbookFile.getName() + "." + sheetIndex + FILE_EXTENSION);
+	}
+
+	/**
+	 * Loads an index from the given sidecar {@link File}
+	 *
+	 * @param indexFile
+	 *            the sidecar file
+	 * @return the loaded {@link SheetRowIndex} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the file is not an index file
+	 */
+	public static SheetRowIndex load(final File indexFile) throws IOException
+	{
+		try (DataInputStream input = new DataInputStream(
+			new BufferedInputStream(Files.newInputStream(indexFile.toPath()))))
+		{
+			if (input.readInt() != MAGIC || input.readInt() != VERSION)
+			{
+				throw new IOException("The file " + indexFile + " is not a sheet row index file");
+			}
+			final long checksum = input.readLong();
+			final int sheetIndex = input.readInt();
+			final int interval = input.readInt();
+			final int rowCount = input.readInt();
+			final int lastRowIndex = input.readInt();
+			final String fragmentStart = input.readUTF();
+			final int checkpoints = input.readInt();
+			final int[] rowIndexes = new int[checkpoints];
+			final long[] byteOffsets = new long[checkpoints];
+			for (int i = 0; i < checkpoints; i++)
+			{
+				rowIndexes[i] = input.readInt();
+				byteOffsets[i] = input.readLong();
+			}
+			return new SheetRowIndex(checksum, sheetIndex, interval, rowCount, lastRowIndex,
+				fragmentStart, rowIndexes, byteOffsets);
+		}
+	}
+
+	/**
+	 * Saves this index to the given sidecar {@link File}. The file is written to a temporary file
+	 * first and then moved, so readers never see a partially written index
+	 *
+	 * @param indexFile
+	 *            the sidecar file
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void save(final File indexFile) throws IOException
+	{
+		final Path target = indexFile.toPath();
+		final Path temporary = target.resolveSibling(indexFile.getName() + ".tmp");
+		try (DataOutputStream output = new DataOutputStream(
+			new BufferedOutputStream(Files.newOutputStream(temporary))))
+		{
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeLong(checksum);
+			output.writeInt(sheetIndex);
+			output.writeInt(interval);
+			output.writeInt(rowCount);
+			output.writeInt(lastRowIndex);
+			output.writeUTF(fragmentStart);
+			output.writeInt(rowIndexes.length);
+			for (int i = 0; i < rowIndexes.length; i++)
+			{
+				output.writeInt(rowIndexes[i]);
+				output.writeLong(byteOffsets[i]);
+			}
+		}
+		Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Checks if this index was built from the current content of the given workbook {@link File}
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @return true if the checksum of the file matches otherwise false
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public boolean isValidFor(final File workbookFile) throws IOException
+	{
+		return checksum == FileChecksum.of(workbookFile);
+	}
+
+	/**
+	 * Gets the checksum of the workbook file this index was built from
+	 *
+	 * @return the checksum
+	 */
+	public long getChecksum()
+	{
+		return checksum;
+	}
+
+	/**
+	 * Gets the zero based index of the indexed sheet
+	 *
+	 * @return the sheet index
+	 */
+	public int getSheetIndex()
+	{
+		return sheetIndex;
+	}
+
+	/**
+	 * Gets the number of rows between two checkpoints
+	 *
+	 * @return the interval
+	 */
+	public int getInterval()
+	{
+		return interval;
+	}
+
+	/**
+	 * Gets the number of rows that are stored in the sheet
+	 *
+	 * @return the row count
+	 */
+	public int getRowCount()
+	{
+		return rowCount;
+	}
+
+	/**
+	 * Gets the zero based index of the last row that is stored in the sheet
+	 *
+	 * @return the last row index or -1 if the sheet has no rows
+	 */
+	public int getLastRowIndex()
+	{
+		return lastRowIndex;
+	}
+
+	/**
+	 * Gets the number of checkpoints
+	 *
+	 * @return the number of checkpoints
+	 */
+	public int getCheckpointCount()
+	{
+		return rowIndexes.length;
+	}
+
+	/**
+	 * Gets the zero based row index of the given checkpoint
+	 *
+	 * @param checkpoint
+	 *            the checkpoint
+	 * @return the row index
+	 */
+	public int getRowIndex(final int checkpoint)
+	{
+		return rowIndexes[checkpoint];
+	}
+
+	/**
+	 * Gets the byte offset of the given checkpoint in the uncompressed sheet xml
+	 *
+	 * @param checkpoint
+	 *            the checkpoint
+	 * @return the byte offset
+	 */
+	public long getByteOffset(final int checkpoint)
+	{
+		return byteOffsets[checkpoint];
+	}
+
+	/**
+	 * Finds the last checkpoint at or in front of the given row index
+	 *
+	 * @param rowIndex
+	 *            the zero based row index
+	 * @return the checkpoint or -1 if no checkpoint comes at or in front of the row
+	 */
+	public int findCheckpoint(final int rowIndex)
+	{
+		final int position = Arrays.binarySearch(rowIndexes, rowIndex);
+		return 0 <= position ? position : -position - 2;
+	}
+
+	/**
+	 * Gets the start tag that opens a parseable xml fragment at a checkpoint. The tag declares the
+	 * namespaces of the sheet xml, so the attributes of the following rows can be resolved
+	 *
+	 * @return the start tag
+	 */
+	String getFragmentStart()
+	{
+		return fragmentStart;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "SheetRowIndex{" + "checksum=" + checksum + ", sheetIndex=" + sheetIndex
+			+ ", interval=" + interval + ", rowCount=" + rowCount + ", lastRowIndex="
+			+ lastRowIndex + ", checkpoints=" + rowIndexes.length + '}';
+	}
+
+	/**
+	 * Scans the given sheet xml stream for the start tags of the rows. The scan works on the raw
+	 * bytes and only decodes the root tag, so no xml parser and no cell value is involved.
+	 * Comments and CDATA sections are skipped up to their terminator, so markup like
+	 * {@code <row} inside of them is not taken for a row
+	 */
+	private static SheetRowIndex scan(final InputStream inputStream, final long checksum,
+		final int sheetIndex, final int interval) throws IOException
+	{
+		final byte[] buffer = new byte[BUFFER_SIZE];
+		byte[] tag = new byte[256];
+		int tagLength = 0;
+		boolean inTag = false;
+		byte quote = 0;
+		long offset = 0;
+		long tagStart = 0;
+		String fragmentStart = null;
+		byte[] terminator = null;
+		int matched = 0;
+		int[] rowIndexes = new int[64];
+		long[] byteOffsets = new long[64];
+		int checkpoints = 0;
+		int rowCount = 0;
+		int lastRowIndex = -1;
+		int read;
+		while ((read = inputStream.read(buffer)) != -1)
+		{
+			for (int i = 0; i < read; i++, offset++)
+			{
+				final byte value = buffer[i];
+				if (!inTag)
+				{
+					if (value == '<')
+					{
+						inTag = true;
+						tagStart = offset;
+						tagLength = 0;
+					}
+					continue;
+				}
+				if (terminator != null)
+				{
+					if (value == terminator[matched])
+					{
+						matched++;
+					}
+					else if (value != terminator[0])
+					{
+						matched = 0;
+					}
+					if (matched == terminator.length)
+					{
+						inTag = false;
+						terminator = null;
+					}
+					continue;
+				}
+				if (quote != 0)
+				{
+					if (value == quote)
+					{
+						quote = 0;
+					}
+				}
+				else if (value == '"' || value == '\'')
+				{
+					quote = value;
+				}
+				else if (value == '>')
+				{
+					inTag = false;
+					if (fragmentStart == null)
+					{
+						if (0 < tagLength && tag[0] != '?' && tag[0] != '!')
+						{
+							fragmentStart = fragmentStartOf(
+								new String(tag, 0, tagLength, StandardCharsets.UTF_8));
+						}
+					}
+					else if (isRowTag(tag, tagLength))
+					{
+						final int reference = parseRowReference(tag, tagLength);
+						lastRowIndex = reference < 0 ? lastRowIndex + 1 : reference;
+						if (rowCount % interval == 0)
+						{
+							if (checkpoints == rowIndexes.length)
+							{
+								rowIndexes = Arrays.copyOf(rowIndexes, checkpoints * 2);
+								byteOffsets = Arrays.copyOf(byteOffsets, checkpoints * 2);
+							}
+							rowIndexes[checkpoints] = lastRowIndex;
+							byteOffsets[checkpoints] = tagStart;
+							checkpoints++;
+						}
+						rowCount++;
+					}
+					continue;
+				}
+				if (tagLength == tag.length)
+				{
+					tag = Arrays.copyOf(tag, tagLength * 2);
+				}
+				tag[tagLength++] = value;
+				if (startsWith(tag, tagLength, COMMENT_START))
+				{
+					terminator = COMMENT_END;
+					matched = 0;
+				}
+				else if (startsWith(tag, tagLength, CDATA_START))
+				{
+					terminator = CDATA_END;
+					matched = 0;
+				}
+			}
+		}
+		if (fragmentStart == null)
+		{
+			throw new IOException("The sheet " + sheetIndex + " contains no xml root element");
+		}
+		return new SheetRowIndex(checksum, sheetIndex, interval, rowCount, lastRowIndex,
+			fragmentStart, Arrays.copyOf(rowIndexes, checkpoints),
+			Arrays.copyOf(byteOffsets, checkpoints));
+	}
+
+	private static boolean startsWith(final byte[] tag, final int tagLength,
+		final byte[] prefix)
+	{
+		return tagLength == prefix.length
+			&& Arrays.equals(tag, 0, tagLength, prefix, 0, prefix.length);
+	}
+
+	private static String fragmentStartOf(final String rootTag)
+	{
+		int nameEnd = 0;
+		while (nameEnd < rootTag.length() && !Character.isWhitespace(rootTag.charAt(nameEnd))
+			&& rootTag.charAt(nameEnd) != '/')
+		{
+			nameEnd++;
+		}
+		final String rootName = rootTag.substring(0, nameEnd);
+		final int colon = rootName.indexOf(':');
+		final StringBuilder fragmentStart = new StringBuilder("<");
+		if (0 <= colon)
+		{
+			fragmentStart.append(rootName, 0, colon + 1);
+		}
+		fragmentStart.append("sheetData");
+		final Matcher matcher = NAMESPACE_DECLARATION.matcher(rootTag);
+		while (matcher.find())
+		{
+			fragmentStart.append(' ').append(matcher.group());
+		}
+		return fragmentStart.append('>').toString();
+	}
+
+	private static boolean isRowTag(final byte[] tag, final int tagLength)
+	{
+		int nameEnd = 0;
+		while (nameEnd < tagLength && !isWhitespace(tag[nameEnd]) && tag[nameEnd] != '/')
+		{
+			nameEnd++;
+		}
+		return 3 <= nameEnd && tag[nameEnd - 3] == 'r' && tag[nameEnd - 2] == 'o'
+			&& tag[nameEnd - 1] == 'w' && (nameEnd == 3 || tag[nameEnd - 4] == ':');
+	}
+
+	private static int parseRowReference(final byte[] tag, final int tagLength)
+	{
+		for (int i = 1; i < tagLength - 1; i++)
+		{
+			if (tag[i] != 'r' || !isWhitespace(tag[i - 1]))
+			{
+				continue;
+			}
+			int position = i + 1;
+			while (position < tagLength && isWhitespace(tag[position]))
+			{
+				position++;
+			}
+			if (position == tagLength || tag[position] != '=')
+			{
+				continue;
+			}
+			position++;
+			while (position < tagLength && isWhitespace(tag[position]))
+			{
+				position++;
+			}
+			if (position == tagLength || (tag[position] != '"' && tag[position] != '\''))
+			{
+				continue;
+			}
+			position++;
+			int rowNumber = 0;
+			while (position < tagLength && '0' <= tag[position] && tag[position] <= '9')
+			{
+				rowNumber = rowNumber * 10 + (tag[position] - '0');
+				position++;
+			}
+			return rowNumber - 1;
+		}
+		return -1;
+	}
+
+	private static boolean isWhitespace(final byte value)
+	{
+		return value == ' ' || value == '\t' || value == '\r' || value == '\n';
+	}
+}
@@ -0,0 +1,156 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+/**
+ * The class {@link SheetRowView} is the {@link RowView} over a {@link Row} of a sheet that is
+ * loaded into memory. String cells are resolved from the {@link SharedStringCache} of the workbook
+ */
+final class SheetRowView implements RowView
+{
+
+	private final ColumnProjection projection;
+
+	private final SharedStringCache strings;
+
+	private final CellFormatCache formats;
+
+	private Row row;
+
+	private int width;
+
+	/**
+	 * Creates a new {@link SheetRowView}
+	 *
+	 * @param projection
+	 *            the column projection
+	 * @param strings
+	 *            the shared string cache of the workbook
+	 * @param formats
+	 *            the format cache or null for the general format
+	 */
+	SheetRowView(final ColumnProjection projection, final SharedStringCache strings,
+		final CellFormatCache formats)
+	{
+		this.projection = projection;
+		this.strings = strings;
+		this.formats = formats;
+	}
+
+	/**
+	 * Moves this view to the given row
+	 *
+	 * @param row
+	 *            the row
+	 */
+	void moveTo(final Row row)
+	{
+		this.row = row;
+		this.width = projection.isAll() ? Math.max(row.getLastCellNum(), 0) : projection.width();
+	}
+
+	@Override
+	public int getRowIndex()
+	{
+		return row.getRowNum();
+	}
+
+	@Override
+	public int getWidth()
+	{
+		return width;
+	}
+
+	@Override
+	public CellType getCellType(final int position)
+	{
+		final Cell cell = getCell(position);
+		if (cell == null)
+		{
+			return CellType.BLANK;
+		}
+		final CellType cellType = cell.getCellType();
+		return cellType == CellType.FORMULA ? cell.getCachedFormulaResultType() : cellType;
+	}
+
+	@Override
+	public double getDouble(final int position)
+	{
+		switch (getCellType(position))
+		{
+			case NUMERIC :
+				return getCell(position).getNumericCellValue();
+			case BOOLEAN :
+				return getCell(position).getBooleanCellValue() ? 1 : 0;
+			default :
+				throw new IllegalStateException(
+					"The cell at position " + position + " is not numeric");
+		}
+	}
+
+	@Override
+	public boolean getBoolean(final int position)
+	{
+		switch (getCellType(position))
+		{
+			case BOOLEAN :
+				return getCell(position).getBooleanCellValue();
+			case NUMERIC :
+				return getCell(position).getNumericCellValue() != 0;
+			default :
+				throw new IllegalStateException(
+					"The cell at position " + position + " is not boolean");
+		}
+	}
+
+	@Override
+	public String getString(final int position)
+	{
+		final Cell cell = getCell(position);
+		switch (getCellType(position))
+		{
+			case NUMERIC :
+				return formats == null
+					? NumberToTextConverter.toText(cell.getNumericCellValue())
+					: formats.format(cell.getCellStyle().getIndex(), cell.getNumericCellValue());
+			case STRING :
+				return strings.getString(cell);
+			case BOOLEAN :
+				return Boolean.toString(cell.getBooleanCellValue());
+			default :
+				return "";
+		}
+	}
+
+	private Cell getCell(final int position)
+	{
+		return position < width ? row.getCell(projection.columnAt(position)) : null;
+	}
+}
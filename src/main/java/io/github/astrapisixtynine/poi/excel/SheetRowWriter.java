@@ -0,0 +1,59 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.IOException;
+
+/**
+ * The interface {@link SheetRowWriter} appends rows to a sheet that is written by one of the xlsx
+ * writers. Supported values are {@link CharSequence}, {@link Number}, {@link Boolean},
+ * {@link java.time.LocalDate}, {@link java.time.LocalDateTime} and {@link java.util.Date}, any
+ * other value is written with its String representation and null values leave the cell empty
+ */
+public interface SheetRowWriter
+{
+
+	/**
+	 * Appends a row with the given values
+	 *
+	 * @param values
+	 *            the values of the cells
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	void writeRow(Object... values) throws IOException;
+
+	/**
+	 * Appends a row with the given values and the given style for every cell
+	 *
+	 * @param style
+	 *            the cell style
+	 * @param values
+	 *            the values of the cells
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	void writeRow(XlsxCellStyle style, Object... values) throws IOException;
+}
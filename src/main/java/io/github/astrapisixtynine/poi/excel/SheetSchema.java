@@ -0,0 +1,251 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.poi.ss.util.CellReference;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link SheetSchema} describes the columns of a sheet with their value types. A schema
+ * is inferred from a sample of the rows with
+ * {@link XlsxStreamReader#inferSchema(int, int, int)} and can be reused for every file with the
+ * same layout, so repeated imports skip the inference and go straight to
+ * {@link XlsxStreamReader#readTyped(int, SheetSchema, TypedRowHandler)}
+ */
+public final class SheetSchema
+{
+
+	/**
+	 * The default number of rows that are sampled for the inference of a schema
+	 */
+	public static final int DEFAULT_SAMPLE_ROWS = 1000;
+
+	private final int headerRowIndex;
+
+	private final List<ColumnSchema> columns;
+
+	private SheetSchema(final int headerRowIndex, final List<ColumnSchema> columns)
+	{
+		this.headerRowIndex = headerRowIndex;
+		this.columns = columns;
+	}
+
+	/**
+	 * Creates a new {@link SheetSchema} with the given columns
+	 *
+	 * @param headerRowIndex
+	 *            the zero based index of the header row or -1 if the sheet has no header row
+	 * @param columns
+	 *            the columns in the order they are read
+	 * @return the new {@link SheetSchema} object
+	 */
+	public static SheetSchema of(final int headerRowIndex, final List<ColumnSchema> columns)
+	{
+		Check.get().notEmpty(columns, "columns");
+		if (headerRowIndex < -1)
+		{
+			throw new IllegalArgumentException("Invalid header row index: " + headerRowIndex);
+		}
+		for (int i = 0; i < columns.size(); i++)
+		{
+			for (int j = i + 1; j < columns.size(); j++)
+			{
+				if (columns.get(i).columnIndex() == columns.get(j).columnIndex())
+				{
+					throw new IllegalArgumentException("The column with index "
+						+ columns.get(i).columnIndex() + " is defined more than once");
+				}
+			}
+		}
+		return new SheetSchema(headerRowIndex, List.copyOf(columns));
+	}
+
+	/**
+	 * Gets the zero based index of the header row
+	 *
+	 * @return the header row index or -1 if the sheet has no header row
+	 */
+	public int getHeaderRowIndex()
+	{
+		return headerRowIndex;
+	}
+
+	/**
+	 * Checks if the sheet has a header row
+	 *
+	 * @return true if the sheet has a header row otherwise false
+	 */
+	public boolean hasHeader()
+	{
+		return 0 <= headerRowIndex;
+	}
+
+	/**
+	 * Gets the columns in the order they are read
+	 *
+	 * @return an unmodifiable list of the columns
+	 */
+	public List<ColumnSchema> getColumns()
+	{
+		return columns;
+	}
+
+	/**
+	 * Gets the number of columns
+	 *
+	 * @return the number of columns
+	 */
+	public int getColumnCount()
+	{
+		return columns.size();
+	}
+
+	/**
+	 * Gets the column at the given position
+	 *
+	 * @param position
+	 *            the position of the column in this schema
+	 * @return the column
+	 */
+	public ColumnSchema getColumn(final int position)
+	{
+		return columns.get(position);
+	}
+
+	/**
+	 * Gets the position of the column with the given name
+	 *
+	 * @param name
+	 *            the column name
+	 * @return the position of the column in this schema or -1 if no column has the given name
+	 */
+	public int indexOf(final String name)
+	{
+		for (int position = 0; position < columns.size(); position++)
+		{
+			if (columns.get(position).name().equals(name))
+			{
+				return position;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Checks that the given values of a header row match the column names of this schema
+	 *
+	 * @param headerValues
+	 *            the values of the header row
+	 * @throws IllegalArgumentException
+	 *             if a column name of this schema does not match the header value at its column
+	 *             index
+	 */
+	void checkHeader(final String[] headerValues)
+	{
+		for (final ColumnSchema column : columns)
+		{
+			final String headerValue = columnName(headerValues, column.columnIndex());
+			if (!column.name().equals(headerValue))
+			{
+				throw new IllegalArgumentException("The header of the column with index "
+					+ column.columnIndex() + " is '" + headerValue + "' but the schema expects '"
+					+ column.name() + "'");
+			}
+		}
+	}
+
+	/**
+	 * Gets the name of the column with the given index from the given values of a header row
+	 *
+	 * @param headerValues
+	 *            the values of the header row, may be null if the sheet has no header row
+	 * @param columnIndex
+	 *            the zero based column index
+	 * @return the header value or the column letter like <code>B</code> if the header value is
+	 *         missing or empty
+	 */
+	static String columnName(final String[] headerValues, final int columnIndex)
+	{
+		if (headerValues != null && columnIndex < headerValues.length
+			&& !headerValues[columnIndex].isEmpty())
+		{
+			return headerValues[columnIndex];
+		}
+		return CellReference.convertNumToColString(columnIndex);
+	}
+
+	/**
+	 * Maps the column indexes of the sheet to the positions of the columns in this schema
+	 *
+	 * @return the position for every column index, a negative position for unused columns
+	 */
+	int[] positionByColumn()
+	{
+		int maxColumn = 0;
+		for (final ColumnSchema column : columns)
+		{
+			maxColumn = Math.max(maxColumn, column.columnIndex());
+		}
+		final int[] positionByColumn = new int[maxColumn + 1];
+		Arrays.fill(positionByColumn, -1);
+		for (int position = 0; position < columns.size(); position++)
+		{
+			positionByColumn[columns.get(position).columnIndex()] = position;
+		}
+		return positionByColumn;
+	}
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (!(o instanceof SheetSchema))
+		{
+			return false;
+		}
+		final SheetSchema other = (SheetSchema)o;
+		return headerRowIndex == other.headerRowIndex && columns.equals(other.columns);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return Objects.hash(headerRowIndex, columns);
+	}
+
+	@Override
+	public String toString()
+	{
+		return "SheetSchema{" + "headerRowIndex=" + headerRowIndex + ", columns=" + columns + '}';
+	}
+}
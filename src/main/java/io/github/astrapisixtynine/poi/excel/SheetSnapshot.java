@@ -0,0 +1,707 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link SheetSnapshot} is a parsed sheet of a xlsx file in a compact binary file that
+ * is loaded with {@link FileChannel#map(FileChannel.MapMode, long, long)}. The file holds the
+ * sheet row index of every stored row, a dictionary of the distinct strings and the non blank
+ * cells of each row with their column, a type tag and a 64 bit value. Blank cells take no space,
+ * so sparse and wide sheets stay small. Opening a snapshot only maps the file and reads its
+ * header, the cells are read from the mapped memory on access, so a sheet that was parsed once is
+ * available again after a restart without parsing any xml.
+ * <p>
+ * A snapshot can be saved as a sidecar file next to the workbook. The sidecar file is keyed by the
+ * checksum of the workbook file, so a stale snapshot is detected and rebuilt, as is a truncated or
+ * corrupt sidecar file. A snapshot file is limited to 2 GB
+ */
+public final class SheetSnapshot
+{
+
+	/**
+	 * The file extension of sidecar snapshot files
+	 */
+	public static final String FILE_EXTENSION = ".snapshot";
+
+	private static final int MAGIC = 0x534e4150;
+
+	private static final int VERSION = 2;
+
+	private static final int HEADER_SIZE = 44;
+
+	private static final int CELL_SIZE = 13;
+
+	private static final byte BLANK = 0;
+
+	private static final byte NUMBER = 1;
+
+	private static final byte STRING = 2;
+
+	private static final byte BOOLEAN = 3;
+
+	private static final byte ERROR = 4;
+
+	private final ByteBuffer buffer;
+
+	private final long checksum;
+
+	private final int sheetIndex;
+
+	private final int rowCount;
+
+	private final int columnCount;
+
+	private final int stringCount;
+
+	private final int cellCount;
+
+	private final int cellStartsStart;
+
+	private final int stringOffsetsStart;
+
+	private final int stringsStart;
+
+	private final int columnsStart;
+
+	private final int tagsStart;
+
+	private final int valuesStart;
+
+	private final String[] strings;
+
+	private SheetSnapshot(final ByteBuffer buffer, final File snapshotFile) throws IOException
+	{
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+			|| buffer.getInt(4) != VERSION)
+		{
+			throw new IOException("The file " + snapshotFile + " is not a sheet snapshot file");
+		}
+		this.buffer = buffer;
+		this.checksum = buffer.getLong(8);
+		this.sheetIndex = buffer.getInt(16);
+		this.rowCount = buffer.getInt(20);
+		this.columnCount = buffer.getInt(24);
+		this.stringCount = buffer.getInt(28);
+		this.cellCount = buffer.getInt(32);
+		final long stringBytes = buffer.getLong(36);
+		if (rowCount < 0 || columnCount < 0 || stringCount < 0 || cellCount < 0
+			|| stringBytes < 0 || Integer.MAX_VALUE < stringBytes
+			|| buffer.capacity() != sizeOf(rowCount, stringCount, stringBytes, cellCount))
+		{
+			throw new IOException(
+				"The sheet snapshot file " + snapshotFile + " is truncated or corrupt");
+		}
+		this.cellStartsStart = HEADER_SIZE + 4 * rowCount;
+		this.stringOffsetsStart = cellStartsStart + 4 * (rowCount + 1);
+		this.stringsStart = stringOffsetsStart + 4 * (stringCount + 1);
+		this.columnsStart = (int)(stringsStart + stringBytes);
+		this.tagsStart = columnsStart + 4 * cellCount;
+		this.valuesStart = tagsStart + cellCount;
+		if (buffer.getInt(cellStartsStart) != 0
+			|| buffer.getInt(cellStartsStart + 4 * rowCount) != cellCount
+			|| buffer.getInt(stringOffsetsStart) != 0
+			|| buffer.getInt(stringOffsetsStart + 4 * stringCount) != stringBytes)
+		{
+			throw new IOException("The sheet snapshot file " + snapshotFile + " is corrupt");
+		}
+		this.strings = new String[stringCount];
+	}
+
+	/**
+	 * Parses the sheet with the given index in the given xlsx {@link File}, saves it to the given
+	 * snapshot {@link File} and opens the snapshot. The file is written to a temporary file first
+	 * and then moved, so readers never see a partially written snapshot
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param snapshotFile
+	 *            the snapshot file
+	 * @return the opened {@link SheetSnapshot} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the snapshot exceeds 2 GB
+	 */
+	public static SheetSnapshot build(final File workbookFile, final int sheetIndex,
+		final File snapshotFile) throws IOException
+	{
+		Check.get().notNull(workbookFile, "workbookFile").notNull(snapshotFile, "snapshotFile");
+		final long checksum = FileChecksum.of(workbookFile);
+		final CellCollector collector = new CellCollector();
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile);
+			SheetRowCursor cursor = reader.openCursor(sheetIndex))
+		{
+			while (cursor.nextRow())
+			{
+				cursor.readRow(null, 0);
+				collector.add(cursor);
+			}
+		}
+		collector.write(snapshotFile, checksum, sheetIndex);
+		return open(snapshotFile);
+	}
+
+	/**
+	 * Opens the snapshot of the sheet with the given index from its sidecar file if the sidecar
+	 * file exists and matches the checksum of the given workbook {@link File}, otherwise the
+	 * snapshot is built and saved to the sidecar file. A truncated or corrupt sidecar file is
+	 * rebuilt as well
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @return the {@link SheetSnapshot} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static SheetSnapshot loadOrBuild(final File workbookFile, final int sheetIndex)
+		throws IOException
+	{
+		final File sidecarFile = getSidecarFile(workbookFile, sheetIndex);
+		if (sidecarFile.exists())
+		{
+			try
+			{
+				final SheetSnapshot snapshot = open(sidecarFile);
+				if (snapshot.sheetIndex == sheetIndex && snapshot.isValidFor(workbookFile))
+				{
+					return snapshot;
+				}
+			}
+			catch (IOException | RuntimeException e)
+			{
+				// a truncated or corrupt sidecar file is replaced by a new snapshot
+			}
+		}
+		return build(workbookFile, sheetIndex, sidecarFile);
+	}
+
+	/**
+	 * Gets the sidecar file for the snapshot of the sheet with the given index
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @return the sidecar file
+	 */
+	public static File getSidecarFile(final File workbookFile, final int sheetIndex)
+	{
+		return new File(workbookFile.getParentFile(),
+			workbookFile.getName() + "." + sheetIndex + FILE_EXTENSION);
+	}
+
+	/**
+	 * Opens a snapshot by mapping the given snapshot {@link File} into memory
+	 *
+	 * @param snapshotFile
+	 *            the snapshot file
+	 * @return the opened {@link SheetSnapshot} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the file is not a snapshot file
+	 */
+	public static SheetSnapshot open(final File snapshotFile) throws IOException
+	{
+		Check.get().notNull(snapshotFile, "snapshotFile");
+		try (FileChannel channel = FileChannel.open(snapshotFile.toPath(),
+			StandardOpenOption.READ))
+		{
+			return new SheetSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+				snapshotFile);
+		}
+	}
+
+	/**
+	 * Checks if this snapshot was built from the current content of the given workbook
+	 * {@link File}
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @return true if the checksum of the file matches otherwise false
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public boolean isValidFor(final File workbookFile) throws IOException
+	{
+		return checksum == FileChecksum.of(workbookFile);
+	}
+
+	/**
+	 * Gets the checksum of the workbook file this snapshot was built from
+	 *
+	 * @return the checksum
+	 */
+	public long getChecksum()
+	{
+		return checksum;
+	}
+
+	/**
+	 * Gets the zero based index of the sheet this snapshot was built from
+	 *
+	 * @return the sheet index
+	 */
+	public int getSheetIndex()
+	{
+		return sheetIndex;
+	}
+
+	/**
+	 * Gets the number of stored rows. Empty rows that are missing in the sheet xml are not stored
+	 *
+	 * @return the row count
+	 */
+	public int getRowCount()
+	{
+		return rowCount;
+	}
+
+	/**
+	 * Gets the number of columns, that is the largest number of cells of a stored row
+	 *
+	 * @return the column count
+	 */
+	public int getColumnCount()
+	{
+		return columnCount;
+	}
+
+	/**
+	 * Gets the zero based index in the sheet of the given stored row
+	 *
+	 * @param row
+	 *            the zero based position of the stored row
+	 * @return the row index in the sheet
+	 */
+	public int getRowIndex(final int row)
+	{
+		Objects.checkIndex(row, rowCount);
+		return buffer.getInt(HEADER_SIZE + 4 * row);
+	}
+
+	/**
+	 * Finds the stored row with the given row index in the sheet
+	 *
+	 * @param rowIndex
+	 *            the zero based row index in the sheet
+	 * @return the position of the stored row or -1 if the row is not stored
+	 */
+	public int findRow(final int rowIndex)
+	{
+		int low = 0;
+		int high = rowCount - 1;
+		while (low <= high)
+		{
+			final int middle = (low + high) >>> 1;
+			final int value = buffer.getInt(HEADER_SIZE + 4 * middle);
+			if (value < rowIndex)
+			{
+				low = middle + 1;
+			}
+			else if (rowIndex < value)
+			{
+				high = middle - 1;
+			}
+			else
+			{
+				return middle;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the type of the given cell
+	 *
+	 * @param row
+	 *            the zero based position of the stored row
+	 * @param column
+	 *            the zero based column index
+	 * @return the cell type, {@link CellType#BLANK} for a column after the last column
+	 */
+	public CellType getCellType(final int row, final int column)
+	{
+		final int cell = cellOf(row, column);
+		return switch (cell < 0 ? BLANK : buffer.get(tagsStart + cell))
+		{
+			case NUMBER -> CellType.NUMERIC;
+			case STRING -> CellType.STRING;
+			case BOOLEAN -> CellType.BOOLEAN;
+			case ERROR -> CellType.ERROR;
+			default -> CellType.BLANK;
+		};
+	}
+
+	/**
+	 * Gets the numeric value of the given cell
+	 *
+	 * @param row
+	 *            the zero based position of the stored row
+	 * @param column
+	 *            the zero based column index
+	 * @return the numeric value, 1 or 0 for a boolean cell
+	 * @throws IllegalStateException
+	 *             if the cell is not numeric or boolean
+	 */
+	public double getNumber(final int row, final int column)
+	{
+		final int cell = cellOf(row, column);
+		final byte tag = cell < 0 ? BLANK : buffer.get(tagsStart + cell);
+		if (tag == NUMBER)
+		{
+			return Double.longBitsToDouble(valueAt(cell));
+		}
+		if (tag == BOOLEAN)
+		{
+			return valueAt(cell);
+		}
+		throw new IllegalStateException(
+			"The cell in row " + row + " and column " + column + " is not numeric");
+	}
+
+	/**
+	 * Gets the value of the given cell as String. Numeric values are converted like Excel
+	 * displays them in the general format
+	 *
+	 * @param row
+	 *            the zero based position of the stored row
+	 * @param column
+	 *            the zero based column index
+	 * @return the value, an empty String if the cell is blank like the
+	 *         {@link XlsxStreamReader} returns it
+	 */
+	public String getString(final int row, final int column)
+	{
+		final int cell = cellOf(row, column);
+		if (cell < 0)
+		{
+			return "";
+		}
+		return switch (buffer.get(tagsStart + cell))
+		{
+			case NUMBER -> NumberToTextConverter
+				.toText(Double.longBitsToDouble(valueAt(cell)));
+			case BOOLEAN -> String.valueOf(valueAt(cell) == 1);
+			case STRING, ERROR -> stringOf((int)valueAt(cell));
+			default -> "";
+		};
+	}
+
+	/**
+	 * Gets the values of the given stored row as String array like
+	 * {@link #getString(int, int)}
+	 *
+	 * @param row
+	 *            the zero based position of the stored row
+	 * @return the values of all columns of the row
+	 */
+	public String[] getRow(final int row)
+	{
+		final String[] values = new String[columnCount];
+		for (int column = 0; column < columnCount; column++)
+		{
+			values[column] = getString(row, column);
+		}
+		return values;
+	}
+
+	/**
+	 * Passes all stored rows in their order to the given handler
+	 *
+	 * @param handler
+	 *            the row handler
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred in the handler
+	 */
+	public void readRows(final RowHandler handler) throws IOException
+	{
+		Check.get().notNull(handler, "handler");
+		for (int row = 0; row < rowCount; row++)
+		{
+			handler.handle(getRowIndex(row), getRow(row));
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "SheetSnapshot{" + "checksum=" + checksum + ", sheetIndex=" + sheetIndex
+			+ ", rowCount=" + rowCount + ", columnCount=" + columnCount + ", stringCount="
+			+ stringCount + ", cellCount=" + cellCount + '}';
+	}
+
+	/**
+	 * Finds the stored cell of the given column in the given row with a binary search over the
+	 * ascending columns of the row
+	 *
+	 * @return the position of the cell or -1 if the cell is blank
+	 */
+	private int cellOf(final int row, final int column)
+	{
+		Objects.checkIndex(row, rowCount);
+		if (column < 0)
+		{
+			throw new IllegalArgumentException("Column index must not be negative: " + column);
+		}
+		int low = buffer.getInt(cellStartsStart + 4 * row);
+		int high = buffer.getInt(cellStartsStart + 4 * (row + 1)) - 1;
+		while (low <= high)
+		{
+			final int middle = (low + high) >>> 1;
+			final int value = buffer.getInt(columnsStart + 4 * middle);
+			if (value < column)
+			{
+				low = middle + 1;
+			}
+			else if (column < value)
+			{
+				high = middle - 1;
+			}
+			else
+			{
+				return middle;
+			}
+		}
+		return -1;
+	}
+
+	private long valueAt(final int cell)
+	{
+		return buffer.getLong(valuesStart + 8 * cell);
+	}
+
+	private String stringOf(final int id)
+	{
+		String value = strings[id];
+		if (value == null)
+		{
+			final int start = buffer.getInt(stringOffsetsStart + 4 * id);
+			final byte[] bytes = new byte[buffer.getInt(stringOffsetsStart + 4 * (id + 1))
+				- start];
+			buffer.get(stringsStart + start, bytes);
+			value = new String(bytes, StandardCharsets.UTF_8);
+			strings[id] = value;
+		}
+		return value;
+	}
+
+	private static long sizeOf(final long rowCount, final long stringCount,
+		final long stringBytes, final long cellCount)
+	{
+		return HEADER_SIZE + 4 * rowCount + 4 * (rowCount + 1) + 4 * (stringCount + 1)
+			+ stringBytes + CELL_SIZE * cellCount;
+	}
+
+	/**
+	 * Collects the non blank parsed cells of a sheet row by row and a string dictionary
+	 */
+	private static final class CellCollector
+	{
+		private final Map<String, Integer> stringIds = new HashMap<>();
+
+		private final List<byte[]> strings = new ArrayList<>();
+
+		private int[] rowIndexes = new int[1024];
+
+		private int[] cellStarts = new int[1025];
+
+		private int[] columns = new int[4096];
+
+		private byte[] tags = new byte[4096];
+
+		private long[] values = new long[4096];
+
+		private int rowCount;
+
+		private int columnCount;
+
+		private long cellCount;
+
+		private long stringBytes;
+
+		private void add(final SheetRowCursor cursor) throws IOException
+		{
+			if (rowCount == rowIndexes.length)
+			{
+				rowIndexes = Arrays.copyOf(rowIndexes, rowCount * 2);
+				cellStarts = Arrays.copyOf(cellStarts, rowCount * 2 + 1);
+			}
+			rowIndexes[rowCount] = cursor.getRowIndex();
+			columnCount = Math.max(columnCount, cursor.getWidth());
+			for (int position = 0; position < cursor.getWidth(); position++)
+			{
+				final String rawValue = cursor.getRawValue(position);
+				if (rawValue == null)
+				{
+					continue;
+				}
+				final byte tag;
+				final long value;
+				switch (cursor.getType(position))
+				{
+					case NUMBER :
+						tag = NUMBER;
+						value = Double.doubleToRawLongBits(Double.parseDouble(rawValue));
+						break;
+					case BOOLEAN :
+						tag = BOOLEAN;
+						value = "1".equals(rawValue) || "true".equals(rawValue) ? 1 : 0;
+						break;
+					case ERROR :
+						tag = ERROR;
+						value = idOf(rawValue);
+						break;
+					case BLANK :
+						continue;
+					default :
+						tag = STRING;
+						value = idOf(cursor.getString(position));
+				}
+				addCell(position, tag, value);
+			}
+			rowCount++;
+			cellStarts[rowCount] = (int)cellCount;
+		}
+
+		private void addCell(final int column, final byte tag, final long value)
+			throws IOException
+		{
+			if (cellCount == columns.length)
+			{
+				if (Integer.MAX_VALUE / CELL_SIZE <= cellCount)
+				{
+					throw new IOException("The snapshot exceeds the maximum size of 2 GB");
+				}
+				final int length = (int)Math.min(cellCount * 2, Integer.MAX_VALUE / CELL_SIZE);
+				columns = Arrays.copyOf(columns, length);
+				tags = Arrays.copyOf(tags, length);
+				values = Arrays.copyOf(values, length);
+			}
+			columns[(int)cellCount] = column;
+			tags[(int)cellCount] = tag;
+			values[(int)cellCount] = value;
+			cellCount++;
+		}
+
+		private int idOf(final String value)
+		{
+			final Integer id = stringIds.get(value);
+			if (id != null)
+			{
+				return id;
+			}
+			final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			strings.add(bytes);
+			stringBytes += bytes.length;
+			stringIds.put(value, strings.size() - 1);
+			return strings.size() - 1;
+		}
+
+		private void write(final File snapshotFile, final long checksum, final int sheetIndex)
+			throws IOException
+		{
+			if (Integer.MAX_VALUE < sizeOf(rowCount, strings.size(), stringBytes, cellCount))
+			{
+				throw new IOException("The snapshot of the sheet " + sheetIndex
+					+ " exceeds the maximum size of 2 GB");
+			}
+			final Path target = snapshotFile.toPath();
+			final Path temporary = target.resolveSibling(snapshotFile.getName() + ".tmp");
+			try
+			{
+				try (DataOutputStream output = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(temporary))))
+				{
+					output.writeInt(MAGIC);
+					output.writeInt(VERSION);
+					output.writeLong(checksum);
+					output.writeInt(sheetIndex);
+					output.writeInt(rowCount);
+					output.writeInt(columnCount);
+					output.writeInt(strings.size());
+					output.writeInt((int)cellCount);
+					output.writeLong(stringBytes);
+					for (int row = 0; row < rowCount; row++)
+					{
+						output.writeInt(rowIndexes[row]);
+					}
+					for (int row = 0; row <= rowCount; row++)
+					{
+						output.writeInt(cellStarts[row]);
+					}
+					int offset = 0;
+					output.writeInt(offset);
+					for (final byte[] bytes : strings)
+					{
+						offset += bytes.length;
+						output.writeInt(offset);
+					}
+					for (final byte[] bytes : strings)
+					{
+						output.write(bytes);
+					}
+					for (int cell = 0; cell < cellCount; cell++)
+					{
+						output.writeInt(columns[cell]);
+					}
+					output.write(tags, 0, (int)cellCount);
+					for (int cell = 0; cell < cellCount; cell++)
+					{
+						output.writeLong(values[cell]);
+					}
+				}
+				Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+			finally
+			{
+				Files.deleteIfExists(temporary);
+			}
+		}
+	}
+}
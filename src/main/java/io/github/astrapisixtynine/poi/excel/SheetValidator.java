@@ -0,0 +1,914 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.apache.poi.ss.usermodel.CellType;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link SheetValidator} checks the rows of the sheets of a xlsx file against
+ * declarative rules before they are imported. The rules check the cells of a column for a value,
+ * a type, a pattern, a numeric range, uniqueness or a reference into a lookup, or a whole row with
+ * a predicate over a {@link RowView}. All rules except {@link Builder#required(int)} accept blank
+ * cells.
+ * <p>
+ * The rows are streamed without loading a sheet into memory. Every sheet is validated by its own
+ * task in parallel and with {@link Builder#chunkRows(int)} a sheet is additionally split into
+ * chunks with a {@link SheetRowIndex}. Only the keys of the unique rules are kept, as 64 bit hashes
+ * per sheet. In {@link ValidationMode#FAIL_FAST} mode all tasks stop as soon as an error is found,
+ * in {@link ValidationMode#COLLECT_ALL} mode every row is checked and the first errors in sheet
+ * and row order are reported
+ */
+public final class SheetValidator
+{
+
+	/**
+	 * The value of a rule check if the row satisfies the rule
+	 */
+	private static final int VALID = -1;
+
+	private final File workbookFile;
+
+	private final int[] sheets;
+
+	private final int headerRowIndex;
+
+	private final int chunkRows;
+
+	private final ValidationMode mode;
+
+	private final int maxErrors;
+
+	private final List<Rule> rules;
+
+	private final int uniqueRules;
+
+	private final ExecutorService executor;
+
+	private SheetValidator(final Builder builder)
+	{
+		this.workbookFile = builder.workbookFile;
+		this.sheets = builder.sheets;
+		this.headerRowIndex = builder.headerRowIndex;
+		this.chunkRows = builder.chunkRows;
+		this.mode = builder.mode;
+		this.maxErrors = builder.maxErrors;
+		this.rules = List.copyOf(builder.rules);
+		this.uniqueRules = builder.uniqueRules;
+		this.executor = builder.executor;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for {@link SheetValidator} objects over the given xlsx
+	 * {@link File}
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @return the new builder
+	 */
+	public static Builder builder(final File workbookFile)
+	{
+		Check.get().notNull(workbookFile, "workbookFile");
+		return new Builder(workbookFile);
+	}
+
+	/**
+	 * Validates the rows after the header row of the selected sheets
+	 *
+	 * @return the validation report
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public ValidationReport validate() throws IOException
+	{
+		final int[] sheetIndexes;
+		final List<String> sheetNames;
+		final SharedStringCache sharedStrings;
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			sharedStrings = reader.getSharedStrings();
+			sheetNames = reader.getSheetNames();
+			if (sheets == null)
+			{
+				sheetIndexes = new int[sheetNames.size()];
+				Arrays.setAll(sheetIndexes, i -> i);
+			}
+			else
+			{
+				for (final int sheetIndex : sheets)
+				{
+					if (sheetNames.size() <= sheetIndex)
+					{
+						throw new IllegalArgumentException(
+							"The sheet with index " + sheetIndex + " does not exist");
+					}
+				}
+				sheetIndexes = sheets;
+			}
+		}
+		final Run run = new Run(sheetNames, uniqueRules, mode, maxErrors);
+		final long[] rows = { 0 };
+		try (ChunkedScan scan = new ChunkedScan(executor, "validation"))
+		{
+			scan.run(workbookFile, sheetIndexes, chunkRows,
+				(sheetIndex, rowIndex, checkpoint) -> validate(run, sheetIndex, rowIndex,
+					checkpoint, sharedStrings),
+				partialRows -> rows[0] += partialRows);
+		}
+		return run.toReport(rows[0]);
+	}
+
+	private long validate(final Run run, final int sheetIndex, final SheetRowIndex rowIndex,
+		final int checkpoint, final SharedStringCache sharedStrings) throws IOException
+	{
+		final int lastRow = rowIndex == null || checkpoint + 1 == rowIndex.getCheckpointCount()
+			? Integer.MAX_VALUE
+			: rowIndex.getRowIndex(checkpoint + 1) - 1;
+		long rows = 0;
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile, sharedStrings);
+			SheetRowCursor cursor = rowIndex == null
+				? reader.openCursor(sheetIndex)
+				: reader.openCursor(sheetIndex, rowIndex, checkpoint))
+		{
+			final Context context = new Context(run, sheetIndex, reader, cursor);
+			final CursorRowView view = new CursorRowView(cursor, null);
+			while (!run.isStopped() && cursor.nextRow())
+			{
+				final int row = cursor.getRowIndex();
+				if (lastRow < row)
+				{
+					break;
+				}
+				if (row <= headerRowIndex)
+				{
+					continue;
+				}
+				cursor.readRow(null, 0);
+				rows++;
+				for (final Rule rule : rules)
+				{
+					final int violatingRow = rule.check.check(view, context);
+					if (violatingRow != VALID)
+					{
+						run.addError(new ValidationError(sheetIndex, run.sheetNames.get(sheetIndex),
+							violatingRow, rule.columns.length == 1 ? rule.columns[0] : -1,
+							rule.name, valuesOf(view, cursor, rule.columns)));
+					}
+				}
+			}
+		}
+		return rows;
+	}
+
+	private static String valuesOf(final RowView row, final SheetRowCursor cursor,
+		final int[] columns)
+	{
+		if (columns.length == 1)
+		{
+			return valueOf(row, cursor, columns[0]);
+		}
+		final StringBuilder values = new StringBuilder();
+		for (int i = 0; i < columns.length; i++)
+		{
+			if (0 < i)
+			{
+				values.append(", ");
+			}
+			values.append(valueOf(row, cursor, columns[i]));
+		}
+		return values.toString();
+	}
+
+	/**
+	 * Gets the value of the given column for the report, error cells are reported with their
+	 * error code like <code>#DIV/0!</code> instead of the empty String
+	 */
+	private static String valueOf(final RowView row, final SheetRowCursor cursor,
+		final int column)
+	{
+		return isError(row, column) ? cursor.getRawValue(column) : row.getString(column);
+	}
+
+	private static boolean isEmpty(final RowView row, final int column)
+	{
+		return !isError(row, column) && row.getString(column).isEmpty();
+	}
+
+	private static boolean isError(final RowView row, final int column)
+	{
+		return row.getCellType(column) == CellType.ERROR;
+	}
+
+	/**
+	 * Checks whether the key columns of the given row are all blank. An error cell is never
+	 * blank, so a key with an error cell is checked and reported
+	 */
+	private static boolean isBlankKey(final RowView row, final int[] columns)
+	{
+		for (final int column : columns)
+		{
+			if (!isEmpty(row, column))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean hasError(final RowView row, final int[] columns)
+	{
+		for (final int column : columns)
+		{
+			if (isError(row, column))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isType(final Context context, final int column,
+		final ColumnType type) throws IOException
+	{
+		final SheetRowCursor cursor = context.cursor;
+		final XlsxCellType cellType = cursor.getType(column);
+		switch (type)
+		{
+			case INTEGER :
+				final double integer = SheetQuery.toNumber(cursor, column);
+				return cellType != XlsxCellType.BOOLEAN && integer == Math.rint(integer)
+					&& Math.abs(integer) < 1L << 53;
+			case DECIMAL :
+				return cellType != XlsxCellType.BOOLEAN
+					&& !Double.isNaN(SheetQuery.toNumber(cursor, column));
+			case BOOLEAN :
+				final String value = cursor.getString(column).trim();
+				return cellType == XlsxCellType.BOOLEAN || "true".equalsIgnoreCase(value)
+					|| "false".equalsIgnoreCase(value);
+			case DATE :
+				return cellType == XlsxCellType.DATE || cellType == XlsxCellType.NUMBER
+					&& context.reader.getFormatCache()
+						.getCategory(cursor.getStyleIndex(column)).isDate();
+			default :
+				return true;
+		}
+	}
+
+	/**
+	 * The check of a rule over the current row
+	 */
+	@FunctionalInterface
+	private interface RuleCheck
+	{
+		/**
+		 * Checks the current row
+		 *
+		 * @param row
+		 *            the current row
+		 * @param context
+		 *            the context of the validation task
+		 * @return the index of the row that violates the rule, which is the current row or an
+		 *         earlier row with the same unique key, or {@link #VALID}
+		 * @throws IOException
+		 *             Signals that an I/O exception has occurred
+		 */
+		int check(RowView row, Context context) throws IOException;
+	}
+
+	/**
+	 * A rule with its description and the columns that it checks
+	 */
+	private static final class Rule
+	{
+		private final String name;
+
+		private final int[] columns;
+
+		private final RuleCheck check;
+
+		private Rule(final String name, final int[] columns, final RuleCheck check)
+		{
+			this.name = name;
+			this.columns = columns;
+			this.check = check;
+		}
+	}
+
+	/**
+	 * The state of a validation task over a sheet or a chunk of a sheet
+	 */
+	private static final class Context
+	{
+		private final Run run;
+
+		private final int sheetIndex;
+
+		private final XlsxStreamReader reader;
+
+		private final SheetRowCursor cursor;
+
+		private Context(final Run run, final int sheetIndex, final XlsxStreamReader reader,
+			final SheetRowCursor cursor)
+		{
+			this.run = run;
+			this.sheetIndex = sheetIndex;
+			this.reader = reader;
+			this.cursor = cursor;
+		}
+	}
+
+	/**
+	 * The first rows of the unique keys of one unique rule and sheet. The 64 bit key hashes are
+	 * kept in primitive open addressing tables without boxing. The table is split into stripes by
+	 * the high bits of the hash, so the parallel tasks of a sheet rarely wait for each other
+	 */
+	private static final class UniqueKeyTable
+	{
+		private static final int STRIPE_BITS = 6;
+
+		private final Stripe[] stripes = new Stripe[1 << STRIPE_BITS];
+
+		private UniqueKeyTable()
+		{
+			for (int i = 0; i < stripes.length; i++)
+			{
+				stripes[i] = new Stripe();
+			}
+		}
+
+		/**
+		 * Registers the given key of the given row
+		 *
+		 * @return VALID for the first row of the key, otherwise the later one of the given row
+		 *         and the first row registered so far
+		 */
+		private int register(final long key, final int row)
+		{
+			final Stripe stripe = stripes[(int)(key >>> 64 - STRIPE_BITS)];
+			synchronized (stripe)
+			{
+				return stripe.register(key, row);
+			}
+		}
+	}
+
+	/**
+	 * One stripe of a {@link UniqueKeyTable} with linear probing. The rows are stored plus one, so
+	 * zero marks a free slot
+	 */
+	private static final class Stripe
+	{
+		private long[] keys = new long[16];
+
+		private int[] rows = new int[16];
+
+		private int size;
+
+		private int register(final long key, final int row)
+		{
+			int slot = find(keys, rows, key);
+			if (rows[slot] != 0)
+			{
+				final int firstRow = rows[slot] - 1;
+				rows[slot] = Math.min(firstRow, row) + 1;
+				return Math.max(firstRow, row);
+			}
+			if (keys.length <= 2 * (size + 1))
+			{
+				grow();
+				slot = find(keys, rows, key);
+			}
+			keys[slot] = key;
+			rows[slot] = row + 1;
+			size++;
+			return VALID;
+		}
+
+		private void grow()
+		{
+			final long[] oldKeys = keys;
+			final int[] oldRows = rows;
+			keys = new long[oldKeys.length * 2];
+			rows = new int[oldRows.length * 2];
+			for (int i = 0; i < oldKeys.length; i++)
+			{
+				if (oldRows[i] != 0)
+				{
+					final int slot = find(keys, rows, oldKeys[i]);
+					keys[slot] = oldKeys[i];
+					rows[slot] = oldRows[i];
+				}
+			}
+		}
+
+		private static int find(final long[] keys, final int[] rows, final long key)
+		{
+			final int mask = keys.length - 1;
+			int slot = (int)(key ^ key >>> 32) * 0x9E3779B9 & mask;
+			while (rows[slot] != 0 && keys[slot] != key)
+			{
+				slot = slot + 1 & mask;
+			}
+			return slot;
+		}
+	}
+
+	/**
+	 * The state of a validation that is shared by all its tasks
+	 */
+	private static final class Run
+	{
+		private final List<String> sheetNames;
+
+		private final UniqueKeyTable[] uniqueKeys;
+
+		private final ValidationMode mode;
+
+		private final int maxErrors;
+
+		private final PriorityQueue<ValidationError> errors;
+
+		private final AtomicLong errorCount = new AtomicLong();
+
+		private volatile boolean stopped;
+
+		private Run(final List<String> sheetNames, final int uniqueRules,
+			final ValidationMode mode, final int maxErrors)
+		{
+			this.sheetNames = sheetNames;
+			this.uniqueKeys = new UniqueKeyTable[uniqueRules * sheetNames.size()];
+			for (int i = 0; i < uniqueKeys.length; i++)
+			{
+				uniqueKeys[i] = new UniqueKeyTable();
+			}
+			this.mode = mode;
+			this.maxErrors = maxErrors;
+			this.errors = new PriorityQueue<>(ValidationError.ORDER.reversed());
+		}
+
+		private boolean isStopped()
+		{
+			return stopped || Thread.currentThread().isInterrupted();
+		}
+
+		/**
+		 * Registers the given unique key of the given row and finds the duplicate. Of all rows
+		 * with the same key the first row is valid and every later row is a duplicate, no matter
+		 * in which order the parallel tasks register them
+		 */
+		private int registerKey(final int uniqueRule, final int sheetIndex, final long key,
+			final int row)
+		{
+			return uniqueKeys[uniqueRule * sheetNames.size() + sheetIndex].register(key, row);
+		}
+
+		private void addError(final ValidationError error)
+		{
+			errorCount.incrementAndGet();
+			if (mode == ValidationMode.FAIL_FAST)
+			{
+				stopped = true;
+			}
+			synchronized (errors)
+			{
+				errors.add(error);
+				if (maxErrors < errors.size())
+				{
+					errors.poll();
+				}
+			}
+		}
+
+		private ValidationReport toReport(final long rows)
+		{
+			final List<ValidationError> sorted;
+			synchronized (errors)
+			{
+				sorted = new ArrayList<>(errors);
+			}
+			sorted.sort(ValidationError.ORDER);
+			return new ValidationReport(sorted, errorCount.get(), rows);
+		}
+	}
+
+	/**
+	 * The class {@link Builder} creates {@link SheetValidator} objects
+	 */
+	public static final class Builder
+	{
+		private final File workbookFile;
+
+		private int[] sheets;
+
+		private int headerRowIndex = -1;
+
+		private int chunkRows;
+
+		private ValidationMode mode = ValidationMode.COLLECT_ALL;
+
+		private int maxErrors = 1000;
+
+		private final List<Rule> rules = new ArrayList<>();
+
+		private int uniqueRules;
+
+		private ExecutorService executor;
+
+		private Builder(final File workbookFile)
+		{
+			this.workbookFile = workbookFile;
+		}
+
+		/**
+		 * Sets the zero based indexes of the sheets that are validated. Default are all sheets
+		 *
+		 * @param sheets
+		 *            the sheet indexes
+		 * @return this builder
+		 */
+		public Builder sheets(final int... sheets)
+		{
+			for (final int sheet : sheets)
+			{
+				if (sheet < 0)
+				{
+					throw new IllegalArgumentException("Sheet index must not be negative: " + sheet);
+				}
+			}
+			this.sheets = sheets.length == 0 ? null : sheets.clone();
+			return this;
+		}
+
+		/**
+		 * Sets the zero based index of the header row of every validated sheet. The header row
+		 * and all rows before it are not validated. Default is -1 for no header row
+		 *
+		 * @param headerRowIndex
+		 *            the header row index
+		 * @return this builder
+		 */
+		public Builder headerRowIndex(final int headerRowIndex)
+		{
+			if (headerRowIndex < -1)
+			{
+				throw new IllegalArgumentException("Invalid header row index: " + headerRowIndex);
+			}
+			this.headerRowIndex = headerRowIndex;
+			return this;
+		}
+
+		/**
+		 * Sets the number of rows of the chunks that a sheet is split into for the parallel
+		 * validation. The chunks are found with a {@link SheetRowIndex} that is built for the
+		 * validation. Default is 0, then every sheet is validated as a single chunk
+		 *
+		 * @param chunkRows
+		 *            the number of rows of a chunk
+		 * @return this builder
+		 */
+		public Builder chunkRows(final int chunkRows)
+		{
+			if (chunkRows < 0)
+			{
+				throw new IllegalArgumentException("Chunk rows must not be negative: " + chunkRows);
+			}
+			this.chunkRows = chunkRows;
+			return this;
+		}
+
+		/**
+		 * Sets the validation mode. Default is {@link ValidationMode#COLLECT_ALL}
+		 *
+		 * @param mode
+		 *            the validation mode
+		 * @return this builder
+		 */
+		public Builder mode(final ValidationMode mode)
+		{
+			Check.get().notNull(mode, "mode");
+			this.mode = mode;
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of errors that are reported. The errors after the limit are
+		 * only counted. Default is 1000
+		 *
+		 * @param maxErrors
+		 *            the maximum number of reported errors
+		 * @return this builder
+		 */
+		public Builder maxErrors(final int maxErrors)
+		{
+			if (maxErrors < 1)
+			{
+				throw new IllegalArgumentException("Max errors must be positive: " + maxErrors);
+			}
+			this.maxErrors = maxErrors;
+			return this;
+		}
+
+		/**
+		 * Adds a rule that the cell of the given column has a value. Blank cells, error cells and
+		 * empty strings violate the rule
+		 *
+		 * @param column
+		 *            the zero based column index
+		 * @return this builder
+		 */
+		public Builder required(final int column)
+		{
+			return rule("required", new int[] { checkColumn(column) },
+				(row, context) -> isEmpty(row, column) || isError(row, column)
+					? row.getRowIndex()
+					: VALID);
+		}
+
+		/**
+		 * Adds a rule that the value of the cell of the given column can be read as the given
+		 * type. Numbers may also be stored as text, booleans as the text <code>true</code> or
+		 * <code>false</code> and dates must be numeric cells with a date format or ISO 8601 date
+		 * cells. Error cells violate the rule
+		 *
+		 * @param column
+		 *            the zero based column index
+		 * @param type
+		 *            the expected type
+		 * @return this builder
+		 */
+		public Builder type(final int column, final ColumnType type)
+		{
+			Check.get().notNull(type, "type");
+			return rule("type " + type, new int[] { checkColumn(column) },
+				(row, context) -> isEmpty(row, column)
+					|| !isError(row, column) && isType(context, column, type)
+					? VALID
+					: row.getRowIndex());
+		}
+
+		/**
+		 * Adds a rule that the value of the cell of the given column matches the given regular
+		 * expression as a whole. Error cells violate the rule
+		 *
+		 * @param column
+		 *            the zero based column index
+		 * @param regex
+		 *            the regular expression
+		 * @return this builder
+		 */
+		public Builder matches(final int column, final String regex)
+		{
+			Check.get().notEmpty(regex, "regex");
+			final Pattern pattern = Pattern.compile(regex);
+			return rule("matches " + regex, new int[] { checkColumn(column) },
+				(row, context) -> isEmpty(row, column) || !isError(row, column)
+					&& pattern.matcher(row.getString(column)).matches()
+						? VALID
+						: row.getRowIndex());
+		}
+
+		/**
+		 * Adds a rule that the cell of the given column has a numeric value between the given
+		 * bounds. Text that is not a number and error cells violate the rule
+		 *
+		 * @param column
+		 *            the zero based column index
+		 * @param min
+		 *            the inclusive minimum
+		 * @param max
+		 *            the inclusive maximum
+		 * @return this builder
+		 */
+		public Builder range(final int column, final double min, final double max)
+		{
+			if (!(min <= max))
+			{
+				throw new IllegalArgumentException("Invalid range from " + min + " to " + max);
+			}
+			return rule("range " + min + " to " + max, new int[] { checkColumn(column) },
+				(row, context) -> {
+					if (isEmpty(row, column))
+					{
+						return VALID;
+					}
+					if (isError(row, column))
+					{
+						return row.getRowIndex();
+					}
+					final double value = SheetQuery.toNumber(context.cursor, column);
+					return min <= value && value <= max ? VALID : row.getRowIndex();
+				});
+		}
+
+		/**
+		 * Adds a rule that the values of the given columns are unique within a sheet. The first
+		 * row of a key is valid, every later row with the same key violates the rule. Rows whose
+		 * key columns are all blank are not checked and error cells are compared by their error
+		 * code. The keys are kept as 64 bit hashes
+		 *
+		 * @param columns
+		 *            the zero based indexes of the key columns
+		 * @return this builder
+		 */
+		public Builder unique(final int... columns)
+		{
+			final int[] keyColumns = checkColumns(columns);
+			final int uniqueRule = uniqueRules++;
+			return rule("unique", keyColumns, (row, context) -> {
+				if (isBlankKey(row, keyColumns))
+				{
+					return VALID;
+				}
+				final String[] key = new String[keyColumns.length];
+				for (int i = 0; i < key.length; i++)
+				{
+					key[i] = valueOf(row, context.cursor, keyColumns[i]);
+				}
+				return context.run.registerKey(uniqueRule, context.sheetIndex,
+					RowHashTable.hash(key, null), row.getRowIndex());
+			});
+		}
+
+		/**
+		 * Adds a rule that the value of the cell of the given column is one of the given values.
+		 * Error cells violate the rule
+		 *
+		 * @param column
+		 *            the zero based column index
+		 * @param values
+		 *            the allowed values
+		 * @return this builder
+		 */
+		public Builder oneOf(final int column, final Collection<String> values)
+		{
+			Check.get().notNull(values, "values");
+			final Set<String> allowed = Set.copyOf(values);
+			return rule("one of " + values.size() + " values", new int[] { checkColumn(column) },
+				(row, context) -> isEmpty(row, column)
+					|| !isError(row, column) && allowed.contains(row.getString(column))
+						? VALID
+					: row.getRowIndex());
+		}
+
+		/**
+		 * Adds a rule that the values of the given columns are a key of the given
+		 * {@link SheetKeyIndex}, so every row refers to an existing row of the lookup sheet. Rows
+		 * whose columns are all blank are not checked and a key with an error cell violates the
+		 * rule
+		 *
+		 * @param index
+		 *            the key index of the lookup sheet
+		 * @param columns
+		 *            the zero based indexes of the columns in the order of the key columns of the
+		 *            index
+		 * @return this builder
+		 */
+		public Builder reference(final SheetKeyIndex index, final int... columns)
+		{
+			Check.get().notNull(index, "index");
+			final int[] keyColumns = checkColumns(columns);
+			if (keyColumns.length != index.getKeyColumns().length)
+			{
+				throw new IllegalArgumentException("The index has "
+					+ index.getKeyColumns().length + " key columns and not " + keyColumns.length);
+			}
+			return rule("reference to sheet " + index.getSheetIndex(), keyColumns,
+				(row, context) -> {
+					if (isBlankKey(row, keyColumns))
+					{
+						return VALID;
+					}
+					if (hasError(row, keyColumns))
+					{
+						return row.getRowIndex();
+					}
+					final String[] key = new String[keyColumns.length];
+					for (int i = 0; i < key.length; i++)
+					{
+						key[i] = row.getString(keyColumns[i]);
+					}
+					return index.contains(key) ? VALID : row.getRowIndex();
+				});
+		}
+
+		/**
+		 * Adds a rule over the whole row, for example a rule that compares the values of two
+		 * columns. The {@link RowView} must not be kept after the predicate returns
+		 *
+		 * @param name
+		 *            the description of the rule in the report
+		 * @param predicate
+		 *            the predicate that a valid row satisfies
+		 * @param columns
+		 *            the zero based indexes of the columns whose values are reported with an
+		 *            error
+		 * @return this builder
+		 */
+		public Builder check(final String name, final Predicate<RowView> predicate,
+			final int... columns)
+		{
+			Check.get().notEmpty(name, "name").notNull(predicate, "predicate");
+			for (final int column : columns)
+			{
+				checkColumn(column);
+			}
+			return rule(name, columns.clone(),
+				(row, context) -> predicate.test(row) ? VALID : row.getRowIndex());
+		}
+
+		/**
+		 * Sets the executor that validates the sheets and chunks. The executor is not shut down
+		 * by the validator. Default is a fixed thread pool with one thread per available
+		 * processor that is created for every validation
+		 *
+		 * @param executor
+		 *            the executor
+		 * @return this builder
+		 */
+		public Builder executor(final ExecutorService executor)
+		{
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Builds the {@link SheetValidator} object
+		 *
+		 * @return the new {@link SheetValidator} object
+		 * @throws IllegalArgumentException
+		 *             if no rule was added
+		 */
+		public SheetValidator build()
+		{
+			if (rules.isEmpty())
+			{
+				throw new IllegalArgumentException("At least one rule is required");
+			}
+			return new SheetValidator(this);
+		}
+
+		private Builder rule(final String name, final int[] columns, final RuleCheck check)
+		{
+			rules.add(new Rule(name, columns, check));
+			return this;
+		}
+
+		private static int[] checkColumns(final int[] columns)
+		{
+			if (columns.length == 0)
+			{
+				throw new IllegalArgumentException("At least one column is required");
+			}
+			for (final int column : columns)
+			{
+				checkColumn(column);
+			}
+			return columns.clone();
+		}
+
+		private static int checkColumn(final int column)
+		{
+			if (column < 0)
+			{
+				throw new IllegalArgumentException("Column index must not be negative: " + column);
+			}
+			return column;
+		}
+	}
+}
@@ -0,0 +1,368 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+
+/**
+ * The class {@link SheetXmlWriter} writes the xml of a single sheet directly to a {@link Writer}.
+ * Strings are added to a {@link ConcurrentSharedStrings} table and styles to a
+ * {@link ConcurrentStyles} table, so several sheets of the same workbook can be written from
+ * different threads. Without a shared strings table the strings are written inline into the cells
+ */
+final class SheetXmlWriter implements SheetRowWriter
+{
+
+	private static final int MAX_COLUMNS = SpreadsheetVersion.EXCEL2007.getMaxColumns();
+
+	private final Writer writer;
+
+	private final String sheetName;
+
+	private final ProgressTracker tracker;
+
+	private final ConcurrentSharedStrings sharedStrings;
+
+	private final ConcurrentStyles styles;
+
+	private final int dateStyle;
+
+	private final int dateTimeStyle;
+
+	private XlsxCellStyle rowStyle;
+
+	private int rowStyleIndex;
+
+	private int rowDateStyle;
+
+	private int rowDateTimeStyle;
+
+	private String[] columnNames = new String[0];
+
+	private int rowCount;
+
+	private long cellCount;
+
+	private RowBatchWrittenEvent batchEvent = newBatchEvent(0);
+
+	private long batchCellCount;
+
+	/**
+	 * Creates a new {@link SheetXmlWriter} and writes the start of the sheet xml
+	 *
+	 * @param writer
+	 *            the target of the sheet xml
+	 * @param sheetName
+	 *            the name of the sheet
+	 * @param sharedStrings
+	 *            the shared strings table or null if strings are written inline
+	 * @param styles
+	 *            the styles table
+	 * @param tracker
+	 *            the progress tracker that counts the written rows
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	SheetXmlWriter(final Writer writer, final String sheetName,
+		final ConcurrentSharedStrings sharedStrings, final ConcurrentStyles styles,
+		final ProgressTracker tracker) throws IOException
+	{
+		this.writer = writer;
+		this.sheetName = sheetName;
+		this.tracker = tracker;
+		this.sharedStrings = sharedStrings;
+		this.styles = styles;
+		this.dateStyle = styles.indexOf(XlsxCellStyle.DATE);
+		this.dateTimeStyle = styles.indexOf(XlsxCellStyle.DATE_TIME);
+		this.rowDateStyle = dateStyle;
+		this.rowDateTimeStyle = dateTimeStyle;
+		writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n");
+		writer.write("<worksheet xmlns=\"" + XlsxPackageWriter.MAIN_NAMESPACE + "\" xmlns:r=\""
+			+ XlsxPackageWriter.RELATIONSHIPS_NAMESPACE + "\"><sheetData>");
+	}
+
+	@Override
+	public void writeRow(final Object... values) throws IOException
+	{
+		writeRow((XlsxCellStyle)null, values);
+	}
+
+	@Override
+	public void writeRow(final XlsxCellStyle style, final Object... values) throws IOException
+	{
+		if (style != rowStyle)
+		{
+			rowStyle = style;
+			rowStyleIndex = style == null ? 0 : styles.indexOf(style);
+			rowDateStyle = style == null ? dateStyle : -1;
+			rowDateTimeStyle = style == null ? dateTimeStyle : -1;
+		}
+		writeCells(values);
+	}
+
+	/**
+	 * Gets the number of written rows
+	 *
+	 * @return the number of written rows
+	 */
+	int getRowCount()
+	{
+		return rowCount;
+	}
+
+	/**
+	 * Gets the number of written cells
+	 *
+	 * @return the number of written cells
+	 */
+	long getCellCount()
+	{
+		return cellCount;
+	}
+
+	/**
+	 * Writes the end of the sheet xml and flushes the target. The target is not closed
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	void finish() throws IOException
+	{
+		writer.write("</sheetData></worksheet>");
+		writer.flush();
+		commitBatch();
+	}
+
+	private static RowBatchWrittenEvent newBatchEvent(final int firstRow)
+	{
+		final RowBatchWrittenEvent event = new RowBatchWrittenEvent();
+		event.firstRow = firstRow;
+		event.begin();
+		return event;
+	}
+
+	private void commitBatch()
+	{
+		if (batchEvent.shouldCommit())
+		{
+			batchEvent.sheet = sheetName;
+			batchEvent.rows = rowCount - batchEvent.firstRow;
+			batchEvent.cells = cellCount - batchCellCount;
+			batchEvent.commit();
+		}
+	}
+
+	private void writeCells(final Object[] values) throws IOException
+	{
+		if (RollingXlsxWriter.MAX_XLSX_ROWS <= rowCount)
+		{
+			throw new IOException("The sheet " + sheetName + " exceeds the maximum number of "
+				+ RollingXlsxWriter.MAX_XLSX_ROWS + " rows");
+		}
+		if (MAX_COLUMNS < values.length)
+		{
+			throw new IOException("The row " + (rowCount + 1) + " of the sheet " + sheetName
+				+ " exceeds the maximum number of " + MAX_COLUMNS + " columns");
+		}
+		tracker.rowProcessed();
+		rowCount++;
+		if (values.length > columnNames.length)
+		{
+			final int oldLength = columnNames.length;
+			columnNames = Arrays.copyOf(columnNames, values.length);
+			for (int i = oldLength; i < values.length; i++)
+			{
+				columnNames[i] = CellReference.convertNumToColString(i);
+			}
+		}
+		final String rowNumber = Integer.toString(rowCount);
+		writer.write("<row r=\"");
+		writer.write(rowNumber);
+		writer.write("\">");
+		for (int column = 0; column < values.length; column++)
+		{
+			final Object value = values[column];
+			if (value == null)
+			{
+				continue;
+			}
+			cellCount++;
+			writer.write("<c r=\"");
+			writer.write(columnNames[column]);
+			writer.write(rowNumber);
+			writer.write('"');
+			writeCellValue(value);
+		}
+		writer.write("</row>");
+		if (rowCount % RowBatchWrittenEvent.BATCH_SIZE == 0)
+		{
+			commitBatch();
+			batchEvent = newBatchEvent(rowCount);
+			batchCellCount = cellCount;
+		}
+	}
+
+	private void writeCellValue(final Object value) throws IOException
+	{
+		if (value instanceof Number number && isFinite(number))
+		{
+			writeStyle(rowStyleIndex);
+			writer.write("><v>");
+			writer.write(toText(number));
+			writer.write("</v></c>");
+		}
+		else if (value instanceof Boolean bool)
+		{
+			writeStyle(rowStyleIndex);
+			writer.write(" t=\"b\"><v>");
+			writer.write(bool ? '1' : '0');
+			writer.write("</v></c>");
+		}
+		else if (value instanceof LocalDateTime dateTime)
+		{
+			writeDate(DateUtil.getExcelDate(dateTime), dateTimeStyle());
+		}
+		else if (value instanceof LocalDate date)
+		{
+			writeDate(DateUtil.getExcelDate(date), dateStyle());
+		}
+		else if (value instanceof Date date)
+		{
+			writeDate(DateUtil.getExcelDate(date), dateTimeStyle());
+		}
+		else if (sharedStrings == null)
+		{
+			writeStyle(rowStyleIndex);
+			writer.write(" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+			XmlEscaper.escape(value.toString(), writer);
+			writer.write("</t></is></c>");
+		}
+		else
+		{
+			writeStyle(rowStyleIndex);
+			writer.write(" t=\"s\"><v>");
+			writer.write(Integer.toString(sharedStrings.indexOf(value.toString())));
+			writer.write("</v></c>");
+		}
+	}
+
+	/**
+	 * Gets the style index for date values of the current row. A row style without a data format
+	 * is merged with the date format, so the date values keep their format and get the font of the
+	 * row style
+	 *
+	 * @return the style index for date values
+	 */
+	private int dateStyle()
+	{
+		if (rowDateStyle < 0)
+		{
+			rowDateStyle = mergedDateStyle(XlsxCellStyle.DATE);
+		}
+		return rowDateStyle;
+	}
+
+	/**
+	 * Gets the style index for date time values of the current row, see {@link #dateStyle()}
+	 *
+	 * @return the style index for date time values
+	 */
+	private int dateTimeStyle()
+	{
+		if (rowDateTimeStyle < 0)
+		{
+			rowDateTimeStyle = mergedDateStyle(XlsxCellStyle.DATE_TIME);
+		}
+		return rowDateTimeStyle;
+	}
+
+	private int mergedDateStyle(final XlsxCellStyle dateFormat)
+	{
+		return styles.indexOf(rowStyle.withDefaultDataFormat(dateFormat.dataFormat()));
+	}
+
+	private void writeDate(final double excelDate, final int style) throws IOException
+	{
+		writeStyle(style);
+		writer.write("><v>");
+		writer.write(Double.toString(excelDate));
+		writer.write("</v></c>");
+	}
+
+	private void writeStyle(final int style) throws IOException
+	{
+		if (style != 0)
+		{
+			writer.write(" s=\"");
+			writer.write(Integer.toString(style));
+			writer.write('"');
+		}
+	}
+
+	/**
+	 * Checks if the given number can be written as numeric cell value
+	 *
+	 * @param number
+	 *            the number
+	 * @return true if the number is finite otherwise false
+	 */
+	static boolean isFinite(final Number number)
+	{
+		return !(number instanceof Double || number instanceof Float)
+			|| Double.isFinite(number.doubleValue());
+	}
+
+	/**
+	 * Converts the given number to the text of a numeric cell value
+	 *
+	 * @param number
+	 *            the number
+	 * @return the text of the number
+	 */
+	static String toText(final Number number)
+	{
+		if (number instanceof Integer || number instanceof Long || number instanceof Short
+			|| number instanceof Byte || number instanceof BigInteger)
+		{
+			return number.toString();
+		}
+		if (number instanceof BigDecimal decimal)
+		{
+			return decimal.toPlainString();
+		}
+		return Double.toString(number.doubleValue());
+	}
+}
@@ -0,0 +1,230 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link TempDiskBudget} limits the bytes that the temporary files of
+ * {@link SXSSFSession} objects may occupy on disk. Every write to a temporary sheet file reserves
+ * its bytes from the budget before it reaches the disk, and the bytes are released when the
+ * workbook that owns the file is closed. When a write would exceed the budget it either waits
+ * until other workbooks release enough bytes or fails fast with an {@link IOException}.
+ * <p>
+ * A budget is thread-safe and meant to be shared by all sessions of a process, for example as a
+ * static constant
+ */
+public final class TempDiskBudget
+{
+
+	private final long maxBytes;
+
+	private final long timeoutNanos;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition released = lock.newCondition();
+
+	private long usedBytes;
+
+	private long peakBytes;
+
+	private TempDiskBudget(final long maxBytes, final long timeoutNanos)
+	{
+		this.maxBytes = maxBytes;
+		this.timeoutNanos = timeoutNanos;
+	}
+
+	/**
+	 * Creates a budget without a limit that only measures the used bytes
+	 *
+	 * @return the new {@link TempDiskBudget} object
+	 */
+	public static TempDiskBudget unlimited()
+	{
+		return new TempDiskBudget(Long.MAX_VALUE, 0);
+	}
+
+	/**
+	 * Creates a budget that fails a write with an {@link IOException} as soon as the write would
+	 * exceed the given number of bytes
+	 *
+	 * @param maxBytes
+	 *            the maximum number of bytes
+	 * @return the new {@link TempDiskBudget} object
+	 */
+	public static TempDiskBudget failFast(final long maxBytes)
+	{
+		return new TempDiskBudget(checkMaxBytes(maxBytes), 0);
+	}
+
+	/**
+	 * Creates a budget that lets a write that would exceed the given number of bytes wait up to
+	 * the given timeout for released bytes before it fails with an {@link IOException}
+	 *
+	 * @param maxBytes
+	 *            the maximum number of bytes
+	 * @param timeout
+	 *            the maximum time that a write waits
+	 * @return the new {@link TempDiskBudget} object
+	 */
+	public static TempDiskBudget blocking(final long maxBytes, final Duration timeout)
+	{
+		Check.get().notNull(timeout, "timeout");
+		if (timeout.isNegative() || timeout.isZero())
+		{
+			throw new IllegalArgumentException("Timeout must be positive: " + timeout);
+		}
+		return new TempDiskBudget(checkMaxBytes(maxBytes), timeout.toNanos());
+	}
+
+	private static long checkMaxBytes(final long maxBytes)
+	{
+		if (maxBytes < 1)
+		{
+			throw new IllegalArgumentException("Maximum bytes must be positive: " + maxBytes);
+		}
+		return maxBytes;
+	}
+
+	/**
+	 * Gets the maximum number of bytes of this budget
+	 *
+	 * @return the maximum number of bytes or {@link Long#MAX_VALUE} if the budget is unlimited
+	 */
+	public long getMaxBytes()
+	{
+		return maxBytes;
+	}
+
+	/**
+	 * Gets the number of bytes that are currently reserved by temporary files
+	 *
+	 * @return the used bytes
+	 */
+	public long getUsedBytes()
+	{
+		lock.lock();
+		try
+		{
+			return usedBytes;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Gets the largest number of bytes that were reserved at the same time
+	 *
+	 * @return the peak of the used bytes
+	 */
+	public long getPeakBytes()
+	{
+		lock.lock();
+		try
+		{
+			return peakBytes;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Reserves the given number of bytes and waits for released bytes if this budget blocks
+	 *
+	 * @param bytes
+	 *            the number of bytes
+	 * @throws IOException
+	 *             if the bytes could not be reserved in time or the waiting thread was
+	 *             interrupted
+	 */
+	void acquire(final long bytes) throws IOException
+	{
+		lock.lock();
+		try
+		{
+			long remainingNanos = timeoutNanos;
+			while (maxBytes - usedBytes < bytes)
+			{
+				if (remainingNanos <= 0 || maxBytes < bytes)
+				{
+					throw new IOException("The temporary disk budget of " + maxBytes
+						+ " bytes is exceeded by a write of " + bytes + " bytes with " + usedBytes
+						+ " bytes in use");
+				}
+				remainingNanos = released.awaitNanos(remainingNanos);
+			}
+			usedBytes += bytes;
+			peakBytes = Math.max(peakBytes, usedBytes);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(
+				"Interrupted while waiting for the temporary disk budget");
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Releases the given number of bytes and wakes up waiting writes
+	 *
+	 * @param bytes
+	 *            the number of bytes
+	 */
+	void release(final long bytes)
+	{
+		lock.lock();
+		try
+		{
+			usedBytes -= bytes;
+			released.signalAll();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return "TempDiskBudget{" + "maxBytes=" + maxBytes + ", timeoutNanos=" + timeoutNanos
+			+ ", usedBytes=" + getUsedBytes() + ", peakBytes=" + getPeakBytes() + '}';
+	}
+}
@@ -0,0 +1,153 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link TemplateData} holds the data of a single rendering of a
+ * {@link WorkbookTemplate}: the values of the placeholders and named cells and the producers of
+ * the rows that are streamed into data sheets
+ */
+public final class TemplateData
+{
+
+	private final Map<String, Object> values;
+
+	private final Map<String, SheetRowProducer> sheets;
+
+	private TemplateData(final Builder builder)
+	{
+		this.values = Collections.unmodifiableMap(new HashMap<>(builder.values));
+		this.sheets = Collections.unmodifiableMap(new HashMap<>(builder.sheets));
+	}
+
+	/**
+	 * Creates a new {@link Builder} for {@link TemplateData} objects
+	 *
+	 * @return the new builder
+	 */
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
+	/**
+	 * Checks if a value is set for the given placeholder or name
+	 *
+	 * @param name
+	 *            the name of the placeholder or the defined name
+	 * @return true if a value is set otherwise false
+	 */
+	public boolean hasValue(final String name)
+	{
+		return values.containsKey(name);
+	}
+
+	/**
+	 * Gets the value of the given placeholder or name
+	 *
+	 * @param name
+	 *            the name of the placeholder or the defined name
+	 * @return the value, may be null
+	 */
+	public Object getValue(final String name)
+	{
+		return values.get(name);
+	}
+
+	/**
+	 * Gets the producer of the rows of the sheet with the given name
+	 *
+	 * @param sheetName
+	 *            the sheet name
+	 * @return the row producer or null if no rows are streamed into the sheet
+	 */
+	public SheetRowProducer getRows(final String sheetName)
+	{
+		return sheets.get(sheetName);
+	}
+
+	/**
+	 * The class {@link Builder} creates {@link TemplateData} objects
+	 */
+	public static final class Builder
+	{
+		private final Map<String, Object> values = new HashMap<>();
+
+		private final Map<String, SheetRowProducer> sheets = new HashMap<>();
+
+		private Builder()
+		{
+		}
+
+		/**
+		 * Sets the value of a placeholder <code>${name}</code> or of a cell with a defined name.
+		 * A null value renders an empty text or an empty cell
+		 *
+		 * @param name
+		 *            the name of the placeholder or the defined name
+		 * @param value
+		 *            the value
+		 * @return this builder
+		 */
+		public Builder value(final String name, final Object value)
+		{
+			Check.get().notEmpty(name, "name");
+			values.put(name, value);
+			return this;
+		}
+
+		/**
+		 * Sets the producer of the rows that are appended to the sheet with the given name
+		 *
+		 * @param sheetName
+		 *            the sheet name
+		 * @param producer
+		 *            the row producer
+		 * @return this builder
+		 */
+		public Builder rows(final String sheetName, final SheetRowProducer producer)
+		{
+			Check.get().notEmpty(sheetName, "sheetName").notNull(producer, "producer");
+			sheets.put(sheetName, producer);
+			return this;
+		}
+
+		/**
+		 * Builds the {@link TemplateData} object
+		 *
+		 * @return the new {@link TemplateData} object
+		 */
+		public TemplateData build()
+		{
+			return new TemplateData(this);
+		}
+	}
+}
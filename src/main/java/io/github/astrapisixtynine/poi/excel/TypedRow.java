@@ -0,0 +1,331 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+
+/**
+ * The class {@link TypedRow} gives typed access to the cells of the current row of a typed
+ * streaming read operation. The cells are decoded from their raw xml values straight into
+ * primitives on access, without the String conversion of the untyped read operations.
+ * <p>
+ * The columns are addressed by their position in the {@link SheetSchema}. The primitive getters
+ * return <code>0</code> or <code>false</code> for blank cells, which can be distinguished with
+ * {@link #isNull(int)}. A {@link TypedRow} object is reused for every row of a read operation
+ */
+public final class TypedRow
+{
+
+	private final SheetSchema schema;
+
+	private final boolean date1904;
+
+	private SheetRowCursor cursor;
+
+	/**
+	 * Creates a new {@link TypedRow}
+	 *
+	 * @param schema
+	 *            the schema of the rows
+	 * @param date1904
+	 *            the flag if the workbook uses the 1904 date system
+	 */
+	TypedRow(final SheetSchema schema, final boolean date1904)
+	{
+		this.schema = schema;
+		this.date1904 = date1904;
+	}
+
+	/**
+	 * Moves this row to the current row of the given cursor
+	 *
+	 * @param cursor
+	 *            the cursor that has read the current row
+	 */
+	void moveTo(final SheetRowCursor cursor)
+	{
+		this.cursor = cursor;
+	}
+
+	/**
+	 * Gets the schema of this row
+	 *
+	 * @return the schema
+	 */
+	public SheetSchema getSchema()
+	{
+		return schema;
+	}
+
+	/**
+	 * Gets the zero based index of this row in the sheet
+	 *
+	 * @return the row index
+	 */
+	public int getRowIndex()
+	{
+		return cursor.getRowIndex();
+	}
+
+	/**
+	 * Checks if the cell at the given position is blank or an error
+	 *
+	 * @param position
+	 *            the position of the column in the schema
+	 * @return true if the cell has no value otherwise false
+	 */
+	public boolean isNull(final int position)
+	{
+		if (cursor.getWidth() <= position)
+		{
+			return true;
+		}
+		final XlsxCellType type = cursor.getType(position);
+		return type == XlsxCellType.BLANK || type == XlsxCellType.ERROR;
+	}
+
+	/**
+	 * Gets the value of the cell at the given position as <code>long</code>. Numbers with a
+	 * fraction are truncated
+	 *
+	 * @param position
+	 *            the position of the column in the schema
+	 * @return the value or 0 if the cell is blank
+	 * @throws NumberFormatException
+	 *             if the cell contains text that is not a number
+	 */
+	public long getLong(final int position)
+	{
+		if (isNull(position))
+		{
+			return 0;
+		}
+		final String rawValue = cursor.getRawValue(position);
+		switch (cursor.getType(position))
+		{
+			case NUMBER :
+				return isPlainInteger(rawValue)
+					? Long.parseLong(rawValue)
+					: (long)Double.parseDouble(rawValue);
+			case BOOLEAN :
+				return getBoolean(position) ? 1 : 0;
+			default :
+				return Long.parseLong(cursor.getString(position).trim());
+		}
+	}
+
+	/**
+	 * Gets the value of the cell at the given position as <code>int</code>
+	 *
+	 * @param position
+	 *            the position of the column in the schema
+	 * @return the value or 0 if the cell is blank
+	 * @throws NumberFormatException
+	 *             if the cell contains text that is not a number
+	 */
+	public int getInt(final int position)
+	{
+		return (int)getLong(position);
+	}
+
+	/**
+	 * Gets the value of the cell at the given position as <code>double</code>
+	 *
+	 * @param position
+	 *            the position of the column in the schema
+	 * @return the value or 0 if the cell is blank
+	 * @throws NumberFormatException
+	 *             if the cell contains text that is not a number
+	 */
+	public double getDouble(final int position)
+	{
+		if (isNull(position))
+		{
+			return 0;
+		}
+		switch (cursor.getType(position))
+		{
+			case NUMBER :
+				return Double.parseDouble(cursor.getRawValue(position));
+			case BOOLEAN :
+				return getBoolean(position) ? 1 : 0;
+			default :
+				return Double.parseDouble(cursor.getString(position).trim());
+		}
+	}
+
+	/**
+	 * Gets the value of the cell at the given position as <code>boolean</code>. Numeric cells are
+	 * true if they are not zero, text cells if they contain <code>true</code> ignoring the case
+	 *
+	 * @param position
+	 *            the position of the column in the schema
+	 * @return the value or false if the cell is blank
+	 */
+	public boolean getBoolean(final int position)
+	{
+		if (isNull(position))
+		{
+			return false;
+		}
+		final String rawValue = cursor.getRawValue(position);
+		switch (cursor.getType(position))
+		{
+			case BOOLEAN :
+				return "1".equals(rawValue) || "true".equals(rawValue);
+			case NUMBER :
+				return Double.parseDouble(rawValue) != 0;
+			default :
+				return Boolean.parseBoolean(cursor.getString(position).trim());
+		}
+	}
+
+	/**
+	 * Gets the value of the cell at the given position as {@link LocalDateTime}. Numeric cells are
+	 * converted from the Excel date serial number in the date system of the workbook
+	 *
+	 * @param position
+	 *            the position of the column in the schema
+	 * @return the value or null if the cell is blank
+	 * @throws java.time.format.DateTimeParseException
+	 *             if the cell contains text that is not an ISO 8601 date
+	 */
+	public LocalDateTime getLocalDateTime(final int position)
+	{
+		if (isNull(position))
+		{
+			return null;
+		}
+		if (cursor.getType(position) == XlsxCellType.NUMBER)
+		{
+			return DateUtil.getLocalDateTime(Double.parseDouble(cursor.getRawValue(position)),
+				date1904);
+		}
+		return parseIsoDate(cursor.getString(position).trim());
+	}
+
+	/**
+	 * Gets the value of the cell at the given position as {@link LocalDate}
+	 *
+	 * @param position
+	 *            the position of the column in the schema
+	 * @return the value or null if the cell is blank
+	 * @throws java.time.format.DateTimeParseException
+	 *             if the cell contains text that is not an ISO 8601 date
+	 */
+	public LocalDate getLocalDate(final int position)
+	{
+		final LocalDateTime value = getLocalDateTime(position);
+		return value == null ? null : value.toLocalDate();
+	}
+
+	/**
+	 * Gets the value of the cell at the given position as String like the untyped read
+	 * operations
+	 *
+	 * @param position
+	 *            the position of the column in the schema
+	 * @return the value or null if the cell is blank
+	 */
+	public String getString(final int position)
+	{
+		return isNull(position) ? null : cursor.getString(position);
+	}
+
+	/**
+	 * Gets the value of the cell at the given position as the Java type of its column type in the
+	 * schema, that is {@link Long}, {@link Double}, {@link Boolean}, {@link LocalDateTime} or
+	 * {@link String}
+	 *
+	 * @param position
+	 *            the position of the column in the schema
+	 * @return the value or null if the cell is blank
+	 */
+	public Object getValue(final int position)
+	{
+		if (isNull(position))
+		{
+			return null;
+		}
+		switch (schema.getColumn(position).type())
+		{
+			case INTEGER :
+				return getLong(position);
+			case DECIMAL :
+				return getDouble(position);
+			case BOOLEAN :
+				return getBoolean(position);
+			case DATE :
+				return getLocalDateTime(position);
+			default :
+				return getString(position);
+		}
+	}
+
+	/**
+	 * Parses the given ISO 8601 date or date time
+	 *
+	 * @param value
+	 *            the date or date time like <code>2024-01-31</code> or
+	 *            <code>2024-01-31T10:15:30</code>
+	 * @return the date time
+	 */
+	static LocalDateTime parseIsoDate(final String value)
+	{
+		return value.indexOf('T') < 0
+			? LocalDate.parse(value).atStartOfDay()
+			: LocalDateTime.parse(value);
+	}
+
+	/**
+	 * Checks if the given raw numeric value is an integer without fraction or exponent that fits
+	 * into a <code>long</code>
+	 *
+	 * @param rawValue
+	 *            the raw numeric value
+	 * @return true if the value can be parsed with {@link Long#parseLong(String)} otherwise false
+	 */
+	static boolean isPlainInteger(final String rawValue)
+	{
+		final int start = rawValue.startsWith("-") ? 1 : 0;
+		final int length = rawValue.length();
+		if (length == start || 18 < length - start)
+		{
+			return false;
+		}
+		for (int i = start; i < length; i++)
+		{
+			final char character = rawValue.charAt(i);
+			if (character < '0' || '9' < character)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.util.Comparator;
+
+import org.apache.poi.ss.util.CellReference;
+
+/**
+ * The record {@link ValidationError} holds a cell or a row that violates a rule of a
+ * {@link SheetValidator}
+ *
+ * @param sheetIndex
+ *            the zero based index of the sheet
+ * @param sheet
+ *            the name of the sheet
+ * @param row
+ *            the zero based index of the row
+ * @param column
+ *            the zero based index of the column or -1 if the rule checks more than one column
+ * @param rule
+ *            the description of the violated rule
+ * @param value
+ *            the value of the checked cell, the values of the checked columns separated by a
+ *            comma if the rule checks more than one column
+ */
+public record ValidationError(int sheetIndex, String sheet, int row, int column, String rule,
+	String value)
+{
+
+	/**
+	 * The order of the errors by sheet, row, column and rule
+	 */
+	static final Comparator<ValidationError> ORDER = Comparator
+		.comparingInt(ValidationError::sheetIndex).thenComparingInt(ValidationError::row)
+		.thenComparingInt(ValidationError::column).thenComparing(ValidationError::rule);
+
+	/**
+	 * Gets the reference of the cell of this error like <code>B12</code>, or only the row number
+	 * like <code>12</code> if the rule checks more than one column
+	 *
+	 * @return the cell reference
+	 */
+	public String cellReference()
+	{
+		return column < 0
+			? Integer.toString(row + 1)
+			: new CellReference(row, column).formatAsString();
+	}
+}
@@ -0,0 +1,150 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link ValidationReport} holds the result of a {@link SheetValidator}. The errors are
+ * ordered by sheet, row and column and limited to the maximum number of reported errors, the
+ * total number of errors is counted without a limit
+ */
+public final class ValidationReport
+{
+
+	private final List<ValidationError> errors;
+
+	private final long errorCount;
+
+	private final long rowCount;
+
+	ValidationReport(final List<ValidationError> errors, final long errorCount,
+		final long rowCount)
+	{
+		this.errors = List.copyOf(errors);
+		this.errorCount = errorCount;
+		this.rowCount = rowCount;
+	}
+
+	/**
+	 * Checks if no error was found
+	 *
+	 * @return true if all validated rows satisfy all rules otherwise false
+	 */
+	public boolean isValid()
+	{
+		return errorCount == 0;
+	}
+
+	/**
+	 * Gets the reported errors
+	 *
+	 * @return an unmodifiable list of the reported errors ordered by sheet, row and column
+	 */
+	public List<ValidationError> getErrors()
+	{
+		return errors;
+	}
+
+	/**
+	 * Gets the total number of errors, including the errors that exceed the maximum number of
+	 * reported errors
+	 *
+	 * @return the number of errors
+	 */
+	public long getErrorCount()
+	{
+		return errorCount;
+	}
+
+	/**
+	 * Gets the number of validated rows
+	 *
+	 * @return the number of validated rows
+	 */
+	public long getRowCount()
+	{
+		return rowCount;
+	}
+
+	/**
+	 * Writes the reported errors to the given {@link File} as CSV file after RFC 4180 with the
+	 * columns sheet, cell, rule and value
+	 *
+	 * @param reportFile
+	 *            the report file
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void write(final File reportFile) throws IOException
+	{
+		Check.get().notNull(reportFile, "reportFile");
+		try (Writer writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8))
+		{
+			write(writer);
+		}
+	}
+
+	/**
+	 * Writes the reported errors to the given {@link Writer} as CSV after RFC 4180 with the
+	 * columns sheet, cell, rule and value
+	 *
+	 * @param writer
+	 *            the writer
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void write(final Writer writer) throws IOException
+	{
+		Check.get().notNull(writer, "writer");
+		writer.write("sheet,cell,rule,value\r\n");
+		for (final ValidationError error : errors)
+		{
+			CsvFields.writeCsvField(error.sheet(), writer);
+			writer.write(',');
+			CsvFields.writeCsvField(error.cellReference(), writer);
+			writer.write(',');
+			CsvFields.writeCsvField(error.rule(), writer);
+			writer.write(',');
+			CsvFields.writeCsvField(error.value(), writer);
+			writer.write("\r\n");
+		}
+		writer.flush();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ValidationReport{" + "errorCount=" + errorCount + ", rowCount=" + rowCount
+			+ ", errors=" + errors + '}';
+	}
+}
@@ -0,0 +1,180 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * The class {@link WorkbookBufferPool} holds reusable in-memory buffers that workbooks can be
+ * written to. A buffer is acquired from the pool, used as sink of a write operation and released
+ * back to the pool when its content has been consumed, so the grown backing arrays are reused
+ * instead of being allocated for every workbook.
+ * <p>
+ * This class is thread-safe, a single {@link PooledBuffer} is not
+ */
+public final class WorkbookBufferPool
+{
+
+	/**
+	 * The default initial capacity of a new buffer in bytes
+	 */
+	public static final int DEFAULT_INITIAL_CAPACITY = 1024 * 1024;
+
+	private final BlockingQueue<PooledBuffer> buffers;
+
+	private final int initialCapacity;
+
+	private final int maxRetainedCapacity;
+
+	/**
+	 * Creates a new {@link WorkbookBufferPool} that retains up to the given number of buffers
+	 *
+	 * @param maxPooledBuffers
+	 *            the maximum number of buffers that are kept in the pool
+	 */
+	public WorkbookBufferPool(final int maxPooledBuffers)
+	{
+		this(maxPooledBuffers, DEFAULT_INITIAL_CAPACITY, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a new {@link WorkbookBufferPool}
+	 *
+	 * @param maxPooledBuffers
+	 *            the maximum number of buffers that are kept in the pool
+	 * @param initialCapacity
+	 *            the initial capacity of a new buffer in bytes
+	 * @param maxRetainedCapacity
+	 *            the maximum capacity in bytes of a buffer that is returned to the pool, larger
+	 *            buffers are dropped on release
+	 */
+	public WorkbookBufferPool(final int maxPooledBuffers, final int initialCapacity,
+		final int maxRetainedCapacity)
+	{
+		if (maxPooledBuffers < 1 || initialCapacity < 0 || maxRetainedCapacity < 0)
+		{
+			throw new IllegalArgumentException("Invalid pool configuration: maxPooledBuffers="
+				+ maxPooledBuffers + ", initialCapacity=" + initialCapacity
+				+ ", maxRetainedCapacity=" + maxRetainedCapacity);
+		}
+		this.buffers = new ArrayBlockingQueue<>(maxPooledBuffers);
+		this.initialCapacity = initialCapacity;
+		this.maxRetainedCapacity = maxRetainedCapacity;
+	}
+
+	/**
+	 * Acquires an empty buffer from this pool or creates a new one if the pool is empty
+	 *
+	 * @return the empty buffer
+	 */
+	public PooledBuffer acquire()
+	{
+		final PooledBuffer buffer = buffers.poll();
+		if (buffer == null)
+		{
+			return new PooledBuffer(this, initialCapacity);
+		}
+		buffer.setReleased(false);
+		return buffer;
+	}
+
+	/**
+	 * Gets the number of buffers that are currently available in this pool
+	 *
+	 * @return the number of available buffers
+	 */
+	public int getAvailableCount()
+	{
+		return buffers.size();
+	}
+
+	private void release(final PooledBuffer buffer)
+	{
+		buffer.reset();
+		if (buffer.capacity() <= maxRetainedCapacity)
+		{
+			buffers.offer(buffer);
+		}
+	}
+
+	/**
+	 * The class {@link PooledBuffer} is a growable in-memory {@link java.io.OutputStream} that
+	 * belongs to a {@link WorkbookBufferPool}. Closing the buffer has no effect, the buffer is
+	 * returned to its pool with {@link #release()}
+	 */
+	public static final class PooledBuffer extends ByteArrayOutputStream
+	{
+
+		private final WorkbookBufferPool pool;
+
+		private boolean released;
+
+		private PooledBuffer(final WorkbookBufferPool pool, final int initialCapacity)
+		{
+			super(initialCapacity);
+			this.pool = pool;
+		}
+
+		/**
+		 * Creates a new {@link InputStream} over the current content of this buffer without
+		 * copying it. The stream must not be used after the buffer has been released
+		 *
+		 * @return the input stream
+		 */
+		public synchronized InputStream toInputStream()
+		{
+			return new ByteArrayInputStream(buf, 0, count);
+		}
+
+		/**
+		 * Resets this buffer and returns it to its pool. The buffer must not be used after it has
+		 * been released. Releasing the buffer again has no effect, so it can not be handed out
+		 * twice by its pool
+		 */
+		public void release()
+		{
+			if (setReleased(true))
+			{
+				pool.release(this);
+			}
+		}
+
+		private synchronized boolean setReleased(final boolean released)
+		{
+			final boolean changed = this.released != released;
+			this.released = released;
+			return changed;
+		}
+
+		private synchronized int capacity()
+		{
+			return buf.length;
+		}
+	}
+}
@@ -0,0 +1,586 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link WorkbookDiff} compares the sheets with the same name of two xlsx files and
+ * reports the added, removed and changed rows with their changed cells. Rows are matched by the
+ * values of the key columns or, without key columns, by their row index.
+ * <p>
+ * The sheets are streamed twice. The first pass hashes the key and the content of every row into
+ * a {@link RowHashTable} and runs for all sheets of both files in parallel. With
+ * {@link Builder#chunkRows(int)} a sheet is additionally split into chunks with a
+ * {@link SheetRowIndex}, so the chunks of a single large sheet are hashed in parallel as well. The
+ * tables are matched in memory, and the second pass streams the rows of the new sheet that differ
+ * and reports every difference as soon as its row is read. The old values of a changed row are
+ * read with a forward cursor over the old sheet, that jumps back to the closest checkpoint of a
+ * {@link SheetRowIndex} if the rows were reordered. Only the hashes of the rows and the offsets of
+ * the checkpoints are held in memory, so the memory grows with the number of rows and not with the
+ * number of differences or cells. Rows are compared by a 64 bit hash of their values, so the
+ * probability that a change is missed is negligible but not zero
+ */
+public final class WorkbookDiff
+{
+
+	private static final int UNCHANGED = -2;
+
+	private static final int ADDED = -1;
+
+	private final int[] keyColumns;
+
+	private final int headerRowIndex;
+
+	private final int chunkRows;
+
+	private final ExecutorService executor;
+
+	private WorkbookDiff(final Builder builder)
+	{
+		this.keyColumns = builder.keyColumns;
+		this.headerRowIndex = builder.headerRowIndex;
+		this.chunkRows = builder.chunkRows;
+		this.executor = builder.executor;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for {@link WorkbookDiff} objects
+	 *
+	 * @return the new builder
+	 */
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
+	/**
+	 * Compares the given xlsx files and collects the differences
+	 *
+	 * @param oldFile
+	 *            the old xlsx file
+	 * @param newFile
+	 *            the new xlsx file
+	 * @return the differences in the order of {@link #diff(File, File, RowDiffHandler)}
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public List<RowDiff> diff(final File oldFile, final File newFile) throws IOException
+	{
+		final List<RowDiff> diffs = new ArrayList<>();
+		diff(oldFile, newFile, diffs::add);
+		return diffs;
+	}
+
+	/**
+	 * Compares the given xlsx files and passes the differences to the given handler on the calling
+	 * thread. The sheets are reported in the order of the new file followed by the sheets that
+	 * exist only in the old file. Within a sheet the added and changed rows come in the row order
+	 * of the new file, followed by the removed rows in the row order of the old file
+	 *
+	 * @param oldFile
+	 *            the old xlsx file
+	 * @param newFile
+	 *            the new xlsx file
+	 * @param handler
+	 *            the handler of the differences
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void diff(final File oldFile, final File newFile, final RowDiffHandler handler)
+		throws IOException
+	{
+		Check.get().notNull(oldFile, "oldFile").notNull(newFile, "newFile").notNull(handler,
+			"handler");
+		final List<String> oldSheets;
+		final List<String> newSheets;
+		final SharedStringCache oldStrings;
+		final SharedStringCache newStrings;
+		try (XlsxStreamReader oldReader = XlsxStreamReader.open(oldFile);
+			XlsxStreamReader newReader = XlsxStreamReader.open(newFile))
+		{
+			oldSheets = oldReader.getSheetNames();
+			newSheets = newReader.getSheetNames();
+			oldStrings = oldReader.getSharedStrings();
+			newStrings = newReader.getSharedStrings();
+		}
+		try (ChunkedScan chunkedScan = new ChunkedScan(executor, "comparison"))
+		{
+			final Map<String, SheetScan[]> scans = new HashMap<>();
+			for (int newIndex = 0; newIndex < newSheets.size(); newIndex++)
+			{
+				final int oldIndex = oldSheets.indexOf(newSheets.get(newIndex));
+				if (0 <= oldIndex)
+				{
+					scans.put(newSheets.get(newIndex),
+						new SheetScan[] { new SheetScan(chunkedScan, oldFile, oldIndex, oldStrings),
+								new SheetScan(chunkedScan, newFile, newIndex, newStrings) });
+				}
+			}
+			if (0 < chunkRows)
+			{
+				for (final SheetScan[] sheetScans : scans.values())
+				{
+					for (final SheetScan scan : sheetScans)
+					{
+						scan.rowIndex = chunkedScan.submitIndex(scan.file, scan.sheetIndex,
+							chunkRows);
+					}
+				}
+			}
+			for (int newIndex = 0; newIndex < newSheets.size(); newIndex++)
+			{
+				final SheetScan[] sheetScans = scans.get(newSheets.get(newIndex));
+				if (sheetScans != null)
+				{
+					for (final SheetScan scan : sheetScans)
+					{
+						scan.chunks.addAll(chunkedScan.submitChunks(scan.sheetIndex,
+							scan.rowIndex == null ? null : chunkedScan.await(scan.rowIndex),
+							(sheetIndex, rowIndex, checkpoint) -> scan(scan, rowIndex,
+								checkpoint)));
+					}
+				}
+			}
+			for (int newIndex = 0; newIndex < newSheets.size(); newIndex++)
+			{
+				final String sheetName = newSheets.get(newIndex);
+				final SheetScan[] sheetScans = scans.get(sheetName);
+				if (sheetScans == null)
+				{
+					emitAll(new SheetScan(chunkedScan, newFile, newIndex, newStrings), sheetName,
+						DiffType.ADDED, handler);
+				}
+				else
+				{
+					diffSheet(sheetName, sheetScans[0], sheetScans[1], handler);
+				}
+			}
+			for (int oldIndex = 0; oldIndex < oldSheets.size(); oldIndex++)
+			{
+				if (!newSheets.contains(oldSheets.get(oldIndex)))
+				{
+					emitAll(new SheetScan(chunkedScan, oldFile, oldIndex, oldStrings),
+						oldSheets.get(oldIndex), DiffType.REMOVED, handler);
+				}
+			}
+		}
+	}
+
+	private void diffSheet(final String sheetName, final SheetScan oldScan,
+		final SheetScan newScan, final RowDiffHandler handler) throws IOException
+	{
+		final RowHashTable oldTable = oldScan.table();
+		final RowHashTable newTable = newScan.table();
+		final int[] matches = new int[newTable.size()];
+		final BitSet newRows = new BitSet();
+		for (int entry = 0; entry < newTable.size(); entry++)
+		{
+			final int oldEntry = oldTable.findUnmatched(newTable.getKeyHash(entry));
+			if (oldEntry < 0)
+			{
+				matches[entry] = ADDED;
+				newRows.set(newTable.getRowIndex(entry));
+				continue;
+			}
+			oldTable.markMatched(oldEntry);
+			if (oldTable.getRowHash(oldEntry) == newTable.getRowHash(entry))
+			{
+				matches[entry] = UNCHANGED;
+				continue;
+			}
+			matches[entry] = oldEntry;
+			newRows.set(newTable.getRowIndex(entry));
+		}
+		final BitSet oldRows = new BitSet();
+		for (int entry = 0; entry < oldTable.size(); entry++)
+		{
+			if (!oldTable.isMatched(entry))
+			{
+				oldRows.set(oldTable.getRowIndex(entry));
+			}
+		}
+		if (!newRows.isEmpty())
+		{
+			try (XlsxStreamReader reader = newScan.open();
+				OldRowReader oldRowReader = new OldRowReader(oldScan))
+			{
+				final int[] entry = { 0 };
+				reader.readSheet(newScan.sheetIndex, rowsOf(newRows), (rowIndex, values) -> {
+					while (newTable.getRowIndex(entry[0]) < rowIndex)
+					{
+						entry[0]++;
+					}
+					final int match = matches[entry[0]];
+					if (match == ADDED)
+					{
+						handler.handle(new RowDiff(DiffType.ADDED, sheetName, -1, rowIndex, null,
+							values, List.of()));
+					}
+					else
+					{
+						final int oldRowIndex = oldTable.getRowIndex(match);
+						final String[] oldValues = oldRowReader.read(oldRowIndex);
+						handler.handle(new RowDiff(DiffType.CHANGED, sheetName, oldRowIndex,
+							rowIndex, oldValues, values, compareCells(oldValues, values)));
+					}
+				});
+			}
+		}
+		if (!oldRows.isEmpty())
+		{
+			try (XlsxStreamReader reader = oldScan.open())
+			{
+				reader.readSheet(oldScan.sheetIndex, rowsOf(oldRows),
+					(rowIndex, values) -> handler.handle(new RowDiff(DiffType.REMOVED, sheetName,
+						rowIndex, -1, values, null, List.of())));
+			}
+		}
+	}
+
+	/**
+	 * Compares the values of the given rows cell by cell
+	 *
+	 * @param oldRow
+	 *            the values of the old row
+	 * @param newRow
+	 *            the values of the new row
+	 * @return the changed cells
+	 */
+	static List<CellChange> compareCells(final String[] oldRow, final String[] newRow)
+	{
+		final List<CellChange> changes = new ArrayList<>();
+		for (int column = 0; column < Math.max(oldRow.length, newRow.length); column++)
+		{
+			final String oldValue = column < oldRow.length ? oldRow[column] : "";
+			final String newValue = column < newRow.length ? newRow[column] : "";
+			if (!oldValue.equals(newValue))
+			{
+				changes.add(new CellChange(column, oldValue, newValue));
+			}
+		}
+		return changes;
+	}
+
+	private RowHashTable scan(final SheetScan scan, final SheetRowIndex rowIndex,
+		final int checkpoint) throws IOException
+	{
+		final RowHashTable table = new RowHashTable();
+		final RowHandler handler = (row, values) -> table.add(keyColumns == null
+			? RowHashTable.hash(row)
+			: RowHashTable.hash(values, keyColumns), RowHashTable.hash(values, null), row);
+		try (XlsxStreamReader reader = scan.open())
+		{
+			if (rowIndex == null)
+			{
+				reader.readSheet(scan.sheetIndex, dataRows(), handler);
+				return table;
+			}
+			final int firstRow = Math.max(headerRowIndex + 1, rowIndex.getRowIndex(checkpoint));
+			final int lastRow = checkpoint + 1 == rowIndex.getCheckpointCount()
+				? Integer.MAX_VALUE
+				: rowIndex.getRowIndex(checkpoint + 1) - 1;
+			if (firstRow <= lastRow)
+			{
+				reader.readIndexedWindow(scan.sheetIndex, rowIndex,
+					ReadOptions.builder().rows(firstRow, lastRow).build(), handler);
+			}
+		}
+		return table;
+	}
+
+	private static ReadOptions rowsOf(final BitSet rows)
+	{
+		return ReadOptions.builder().rows(rows.nextSetBit(0), rows.length() - 1)
+			.rowFilter(rows::get).build();
+	}
+
+	private void emitAll(final SheetScan scan, final String sheetName, final DiffType type,
+		final RowDiffHandler handler) throws IOException
+	{
+		try (XlsxStreamReader reader = scan.open())
+		{
+			reader.readSheet(scan.sheetIndex, dataRows(),
+				(rowIndex, values) -> handler.handle(type == DiffType.ADDED
+					? new RowDiff(type, sheetName, -1, rowIndex, null, values, List.of())
+					: new RowDiff(type, sheetName, rowIndex, -1, values, null, List.of())));
+		}
+	}
+
+	private ReadOptions dataRows()
+	{
+		return ReadOptions.builder().rows(headerRowIndex + 1, Integer.MAX_VALUE).build();
+	}
+
+	/**
+	 * The class {@link SheetScan} holds the running first pass over one sheet of one file
+	 */
+	private static final class SheetScan
+	{
+		private final ChunkedScan chunkedScan;
+
+		private final File file;
+
+		private final int sheetIndex;
+
+		private final SharedStringCache sharedStrings;
+
+		private final List<Future<RowHashTable>> chunks = new ArrayList<>();
+
+		private Future<SheetRowIndex> rowIndex;
+
+		private SheetScan(final ChunkedScan chunkedScan, final File file, final int sheetIndex,
+			final SharedStringCache sharedStrings)
+		{
+			this.chunkedScan = chunkedScan;
+			this.file = file;
+			this.sheetIndex = sheetIndex;
+			this.sharedStrings = sharedStrings;
+		}
+
+		/**
+		 * Opens a reader of the file of this scan with the shared strings that were parsed once
+		 * for all tasks of the file
+		 */
+		private XlsxStreamReader open() throws IOException
+		{
+			return XlsxStreamReader.open(file, sharedStrings);
+		}
+
+		private RowHashTable table() throws IOException
+		{
+			final RowHashTable table = chunkedScan.await(chunks.get(0));
+			for (int chunk = 1; chunk < chunks.size(); chunk++)
+			{
+				table.addAll(chunkedScan.await(chunks.get(chunk)));
+			}
+			return table;
+		}
+	}
+
+	/**
+	 * The class {@link OldRowReader} reads single rows of the old sheet in ascending order with a
+	 * forward cursor. A row in front of the cursor is read by reopening the cursor at the closest
+	 * checkpoint of the row index of the sheet, that is built on the first backward jump if the
+	 * first pass did not build it
+	 */
+	private final class OldRowReader implements Closeable
+	{
+		private final SheetScan scan;
+
+		private final XlsxStreamReader reader;
+
+		private final CellFormatCache formats;
+
+		private SheetRowIndex rowIndex;
+
+		private SheetRowCursor cursor;
+
+		private int cursorRow = Integer.MAX_VALUE;
+
+		private OldRowReader(final SheetScan scan) throws IOException
+		{
+			this.scan = scan;
+			this.reader = scan.open();
+			this.formats = dataRows().isFormattedValues() ? reader.getFormatCache() : null;
+		}
+
+		private String[] read(final int row) throws IOException
+		{
+			if (row <= cursorRow)
+			{
+				reopen(row);
+			}
+			while (cursorRow < row)
+			{
+				if (!cursor.nextRow())
+				{
+					throw new IOException(
+						"The row " + row + " was not found in the sheet " + scan.sheetIndex);
+				}
+				cursorRow = cursor.getRowIndex();
+			}
+			if (cursorRow != row)
+			{
+				throw new IOException(
+					"The row " + row + " was not found in the sheet " + scan.sheetIndex);
+			}
+			cursor.readRow(null, 0);
+			return cursor.toStringArray(formats);
+		}
+
+		private void reopen(final int row) throws IOException
+		{
+			final boolean backward = cursor != null;
+			if (cursor != null)
+			{
+				cursor.close();
+				cursor = null;
+			}
+			if (backward && rowIndex == null)
+			{
+				rowIndex = scan.rowIndex != null
+					? scan.chunkedScan.await(scan.rowIndex)
+					: SheetRowIndex.build(scan.file, scan.sheetIndex,
+						SheetRowIndex.DEFAULT_INTERVAL);
+			}
+			final int checkpoint = rowIndex == null ? -1 : rowIndex.findCheckpoint(row);
+			cursor = checkpoint < 0
+				? reader.openCursor(scan.sheetIndex)
+				: reader.openCursor(scan.sheetIndex, rowIndex, checkpoint);
+			cursorRow = -1;
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			try
+			{
+				if (cursor != null)
+				{
+					cursor.close();
+				}
+			}
+			finally
+			{
+				reader.close();
+			}
+		}
+	}
+
+	/**
+	 * The class {@link Builder} creates {@link WorkbookDiff} objects
+	 */
+	public static final class Builder
+	{
+		private int[] keyColumns;
+
+		private int headerRowIndex = -1;
+
+		private int chunkRows;
+
+		private ExecutorService executor;
+
+		private Builder()
+		{
+		}
+
+		/**
+		 * Sets the zero based indexes of the columns that identify a row. Default is no key
+		 * column, then the rows are matched by their row index
+		 *
+		 * @param keyColumns
+		 *            the key column indexes
+		 * @return this builder
+		 */
+		public Builder keyColumns(final int... keyColumns)
+		{
+			for (final int keyColumn : keyColumns)
+			{
+				if (keyColumn < 0)
+				{
+					throw new IllegalArgumentException(
+						"Column index must not be negative: " + keyColumn);
+				}
+			}
+			this.keyColumns = keyColumns.length == 0 ? null : keyColumns.clone();
+			return this;
+		}
+
+		/**
+		 * Sets the zero based index of the header row. The header row and all rows before it are
+		 * not compared. Default is -1 for no header row
+		 *
+		 * @param headerRowIndex
+		 *            the header row index
+		 * @return this builder
+		 */
+		public Builder headerRowIndex(final int headerRowIndex)
+		{
+			if (headerRowIndex < -1)
+			{
+				throw new IllegalArgumentException("Invalid header row index: " + headerRowIndex);
+			}
+			this.headerRowIndex = headerRowIndex;
+			return this;
+		}
+
+		/**
+		 * Sets the number of rows of the chunks that a sheet is split into for the parallel
+		 * hashing. The chunks are found with a {@link SheetRowIndex} that is built for the diff
+		 * and also serves the second pass if the rows of the old sheet were reordered. Default is
+		 * 0, then every sheet is hashed as a single chunk
+		 *
+		 * @param chunkRows
+		 *            the number of rows of a chunk
+		 * @return this builder
+		 */
+		public Builder chunkRows(final int chunkRows)
+		{
+			if (chunkRows < 0)
+			{
+				throw new IllegalArgumentException("Chunk rows must not be negative: " + chunkRows);
+			}
+			this.chunkRows = chunkRows;
+			return this;
+		}
+
+		/**
+		 * Sets the executor that scans the sheets. The executor is not shut down by the diff.
+		 * Default is a fixed thread pool with one thread per available processor that is created
+		 * for every diff operation
+		 *
+		 * @param executor
+		 *            the executor
+		 * @return this builder
+		 */
+		public Builder executor(final ExecutorService executor)
+		{
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Builds the {@link WorkbookDiff} object
+		 *
+		 * @return the new {@link WorkbookDiff} object
+		 */
+		public WorkbookDiff build()
+		{
+			return new WorkbookDiff(this);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+/**
+ * The interface {@link WorkbookListener} receives the measurements of the read and write
+ * operations of this library. Listeners are bound to the operations with {@link WorkbookListeners}
+ * and are called synchronously from the thread that does the work, so implementations must be
+ * thread-safe and return quickly. The events of one operation carry the same operation id, so
+ * events of concurrent operations can be told apart. All methods have an empty default
+ * implementation
+ */
+public interface WorkbookListener
+{
+
+	/**
+	 * Called when a phase of an operation is completed
+	 *
+	 * @param operation
+	 *            the operation
+	 * @param operationId
+	 *            the id of the operation
+	 * @param phase
+	 *            the completed phase
+	 * @param durationNanos
+	 *            the duration of the phase in nanoseconds
+	 */
+	default void phaseCompleted(final WorkbookOperation operation, final long operationId,
+		final WorkbookPhase phase, final long durationNanos)
+	{
+	}
+
+	/**
+	 * Called when a sheet has been read or written completely
+	 *
+	 * @param operation
+	 *            the operation
+	 * @param operationId
+	 *            the id of the operation
+	 * @param sheetName
+	 *            the name of the sheet
+	 * @param rows
+	 *            the number of read or written rows
+	 * @param cells
+	 *            the number of read or written cells
+	 */
+	default void sheetCompleted(final WorkbookOperation operation, final long operationId,
+		final String sheetName, final long rows, final long cells)
+	{
+	}
+
+	/**
+	 * Called when the bytes of a workbook have been read or written
+	 *
+	 * @param operation
+	 *            the operation
+	 * @param operationId
+	 *            the id of the operation
+	 * @param bytesIn
+	 *            the number of read bytes
+	 * @param bytesOut
+	 *            the number of written bytes
+	 */
+	default void bytesTransferred(final WorkbookOperation operation, final long operationId,
+		final long bytesIn, final long bytesOut)
+	{
+	}
+
+	/**
+	 * Called with the number of cell styles of a written workbook
+	 *
+	 * @param operation
+	 *            the operation
+	 * @param operationId
+	 *            the id of the operation
+	 * @param styleCount
+	 *            the number of cell styles
+	 */
+	default void stylesCounted(final WorkbookOperation operation, final long operationId,
+		final int styleCount)
+	{
+	}
+}
@@ -0,0 +1,236 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link WorkbookListeners} binds {@link WorkbookListener} objects to the read and write
+ * operations of this library. A binding is made with {@link #bind(WorkbookListener)} and belongs
+ * to the calling thread until it is closed, so concurrent operations on other threads never see
+ * it. An operation takes the listeners of its thread when it starts and reports to them even from
+ * its worker threads, a {@link XlsxStreamReader} for instance reports to the listeners that were
+ * bound while it was opened. Every operation gets its own operation id that is passed with each
+ * of its events. Without bound listeners the operations report to a listener that does nothing. A
+ * listener that throws a runtime exception does not break the operation, the exception is logged
+ * and the other listeners are still called
+ */
+public final class WorkbookListeners
+{
+
+	private static final WorkbookListener NONE = new WorkbookListener()
+	{
+	};
+
+	private static final ThreadLocal<Dispatcher> BOUND = new ThreadLocal<>();
+
+	private static final AtomicLong OPERATION_IDS = new AtomicLong();
+
+	/**
+	 * Private constructor to prevent instantiation
+	 */
+	private WorkbookListeners()
+	{
+	}
+
+	/**
+	 * Binds the given listener to the operations that are started on the calling thread until the
+	 * returned {@link Binding} is closed. Listeners that are already bound to the thread keep
+	 * receiving the events, so nested bindings add up
+	 *
+	 * @param listener
+	 *            the listener
+	 * @return the binding that has to be closed on the same thread
+	 */
+	public static Binding bind(final WorkbookListener listener)
+	{
+		Check.get().notNull(listener, "listener");
+		final Dispatcher previous = BOUND.get();
+		final List<WorkbookListener> listeners = previous == null
+			? new ArrayList<>()
+			: new ArrayList<>(previous.listeners);
+		listeners.add(listener);
+		BOUND.set(new Dispatcher(listeners));
+		return new Binding(previous);
+	}
+
+	/**
+	 * Gets the listener that an operation started on the calling thread reports to
+	 *
+	 * @return the listener that dispatches to all listeners bound to the calling thread
+	 */
+	static WorkbookListener current()
+	{
+		final Dispatcher dispatcher = BOUND.get();
+		return dispatcher == null ? NONE : dispatcher;
+	}
+
+	/**
+	 * Creates a new operation id
+	 *
+	 * @return the new operation id
+	 */
+	static long nextOperationId()
+	{
+		return OPERATION_IDS.incrementAndGet();
+	}
+
+	private static void failed(final RuntimeException exception)
+	{
+		System.getLogger(WorkbookListeners.class.getName()).log(System.Logger.Level.WARNING,
+			"A workbook listener failed", exception);
+	}
+
+	/**
+	 * The class {@link Binding} restores the listeners that were bound to the thread before, when
+	 * it is closed
+	 */
+	public static final class Binding implements AutoCloseable
+	{
+
+		private final Thread thread = Thread.currentThread();
+
+		private final Dispatcher previous;
+
+		private boolean closed;
+
+		private Binding(final Dispatcher previous)
+		{
+			this.previous = previous;
+		}
+
+		/**
+		 * Unbinds the listener of this binding
+		 *
+		 * @throws IllegalStateException
+		 *             if the binding is closed on another thread than the one it was made on
+		 */
+		@Override
+		public void close()
+		{
+			if (Thread.currentThread() != thread)
+			{
+				throw new IllegalStateException(
+					"A listener binding has to be closed on the thread that made it");
+			}
+			if (closed)
+			{
+				return;
+			}
+			closed = true;
+			if (previous == null)
+			{
+				BOUND.remove();
+			}
+			else
+			{
+				BOUND.set(previous);
+			}
+		}
+	}
+
+	private static final class Dispatcher implements WorkbookListener
+	{
+
+		private final List<WorkbookListener> listeners;
+
+		private Dispatcher(final List<WorkbookListener> listeners)
+		{
+			this.listeners = List.copyOf(listeners);
+		}
+
+		@Override
+		public void phaseCompleted(final WorkbookOperation operation, final long operationId,
+			final WorkbookPhase phase, final long durationNanos)
+		{
+			for (final WorkbookListener listener : listeners)
+			{
+				try
+				{
+					listener.phaseCompleted(operation, operationId, phase, durationNanos);
+				}
+				catch (RuntimeException e)
+				{
+					failed(e);
+				}
+			}
+		}
+
+		@Override
+		public void sheetCompleted(final WorkbookOperation operation, final long operationId,
+			final String sheetName, final long rows, final long cells)
+		{
+			for (final WorkbookListener listener : listeners)
+			{
+				try
+				{
+					listener.sheetCompleted(operation, operationId, sheetName, rows, cells);
+				}
+				catch (RuntimeException e)
+				{
+					failed(e);
+				}
+			}
+		}
+
+		@Override
+		public void bytesTransferred(final WorkbookOperation operation, final long operationId,
+			final long bytesIn, final long bytesOut)
+		{
+			for (final WorkbookListener listener : listeners)
+			{
+				try
+				{
+					listener.bytesTransferred(operation, operationId, bytesIn, bytesOut);
+				}
+				catch (RuntimeException e)
+				{
+					failed(e);
+				}
+			}
+		}
+
+		@Override
+		public void stylesCounted(final WorkbookOperation operation, final long operationId,
+			final int styleCount)
+		{
+			for (final WorkbookListener listener : listeners)
+			{
+				try
+				{
+					listener.stylesCounted(operation, operationId, styleCount);
+				}
+				catch (RuntimeException e)
+				{
+					failed(e);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,500 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link WorkbookMerger} merges the sheets of many xlsx files into one xlsx file. The
+ * rows of the sources are streamed with a {@link XlsxStreamReader} into a {@link SXSSFWorkbook},
+ * so neither the sources nor the target are loaded into memory. The sheets are merged by their
+ * name or appended into a single sheet, and the cell styles are mapped through a cache that lets
+ * equal styles of different sources share one style of the target.
+ * <p>
+ * Several sources are read in parallel, each into a bounded queue of rows, while the target is
+ * written on the calling thread in the order of the sources. The result is the same as with a
+ * sequential merge, and at most {@link Builder#parallelism(int)} sources with
+ * {@link #QUEUE_CAPACITY} rows each are held in memory. Formula cells are merged with their
+ * cached result and the rows of a source are appended without the gaps of empty rows
+ */
+public final class WorkbookMerger
+{
+
+	/**
+	 * The number of rows that a source can read ahead of the target
+	 */
+	static final int QUEUE_CAPACITY = 1024;
+
+	private static final Object END = new Object();
+
+	private final String appendSheetName;
+
+	private final int headerRowIndex;
+
+	private final int parallelism;
+
+	private final ExecutorService executor;
+
+	private final WriteProfile profile;
+
+	private WorkbookMerger(final Builder builder)
+	{
+		this.appendSheetName = builder.appendSheetName;
+		this.headerRowIndex = builder.headerRowIndex;
+		this.parallelism = builder.parallelism;
+		this.executor = builder.executor;
+		this.profile = builder.profile;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for {@link WorkbookMerger} objects
+	 *
+	 * @return the new builder
+	 */
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
+	/**
+	 * Merges the given xlsx files into the given target {@link File}
+	 *
+	 * @param sources
+	 *            the source files in merge order
+	 * @param target
+	 *            the target file
+	 * @return the number of rows of every target sheet in the order of the target sheets
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public Map<String, Integer> merge(final List<File> sources, final File target)
+		throws IOException
+	{
+		Check.get().notEmpty(sources, "sources").notNull(target, "target");
+		final ExecutorService executorService = executor != null
+			? executor
+			: Executors.newFixedThreadPool(Math.min(parallelism, sources.size()));
+		final List<Future<?>> futures = new ArrayList<>(sources.size());
+		final List<BlockingQueue<Object>> queues = new ArrayList<>(sources.size());
+		final SXSSFWorkbook workbook = ExcelPoiFactory.newSXSSFWorkbook(profile);
+		try
+		{
+			final MergeTarget mergeTarget = new MergeTarget(workbook);
+			for (int i = 0; i < sources.size(); i++)
+			{
+				queues.add(new ArrayBlockingQueue<>(QUEUE_CAPACITY));
+				if (i < parallelism)
+				{
+					futures.add(submit(executorService, sources.get(i), queues.get(i)));
+				}
+			}
+			for (int i = 0; i < sources.size(); i++)
+			{
+				mergeTarget.consume(queues.get(i));
+				queues.set(i, null);
+				if (i + parallelism < sources.size())
+				{
+					final int next = i + parallelism;
+					futures.add(submit(executorService, sources.get(next), queues.get(next)));
+				}
+			}
+			ExcelPoiFactory.writeWorkbook(workbook, target, profile);
+			return mergeTarget.rowCounts();
+		}
+		finally
+		{
+			futures.forEach(future -> future.cancel(true));
+			if (executor == null)
+			{
+				executorService.shutdownNow();
+			}
+			workbook.close();
+		}
+	}
+
+	/**
+	 * Submits the reader of the given source. The reader ends the queue with {@link #END} or, if
+	 * it fails for any reason, replaces the queued rows with the failure, so the consumer never
+	 * waits for a reader that has stopped
+	 */
+	private Future<?> submit(final ExecutorService executorService, final File source,
+		final BlockingQueue<Object> queue)
+	{
+		return executorService.submit(() -> {
+			try
+			{
+				read(source, queue);
+				queue.put(END);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				queue.clear();
+				queue.offer(new InterruptedIOException(
+					"Interrupted while reading the source workbook " + source));
+			}
+			catch (Throwable throwable)
+			{
+				queue.clear();
+				queue.offer(throwable);
+			}
+			return null;
+		});
+	}
+
+	private void read(final File source, final BlockingQueue<Object> queue)
+		throws IOException, InterruptedException
+	{
+		try (XlsxStreamReader reader = XlsxStreamReader.open(source))
+		{
+			queue.put(reader.getStylesTable());
+			final List<String> sheetNames = reader.getSheetNames();
+			for (int sheetIndex = 0; sheetIndex < sheetNames.size(); sheetIndex++)
+			{
+				final String sheetName = appendSheetName != null
+					? appendSheetName
+					: sheetNames.get(sheetIndex);
+				queue.put(new SheetStart(sheetName));
+				try (SheetRowCursor cursor = reader.openCursor(sheetIndex))
+				{
+					while (cursor.nextRow())
+					{
+						cursor.readRow(null, 0);
+						queue.put(SourceRow.of(sheetName, cursor));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Marks the start of a sheet of a source
+	 *
+	 * @param sheetName
+	 *            the name of the target sheet
+	 */
+	private record SheetStart(String sheetName)
+	{
+	}
+
+	/**
+	 * A row of a source with the values and the source style indexes of its cells
+	 *
+	 * @param sheetName
+	 *            the name of the target sheet
+	 * @param rowIndex
+	 *            the zero based row index in the source sheet
+	 * @param values
+	 *            the cell values, a String, Double or Boolean or null for a blank cell
+	 * @param styleIndexes
+	 *            the source style indexes of the cells
+	 */
+	private record SourceRow(String sheetName, int rowIndex, Object[] values, int[] styleIndexes)
+	{
+
+		private static SourceRow of(final String sheetName, final SheetRowCursor cursor)
+		{
+			final int width = cursor.getWidth();
+			final Object[] values = new Object[width];
+			final int[] styleIndexes = new int[width];
+			for (int position = 0; position < width; position++)
+			{
+				styleIndexes[position] = cursor.getStyleIndex(position);
+				final String rawValue = cursor.getRawValue(position);
+				if (rawValue == null)
+				{
+					continue;
+				}
+				values[position] = switch (cursor.getType(position))
+				{
+					case NUMBER -> Double.parseDouble(rawValue);
+					case BOOLEAN -> "1".equals(rawValue);
+					default -> cursor.getString(position);
+				};
+			}
+			return new SourceRow(sheetName, cursor.getRowIndex(), values, styleIndexes);
+		}
+	}
+
+	/**
+	 * The target workbook with its sheets, the next row of every sheet and the style cache
+	 */
+	private final class MergeTarget
+	{
+		private final SXSSFWorkbook workbook;
+
+		private final CellStyleCache styleCache;
+
+		private final Map<String, Sheet> sheets = new LinkedHashMap<>();
+
+		private final Map<String, Integer> nextRows = new HashMap<>();
+
+		private MergeTarget(final SXSSFWorkbook workbook)
+		{
+			this.workbook = workbook;
+			this.styleCache = new CellStyleCache(workbook);
+		}
+
+		private void consume(final BlockingQueue<Object> queue) throws IOException
+		{
+			final StylesTable stylesTable = (StylesTable)take(queue);
+			final Map<Integer, CellStyle> sourceStyles = new HashMap<>();
+			boolean keepHeader = false;
+			Object element;
+			while ((element = take(queue)) != END)
+			{
+				if (element instanceof SheetStart sheetStart)
+				{
+					final String sheetName = sheetStart.sheetName();
+					if (!sheets.containsKey(sheetName))
+					{
+						sheets.put(sheetName, workbook.createSheet(sheetName));
+						nextRows.put(sheetName, 0);
+					}
+					keepHeader = nextRows.get(sheetName) == 0;
+					continue;
+				}
+				final SourceRow row = (SourceRow)element;
+				if (keepHeader || headerRowIndex < row.rowIndex())
+				{
+					write(sheets.get(row.sheetName()), row, stylesTable, sourceStyles);
+				}
+			}
+		}
+
+		private void write(final Sheet sheet, final SourceRow row, final StylesTable stylesTable,
+			final Map<Integer, CellStyle> sourceStyles) throws IOException
+		{
+			if (RollingXlsxWriter.MAX_XLSX_ROWS <= nextRows.get(row.sheetName()))
+			{
+				throw new IOException("The target sheet " + row.sheetName() + " exceeds the maximum"
+					+ " number of " + RollingXlsxWriter.MAX_XLSX_ROWS + " rows");
+			}
+			final int rowNumber = nextRows.merge(row.sheetName(), 1, Integer::sum) - 1;
+			final Row targetRow = sheet.createRow(rowNumber);
+			final Object[] values = row.values();
+			for (int column = 0; column < values.length; column++)
+			{
+				final int styleIndex = row.styleIndexes()[column];
+				if (values[column] == null && styleIndex == 0)
+				{
+					continue;
+				}
+				final Cell cell = targetRow.createCell(column);
+				if (values[column] instanceof Double number)
+				{
+					cell.setCellValue(number);
+				}
+				else if (values[column] instanceof Boolean bool)
+				{
+					cell.setCellValue(bool);
+				}
+				else if (values[column] != null)
+				{
+					cell.setCellValue((String)values[column]);
+				}
+				if (styleIndex != 0)
+				{
+					cell.setCellStyle(sourceStyles.computeIfAbsent(styleIndex,
+						index -> styleCache.map(stylesTable.getStyleAt(index))));
+				}
+			}
+		}
+
+		private Map<String, Integer> rowCounts()
+		{
+			final Map<String, Integer> rowCounts = new LinkedHashMap<>();
+			for (final String sheetName : sheets.keySet())
+			{
+				rowCounts.put(sheetName, nextRows.get(sheetName));
+			}
+			return rowCounts;
+		}
+	}
+
+	private static Object take(final BlockingQueue<Object> queue) throws IOException
+	{
+		final Object element;
+		try
+		{
+			element = queue.take();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for a source workbook");
+		}
+		if (element instanceof IOException ioException)
+		{
+			throw ioException;
+		}
+		if (element instanceof RuntimeException runtimeException)
+		{
+			throw runtimeException;
+		}
+		if (element instanceof Error error)
+		{
+			throw error;
+		}
+		if (element instanceof Throwable throwable)
+		{
+			throw new IOException("A source workbook could not be read", throwable);
+		}
+		return element;
+	}
+
+	/**
+	 * The class {@link Builder} creates {@link WorkbookMerger} objects
+	 */
+	public static final class Builder
+	{
+		private String appendSheetName;
+
+		private int headerRowIndex = -1;
+
+		private int parallelism = Runtime.getRuntime().availableProcessors();
+
+		private ExecutorService executor;
+
+		private WriteProfile profile = WriteProfile.DEFAULT;
+
+		private Builder()
+		{
+		}
+
+		/**
+		 * Sets the name of the single target sheet that all sheets of all sources are appended
+		 * to. Default is null, then every source sheet is appended to the target sheet with the
+		 * same name. The merge fails with an {@link IOException} if a target sheet would exceed
+		 * {@link RollingXlsxWriter#MAX_XLSX_ROWS} rows
+		 *
+		 * @param appendSheetName
+		 *            the name of the target sheet
+		 * @return this builder
+		 */
+		public Builder appendInto(final String appendSheetName)
+		{
+			this.appendSheetName = appendSheetName;
+			return this;
+		}
+
+		/**
+		 * Sets the zero based index of the header row of the source sheets. The header row and
+		 * all rows before it are merged only from the first source sheet of every target sheet.
+		 * Default is -1 for no header row
+		 *
+		 * @param headerRowIndex
+		 *            the header row index
+		 * @return this builder
+		 */
+		public Builder headerRowIndex(final int headerRowIndex)
+		{
+			if (headerRowIndex < -1)
+			{
+				throw new IllegalArgumentException("Invalid header row index: " + headerRowIndex);
+			}
+			this.headerRowIndex = headerRowIndex;
+			return this;
+		}
+
+		/**
+		 * Sets the number of sources that are read at the same time. Default is the number of
+		 * available processors
+		 *
+		 * @param parallelism
+		 *            the number of sources that are read at the same time
+		 * @return this builder
+		 */
+		public Builder parallelism(final int parallelism)
+		{
+			if (parallelism < 1)
+			{
+				throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+			}
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		/**
+		 * Sets the executor that reads the sources. The executor is not shut down by the merger.
+		 * Default is a fixed thread pool with one thread per parallel source that is created for
+		 * every merge operation
+		 *
+		 * @param executor
+		 *            the executor
+		 * @return this builder
+		 */
+		public Builder executor(final ExecutorService executor)
+		{
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Sets the write profile of the target workbook. Default is {@link WriteProfile#DEFAULT}
+		 *
+		 * @param profile
+		 *            the write profile
+		 * @return this builder
+		 */
+		public Builder profile(final WriteProfile profile)
+		{
+			Check.get().notNull(profile, "profile");
+			this.profile = profile;
+			return this;
+		}
+
+		/**
+		 * Builds the {@link WorkbookMerger} object
+		 *
+		 * @return the new {@link WorkbookMerger} object
+		 */
+		public WorkbookMerger build()
+		{
+			return new WorkbookMerger(this);
+		}
+	}
+}
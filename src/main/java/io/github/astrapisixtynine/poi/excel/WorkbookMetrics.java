@@ -0,0 +1,283 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The class {@link WorkbookMetrics} is a {@link WorkbookListener} that aggregates the reported
+ * measurements in memory per {@link WorkbookOperation}. The aggregated values can be read at any
+ * time, for instance to feed them into a metrics system. This class is thread-safe
+ */
+public final class WorkbookMetrics implements WorkbookListener
+{
+
+	private final Map<WorkbookOperation, Counters> counters = new ConcurrentHashMap<>();
+
+	@Override
+	public void phaseCompleted(final WorkbookOperation operation, final long operationId,
+		final WorkbookPhase phase, final long durationNanos)
+	{
+		final Counters operationCounters = countersOf(operation);
+		operationCounters.phaseCounts[phase.ordinal()].increment();
+		operationCounters.phaseNanos[phase.ordinal()].add(durationNanos);
+		operationCounters.maxPhaseNanos[phase.ordinal()].accumulate(durationNanos);
+	}
+
+	@Override
+	public void sheetCompleted(final WorkbookOperation operation, final long operationId,
+		final String sheetName, final long rows, final long cells)
+	{
+		final Counters operationCounters = countersOf(operation);
+		operationCounters.sheets.increment();
+		operationCounters.rows.add(rows);
+		operationCounters.cells.add(cells);
+	}
+
+	@Override
+	public void bytesTransferred(final WorkbookOperation operation, final long operationId,
+		final long bytesIn, final long bytesOut)
+	{
+		final Counters operationCounters = countersOf(operation);
+		operationCounters.bytesIn.add(bytesIn);
+		operationCounters.bytesOut.add(bytesOut);
+	}
+
+	@Override
+	public void stylesCounted(final WorkbookOperation operation, final long operationId,
+		final int styleCount)
+	{
+		countersOf(operation).maxStyles.accumulate(styleCount);
+	}
+
+	/**
+	 * Gets the number of completed phases of the given operation
+	 *
+	 * @param operation
+	 *            the operation
+	 * @param phase
+	 *            the phase
+	 * @return the number of completed phases
+	 */
+	public long getPhaseCount(final WorkbookOperation operation, final WorkbookPhase phase)
+	{
+		final Counters operationCounters = counters.get(operation);
+		return operationCounters == null ? 0 : operationCounters.phaseCounts[phase.ordinal()].sum();
+	}
+
+	/**
+	 * Gets the total duration of the completed phases of the given operation
+	 *
+	 * @param operation
+	 *            the operation
+	 * @param phase
+	 *            the phase
+	 * @return the total duration in nanoseconds
+	 */
+	public long getPhaseNanos(final WorkbookOperation operation, final WorkbookPhase phase)
+	{
+		final Counters operationCounters = counters.get(operation);
+		return operationCounters == null ? 0 : operationCounters.phaseNanos[phase.ordinal()].sum();
+	}
+
+	/**
+	 * Gets the longest duration of a completed phase of the given operation
+	 *
+	 * @param operation
+	 *            the operation
+	 * @param phase
+	 *            the phase
+	 * @return the longest duration in nanoseconds
+	 */
+	public long getMaxPhaseNanos(final WorkbookOperation operation, final WorkbookPhase phase)
+	{
+		final Counters operationCounters = counters.get(operation);
+		return operationCounters == null
+			? 0
+			: operationCounters.maxPhaseNanos[phase.ordinal()].get();
+	}
+
+	/**
+	 * Gets the number of completed sheets of the given operation
+	 *
+	 * @param operation
+	 *            the operation
+	 * @return the number of completed sheets
+	 */
+	public long getSheetCount(final WorkbookOperation operation)
+	{
+		final Counters operationCounters = counters.get(operation);
+		return operationCounters == null ? 0 : operationCounters.sheets.sum();
+	}
+
+	/**
+	 * Gets the number of read or written rows of the given operation
+	 *
+	 * @param operation
+	 *            the operation
+	 * @return the number of rows
+	 */
+	public long getRowCount(final WorkbookOperation operation)
+	{
+		final Counters operationCounters = counters.get(operation);
+		return operationCounters == null ? 0 : operationCounters.rows.sum();
+	}
+
+	/**
+	 * Gets the number of read or written cells of the given operation
+	 *
+	 * @param operation
+	 *            the operation
+	 * @return the number of cells
+	 */
+	public long getCellCount(final WorkbookOperation operation)
+	{
+		final Counters operationCounters = counters.get(operation);
+		return operationCounters == null ? 0 : operationCounters.cells.sum();
+	}
+
+	/**
+	 * Gets the number of read bytes of the given operation
+	 *
+	 * @param operation
+	 *            the operation
+	 * @return the number of read bytes
+	 */
+	public long getBytesIn(final WorkbookOperation operation)
+	{
+		final Counters operationCounters = counters.get(operation);
+		return operationCounters == null ? 0 : operationCounters.bytesIn.sum();
+	}
+
+	/**
+	 * Gets the number of written bytes of the given operation
+	 *
+	 * @param operation
+	 *            the operation
+	 * @return the number of written bytes
+	 */
+	public long getBytesOut(final WorkbookOperation operation)
+	{
+		final Counters operationCounters = counters.get(operation);
+		return operationCounters == null ? 0 : operationCounters.bytesOut.sum();
+	}
+
+	/**
+	 * Gets the highest number of cell styles of a workbook of the given operation
+	 *
+	 * @param operation
+	 *            the operation
+	 * @return the highest number of cell styles
+	 */
+	public long getMaxStyleCount(final WorkbookOperation operation)
+	{
+		final Counters operationCounters = counters.get(operation);
+		return operationCounters == null ? 0 : operationCounters.maxStyles.get();
+	}
+
+	/**
+	 * Resets all aggregated values
+	 */
+	public void reset()
+	{
+		counters.clear();
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder("WorkbookMetrics{");
+		for (final WorkbookOperation operation : WorkbookOperation.values())
+		{
+			if (!counters.containsKey(operation))
+			{
+				continue;
+			}
+			builder.append(System.lineSeparator()).append(operation).append(": sheets=")
+				.append(getSheetCount(operation)).append(", rows=").append(getRowCount(operation))
+				.append(", cells=").append(getCellCount(operation)).append(", bytesIn=")
+				.append(getBytesIn(operation)).append(", bytesOut=").append(getBytesOut(operation))
+				.append(", maxStyles=").append(getMaxStyleCount(operation));
+			for (final WorkbookPhase phase : WorkbookPhase.values())
+			{
+				final long count = getPhaseCount(operation, phase);
+				if (0 < count)
+				{
+					builder.append(", ").append(phase).append('=').append(count).append("x/")
+						.append(getPhaseNanos(operation, phase) / 1_000_000).append("ms");
+				}
+			}
+		}
+		return builder.append('}').toString();
+	}
+
+	private Counters countersOf(final WorkbookOperation operation)
+	{
+		return counters.computeIfAbsent(operation, key -> new Counters());
+	}
+
+	private static final class Counters
+	{
+		private final LongAdder[] phaseCounts = newAdders();
+
+		private final LongAdder[] phaseNanos = newAdders();
+
+		private final LongAccumulator[] maxPhaseNanos = new LongAccumulator[WorkbookPhase
+			.values().length];
+
+		private final LongAdder sheets = new LongAdder();
+
+		private final LongAdder rows = new LongAdder();
+
+		private final LongAdder cells = new LongAdder();
+
+		private final LongAdder bytesIn = new LongAdder();
+
+		private final LongAdder bytesOut = new LongAdder();
+
+		private final LongAccumulator maxStyles = new LongAccumulator(Math::max, 0);
+
+		private Counters()
+		{
+			for (int i = 0; i < maxPhaseNanos.length; i++)
+			{
+				maxPhaseNanos[i] = new LongAccumulator(Math::max, 0);
+			}
+		}
+
+		private static LongAdder[] newAdders()
+		{
+			final LongAdder[] adders = new LongAdder[WorkbookPhase.values().length];
+			for (int i = 0; i < adders.length; i++)
+			{
+				adders[i] = new LongAdder();
+			}
+			return adders;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+/**
+ * The enum {@link WorkbookOperation} represents the read and write operations of this library that
+ * report to a {@link WorkbookListener}
+ */
+public enum WorkbookOperation
+{
+
+	/** Reading a workbook with the methods of {@link ReadExcelExtensions} */
+	READ_WORKBOOK,
+
+	/** Exporting the values of a xls workbook with the methods of {@link ExportExcelExtensions} */
+	EXPORT_WORKBOOK,
+
+	/** Exporting content to a single sheet with {@link ExportExcelExtensions} */
+	EXPORT_TO_EXCEL,
+
+	/**
+	 * Reading a xlsx file with the {@link XlsxStreamReader}, this includes the export methods of
+	 * {@link ExportExcelExtensions} for xlsx files
+	 */
+	STREAM_READ,
+
+	/** Writing sheets with the {@link ConcurrentXlsxWriter} */
+	CONCURRENT_WRITE,
+
+	/** Writing a workbook with the methods of {@link ExcelPoiFactory} */
+	WRITE_WORKBOOK
+}
@@ -0,0 +1,107 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * The functional interface {@link WorkbookProcessor} converts or exports one workbook file that
+ * a {@link WorkbookWorker} has taken from its inbox directory
+ */
+@FunctionalInterface
+public interface WorkbookProcessor
+{
+
+	/**
+	 * Processes the given input file and writes the result to the given output file. The output
+	 * file is a temporary file that the worker moves to the outbox directory when this method
+	 * returns normally
+	 *
+	 * @param input
+	 *            the workbook file from the inbox directory
+	 * @param output
+	 *            the file for the result
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	void process(File input, File output) throws IOException;
+
+	/**
+	 * Gets the file name of the result for the given name of the input file. Default is the name
+	 * of the input file
+	 *
+	 * @param inputName
+	 *            the name of the input file
+	 * @return the name of the result file
+	 */
+	default String getOutputName(final String inputName)
+	{
+		return inputName;
+	}
+
+	/**
+	 * Creates a {@link WorkbookProcessor} that exports the first sheet of a xlsx or xls file as a
+	 * UTF-8 CSV file after RFC 4180. The result file keeps the full name of the input file and
+	 * gets the additional extension <code>csv</code>, so <code>a.xls</code> and
+	 * <code>a.xlsx</code> result in the different files <code>a.xls.csv</code> and
+	 * <code>a.xlsx.csv</code>
+	 *
+	 * @return the new {@link WorkbookProcessor} object
+	 */
+	static WorkbookProcessor csvExport()
+	{
+		return new WorkbookProcessor()
+		{
+			@Override
+			public void process(final File input, final File output) throws IOException
+			{
+				try (Writer writer = Files.newBufferedWriter(output.toPath(), StandardCharsets.UTF_8))
+				{
+					ExportExcelExtensions.forEachRow(input, 0, ReadOptions.ALL, row -> {
+						for (int position = 0; position < row.getWidth(); position++)
+						{
+							if (0 < position)
+							{
+								writer.write(',');
+							}
+							CsvFields.writeCsvField(row.getString(position), writer);
+						}
+						writer.write("\r\n");
+					});
+				}
+			}
+
+			@Override
+			public String getOutputName(final String inputName)
+			{
+				return inputName + ".csv";
+			}
+		};
+	}
+}
@@ -0,0 +1,776 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link WorkbookTemplate} renders reports from a styled xlsx template that is parsed
+ * only once. The template is kept as an immutable image of its zip package with the compressed
+ * bytes of every part, and the parts that can change are split into their static text and their
+ * dynamic segments.
+ * <p>
+ * A rendering writes the parts that do not change for the given {@link TemplateData} with their
+ * compressed bytes, so styles, fonts, themes and unchanged sheets are neither parsed nor
+ * deflated again. Only the parts with a filled placeholder, a filled named cell or streamed rows
+ * are written new:
+ * <ul>
+ * <li>a placeholder <code>${name}</code> in a shared or inline string is replaced by the text of
+ * its value</li>
+ * <li>a cell with a workbook defined name that refers to a single cell gets the typed value of the
+ * name and keeps its style, the cell must exist in the template, for example by being styled</li>
+ * <li>the rows of a data sheet are streamed after the last row of the sheet, and every cell takes
+ * the style of the same column in the last row of the template sheet</li>
+ * </ul>
+ * A template is thread-safe, so one template can render many reports at the same time
+ */
+public final class WorkbookTemplate
+{
+
+	private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}<>\"]+)\\}");
+
+	private static final Pattern DIMENSION = Pattern.compile("<dimension\\b[^>]*/>");
+
+	private static final Pattern ROW = Pattern.compile("<row\\b([^>]*?)(?:/>|>(.*?)</row>)",
+		Pattern.DOTALL);
+
+	private static final Pattern CELL_TAG = Pattern.compile("<c\\b([^>]*?)/?>");
+
+	private static final Pattern ATTRIBUTE = Pattern.compile("\\s(r|s)=\"([^\"]*)\"");
+
+	private static final String EMPTY_SHEET_DATA = "<sheetData/>";
+
+	private final List<PackageEntry> entries;
+
+	private final List<String> sheetNames;
+
+	private final Set<String> placeholders;
+
+	private final Set<String> names;
+
+	private WorkbookTemplate(final List<PackageEntry> entries, final List<String> sheetNames,
+		final Set<String> placeholders, final Set<String> names)
+	{
+		this.entries = entries;
+		this.sheetNames = sheetNames;
+		this.placeholders = placeholders;
+		this.names = names;
+	}
+
+	/**
+	 * Loads and parses the given xlsx template {@link File}
+	 *
+	 * @param templateFile
+	 *            the template file
+	 * @return the new {@link WorkbookTemplate} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public static WorkbookTemplate load(final File templateFile) throws IOException
+	{
+		Check.get().notNull(templateFile, "templateFile");
+		final Map<String, String> sheetByPart = new LinkedHashMap<>();
+		final Map<String, Map<String, String>> namedCellsByPart = new HashMap<>();
+		final OPCPackage opcPackage;
+		try
+		{
+			opcPackage = OPCPackage.open(templateFile, PackageAccess.READ);
+		}
+		catch (InvalidFormatException e)
+		{
+			throw new IOException(e);
+		}
+		try
+		{
+			final XSSFWorkbook workbook = new XSSFWorkbook(opcPackage);
+			final Map<String, String> partBySheet = new HashMap<>();
+			for (int i = 0; i < workbook.getNumberOfSheets(); i++)
+			{
+				final String partName = workbook.getSheetAt(i).getPackagePart().getPartName()
+					.getName().substring(1);
+				sheetByPart.put(partName, workbook.getSheetName(i));
+				partBySheet.put(workbook.getSheetName(i), partName);
+			}
+			for (final Name name : workbook.getAllNames())
+			{
+				final CellReference reference = toCellReference(name);
+				if (reference != null && partBySheet.containsKey(reference.getSheetName()))
+				{
+					namedCellsByPart
+						.computeIfAbsent(partBySheet.get(reference.getSheetName()),
+							part -> new LinkedHashMap<>())
+						.put(new CellReference(reference.getRow(), reference.getCol()).formatAsString(),
+							name.getNameName());
+				}
+			}
+		}
+		finally
+		{
+			opcPackage.revert();
+		}
+		final List<PackageEntry> entries = new ArrayList<>();
+		final Set<String> placeholders = new TreeSet<>();
+		final Set<String> names = new TreeSet<>();
+		try (ZipFile zipFile = ZipFile.builder().setFile(templateFile).get())
+		{
+			final Enumeration<ZipArchiveEntry> zipEntries = zipFile.getEntriesInPhysicalOrder();
+			while (zipEntries.hasMoreElements())
+			{
+				final ZipArchiveEntry zipEntry = zipEntries.nextElement();
+				final byte[] rawContent = zipFile.getRawInputStream(zipEntry).readAllBytes();
+				final String name = zipEntry.getName();
+				TemplatePart part = null;
+				if (sheetByPart.containsKey(name) || name.endsWith("sharedStrings.xml"))
+				{
+					final String content = new String(
+						zipFile.getInputStream(zipEntry).readAllBytes(), StandardCharsets.UTF_8);
+					part = parse(content, sheetByPart.get(name),
+						namedCellsByPart.getOrDefault(name, Map.of()));
+					for (final Segment segment : part.segments())
+					{
+						if (segment instanceof Placeholder placeholder)
+						{
+							placeholders.add(placeholder.name());
+						}
+						else if (segment instanceof NamedCell namedCell)
+						{
+							names.add(namedCell.name());
+						}
+					}
+				}
+				entries.add(new PackageEntry(zipEntry, rawContent, part));
+			}
+		}
+		return new WorkbookTemplate(List.copyOf(entries), List.copyOf(sheetByPart.values()),
+			Collections.unmodifiableSet(placeholders), Collections.unmodifiableSet(names));
+	}
+
+	/**
+	 * Gets the names of the sheets of the template in workbook order
+	 *
+	 * @return the sheet names
+	 */
+	public List<String> getSheetNames()
+	{
+		return sheetNames;
+	}
+
+	/**
+	 * Gets the names of the placeholders <code>${name}</code> of the template
+	 *
+	 * @return the sorted placeholder names
+	 */
+	public Set<String> getPlaceholders()
+	{
+		return placeholders;
+	}
+
+	/**
+	 * Gets the defined names of the template that refer to an existing single cell
+	 *
+	 * @return the sorted names
+	 */
+	public Set<String> getNames()
+	{
+		return names;
+	}
+
+	/**
+	 * Renders the template with the given data to the given {@link File}
+	 *
+	 * @param data
+	 *            the template data
+	 * @param file
+	 *            the target file
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void render(final TemplateData data, final File file) throws IOException
+	{
+		Check.get().notNull(file, "file");
+		try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file),
+			WriteProfile.DEFAULT_OUTPUT_BUFFER_SIZE))
+		{
+			render(data, outputStream);
+		}
+	}
+
+	/**
+	 * Renders the template with the given data as xlsx package to the given
+	 * {@link OutputStream}. The stream is not closed
+	 *
+	 * @param data
+	 *            the template data
+	 * @param outputStream
+	 *            the target stream
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void render(final TemplateData data, final OutputStream outputStream)
+		throws IOException
+	{
+		Check.get().notNull(data, "data").notNull(outputStream, "outputStream");
+		final ZipArchiveOutputStream zip = new ZipArchiveOutputStream(outputStream);
+		for (final PackageEntry entry : entries)
+		{
+			if (entry.part() != null && entry.part().isAffectedBy(data))
+			{
+				zip.putArchiveEntry(new ZipArchiveEntry(entry.zipEntry().getName()));
+				final Writer writer = new BufferedWriter(
+					new OutputStreamWriter(zip, StandardCharsets.UTF_8),
+					WriteProfile.DEFAULT_ROW_BUFFER_SIZE);
+				entry.part().render(data, writer);
+				writer.flush();
+				zip.closeArchiveEntry();
+			}
+			else
+			{
+				zip.addRawArchiveEntry(new ZipArchiveEntry(entry.zipEntry()),
+					new ByteArrayInputStream(entry.rawContent()));
+			}
+		}
+		zip.finish();
+		outputStream.flush();
+	}
+
+	private static CellReference toCellReference(final Name name)
+	{
+		final String formula = name.getRefersToFormula();
+		if (name.isFunctionName() || formula == null || formula.indexOf(':') >= 0
+			|| formula.indexOf(',') >= 0)
+		{
+			return null;
+		}
+		try
+		{
+			final CellReference reference = new CellReference(formula);
+			return reference.getSheetName() == null ? null : reference;
+		}
+		catch (RuntimeException e)
+		{
+			return null;
+		}
+	}
+
+	private static TemplatePart parse(final String content, final String sheetName,
+		final Map<String, String> namedCells)
+	{
+		final List<Cut> cuts = new ArrayList<>();
+		for (final Map.Entry<String, String> namedCell : namedCells.entrySet())
+		{
+			final Matcher matcher = Pattern
+				.compile("<c\\b[^>]*?\\sr=\"" + namedCell.getKey() + "\"[^>]*?(?:/>|>.*?</c>)",
+					Pattern.DOTALL)
+				.matcher(content);
+			if (matcher.find())
+			{
+				cuts.add(new Cut(matcher.start(), matcher.end(),
+					new NamedCell(namedCell.getValue(), namedCell.getKey(),
+						attributeOf(matcher.group(), "s", 0), matcher.group())));
+			}
+		}
+		final Matcher placeholderMatcher = PLACEHOLDER.matcher(content);
+		while (placeholderMatcher.find())
+		{
+			if (!overlaps(cuts, placeholderMatcher.start()))
+			{
+				cuts.add(new Cut(placeholderMatcher.start(), placeholderMatcher.end(),
+					new Placeholder(placeholderMatcher.group(1), placeholderMatcher.group())));
+			}
+		}
+		if (sheetName != null)
+		{
+			final Matcher dimensionMatcher = DIMENSION.matcher(content);
+			if (dimensionMatcher.find())
+			{
+				cuts.add(new Cut(dimensionMatcher.start(), dimensionMatcher.end(),
+					new Dimension(dimensionMatcher.group())));
+			}
+			int lastRow = 0;
+			int[] columnStyles = new int[0];
+			final Matcher rowMatcher = ROW.matcher(content);
+			while (rowMatcher.find())
+			{
+				lastRow = attributeOf(rowMatcher.group(1), "r", lastRow + 1);
+				columnStyles = columnStylesOf(rowMatcher.group(2));
+			}
+			final int end = content.lastIndexOf("</sheetData>");
+			final int empty = content.indexOf(EMPTY_SHEET_DATA);
+			if (0 <= end)
+			{
+				cuts.add(new Cut(end, end, new DataRows(lastRow + 1, columnStyles, "", false)));
+			}
+			else if (0 <= empty)
+			{
+				cuts.add(new Cut(empty, empty + EMPTY_SHEET_DATA.length(),
+					new DataRows(lastRow + 1, columnStyles, EMPTY_SHEET_DATA, true)));
+			}
+		}
+		cuts.sort(Comparator.comparingInt(Cut::start));
+		final List<Segment> segments = new ArrayList<>();
+		int position = 0;
+		for (final Cut cut : cuts)
+		{
+			if (position < cut.start())
+			{
+				segments.add(new Literal(content.substring(position, cut.start())));
+			}
+			segments.add(cut.segment());
+			position = cut.end();
+		}
+		if (position < content.length())
+		{
+			segments.add(new Literal(content.substring(position)));
+		}
+		return new TemplatePart(sheetName, List.copyOf(segments));
+	}
+
+	private static boolean overlaps(final List<Cut> cuts, final int position)
+	{
+		for (final Cut cut : cuts)
+		{
+			if (cut.start() <= position && position < cut.end())
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int[] columnStylesOf(final String rowContent)
+	{
+		if (rowContent == null)
+		{
+			return new int[0];
+		}
+		int[] columnStyles = new int[0];
+		int nextColumn = 0;
+		final Matcher cellMatcher = CELL_TAG.matcher(rowContent);
+		while (cellMatcher.find())
+		{
+			final String reference = attributeValueOf(cellMatcher.group(1), "r");
+			final int column = reference == null
+				? nextColumn
+				: SheetRowCursor.columnIndexOf(reference);
+			nextColumn = column + 1;
+			if (columnStyles.length <= column)
+			{
+				final int[] grown = new int[column + 1];
+				System.arraycopy(columnStyles, 0, grown, 0, columnStyles.length);
+				columnStyles = grown;
+			}
+			columnStyles[column] = attributeOf(cellMatcher.group(1), "s", 0);
+		}
+		return columnStyles;
+	}
+
+	private static int attributeOf(final String tag, final String attribute,
+		final int defaultValue)
+	{
+		final String value = attributeValueOf(tag, attribute);
+		if (value == null)
+		{
+			return defaultValue;
+		}
+		try
+		{
+			return Integer.parseInt(value);
+		}
+		catch (NumberFormatException e)
+		{
+			return defaultValue;
+		}
+	}
+
+	private static String attributeValueOf(final String tag, final String attribute)
+	{
+		final int tagEnd = tag.indexOf('>');
+		final Matcher matcher = ATTRIBUTE.matcher(tagEnd < 0 ? tag : tag.substring(0, tagEnd));
+		while (matcher.find())
+		{
+			if (matcher.group(1).equals(attribute))
+			{
+				return matcher.group(2);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Writes a cell with the given value
+	 *
+	 * @param writer
+	 *            the target of the sheet xml
+	 * @param reference
+	 *            the cell reference like <code>B2</code>
+	 * @param style
+	 *            the style index of the cell
+	 * @param value
+	 *            the value, null writes an empty cell
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	static void writeCell(final Writer writer, final String reference, final int style,
+		final Object value) throws IOException
+	{
+		writer.write("<c r=\"");
+		writer.write(reference);
+		writer.write('"');
+		if (style != 0)
+		{
+			writer.write(" s=\"");
+			writer.write(Integer.toString(style));
+			writer.write('"');
+		}
+		if (value == null)
+		{
+			writer.write("/>");
+		}
+		else if (value instanceof Number number && SheetXmlWriter.isFinite(number))
+		{
+			writer.write("><v>");
+			writer.write(SheetXmlWriter.toText(number));
+			writer.write("</v></c>");
+		}
+		else if (value instanceof Boolean bool)
+		{
+			writer.write(" t=\"b\"><v>");
+			writer.write(bool ? '1' : '0');
+			writer.write("</v></c>");
+		}
+		else if (value instanceof LocalDateTime || value instanceof LocalDate
+			|| value instanceof Date)
+		{
+			writer.write("><v>");
+			writer.write(Double.toString(value instanceof LocalDateTime dateTime
+				? DateUtil.getExcelDate(dateTime)
+				: value instanceof LocalDate date
+					? DateUtil.getExcelDate(date)
+					: DateUtil.getExcelDate((Date)value)));
+			writer.write("</v></c>");
+		}
+		else
+		{
+			writer.write(" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+			XmlEscaper.escape(value.toString(), writer);
+			writer.write("</t></is></c>");
+		}
+	}
+
+	/**
+	 * An entry of the zip package of the template with its compressed bytes
+	 *
+	 * @param zipEntry
+	 *            the zip entry
+	 * @param rawContent
+	 *            the compressed bytes of the entry
+	 * @param part
+	 *            the parsed part or null if the entry never changes
+	 */
+	private record PackageEntry(ZipArchiveEntry zipEntry, byte[] rawContent, TemplatePart part)
+	{
+	}
+
+	/**
+	 * A part of the template that is split into its static and dynamic segments
+	 *
+	 * @param sheetName
+	 *            the name of the sheet or null if the part is not a sheet
+	 * @param segments
+	 *            the segments
+	 */
+	private record TemplatePart(String sheetName, List<Segment> segments)
+	{
+
+		private boolean isAffectedBy(final TemplateData data)
+		{
+			if (sheetName != null && data.getRows(sheetName) != null)
+			{
+				return true;
+			}
+			for (final Segment segment : segments)
+			{
+				if (segment instanceof Placeholder placeholder && data.hasValue(placeholder.name())
+					|| segment instanceof NamedCell namedCell && data.hasValue(namedCell.name()))
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private void render(final TemplateData data, final Writer writer) throws IOException
+		{
+			final SheetRowProducer producer = sheetName == null ? null : data.getRows(sheetName);
+			for (final Segment segment : segments)
+			{
+				if (segment instanceof Literal literal)
+				{
+					writer.write(literal.text());
+				}
+				else if (segment instanceof Placeholder placeholder)
+				{
+					if (data.hasValue(placeholder.name()))
+					{
+						final Object value = data.getValue(placeholder.name());
+						XmlEscaper.escape(value == null ? "" : value.toString(), writer);
+					}
+					else
+					{
+						writer.write(placeholder.original());
+					}
+				}
+				else if (segment instanceof NamedCell namedCell)
+				{
+					if (data.hasValue(namedCell.name()))
+					{
+						writeCell(writer, namedCell.reference(), namedCell.style(),
+							data.getValue(namedCell.name()));
+					}
+					else
+					{
+						writer.write(namedCell.original());
+					}
+				}
+				else if (segment instanceof Dimension dimension)
+				{
+					if (producer == null)
+					{
+						writer.write(dimension.original());
+					}
+				}
+				else if (segment instanceof DataRows dataRows)
+				{
+					if (producer == null)
+					{
+						writer.write(dataRows.original());
+					}
+					else
+					{
+						if (dataRows.wrap())
+						{
+							writer.write("<sheetData>");
+						}
+						producer.produce(new DataRowWriter(writer, dataRows));
+						if (dataRows.wrap())
+						{
+							writer.write("</sheetData>");
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * A segment of a template part
+	 */
+	private sealed interface Segment permits Literal, Placeholder, NamedCell, Dimension, DataRows
+	{
+	}
+
+	/**
+	 * A static text
+	 *
+	 * @param text
+	 *            the text
+	 */
+	private record Literal(String text) implements Segment
+	{
+	}
+
+	/**
+	 * A placeholder <code>${name}</code>
+	 *
+	 * @param name
+	 *            the name of the placeholder
+	 * @param original
+	 *            the text of the placeholder in the template
+	 */
+	private record Placeholder(String name, String original) implements Segment
+	{
+	}
+
+	/**
+	 * A cell with a defined name
+	 *
+	 * @param name
+	 *            the defined name
+	 * @param reference
+	 *            the cell reference
+	 * @param style
+	 *            the style index of the cell
+	 * @param original
+	 *            the xml of the cell in the template
+	 */
+	private record NamedCell(String name, String reference, int style, String original)
+		implements
+			Segment
+	{
+	}
+
+	/**
+	 * The dimension element of a sheet, which is dropped when rows are streamed into the sheet
+	 *
+	 * @param original
+	 *            the xml of the dimension element in the template
+	 */
+	private record Dimension(String original) implements Segment
+	{
+	}
+
+	/**
+	 * The position after the last row of a sheet where streamed rows are inserted
+	 *
+	 * @param firstRow
+	 *            the one based number of the first streamed row
+	 * @param columnStyles
+	 *            the style index of every column in the last row of the template sheet
+	 * @param original
+	 *            the xml that is replaced in the template
+	 * @param wrap
+	 *            the flag if the rows must be wrapped into a sheetData element
+	 */
+	private record DataRows(int firstRow, int[] columnStyles, String original, boolean wrap)
+		implements
+			Segment
+	{
+	}
+
+	/**
+	 * A cut of a dynamic segment out of the text of a part
+	 *
+	 * @param start
+	 *            the start index of the cut
+	 * @param end
+	 *            the end index of the cut
+	 * @param segment
+	 *            the segment that replaces the cut text
+	 */
+	private record Cut(int start, int end, Segment segment)
+	{
+	}
+
+	/**
+	 * The row writer that streams the rows of a data sheet. The style argument of
+	 * {@link #writeRow(XlsxCellStyle, Object...)} is ignored, because every cell takes the style
+	 * of its column in the last row of the template sheet
+	 */
+	private static final class DataRowWriter implements SheetRowWriter
+	{
+		private final Writer writer;
+
+		private final int[] columnStyles;
+
+		private String[] columnNames = new String[0];
+
+		private int rowNumber;
+
+		private DataRowWriter(final Writer writer, final DataRows dataRows)
+		{
+			this.writer = writer;
+			this.columnStyles = dataRows.columnStyles();
+			this.rowNumber = dataRows.firstRow();
+		}
+
+		@Override
+		public void writeRow(final Object... values) throws IOException
+		{
+			if (RollingXlsxWriter.MAX_XLSX_ROWS < rowNumber)
+			{
+				throw new IOException("The sheet exceeds the maximum number of "
+					+ RollingXlsxWriter.MAX_XLSX_ROWS + " rows");
+			}
+			if (columnNames.length < values.length)
+			{
+				final int oldLength = columnNames.length;
+				columnNames = Arrays.copyOf(columnNames, values.length);
+				for (int i = oldLength; i < values.length; i++)
+				{
+					columnNames[i] = CellReference.convertNumToColString(i);
+				}
+			}
+			final String number = Integer.toString(rowNumber);
+			writer.write("<row r=\"");
+			writer.write(number);
+			writer.write("\">");
+			for (int column = 0; column < values.length; column++)
+			{
+				if (values[column] != null)
+				{
+					writeCell(writer, columnNames[column] + number,
+						column < columnStyles.length ? columnStyles[column] : 0, values[column]);
+				}
+			}
+			writer.write("</row>");
+			rowNumber++;
+		}
+
+		@Override
+		public void writeRow(final XlsxCellStyle style, final Object... values)
+			throws IOException
+		{
+			writeRow(values);
+		}
+	}
+}
@@ -0,0 +1,537 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link WorkbookWorker} watches an inbox directory with a {@link WatchService} and
+ * processes every incoming workbook file with a {@link WorkbookProcessor}. Every file is
+ * processed on its own virtual thread, and the number of files that are processed at the same
+ * time is bounded.
+ * <p>
+ * The result of a file is written to a hidden temporary file in the outbox directory and moved
+ * atomically to its final name, after that the input file is deleted. A file that fails is moved
+ * to the error directory together with a text file that holds the stack trace of the failure. The
+ * files that are already in the inbox when the worker starts are processed first. Producers
+ * should also move their files atomically into the inbox, files whose names start with a dot are
+ * ignored, so they can be used as temporary names.
+ * <p>
+ * The method {@link #run()} blocks until the worker is closed, the method {@link #start()} runs it
+ * on a new thread. The statistics can be read at any time
+ */
+public final class WorkbookWorker implements Runnable, Closeable
+{
+
+	/**
+	 * The suffix of the file in the error directory that holds the failure of an input file
+	 */
+	public static final String ERROR_SUFFIX = ".error.txt";
+
+	private static final String PART_SUFFIX = ".part";
+
+	private static final ThreadFactory VIRTUAL_THREAD_FACTORY = Thread.ofVirtual()
+		.name("poi-worker-file-", 0).factory();
+
+	private final Path inbox;
+
+	private final Path outbox;
+
+	private final Path errorDirectory;
+
+	private final WorkbookProcessor processor;
+
+	private final Predicate<String> fileFilter;
+
+	private final int maxConcurrency;
+
+	private final Semaphore permits;
+
+	private final WatchService watchService;
+
+	private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+
+	private final LongAdder processedCount = new LongAdder();
+
+	private final LongAdder failedCount = new LongAdder();
+
+	private final LongAdder processedBytes = new LongAdder();
+
+	private final LongAdder processingNanos = new LongAdder();
+
+	private final LongAccumulator maxProcessingNanos = new LongAccumulator(Math::max, 0);
+
+	private volatile boolean closed;
+
+	private volatile Throwable lastFailure;
+
+	private volatile Thread loopThread;
+
+	private WorkbookWorker(final Builder builder, final WatchService watchService)
+	{
+		this.inbox = builder.inbox;
+		this.outbox = builder.outbox;
+		this.errorDirectory = builder.errorDirectory;
+		this.processor = builder.processor;
+		this.fileFilter = builder.fileFilter;
+		this.maxConcurrency = builder.maxConcurrency;
+		this.permits = new Semaphore(builder.maxConcurrency);
+		this.watchService = watchService;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for {@link WorkbookWorker} objects that watch the given inbox
+	 * directory and process the incoming files with the given {@link WorkbookProcessor}
+	 *
+	 * @param inbox
+	 *            the inbox directory
+	 * @param processor
+	 *            the processor
+	 * @return the new builder
+	 */
+	public static Builder builder(final File inbox, final WorkbookProcessor processor)
+	{
+		Check.get().notNull(inbox, "inbox").notNull(processor, "processor");
+		return new Builder(inbox, processor);
+	}
+
+	/**
+	 * Runs the watch loop of this worker on a new thread
+	 *
+	 * @return this worker
+	 */
+	public WorkbookWorker start()
+	{
+		loopThread = Thread.ofPlatform().name("poi-worker-inbox").start(this);
+		return this;
+	}
+
+	/**
+	 * Processes the files that are in the inbox directory and watches it for new files until
+	 * this worker is closed or the inbox directory is deleted
+	 *
+	 * @throws UncheckedIOException
+	 *             if the inbox directory can not be listed
+	 */
+	@Override
+	public void run()
+	{
+		try
+		{
+			scan();
+			while (!closed)
+			{
+				final WatchKey key = watchService.take();
+				for (final WatchEvent<?> event : key.pollEvents())
+				{
+					if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+					{
+						scan();
+					}
+					else
+					{
+						submit(inbox.resolve((Path)event.context()));
+					}
+				}
+				if (!key.reset())
+				{
+					break;
+				}
+			}
+		}
+		catch (ClosedWatchServiceException e)
+		{
+			// the worker was closed
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Stops watching the inbox directory and waits until the files in process are finished
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		closed = true;
+		watchService.close();
+		try
+		{
+			final Thread thread = loopThread;
+			if (thread != null)
+			{
+				thread.join();
+			}
+			permits.acquire(maxConcurrency);
+			permits.release(maxConcurrency);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the files in process");
+		}
+	}
+
+	/**
+	 * Gets the number of files that were processed successfully
+	 *
+	 * @return the processed file count
+	 */
+	public long getProcessedCount()
+	{
+		return processedCount.sum();
+	}
+
+	/**
+	 * Gets the number of files that failed and were moved to the error directory
+	 *
+	 * @return the failed file count
+	 */
+	public long getFailedCount()
+	{
+		return failedCount.sum();
+	}
+
+	/**
+	 * Gets the number of files that are in process
+	 *
+	 * @return the number of files in process
+	 */
+	public int getInFlightCount()
+	{
+		return inFlight.size();
+	}
+
+	/**
+	 * Gets the total size of the files that were processed successfully
+	 *
+	 * @return the processed bytes
+	 */
+	public long getProcessedBytes()
+	{
+		return processedBytes.sum();
+	}
+
+	/**
+	 * Gets the total processing time of all processed and failed files
+	 *
+	 * @return the processing time in nanoseconds
+	 */
+	public long getProcessingNanos()
+	{
+		return processingNanos.sum();
+	}
+
+	/**
+	 * Gets the longest processing time of a file
+	 *
+	 * @return the longest processing time in nanoseconds
+	 */
+	public long getMaxProcessingNanos()
+	{
+		return maxProcessingNanos.get();
+	}
+
+	/**
+	 * Gets the last failure of a file
+	 *
+	 * @return the last failure or null if no file has failed
+	 */
+	public Throwable getLastFailure()
+	{
+		return lastFailure;
+	}
+
+	private void scan() throws IOException, InterruptedException
+	{
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(inbox))
+		{
+			for (final Path file : files)
+			{
+				submit(file);
+			}
+		}
+	}
+
+	/**
+	 * Starts the processing of the given file on a new virtual thread unless it is not accepted or
+	 * already in process. Waits while the maximum number of files is in process
+	 */
+	private void submit(final Path file) throws InterruptedException
+	{
+		if (closed || !fileFilter.test(file.getFileName().toString())
+			|| !Files.isRegularFile(file) || !inFlight.add(file))
+		{
+			return;
+		}
+		try
+		{
+			permits.acquire();
+		}
+		catch (InterruptedException e)
+		{
+			inFlight.remove(file);
+			throw e;
+		}
+		VIRTUAL_THREAD_FACTORY.newThread(() -> {
+			try
+			{
+				process(file);
+			}
+			finally
+			{
+				inFlight.remove(file);
+				permits.release();
+			}
+		}).start();
+	}
+
+	private void process(final Path input)
+	{
+		final long start = System.nanoTime();
+		final String name = input.getFileName().toString();
+		final Path partFile = outbox.resolve("." + name + PART_SUFFIX);
+		try
+		{
+			final long size = Files.size(input);
+			processor.process(input.toFile(), partFile.toFile());
+			move(partFile, outbox.resolve(processor.getOutputName(name)));
+			Files.delete(input);
+			processedBytes.add(size);
+			processedCount.increment();
+		}
+		catch (Throwable throwable)
+		{
+			fail(input, partFile, throwable);
+		}
+		finally
+		{
+			final long duration = System.nanoTime() - start;
+			processingNanos.add(duration);
+			maxProcessingNanos.accumulate(duration);
+		}
+	}
+
+	private void fail(final Path input, final Path partFile, final Throwable failure)
+	{
+		lastFailure = failure;
+		failedCount.increment();
+		final String name = input.getFileName().toString();
+		final Path errorPartFile = errorDirectory.resolve("." + name + ERROR_SUFFIX + PART_SUFFIX);
+		try
+		{
+			Files.deleteIfExists(partFile);
+			move(input, errorDirectory.resolve(name));
+			final StringWriter stackTrace = new StringWriter();
+			try (PrintWriter printWriter = new PrintWriter(stackTrace))
+			{
+				failure.printStackTrace(printWriter);
+			}
+			Files.writeString(errorPartFile, stackTrace.toString(), StandardCharsets.UTF_8);
+			move(errorPartFile, errorDirectory.resolve(name + ERROR_SUFFIX));
+		}
+		catch (IOException e)
+		{
+			failure.addSuppressed(e);
+		}
+	}
+
+	private static void move(final Path source, final Path target) throws IOException
+	{
+		try
+		{
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE,
+				StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (AtomicMoveNotSupportedException e)
+		{
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private static boolean isWorkbookName(final String name)
+	{
+		final String lowerCaseName = name.toLowerCase(Locale.ROOT);
+		return !name.startsWith(".") && !name.startsWith("~$")
+			&& (lowerCaseName.endsWith(".xlsx") || lowerCaseName.endsWith(".xls"));
+	}
+
+	/**
+	 * The class {@link Builder} creates {@link WorkbookWorker} objects
+	 */
+	public static final class Builder
+	{
+		private final Path inbox;
+
+		private final WorkbookProcessor processor;
+
+		private Path outbox;
+
+		private Path errorDirectory;
+
+		private Predicate<String> fileFilter = WorkbookWorker::isWorkbookName;
+
+		private int maxConcurrency = Runtime.getRuntime().availableProcessors();
+
+		private Builder(final File inbox, final WorkbookProcessor processor)
+		{
+			this.inbox = inbox.toPath().toAbsolutePath();
+			this.processor = processor;
+			final Path parent = this.inbox.getParent();
+			this.outbox = parent == null ? this.inbox.resolve("outbox") : parent.resolve("outbox");
+			this.errorDirectory = parent == null
+				? this.inbox.resolve("error")
+				: parent.resolve("error");
+		}
+
+		/**
+		 * Sets the directory for the results. Default is the directory <code>outbox</code> next to
+		 * the inbox directory
+		 *
+		 * @param outbox
+		 *            the outbox directory
+		 * @return this builder
+		 */
+		public Builder outbox(final File outbox)
+		{
+			Check.get().notNull(outbox, "outbox");
+			this.outbox = outbox.toPath().toAbsolutePath();
+			return this;
+		}
+
+		/**
+		 * Sets the directory for the failed files. Default is the directory <code>error</code>
+		 * next to the inbox directory
+		 *
+		 * @param errorDirectory
+		 *            the error directory
+		 * @return this builder
+		 */
+		public Builder errorDirectory(final File errorDirectory)
+		{
+			Check.get().notNull(errorDirectory, "errorDirectory");
+			this.errorDirectory = errorDirectory.toPath().toAbsolutePath();
+			return this;
+		}
+
+		/**
+		 * Sets the filter on the names of the files in the inbox directory. Files whose names
+		 * start with a dot are always ignored. Default accepts the names with the extension
+		 * <code>xlsx</code> or <code>xls</code> except the lock files of Excel
+		 *
+		 * @param fileFilter
+		 *            the file name filter
+		 * @return this builder
+		 */
+		public Builder fileFilter(final Predicate<String> fileFilter)
+		{
+			Check.get().notNull(fileFilter, "fileFilter");
+			this.fileFilter = name -> !name.startsWith(".") && fileFilter.test(name);
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of files that are processed at the same time. Default is the
+		 * number of available processors
+		 *
+		 * @param maxConcurrency
+		 *            the maximum concurrency
+		 * @return this builder
+		 */
+		public Builder maxConcurrency(final int maxConcurrency)
+		{
+			if (maxConcurrency < 1)
+			{
+				throw new IllegalArgumentException(
+					"Max concurrency must be positive: " + maxConcurrency);
+			}
+			this.maxConcurrency = maxConcurrency;
+			return this;
+		}
+
+		/**
+		 * Builds the {@link WorkbookWorker} object, creates the missing directories and registers
+		 * the inbox directory at a new {@link WatchService}
+		 *
+		 * @return the new {@link WorkbookWorker} object
+		 * @throws IOException
+		 *             Signals that an I/O exception has occurred
+		 */
+		public WorkbookWorker build() throws IOException
+		{
+			Files.createDirectories(inbox);
+			Files.createDirectories(outbox);
+			Files.createDirectories(errorDirectory);
+			final WatchService watchService = inbox.getFileSystem().newWatchService();
+			try
+			{
+				inbox.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY);
+			}
+			catch (IOException | RuntimeException e)
+			{
+				watchService.close();
+				throw e;
+			}
+			return new WorkbookWorker(this, watchService);
+		}
+	}
+}
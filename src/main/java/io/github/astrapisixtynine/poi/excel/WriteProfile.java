@@ -0,0 +1,313 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.util.zip.Deflater;
+
+/**
+ * The class {@link WriteProfile} holds the settings that trade the size of a written workbook
+ * against the speed of writing it. A profile covers the deflate level of the zip package, the
+ * compression of the temporary files, the choice between a shared strings table and inline
+ * strings and the sizes of the buffers.
+ * <p>
+ * The deflate level and the string storage only apply to xlsx workbooks, xls workbooks are not
+ * zip packages
+ */
+public final class WriteProfile
+{
+
+	/**
+	 * The default size of the output buffer in bytes
+	 */
+	public static final int DEFAULT_OUTPUT_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The default size of the row buffer of every sheet in chars
+	 */
+	public static final int DEFAULT_ROW_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The default number of rows that a SXSSF sheet keeps in memory
+	 */
+	public static final int DEFAULT_ROW_ACCESS_WINDOW_SIZE = 100;
+
+	/**
+	 * The profile with the default deflate level and a shared strings table
+	 */
+	public static final WriteProfile DEFAULT = builder().build();
+
+	/**
+	 * The profile for internal hand-offs that trades file size for speed with the lowest deflate
+	 * level, inline strings and larger buffers
+	 */
+	public static final WriteProfile FAST = builder().compressionLevel(Deflater.BEST_SPEED)
+		.sharedStrings(false).outputBufferSize(256 * 1024).rowBufferSize(256 * 1024)
+		.rowAccessWindowSize(1000).build();
+
+	/**
+	 * The profile for archival that trades speed for file size with the highest deflate level, a
+	 * shared strings table and compressed temporary files
+	 */
+	public static final WriteProfile ARCHIVAL = builder().compressionLevel(Deflater.BEST_COMPRESSION)
+		.compressTempFiles(true).build();
+
+	private final int compressionLevel;
+
+	private final boolean compressTempFiles;
+
+	private final boolean sharedStrings;
+
+	private final int outputBufferSize;
+
+	private final int rowBufferSize;
+
+	private final int rowAccessWindowSize;
+
+	private WriteProfile(final Builder builder)
+	{
+		this.compressionLevel = builder.compressionLevel;
+		this.compressTempFiles = builder.compressTempFiles;
+		this.sharedStrings = builder.sharedStrings;
+		this.outputBufferSize = builder.outputBufferSize;
+		this.rowBufferSize = builder.rowBufferSize;
+		this.rowAccessWindowSize = builder.rowAccessWindowSize;
+	}
+
+	/**
+	 * Creates a new {@link Builder} for {@link WriteProfile} objects
+	 *
+	 * @return the new builder
+	 */
+	public static Builder builder()
+	{
+		return new Builder();
+	}
+
+	/**
+	 * Gets the deflate level of the zip package
+	 *
+	 * @return the deflate level from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+	 */
+	public int getCompressionLevel()
+	{
+		return compressionLevel;
+	}
+
+	/**
+	 * Checks if the deflate level is the default deflate level
+	 *
+	 * @return true if the deflate level is the default deflate level otherwise false
+	 */
+	public boolean isDefaultCompressionLevel()
+	{
+		return compressionLevel == Deflater.DEFAULT_COMPRESSION;
+	}
+
+	/**
+	 * Checks if temporary files are compressed
+	 *
+	 * @return true if temporary files are compressed otherwise false
+	 */
+	public boolean isCompressTempFiles()
+	{
+		return compressTempFiles;
+	}
+
+	/**
+	 * Checks if strings are written to a shared strings table or inline into the sheets
+	 *
+	 * @return true if a shared strings table is used otherwise false
+	 */
+	public boolean isSharedStrings()
+	{
+		return sharedStrings;
+	}
+
+	/**
+	 * Gets the size of the output buffer in bytes
+	 *
+	 * @return the output buffer size
+	 */
+	public int getOutputBufferSize()
+	{
+		return outputBufferSize;
+	}
+
+	/**
+	 * Gets the size of the row buffer of every sheet in chars
+	 *
+	 * @return the row buffer size
+	 */
+	public int getRowBufferSize()
+	{
+		return rowBufferSize;
+	}
+
+	/**
+	 * Gets the number of rows that a SXSSF sheet keeps in memory before they are flushed to the
+	 * temporary file
+	 *
+	 * @return the row access window size
+	 */
+	public int getRowAccessWindowSize()
+	{
+		return rowAccessWindowSize;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "WriteProfile{" + "compressionLevel=" + compressionLevel + ", compressTempFiles="
+			+ compressTempFiles + ", sharedStrings=" + sharedStrings + ", outputBufferSize="
+			+ outputBufferSize + ", rowBufferSize=" + rowBufferSize + ", rowAccessWindowSize="
+			+ rowAccessWindowSize + '}';
+	}
+
+	/**
+	 * The class {@link Builder} creates {@link WriteProfile} objects
+	 */
+	public static final class Builder
+	{
+		private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+		private boolean compressTempFiles;
+
+		private boolean sharedStrings = true;
+
+		private int outputBufferSize = DEFAULT_OUTPUT_BUFFER_SIZE;
+
+		private int rowBufferSize = DEFAULT_ROW_BUFFER_SIZE;
+
+		private int rowAccessWindowSize = DEFAULT_ROW_ACCESS_WINDOW_SIZE;
+
+		private Builder()
+		{
+		}
+
+		/**
+		 * Sets the deflate level of the zip package
+		 *
+		 * @param compressionLevel
+		 *            the deflate level from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+		 * @return this builder
+		 */
+		public Builder compressionLevel(final int compressionLevel)
+		{
+			if (compressionLevel < Deflater.DEFAULT_COMPRESSION
+				|| Deflater.BEST_COMPRESSION < compressionLevel)
+			{
+				throw new IllegalArgumentException("Invalid compression level: " + compressionLevel);
+			}
+			this.compressionLevel = compressionLevel;
+			return this;
+		}
+
+		/**
+		 * Sets the flag if temporary files are compressed
+		 *
+		 * @param compressTempFiles
+		 *            the flag
+		 * @return this builder
+		 */
+		public Builder compressTempFiles(final boolean compressTempFiles)
+		{
+			this.compressTempFiles = compressTempFiles;
+			return this;
+		}
+
+		/**
+		 * Sets the flag if strings are written to a shared strings table or inline into the
+		 * sheets
+		 *
+		 * @param sharedStrings
+		 *            the flag
+		 * @return this builder
+		 */
+		public Builder sharedStrings(final boolean sharedStrings)
+		{
+			this.sharedStrings = sharedStrings;
+			return this;
+		}
+
+		/**
+		 * Sets the size of the output buffer in bytes
+		 *
+		 * @param outputBufferSize
+		 *            the output buffer size
+		 * @return this builder
+		 */
+		public Builder outputBufferSize(final int outputBufferSize)
+		{
+			this.outputBufferSize = requirePositive(outputBufferSize, "Output buffer size");
+			return this;
+		}
+
+		/**
+		 * Sets the size of the row buffer of every sheet in chars
+		 *
+		 * @param rowBufferSize
+		 *            the row buffer size
+		 * @return this builder
+		 */
+		public Builder rowBufferSize(final int rowBufferSize)
+		{
+			this.rowBufferSize = requirePositive(rowBufferSize, "Row buffer size");
+			return this;
+		}
+
+		/**
+		 * Sets the number of rows that a SXSSF sheet keeps in memory
+		 *
+		 * @param rowAccessWindowSize
+		 *            the row access window size
+		 * @return this builder
+		 */
+		public Builder rowAccessWindowSize(final int rowAccessWindowSize)
+		{
+			this.rowAccessWindowSize = requirePositive(rowAccessWindowSize,
+				"Row access window size");
+			return this;
+		}
+
+		/**
+		 * Builds the {@link WriteProfile} object
+		 *
+		 * @return the new {@link WriteProfile} object
+		 */
+		public WriteProfile build()
+		{
+			return new WriteProfile(this);
+		}
+
+		private static int requirePositive(final int value, final String name)
+		{
+			if (value < 1)
+			{
+				throw new IllegalArgumentException(name + " must be positive: " + value);
+			}
+			return value;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+/**
+ * The record {@link XlsxCellStyle} describes a cell style for the xlsx writers that build the xml
+ * parts of a workbook directly. Equal styles are registered only once in the styles table of a
+ * workbook
+ *
+ * @param fontName
+ *            the font name or null for the default font
+ * @param fontHeightInPoints
+ *            the font height in points or 0 for the default height
+ * @param bold
+ *            the bold flag
+ * @param dataFormat
+ *            the data format like <code>yyyy-mm-dd</code> or null for the general format
+ */
+public record XlsxCellStyle(String fontName, short fontHeightInPoints, boolean bold,
+	String dataFormat)
+{
+
+	/**
+	 * The default style of a workbook
+	 */
+	public static final XlsxCellStyle DEFAULT = new XlsxCellStyle(null, (short)0, false, null);
+
+	/**
+	 * The style of header rows, it is the same style that
+	 * {@link ExportExcelExtensions#exportToExcel(java.io.File, String[], String[][], String)}
+	 * uses
+	 */
+	public static final XlsxCellStyle HEADER = new XlsxCellStyle("Arial", (short)12, true, null);
+
+	/**
+	 * The style for {@link java.time.LocalDate} values
+	 */
+	public static final XlsxCellStyle DATE = ofDataFormat("yyyy-mm-dd");
+
+	/**
+	 * The style for {@link java.time.LocalDateTime} and {@link java.util.Date} values
+	 */
+	public static final XlsxCellStyle DATE_TIME = ofDataFormat("yyyy-mm-dd hh:mm:ss");
+
+	/**
+	 * Creates a new {@link XlsxCellStyle} with the default font and the given data format
+	 *
+	 * @param dataFormat
+	 *            the data format
+	 * @return the new {@link XlsxCellStyle} object
+	 */
+	public static XlsxCellStyle ofDataFormat(final String dataFormat)
+	{
+		return new XlsxCellStyle(null, (short)0, false, dataFormat);
+	}
+
+	/**
+	 * Gets this style if it has a data format or otherwise a copy of this style with the given
+	 * data format. Date values take the font of an explicit style together with their date format
+	 * this way
+	 *
+	 * @param dataFormat
+	 *            the data format that is used if this style has none
+	 * @return this style or the new {@link XlsxCellStyle} object
+	 */
+	XlsxCellStyle withDefaultDataFormat(final String dataFormat)
+	{
+		return this.dataFormat != null
+			? this
+			: new XlsxCellStyle(fontName, fontHeightInPoints, bold, dataFormat);
+	}
+
+	/**
+	 * Checks if this style uses a font other than the default font
+	 *
+	 * @return true if this style has an own font otherwise false
+	 */
+	boolean hasFont()
+	{
+		return fontName != null || fontHeightInPoints != 0 || bold;
+	}
+}
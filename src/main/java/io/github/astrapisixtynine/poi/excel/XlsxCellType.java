@@ -0,0 +1,89 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+/**
+ * The enum {@link XlsxCellType} represents the raw type of a cell as it is declared with the
+ * attribute <code>t</code> of a <code>c</code> element in the sheet xml of a xlsx file
+ */
+enum XlsxCellType
+{
+
+	/** A cell without a value */
+	BLANK,
+
+	/** A boolean cell, the raw value is <code>0</code> or <code>1</code> */
+	BOOLEAN,
+
+	/** An ISO 8601 date cell */
+	DATE,
+
+	/** An error cell */
+	ERROR,
+
+	/** A formula cell with a cached string result */
+	FORMULA_STRING,
+
+	/** A cell with an inline string */
+	INLINE_STRING,
+
+	/** A numeric cell, this is the default if the attribute is missing */
+	NUMBER,
+
+	/** A cell with an index into the shared strings table */
+	SHARED_STRING;
+
+	/**
+	 * Resolves the cell type from the given value of the attribute <code>t</code>
+	 *
+	 * @param type
+	 *            the value of the attribute, may be null
+	 * @return the cell type
+	 */
+	static XlsxCellType of(final String type)
+	{
+		if (type == null)
+		{
+			return NUMBER;
+		}
+		switch (type)
+		{
+			case "s" :
+				return SHARED_STRING;
+			case "str" :
+				return FORMULA_STRING;
+			case "inlineStr" :
+				return INLINE_STRING;
+			case "b" :
+				return BOOLEAN;
+			case "e" :
+				return ERROR;
+			case "d" :
+				return DATE;
+			default :
+				return NUMBER;
+		}
+	}
+}
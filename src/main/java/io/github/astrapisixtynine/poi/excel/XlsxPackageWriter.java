@@ -0,0 +1,214 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * The class {@link XlsxPackageWriter} writes the package parts of a xlsx file that do not depend
+ * on the content of the sheets, like the content types, the relationships and the workbook part
+ */
+final class XlsxPackageWriter
+{
+
+	/**
+	 * The namespace of the spreadsheetml parts
+	 */
+	static final String MAIN_NAMESPACE = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+	/**
+	 * The namespace of the relationship ids in the spreadsheetml parts
+	 */
+	static final String RELATIONSHIPS_NAMESPACE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+	private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+	private static final String CONTENT_TYPE_PREFIX = "application/vnd.openxmlformats-officedocument.spreadsheetml.";
+
+	private static final String PACKAGE_RELATIONSHIPS_NAMESPACE = "http://schemas.openxmlformats.org/package/2006/relationships";
+
+	/**
+	 * Private constructor to prevent instantiation
+	 */
+	private XlsxPackageWriter()
+	{
+	}
+
+	/**
+	 * Gets the name of the zip entry of the sheet with the given index
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @return the name of the zip entry
+	 */
+	static String sheetEntryName(final int sheetIndex)
+	{
+		return "xl/worksheets/sheet" + (sheetIndex + 1) + ".xml";
+	}
+
+	/**
+	 * Checks that the given sheet names are unique. Excel compares sheet names case-insensitive,
+	 * so names that differ only in case or that became equal by the truncation to a safe sheet
+	 * name are duplicates
+	 *
+	 * @param sheetNames
+	 *            the names of the sheets
+	 * @throws IllegalArgumentException
+	 *             if a sheet name occurs more than once
+	 */
+	static void checkUniqueSheetNames(final List<String> sheetNames)
+	{
+		final Set<String> names = new HashSet<>();
+		for (final String sheetName : sheetNames)
+		{
+			if (!names.add(sheetName.toUpperCase(Locale.ROOT)))
+			{
+				throw new IllegalArgumentException("The workbook contains the sheet name "
+					+ sheetName + " more than once, sheet names are compared case-insensitive");
+			}
+		}
+	}
+
+	/**
+	 * Writes the content types, the relationships and the workbook part for the given sheets
+	 *
+	 * @param zip
+	 *            the zip output stream of the package
+	 * @param sheetNames
+	 *            the names of the sheets
+	 * @param sharedStrings
+	 *            the flag if the package contains a shared strings part
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 * @throws IllegalArgumentException
+	 *             if a sheet name occurs more than once
+	 */
+	static void writeWorkbookParts(final ZipOutputStream zip, final List<String> sheetNames,
+		final boolean sharedStrings) throws IOException
+	{
+		checkUniqueSheetNames(sheetNames);
+		final StringBuilder contentTypes = new StringBuilder(XML_DECLARATION);
+		contentTypes.append(
+			"<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">")
+			.append("<Default Extension=\"rels\" ContentType=\"")
+			.append("application/vnd.openxmlformats-package.relationships+xml\"/>")
+			.append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>")
+			.append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"")
+			.append(CONTENT_TYPE_PREFIX).append("sheet.main+xml\"/>")
+			.append("<Override PartName=\"/xl/styles.xml\" ContentType=\"")
+			.append(CONTENT_TYPE_PREFIX).append("styles+xml\"/>");
+		if (sharedStrings)
+		{
+			contentTypes.append("<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"")
+				.append(CONTENT_TYPE_PREFIX).append("sharedStrings+xml\"/>");
+		}
+		for (int i = 0; i < sheetNames.size(); i++)
+		{
+			contentTypes.append("<Override PartName=\"/").append(sheetEntryName(i))
+				.append("\" ContentType=\"").append(CONTENT_TYPE_PREFIX)
+				.append("worksheet+xml\"/>");
+		}
+		contentTypes.append("</Types>");
+		putEntry(zip, "[Content_Types].xml", contentTypes);
+
+		putEntry(zip, "_rels/.rels",
+			XML_DECLARATION + "<Relationships xmlns=\"" + PACKAGE_RELATIONSHIPS_NAMESPACE + "\">"
+				+ "<Relationship Id=\"rId1\" Type=\"" + RELATIONSHIPS_NAMESPACE
+				+ "/officeDocument\" Target=\"xl/workbook.xml\"/></Relationships>");
+
+		final StringBuilder workbook = new StringBuilder(XML_DECLARATION);
+		workbook.append("<workbook xmlns=\"").append(MAIN_NAMESPACE).append("\" xmlns:r=\"")
+			.append(RELATIONSHIPS_NAMESPACE).append("\"><sheets>");
+		final StringBuilder workbookRelationships = new StringBuilder(XML_DECLARATION);
+		workbookRelationships.append("<Relationships xmlns=\"")
+			.append(PACKAGE_RELATIONSHIPS_NAMESPACE).append("\">");
+		for (int i = 0; i < sheetNames.size(); i++)
+		{
+			workbook.append("<sheet name=\"").append(XmlEscaper.escape(sheetNames.get(i)))
+				.append("\" sheetId=\"").append(i + 1).append("\" r:id=\"rId").append(i + 1)
+				.append("\"/>");
+			workbookRelationships.append("<Relationship Id=\"rId").append(i + 1)
+				.append("\" Type=\"").append(RELATIONSHIPS_NAMESPACE)
+				.append("/worksheet\" Target=\"worksheets/sheet").append(i + 1)
+				.append(".xml\"/>");
+		}
+		workbook.append("</sheets></workbook>");
+		final int stylesId = sheetNames.size() + 1;
+		workbookRelationships.append("<Relationship Id=\"rId").append(stylesId)
+			.append("\" Type=\"").append(RELATIONSHIPS_NAMESPACE)
+			.append("/styles\" Target=\"styles.xml\"/>");
+		if (sharedStrings)
+		{
+			workbookRelationships.append("<Relationship Id=\"rId").append(stylesId + 1)
+				.append("\" Type=\"").append(RELATIONSHIPS_NAMESPACE)
+				.append("/sharedStrings\" Target=\"sharedStrings.xml\"/>");
+		}
+		workbookRelationships.append("</Relationships>");
+		putEntry(zip, "xl/workbook.xml", workbook);
+		putEntry(zip, "xl/_rels/workbook.xml.rels", workbookRelationships);
+	}
+
+	/**
+	 * Writes a zip entry with the given name and content
+	 *
+	 * @param zip
+	 *            the zip output stream of the package
+	 * @param name
+	 *            the name of the zip entry
+	 * @param content
+	 *            the content of the zip entry
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	static void putEntry(final ZipOutputStream zip, final String name, final CharSequence content)
+		throws IOException
+	{
+		zip.putNextEntry(new ZipEntry(name));
+		zip.write(content.toString().getBytes(StandardCharsets.UTF_8));
+		zip.closeEntry();
+	}
+
+	/**
+	 * Creates a writer for the current zip entry. The writer must be flushed but not closed,
+	 * because closing it would close the zip output stream
+	 *
+	 * @param zip
+	 *            the zip output stream of the package
+	 * @return the writer
+	 */
+	static Writer entryWriter(final ZipOutputStream zip)
+	{
+		return new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,1007 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+
+import io.github.astrapi69.check.Check;
+
+/**
+ * The class {@link XlsxStreamReader} reads the sheets of a xlsx file row by row without loading
+ * the workbook into memory. The selection of a {@link ReadOptions} object is pushed down into the
+ * parser, so cells of unselected columns and unselected rows are never decoded and the parsing of
+ * a sheet stops after the last selected row
+ */
+public final class XlsxStreamReader implements Closeable
+{
+
+	private static final XMLInputFactory XML_INPUT_FACTORY = XMLHelper.newXMLInputFactory();
+
+	private final OPCPackage opcPackage;
+
+	private final SharedStringCache sharedStrings;
+
+	private final List<String> sheetNames;
+
+	private final List<PackagePart> sheetParts;
+
+	private final String source;
+
+	private final boolean date1904;
+
+	private final OperationReporter reporter;
+
+	private StylesTable stylesTable;
+
+	private CellFormatCache formatCache;
+
+	private Long checksum;
+
+	private XlsxStreamReader(final OPCPackage opcPackage, final String source,
+		final SharedStringCache sharedStrings, final OperationReporter reporter) throws IOException
+	{
+		this.opcPackage = opcPackage;
+		this.source = source;
+		this.reporter = reporter;
+		final List<String> names = new ArrayList<>();
+		final List<PackagePart> parts = new ArrayList<>();
+		try
+		{
+			final XSSFReader xssfReader = new XSSFReader(opcPackage);
+			this.date1904 = readDate1904(xssfReader.getWorkbookData());
+			this.sharedStrings = sharedStrings != null
+				? sharedStrings
+				: SharedStringCache.read(opcPackage);
+			final XSSFReader.SheetIterator iterator = (XSSFReader.SheetIterator)xssfReader
+				.getSheetsData();
+			while (iterator.hasNext())
+			{
+				iterator.next().close();
+				names.add(iterator.getSheetName());
+				parts.add(iterator.getSheetPart());
+			}
+		}
+		catch (OpenXML4JException | IOException e)
+		{
+			opcPackage.revert();
+			throw e instanceof IOException ? (IOException)e : new IOException(e);
+		}
+		this.sheetNames = Collections.unmodifiableList(names);
+		this.sheetParts = parts;
+	}
+
+	/**
+	 * Opens the given xlsx {@link File} for streaming read operations. The reader is one
+	 * operation that reports to the listeners bound to the calling thread with
+	 * {@link WorkbookListeners#bind(WorkbookListener)}, also when it is read on another thread
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @return the new {@link XlsxStreamReader} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the file is not a xlsx file
+	 */
+	public static XlsxStreamReader open(final File workbookFile) throws IOException
+	{
+		Check.get().notNull(workbookFile, "workbookFile");
+		return open(workbookFile, null, null,
+			OperationReporter.start(WorkbookOperation.STREAM_READ));
+	}
+
+	/**
+	 * Opens the given xlsx {@link File} with the shared strings that another reader of the same
+	 * file has already parsed, so the parallel tasks of a sheet or workbook scan parse the shared
+	 * strings part only once. The shared strings of a streaming reader are read-only and may be
+	 * used by several threads. The reader is part of the operation of the reader that parsed the
+	 * shared strings, so it reports to no listener
+	 *
+	 * @param workbookFile
+	 *            the workbook(excel) file
+	 * @param sharedStrings
+	 *            the shared strings from {@link #getSharedStrings()} of a reader of the same file
+	 * @return the new {@link XlsxStreamReader} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred or the file is not a xlsx file
+	 */
+	static XlsxStreamReader open(final File workbookFile, final SharedStringCache sharedStrings)
+		throws IOException
+	{
+		Check.get().notNull(workbookFile, "workbookFile").notNull(sharedStrings, "sharedStrings");
+		return open(workbookFile, null, sharedStrings, OperationReporter.NONE);
+	}
+
+	/**
+	 * Opens the given password protected xlsx {@link File} for streaming read operations. The
+	 * encrypted package is decrypted on the fly while a part is read, so the decrypted workbook
+	 * never exists as a whole in memory or on disk. Small parts like the workbook and the styles
+	 * part are kept decrypted in memory, every read of a sheet decrypts the package again up to
+	 * the sheet
+	 *
+	 * @param workbookFile
+	 *            the encrypted workbook(excel) file
+	 * @param password
+	 *            the password of the file
+	 * @return the new {@link XlsxStreamReader} object
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred, the file is not an encrypted xlsx
+	 *             file or the password is wrong
+	 */
+	public static XlsxStreamReader openEncrypted(final File workbookFile, final String password)
+		throws IOException
+	{
+		Check.get().notNull(workbookFile, "workbookFile").notNull(password, "password");
+		return open(workbookFile, password, null,
+			OperationReporter.start(WorkbookOperation.STREAM_READ));
+	}
+
+	private static XlsxStreamReader open(final File workbookFile, final String password,
+		final SharedStringCache sharedStrings, final OperationReporter reporter) throws IOException
+	{
+		final WorkbookOpenEvent event = new WorkbookOpenEvent();
+		event.begin();
+		final long start = System.nanoTime();
+		try
+		{
+			final XlsxStreamReader reader = new XlsxStreamReader(
+				openPackage(workbookFile, password), workbookFile.getPath(), sharedStrings,
+				reporter);
+			reporter.phaseCompleted(WorkbookPhase.OPEN, System.nanoTime() - start);
+			reporter.bytesTransferred(workbookFile.length(), 0);
+			if (event.shouldCommit())
+			{
+				event.file = workbookFile.getPath();
+				event.format = "xlsx";
+				event.fileSize = workbookFile.length();
+				event.sheets = reader.getNumberOfSheets();
+				event.commit();
+			}
+			return reader;
+		}
+		catch (InvalidFormatException e)
+		{
+			throw new IOException(e);
+		}
+	}
+
+	private static OPCPackage openPackage(final File workbookFile, final String password)
+		throws IOException, InvalidFormatException
+	{
+		if (password == null)
+		{
+			return OPCPackage.open(workbookFile, PackageAccess.READ);
+		}
+		final DecryptingZipEntrySource source = DecryptingZipEntrySource.open(workbookFile,
+			password);
+		try
+		{
+			return OPCPackage.open(source);
+		}
+		catch (InvalidFormatException | RuntimeException e)
+		{
+			source.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the flag of the date system from the <code>workbookPr</code> element of the given
+	 * workbook part
+	 *
+	 * @param workbookData
+	 *            the input stream of the workbook part, it is closed by this method
+	 * @return true if the workbook uses the 1904 date system otherwise false
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	static boolean readDate1904(final InputStream workbookData) throws IOException
+	{
+		try (InputStream inputStream = workbookData)
+		{
+			final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+			try
+			{
+				while (reader.hasNext())
+				{
+					if (reader.next() != XMLStreamConstants.START_ELEMENT)
+					{
+						continue;
+					}
+					if ("workbookPr".equals(reader.getLocalName()))
+					{
+						final String date1904 = reader.getAttributeValue(null, "date1904");
+						return "1".equals(date1904) || "true".equals(date1904);
+					}
+					if ("sheets".equals(reader.getLocalName()))
+					{
+						return false;
+					}
+				}
+				return false;
+			}
+			finally
+			{
+				reader.close();
+			}
+		}
+		catch (XMLStreamException e)
+		{
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Checks if the workbook uses the 1904 date system, where the date serial number 0 is the
+	 * first of January 1904
+	 *
+	 * @return true if the workbook uses the 1904 date system otherwise false
+	 */
+	public boolean isDate1904()
+	{
+		return date1904;
+	}
+
+	/**
+	 * Gets the names of the sheets in workbook order
+	 *
+	 * @return an unmodifiable list of the sheet names
+	 */
+	public List<String> getSheetNames()
+	{
+		return sheetNames;
+	}
+
+	/**
+	 * Gets the number of sheets
+	 *
+	 * @return the number of sheets
+	 */
+	public int getNumberOfSheets()
+	{
+		return sheetNames.size();
+	}
+
+	/**
+	 * Gets the index of the sheet with the given name
+	 *
+	 * @param sheetName
+	 *            the sheet name
+	 * @return the zero based index of the sheet or -1 if no sheet with the given name exists
+	 */
+	public int getSheetIndex(final String sheetName)
+	{
+		return sheetNames.indexOf(sheetName);
+	}
+
+	/**
+	 * Reads the rows of the sheet with the given index that are selected from the given
+	 * {@link ReadOptions} object and passes them to the given {@link RowHandler}
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param options
+	 *            the read options
+	 * @param handler
+	 *            the row handler
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void readSheet(final int sheetIndex, final ReadOptions options,
+		final RowHandler handler) throws IOException
+	{
+		readSheet(sheetIndex, options, handler, ProgressTracker.NONE);
+	}
+
+	/**
+	 * Reads the rows of the sheet with the given index that are selected from the given
+	 * {@link ReadOptions} object, passes them to the given {@link RowHandler} and counts them on
+	 * the given {@link ProgressTracker}
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param options
+	 *            the read options
+	 * @param handler
+	 *            the row handler
+	 * @param tracker
+	 *            the progress tracker
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	void readSheet(final int sheetIndex, final ReadOptions options, final RowHandler handler,
+		final ProgressTracker tracker) throws IOException
+	{
+		Check.get().notNull(options, "options").notNull(handler, "handler");
+		final SheetParsedEvent event = new SheetParsedEvent();
+		event.begin();
+		final long start = System.nanoTime();
+		try (SheetRowCursor cursor = openCursor(sheetIndex))
+		{
+			readReportedRows(sheetIndex, start, event, cursor, options,
+				options.hasColumnNames() ? null : ColumnProjection.of(options, null), handler,
+				tracker);
+		}
+	}
+
+	/**
+	 * Reads the rows of the sheet with the given index that are selected from the given
+	 * {@link ReadOptions} object
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param options
+	 *            the read options
+	 * @return the decoded values of the selected rows
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public List<String[]> readSheet(final int sheetIndex, final ReadOptions options)
+		throws IOException
+	{
+		final List<String[]> rows = new ArrayList<>();
+		readSheet(sheetIndex, options, (rowIndex, values) -> rows.add(values));
+		return rows;
+	}
+
+	/**
+	 * Iterates over the rows of the sheet with the given index that are selected from the given
+	 * {@link ReadOptions} object and passes them to the given {@link RowViewHandler}. One
+	 * {@link RowView} is reused for every row, so no row array is allocated and only the accessed
+	 * cells are decoded
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param options
+	 *            the read options
+	 * @param handler
+	 *            the row view handler
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void forEachRow(final int sheetIndex, final ReadOptions options,
+		final RowViewHandler handler) throws IOException
+	{
+		Check.get().notNull(options, "options").notNull(handler, "handler");
+		final long start = System.nanoTime();
+		final ColumnProjection projection = options.hasColumnNames()
+			? readHeaderProjection(sheetIndex, options)
+			: ColumnProjection.of(options, null);
+		final CellFormatCache formats = options.isFormattedValues() ? getFormatCache() : null;
+		long rows = 0;
+		long cells = 0;
+		try (SheetRowCursor cursor = openCursor(sheetIndex))
+		{
+			final CursorRowView view = new CursorRowView(cursor, formats);
+			while (cursor.nextRow())
+			{
+				final int rowIndex = cursor.getRowIndex();
+				if (options.isAfterLastRow(rowIndex))
+				{
+					break;
+				}
+				if (options.isRowSelected(rowIndex))
+				{
+					cursor.readRow(projection.positionByColumn(), projection.width());
+					handler.handle(view);
+					rows++;
+					cells += cursor.getWidth();
+				}
+			}
+		}
+		reporter.phaseCompleted(WorkbookPhase.PARSE, System.nanoTime() - start);
+		reporter.sheetCompleted(sheetNames.get(sheetIndex), rows, cells);
+	}
+
+	/**
+	 * Reads the rows of the sheet with the given index that are selected from the given
+	 * {@link ReadOptions} object and passes them to the given {@link RowHandler}. The parsing
+	 * starts at the closest checkpoint of the given {@link SheetRowIndex} in front of the first
+	 * selected row, so the rows in front of the checkpoint are only decompressed but not parsed.
+	 * <p>
+	 * The checksum of the index is compared with the checksum of the workbook file on the first
+	 * window of this reader. A stale index, for example a sidecar file of an older version of the
+	 * workbook, is rebuilt from the sheet with the same interval for this read
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param rowIndex
+	 *            the row index of the sheet
+	 * @param options
+	 *            the read options
+	 * @param handler
+	 *            the row handler
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public void readWindow(final int sheetIndex, final SheetRowIndex rowIndex,
+		final ReadOptions options, final RowHandler handler) throws IOException
+	{
+		Check.get().notNull(rowIndex, "rowIndex").notNull(options, "options").notNull(handler,
+			"handler");
+		if (rowIndex.getSheetIndex() != sheetIndex)
+		{
+			throw new IllegalArgumentException("The row index was built for the sheet "
+				+ rowIndex.getSheetIndex() + " and not for the sheet " + sheetIndex);
+		}
+		if (checksum == null)
+		{
+			checksum = FileChecksum.of(new File(source));
+		}
+		readIndexedWindow(sheetIndex, rowIndex.getChecksum() == checksum
+			? rowIndex
+			: SheetRowIndex.build(this, checksum, sheetIndex, rowIndex.getInterval()), options,
+			handler);
+	}
+
+	/**
+	 * Reads a window like {@link #readWindow(int, SheetRowIndex, ReadOptions, RowHandler)} with
+	 * an index that is known to match the workbook, because it was built from the same file by
+	 * the same scan, so the checksum of the file is not computed again
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param rowIndex
+	 *            the row index of the sheet
+	 * @param options
+	 *            the read options
+	 * @param handler
+	 *            the row handler
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	void readIndexedWindow(final int sheetIndex, final SheetRowIndex rowIndex,
+		final ReadOptions options, final RowHandler handler) throws IOException
+	{
+		final int checkpoint = rowIndex.findCheckpoint(options.getFirstRow());
+		if (checkpoint < 0)
+		{
+			readSheet(sheetIndex, options, handler);
+			return;
+		}
+		final SheetParsedEvent event = new SheetParsedEvent();
+		event.begin();
+		final long start = System.nanoTime();
+		final ColumnProjection projection = options.hasColumnNames()
+			? readHeaderProjection(sheetIndex, options)
+			: ColumnProjection.of(options, null);
+		try (SheetRowCursor cursor = openCursor(sheetIndex, rowIndex, checkpoint))
+		{
+			readReportedRows(sheetIndex, start, event, cursor, options, projection, handler,
+				ProgressTracker.NONE);
+		}
+	}
+
+	/**
+	 * Reads the rows of the sheet with the given index that are selected from the given
+	 * {@link ReadOptions} object with the help of the given {@link SheetRowIndex}
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param rowIndex
+	 *            the row index of the sheet
+	 * @param options
+	 *            the read options
+	 * @return the decoded values of the selected rows
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	public List<String[]> readWindow(final int sheetIndex, final SheetRowIndex rowIndex,
+		final ReadOptions options) throws IOException
+	{
+		final List<String[]> rows = new ArrayList<>();
+		readWindow(sheetIndex, rowIndex, options, (index, values) -> rows.add(values));
+		return rows;
+	}
+
+	/**
+	 * Infers the schema of the sheet with the given index from a sample of
+	 * {@link SheetSchema#DEFAULT_SAMPLE_ROWS} rows
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param headerRowIndex
+	 *            the zero based index of the header row or -1 if the sheet has no header row
+	 * @return the inferred schema
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 * @see #inferSchema(int, int, int)
+	 */
+	public SheetSchema inferSchema(final int sheetIndex, final int headerRowIndex)
+		throws IOException
+	{
+		return inferSchema(sheetIndex, headerRowIndex, SheetSchema.DEFAULT_SAMPLE_ROWS);
+	}
+
+	/**
+	 * Infers the schema of the sheet with the given index from the given number of rows after the
+	 * header row. The type of a column is the type that can hold all sampled values of the column
+	 * and a column is nullable if a sampled row has no value in it. Columns without a header and
+	 * without a sampled value are left out
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param headerRowIndex
+	 *            the zero based index of the header row or -1 if the sheet has no header row
+	 * @param sampleRows
+	 *            the number of rows that are sampled
+	 * @return the inferred schema
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 * @throws IllegalArgumentException
+	 *             if the header row does not exist or the sheet has no column
+	 */
+	public SheetSchema inferSchema(final int sheetIndex, final int headerRowIndex,
+		final int sampleRows) throws IOException
+	{
+		if (sampleRows < 1)
+		{
+			throw new IllegalArgumentException("Sample rows must be positive: " + sampleRows);
+		}
+		String[] headerValues = null;
+		ColumnType[] types = new ColumnType[16];
+		int[] valueCounts = new int[16];
+		int width = 0;
+		int sampled = 0;
+		try (SheetRowCursor cursor = openCursor(sheetIndex))
+		{
+			while (sampled < sampleRows && cursor.nextRow())
+			{
+				final int rowIndex = cursor.getRowIndex();
+				if (rowIndex < headerRowIndex)
+				{
+					continue;
+				}
+				cursor.readRow(null, 0);
+				if (rowIndex == headerRowIndex)
+				{
+					headerValues = cursor.toStringArray();
+					continue;
+				}
+				checkHeaderRead(headerRowIndex, headerValues);
+				if (types.length < cursor.getWidth())
+				{
+					types = Arrays.copyOf(types, cursor.getWidth() * 2);
+					valueCounts = Arrays.copyOf(valueCounts, cursor.getWidth() * 2);
+				}
+				for (int position = 0; position < cursor.getWidth(); position++)
+				{
+					final ColumnType type = inferType(cursor, position);
+					if (type != null)
+					{
+						types[position] = type.merge(types[position]);
+						valueCounts[position]++;
+					}
+				}
+				width = Math.max(width, cursor.getWidth());
+				sampled++;
+			}
+		}
+		checkHeaderRead(headerRowIndex, headerValues);
+		final List<ColumnSchema> columns = new ArrayList<>();
+		final int headerWidth = headerValues == null ? 0 : headerValues.length;
+		for (int column = 0; column < Math.max(width, headerWidth); column++)
+		{
+			final boolean hasHeader = column < headerWidth && !headerValues[column].isEmpty();
+			final ColumnType type = column < width ? types[column] : null;
+			if (hasHeader || type != null)
+			{
+				columns.add(new ColumnSchema(SheetSchema.columnName(headerValues, column), column,
+					type == null ? ColumnType.STRING : type,
+					column >= width || valueCounts[column] < sampled));
+			}
+		}
+		if (columns.isEmpty())
+		{
+			throw new IllegalArgumentException(
+				"The sheet with index " + sheetIndex + " has no columns");
+		}
+		return SheetSchema.of(headerRowIndex, columns);
+	}
+
+	/**
+	 * Reads the rows after the header row of the sheet with the given index and decodes the
+	 * columns of the given {@link SheetSchema} on access in the {@link TypedRowHandler}. If the
+	 * schema has a header row, it is checked against the header row of the sheet, so a schema
+	 * that is reused for a file with another layout is rejected
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param schema
+	 *            the schema of the sheet
+	 * @param handler
+	 *            the typed row handler
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 * @throws IllegalArgumentException
+	 *             if the header row does not exist or does not match the schema
+	 */
+	public void readTyped(final int sheetIndex, final SheetSchema schema,
+		final TypedRowHandler handler) throws IOException
+	{
+		Check.get().notNull(schema, "schema").notNull(handler, "handler");
+		final long start = System.nanoTime();
+		final int headerRowIndex = schema.getHeaderRowIndex();
+		final int[] positionByColumn = schema.positionByColumn();
+		final TypedRow row = new TypedRow(schema, date1904);
+		String[] headerValues = null;
+		long rows = 0;
+		try (SheetRowCursor cursor = openCursor(sheetIndex))
+		{
+			while (cursor.nextRow())
+			{
+				final int rowIndex = cursor.getRowIndex();
+				if (rowIndex < headerRowIndex)
+				{
+					continue;
+				}
+				if (rowIndex == headerRowIndex)
+				{
+					cursor.readRow(null, 0);
+					headerValues = cursor.toStringArray();
+					schema.checkHeader(headerValues);
+					continue;
+				}
+				checkHeaderRead(headerRowIndex, headerValues);
+				cursor.readRow(positionByColumn, schema.getColumnCount());
+				row.moveTo(cursor);
+				handler.handle(row);
+				rows++;
+			}
+		}
+		checkHeaderRead(headerRowIndex, headerValues);
+		reporter.phaseCompleted(WorkbookPhase.PARSE, System.nanoTime() - start);
+		reporter.sheetCompleted(sheetNames.get(sheetIndex), rows, rows * schema.getColumnCount());
+	}
+
+	@Override
+	public void close()
+	{
+		opcPackage.revert();
+	}
+
+	/**
+	 * Gets the parsed shared strings of this workbook, which can be passed to
+	 * {@link #open(File, SharedStringCache)} to open further readers of the same file
+	 *
+	 * @return the shared strings
+	 */
+	SharedStringCache getSharedStrings()
+	{
+		return sharedStrings;
+	}
+
+	/**
+	 * Gets the {@link CellFormatCache} of the cell styles of this workbook. The styles part is
+	 * loaded on the first call
+	 *
+	 * @return the format cache
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	CellFormatCache getFormatCache() throws IOException
+	{
+		if (formatCache == null)
+		{
+			formatCache = CellFormatCache.of(getStylesTable(), date1904);
+		}
+		return formatCache;
+	}
+
+	/**
+	 * Gets the {@link StylesTable} of this workbook. The styles part is loaded on the first call
+	 * and stays usable after this reader is closed
+	 *
+	 * @return the styles table
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	StylesTable getStylesTable() throws IOException
+	{
+		if (stylesTable == null)
+		{
+			try
+			{
+				stylesTable = new XSSFReader(opcPackage).getStylesTable();
+			}
+			catch (OpenXML4JException e)
+			{
+				throw new IOException(e);
+			}
+		}
+		return stylesTable;
+	}
+
+	private ColumnType inferType(final SheetRowCursor cursor, final int position)
+		throws IOException
+	{
+		switch (cursor.getType(position))
+		{
+			case BLANK :
+			case ERROR :
+				return null;
+			case BOOLEAN :
+				return ColumnType.BOOLEAN;
+			case DATE :
+				return ColumnType.DATE;
+			case NUMBER :
+				if (getFormatCache().getCategory(cursor.getStyleIndex(position)).isDate())
+				{
+					return ColumnType.DATE;
+				}
+				final String rawValue = cursor.getRawValue(position);
+				if (TypedRow.isPlainInteger(rawValue))
+				{
+					return ColumnType.INTEGER;
+				}
+				final double value = Double.parseDouble(rawValue);
+				return value == Math.rint(value) && Math.abs(value) < 1L << 53
+					? ColumnType.INTEGER
+					: ColumnType.DECIMAL;
+			default :
+				return cursor.getString(position).isEmpty() ? null : ColumnType.STRING;
+		}
+	}
+
+	private static void checkHeaderRead(final int headerRowIndex, final String[] headerValues)
+	{
+		if (0 <= headerRowIndex && headerValues == null)
+		{
+			throw new IllegalArgumentException(
+				"The header row " + headerRowIndex + " does not exist");
+		}
+	}
+
+	private void readReportedRows(final int sheetIndex, final long start,
+		final SheetParsedEvent event, final SheetRowCursor cursor, final ReadOptions options,
+		final ColumnProjection projection, final RowHandler handler,
+		final ProgressTracker tracker) throws IOException
+	{
+		final long[] counts = new long[2];
+		readRows(cursor, options, projection, (rowIndex, values) -> {
+			counts[0]++;
+			counts[1] += values.length;
+			handler.handle(rowIndex, values);
+		}, tracker);
+		reporter.phaseCompleted(WorkbookPhase.PARSE, System.nanoTime() - start);
+		reporter.sheetCompleted(sheetNames.get(sheetIndex), counts[0], counts[1]);
+		if (event.shouldCommit())
+		{
+			event.file = source;
+			event.sheet = sheetNames.get(sheetIndex);
+			event.rows = counts[0];
+			event.cells = counts[1];
+			event.commit();
+		}
+	}
+
+	/**
+	 * Reads the rows that are selected from the given {@link ReadOptions} object from the given
+	 * cursor
+	 *
+	 * @param cursor
+	 *            the cursor
+	 * @param options
+	 *            the read options
+	 * @param resolvedProjection
+	 *            the column projection or null if it has to be resolved from the header row
+	 * @param handler
+	 *            the row handler
+	 * @param tracker
+	 *            the progress tracker that is checked for cancellation on every row
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	void readRows(final SheetRowCursor cursor, final ReadOptions options,
+		final ColumnProjection resolvedProjection, final RowHandler handler,
+		final ProgressTracker tracker) throws IOException
+	{
+		ColumnProjection projection = resolvedProjection;
+		final CellFormatCache formats = options.isFormattedValues() ? getFormatCache() : null;
+		while (cursor.nextRow())
+		{
+			tracker.checkCancelled();
+			final int rowIndex = cursor.getRowIndex();
+			if (options.isAfterLastRow(rowIndex))
+			{
+				break;
+			}
+			if (projection == null)
+			{
+				if (rowIndex < options.getHeaderRowIndex())
+				{
+					continue;
+				}
+				if (options.getHeaderRowIndex() < rowIndex)
+				{
+					throw new IllegalArgumentException(
+						"The header row " + options.getHeaderRowIndex() + " does not exist");
+				}
+				cursor.readRow(null, 0);
+				final String[] headerValues = cursor.toStringArray();
+				projection = ColumnProjection.of(options, headerValues);
+				if (options.isRowSelected(rowIndex))
+				{
+					handler.handle(rowIndex, projection.project(headerValues));
+					tracker.rowProcessed();
+				}
+				continue;
+			}
+			if (options.isRowSelected(rowIndex))
+			{
+				cursor.readRow(projection.positionByColumn(), projection.width());
+				handler.handle(rowIndex, cursor.toStringArray(formats));
+				tracker.rowProcessed();
+			}
+		}
+	}
+
+	/**
+	 * Estimates the number of rows of the sheet with the given index that are selected from the
+	 * given {@link ReadOptions} object. The estimate is taken from the declared dimension of the
+	 * sheet and ignores the row filter
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param options
+	 *            the read options
+	 * @return the estimated number of rows or -1 if the sheet does not declare its dimension
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	long estimateRows(final int sheetIndex, final ReadOptions options) throws IOException
+	{
+		final String dimension;
+		try (SheetRowCursor cursor = openCursor(sheetIndex))
+		{
+			dimension = cursor.getDimension();
+		}
+		if (dimension == null)
+		{
+			return -1;
+		}
+		final String lastCell = dimension.substring(dimension.indexOf(':') + 1);
+		final long rows = new CellReference(lastCell).getRow() + 1L;
+		return Math.max(0, Math.min(rows, options.getLastRow() + 1L) - options.getFirstRow());
+	}
+
+	/**
+	 * Resolves the column projection of the given {@link ReadOptions} object from the header row
+	 * of the sheet with the given index
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param options
+	 *            the read options
+	 * @return the column projection
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	ColumnProjection readHeaderProjection(final int sheetIndex, final ReadOptions options)
+		throws IOException
+	{
+		try (SheetRowCursor cursor = openCursor(sheetIndex))
+		{
+			while (cursor.nextRow() && cursor.getRowIndex() <= options.getHeaderRowIndex())
+			{
+				if (cursor.getRowIndex() == options.getHeaderRowIndex())
+				{
+					cursor.readRow(null, 0);
+					return ColumnProjection.of(options, cursor.toStringArray());
+				}
+			}
+		}
+		throw new IllegalArgumentException(
+			"The header row " + options.getHeaderRowIndex() + " does not exist");
+	}
+
+	/**
+	 * Opens a new {@link SheetRowCursor} over the sheet with the given index
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @return the new cursor
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	SheetRowCursor openCursor(final int sheetIndex) throws IOException
+	{
+		return new SheetRowCursor(getSheetPart(sheetIndex).getInputStream(), sharedStrings);
+	}
+
+	/**
+	 * Opens a new {@link SheetRowCursor} over the sheet with the given index that starts at the
+	 * given checkpoint of the given {@link SheetRowIndex}
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @param rowIndex
+	 *            the row index of the sheet
+	 * @param checkpoint
+	 *            the checkpoint of the row index
+	 * @return the new cursor
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	SheetRowCursor openCursor(final int sheetIndex, final SheetRowIndex rowIndex,
+		final int checkpoint) throws IOException
+	{
+		final InputStream sheetStream = getSheetPart(sheetIndex).getInputStream();
+		try
+		{
+			sheetStream.skipNBytes(rowIndex.getByteOffset(checkpoint));
+		}
+		catch (IOException e)
+		{
+			sheetStream.close();
+			throw e;
+		}
+		final InputStream fragmentStream = new SequenceInputStream(
+			new ByteArrayInputStream(
+				rowIndex.getFragmentStart().getBytes(StandardCharsets.UTF_8)),
+			sheetStream);
+		return new SheetRowCursor(fragmentStream, sharedStrings);
+	}
+
+	/**
+	 * Gets the package part of the sheet with the given index
+	 *
+	 * @param sheetIndex
+	 *            the zero based index of the sheet
+	 * @return the package part
+	 */
+	PackagePart getSheetPart(final int sheetIndex)
+	{
+		if (sheetIndex < 0 || sheetParts.size() <= sheetIndex)
+		{
+			throw new IllegalArgumentException("Sheet index (" + sheetIndex
+				+ ") is out of range (0.." + (sheetParts.size() - 1) + ")");
+		}
+		return sheetParts.get(sheetIndex);
+	}
+}
@@ -0,0 +1,146 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.IOException;
+
+/**
+ * The class {@link XmlEscaper} writes text into xml parts of a workbook. Characters that are not
+ * allowed in xml are encoded the same way as Excel does it, as <code>_xHHHH_</code>. Text that
+ * already looks like such an encoded character gets its underscore encoded as
+ * <code>_x005F_</code>, so it is read back unchanged
+ */
+final class XmlEscaper
+{
+
+	/**
+	 * Private constructor to prevent instantiation
+	 */
+	private XmlEscaper()
+	{
+	}
+
+	/**
+	 * Appends the given text escaped for xml content and attribute values
+	 *
+	 * @param text
+	 *            the text
+	 * @param out
+	 *            the target
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred
+	 */
+	static void escape(final CharSequence text, final Appendable out) throws IOException
+	{
+		final int length = text.length();
+		for (int i = 0; i < length; i++)
+		{
+			final char character = text.charAt(i);
+			switch (character)
+			{
+				case '<' :
+					out.append("&lt;");
+					break;
+				case '>' :
+					out.append("&gt;");
+					break;
+				case '&' :
+					out.append("&amp;");
+					break;
+				case '"' :
+					out.append("&quot;");
+					break;
+				case '\'' :
+					out.append("&apos;");
+					break;
+				case '_' :
+					out.append(isEncodedCharacter(text, i) ? "_x005F_" : "_");
+					break;
+				case '\t' :
+				case '\n' :
+				case '\r' :
+					out.append(character);
+					break;
+				default :
+					if (character < 0x20 || character == 0xFFFE || character == 0xFFFF)
+					{
+						out.append(String.format("_x%04X_", (int)character));
+					}
+					else
+					{
+						out.append(character);
+					}
+			}
+		}
+	}
+
+	/**
+	 * Checks if the text at the given index has the form <code>_xHHHH_</code> of an encoded
+	 * character
+	 *
+	 * @param text
+	 *            the text
+	 * @param index
+	 *            the index of the leading underscore
+	 * @return true if the text at the index looks like an encoded character otherwise false
+	 */
+	private static boolean isEncodedCharacter(final CharSequence text, final int index)
+	{
+		if (text.length() < index + 7 || text.charAt(index + 1) != 'x'
+			|| text.charAt(index + 6) != '_')
+		{
+			return false;
+		}
+		for (int i = index + 2; i < index + 6; i++)
+		{
+			if ("0123456789ABCDEFabcdef".indexOf(text.charAt(i)) < 0)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Escapes the given text for xml content and attribute values
+	 *
+	 * @param text
+	 *            the text
+	 * @return the escaped text
+	 */
+	static String escape(final CharSequence text)
+	{
+		final StringBuilder builder = new StringBuilder(text.length() + 16);
+		try
+		{
+			escape(text, builder);
+		}
+		catch (IOException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		return builder.toString();
+	}
+}
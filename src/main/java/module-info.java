@@ -21,6 +21,9 @@
 module io.github.astrapisixtynine.poi.worker
 {
 	requires io.github.astrapisixtynine.jobj.core;
+	requires java.xml;
+	requires jdk.jfr;
+	requires org.apache.commons.compress;
 	requires org.apache.poi.ooxml;
 	requires org.apache.poi.poi;
 
@@ -0,0 +1,216 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link AsyncWorkbookOperations}
+ */
+public class AsyncWorkbookOperationsTest
+{
+	File workbookFile;
+	Path temporaryDirectory;
+	ExecutorService executor;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		workbookFile = new File(PathFinder.getSrcTestResourcesDir(), "async.xlsx");
+		temporaryDirectory = Files.createTempDirectory("async-operations-test");
+		executor = Executors.newSingleThreadExecutor();
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		executor.shutdownNow();
+		DeleteFileExtensions.delete(workbookFile);
+		DeleteFileExtensions.delete(temporaryDirectory.toFile());
+	}
+
+	/**
+	 * Test method for {@link AsyncWorkbookOperations#exportWorkbook(File, ReadOptions,
+	 * ProgressListener)}
+	 */
+	@Test
+	public void testExportWorkbook() throws Exception
+	{
+		try (XSSFWorkbook workbook = new XSSFWorkbook())
+		{
+			final Sheet sheet = workbook.createSheet("data");
+			for (int row = 0; row < 2500; row++)
+			{
+				sheet.createRow(row).createCell(0).setCellValue("row " + row);
+			}
+			ExcelPoiFactory.writeWorkbook(workbook, workbookFile, WriteProfile.DEFAULT);
+		}
+		final List<long[]> reports = new CopyOnWriteArrayList<>();
+		final List<String[][]> sheets = AsyncWorkbookOperations.withVirtualThreads()
+			.exportWorkbook(workbookFile, ReadOptions.ALL,
+				(processed, total) -> reports.add(new long[] { processed, total }))
+			.get(30, TimeUnit.SECONDS);
+
+		assertEquals(2500, sheets.get(0).length);
+		assertArrayEquals(new String[] { "row 2499" }, sheets.get(0)[2499]);
+		assertArrayEquals(new long[] { 1000, 2500 }, reports.get(0));
+		assertArrayEquals(new long[] { 2500, 2500 }, reports.get(reports.size() - 1));
+	}
+
+	/**
+	 * Test method for {@link AsyncWorkbookOperations#writeWorkbook(org.apache.poi.ss.usermodel.Workbook,
+	 * File, WriteProfile, ProgressListener)} on a caller supplied executor
+	 */
+	@Test
+	public void testWriteWorkbook() throws Exception
+	{
+		final AtomicLong lastProcessed = new AtomicLong();
+		try (XSSFWorkbook workbook = new XSSFWorkbook())
+		{
+			final Sheet sheet = workbook.createSheet("data");
+			for (int row = 0; row < 10; row++)
+			{
+				sheet.createRow(row).createCell(0).setCellValue(row);
+			}
+			AsyncWorkbookOperations.with(executor).writeWorkbook(workbook, workbookFile,
+				WriteProfile.FAST, (processed, total) -> lastProcessed.set(processed))
+				.get(30, TimeUnit.SECONDS);
+		}
+		assertEquals(10, lastProcessed.get());
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			assertEquals(10, reader.readSheet(0, ReadOptions.ALL).size());
+		}
+	}
+
+	/**
+	 * Test method for {@link AsyncWorkbookOperations#write(ConcurrentXlsxWriter, File, List,
+	 * ProgressListener)} that is cancelled in the middle of a sheet
+	 */
+	@Test
+	public void testWriteCancelled() throws Exception
+	{
+		final CountDownLatch started = new CountDownLatch(1);
+		final AtomicLong produced = new AtomicLong();
+		final List<SheetContent> sheets = List.of(SheetContent.of("endless", null, writer -> {
+			while (true)
+			{
+				writer.writeRow(produced.incrementAndGet(), "value");
+			}
+		}));
+		final CompletableFuture<Void> future = AsyncWorkbookOperations.with(executor).write(
+			ConcurrentXlsxWriter.builder().temporaryDirectory(temporaryDirectory).build(),
+			workbookFile, sheets, (processed, total) -> started.countDown());
+
+		assertTrue(started.await(30, TimeUnit.SECONDS));
+		assertTrue(future.cancel(true));
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+		assertTrue(future.isCancelled());
+		assertTrue(0 < produced.get());
+		assertFalse(workbookFile.exists());
+		try (Stream<Path> files = Files.list(temporaryDirectory))
+		{
+			assertEquals(0, files.count());
+		}
+	}
+
+	/**
+	 * Test method for {@link AsyncWorkbookOperations#exportWorkbook(File, ReadOptions,
+	 * ProgressListener)} that is cancelled in the middle of a sheet
+	 */
+	@Test
+	public void testExportWorkbookCancelled() throws IOException, InterruptedException
+	{
+		ExportExcelExtensions.exportToExcel(workbookFile,
+			List.of(SheetContent.of("data", null, writer -> {
+				for (int row = 0; row < 20000; row++)
+				{
+					writer.writeRow(row);
+				}
+			})));
+		final AtomicLong lastProcessed = new AtomicLong();
+		final CompletableFuture<?>[] future = new CompletableFuture<?>[1];
+		final CountDownLatch submitted = new CountDownLatch(1);
+		future[0] = AsyncWorkbookOperations.with(executor).exportWorkbook(workbookFile,
+			ReadOptions.ALL, (processed, total) -> {
+				lastProcessed.set(processed);
+				try
+				{
+					submitted.await();
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+				future[0].cancel(false);
+			});
+		submitted.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+		assertTrue(future[0].isCancelled());
+		assertEquals(1000, lastProcessed.get());
+	}
+}
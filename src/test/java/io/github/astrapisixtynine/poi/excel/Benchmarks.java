@@ -0,0 +1,93 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.util.Arrays;
+
+/**
+ * The class {@link Benchmarks} provides a minimal harness for the benchmark classes of this
+ * project. The benchmarks are started with their main method and are not part of the unit tests
+ */
+final class Benchmarks
+{
+
+	/**
+	 * The functional interface {@link Task} is a benchmark task that can throw an exception
+	 */
+	@FunctionalInterface
+	interface Task
+	{
+		/**
+		 * Runs the task
+		 *
+		 * @throws Exception
+		 *             is thrown if an exception occurs
+		 */
+		void run() throws Exception;
+	}
+
+	/**
+	 * Private constructor to prevent instantiation
+	 */
+	private Benchmarks()
+	{
+	}
+
+	/**
+	 * Runs the given task for the given number of warmup and measured iterations and prints the
+	 * median duration of the measured iterations
+	 *
+	 * @param name
+	 *            the name of the benchmark
+	 * @param warmups
+	 *            the number of warmup iterations
+	 * @param iterations
+	 *            the number of measured iterations
+	 * @param task
+	 *            the task
+	 * @return the median duration in milliseconds
+	 * @throws Exception
+	 *             is thrown if the task throws an exception
+	 */
+	static double measure(final String name, final int warmups, final int iterations,
+		final Task task) throws Exception
+	{
+		for (int i = 0; i < warmups; i++)
+		{
+			task.run();
+		}
+		final long[] durations = new long[iterations];
+		for (int i = 0; i < iterations; i++)
+		{
+			final long start = System.nanoTime();
+			task.run();
+			durations[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(durations);
+		final double median = durations[iterations / 2] / 1_000_000.0;
+		System.out.printf("%-40s %10.1f ms (median of %d)%n", name, median, iterations);
+		return median;
+	}
+}
@@ -0,0 +1,204 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link CellFormatCache}
+ */
+public class CellFormatCacheTest
+{
+	File workbookFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		workbookFile = new File(PathFinder.getSrcTestResourcesDir(), "formats.xlsx");
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		DeleteFileExtensions.delete(workbookFile);
+	}
+
+	/**
+	 * Test method for {@link CellFormatCache#classify(int, String)}
+	 */
+	@Test
+	public void testClassify()
+	{
+		assertEquals(FormatCategory.NUMBER, CellFormatCache.classify(0, "General"));
+		assertEquals(FormatCategory.NUMBER, CellFormatCache.classify(4, "#,##0.00"));
+		assertEquals(FormatCategory.TEXT, CellFormatCache.classify(49, "@"));
+		assertEquals(FormatCategory.PERCENT, CellFormatCache.classify(10, "0.00%"));
+		assertEquals(FormatCategory.DATE, CellFormatCache.classify(14, "m/d/yy"));
+		assertEquals(FormatCategory.DATE, CellFormatCache.classify(164, "yyyy-mm-dd"));
+		assertEquals(FormatCategory.DATE, CellFormatCache.classify(17, "mmm-yy"));
+		assertEquals(FormatCategory.DATE_TIME, CellFormatCache.classify(22, "m/d/yy h:mm"));
+		assertEquals(FormatCategory.DATE_TIME,
+			CellFormatCache.classify(165, "[$-409]yyyy-mm-dd hh:mm:ss"));
+		assertEquals(FormatCategory.TIME, CellFormatCache.classify(21, "h:mm:ss"));
+		assertEquals(FormatCategory.TIME, CellFormatCache.classify(46, "[h]:mm:ss"));
+		assertEquals(FormatCategory.NUMBER, CellFormatCache.classify(166, "0.0 \"days\""));
+	}
+
+	/**
+	 * Test method for {@link CellFormatCache#getCellValue(org.apache.poi.ss.usermodel.Cell)} and
+	 * {@link CellFormatCache#formatCellValue(org.apache.poi.ss.usermodel.Cell)}
+	 */
+	@Test
+	public void testGetCellValue() throws IOException
+	{
+		try (Workbook workbook = new XSSFWorkbook())
+		{
+			final Row row = workbook.createSheet("formats").createRow(0);
+			final double serial = 45322.75;
+			row.createCell(0).setCellValue(serial);
+			row.getCell(0).setCellStyle(newStyle(workbook, "yyyy-mm-dd"));
+			row.createCell(1).setCellValue(serial);
+			row.getCell(1).setCellStyle(newStyle(workbook, "yyyy-mm-dd hh:mm"));
+			row.createCell(2).setCellValue(0.75);
+			row.getCell(2).setCellStyle(newStyle(workbook, "hh:mm"));
+			row.createCell(3).setCellValue(0.125);
+			row.getCell(3).setCellStyle(newStyle(workbook, "0.0%"));
+			row.createCell(4).setCellValue(42.5);
+			row.createCell(5).setCellFormula("A1+1");
+			row.getCell(5).setCellStyle(row.getCell(0).getCellStyle());
+
+			final CellFormatCache formats = CellFormatCache.of(workbook);
+			assertEquals(FormatCategory.DATE, formats.getCategory(row.getCell(0)));
+			assertEquals(LocalDate.of(2024, 1, 31), formats.getCellValue(row.getCell(0)));
+			assertEquals(LocalDateTime.of(2024, 1, 31, 18, 0),
+				formats.getCellValue(row.getCell(1)));
+			assertEquals(LocalTime.of(18, 0), formats.getCellValue(row.getCell(2)));
+			assertEquals(0.125, formats.getCellValue(row.getCell(3)));
+			assertEquals(42.5, formats.getCellValue(row.getCell(4)));
+			assertEquals("", formats.getCellValue(row.getCell(6)));
+
+			assertEquals("2024-01-31", formats.formatCellValue(row.getCell(0)));
+			assertEquals("2024-01-31 18:00", formats.formatCellValue(row.getCell(1)));
+			assertEquals("12.5%", formats.formatCellValue(row.getCell(3)));
+			assertEquals("42.5", formats.formatCellValue(row.getCell(4)));
+
+			workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+			assertEquals(LocalDate.of(2024, 2, 1), formats.getCellValue(row.getCell(5)));
+		}
+	}
+
+	/**
+	 * Test method for {@link ReadOptions#isFormattedValues()} with the streaming reader
+	 */
+	@Test
+	public void testReadFormattedValues() throws IOException
+	{
+		ExportExcelExtensions.exportToExcel(workbookFile,
+			List.of(SheetContent.of("data", null, writer -> {
+				writer.writeRow(1.5, LocalDate.of(2024, 1, 31),
+					LocalDateTime.of(2024, 1, 31, 10, 15, 30));
+			})));
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			assertArrayEquals(new String[] { "1.5", "2024-01-31", "2024-01-31 10:15:30" },
+				reader.readSheet(0, ReadOptions.builder().formattedValues(true).build()).get(0));
+			assertArrayEquals(new String[] { "1.5", "45322", "45322.4274305556" },
+				reader.readSheet(0, ReadOptions.ALL).get(0));
+		}
+	}
+
+	/**
+	 * Test method for {@link ReadOptions#isFormattedValues()} with the streaming reader and a
+	 * workbook in the 1904 date system
+	 */
+	@Test
+	public void testReadFormattedValuesDate1904() throws IOException
+	{
+		try (XSSFWorkbook workbook = new XSSFWorkbook();
+			FileOutputStream outputStream = new FileOutputStream(workbookFile))
+		{
+			workbook.getCTWorkbook().getWorkbookPr().setDate1904(true);
+			final Row row = workbook.createSheet("dates").createRow(0);
+			row.createCell(0).setCellValue(LocalDate.of(2024, 1, 31));
+			row.getCell(0).setCellStyle(newStyle(workbook, "yyyy-mm-dd"));
+			workbook.write(outputStream);
+		}
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			assertTrue(reader.isDate1904());
+			assertArrayEquals(new String[] { "2024-01-31" },
+				reader.readSheet(0, ReadOptions.builder().formattedValues(true).build()).get(0));
+			assertArrayEquals(new String[] { "43860" },
+				reader.readSheet(0, ReadOptions.ALL).get(0));
+		}
+		ExportExcelExtensions.exportToExcel(workbookFile,
+			List.of(SheetContent.of("data", null, writer -> writer.writeRow(1.5))));
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			assertFalse(reader.isDate1904());
+		}
+	}
+
+	private static CellStyle newStyle(final Workbook workbook, final String format)
+	{
+		final CellStyle style = workbook.createCellStyle();
+		style.setDataFormat(workbook.createDataFormat().getFormat(format));
+		return style;
+	}
+}
@@ -0,0 +1,157 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * The benchmark class for the class {@link ConcurrentXlsxWriter} against the sequential SXSSF path
+ * of {@link ExcelPoiFactory}. Start it with the main method, the optional arguments are the
+ * number of sheets and the number of rows per sheet
+ */
+public class ConcurrentXlsxWriterBenchmark
+{
+
+	private static final int COLUMNS = 10;
+
+	/**
+	 * The main method
+	 *
+	 * @param args
+	 *            the number of sheets and the number of rows per sheet
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	public static void main(final String[] args) throws Exception
+	{
+		final int sheets = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+		final int rows = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+		final File file = File.createTempFile("concurrent-benchmark", ".xlsx");
+		try
+		{
+			System.out.printf("%d sheets with %d rows and %d columns%n", sheets, rows, COLUMNS);
+			Benchmarks.measure("sequential SXSSF", 1, 3, () -> writeSequential(file, sheets, rows));
+			Benchmarks.measure("ConcurrentXlsxWriter", 1, 3,
+				() -> ConcurrentXlsxWriter.builder().build().write(file, newSheets(sheets, rows)));
+		}
+		finally
+		{
+			file.delete();
+		}
+	}
+
+	private static Object[] newRow(final int sheet, final int row)
+	{
+		final Object[] values = new Object[COLUMNS];
+		for (int column = 0; column < COLUMNS; column++)
+		{
+			values[column] = column % 2 == 0
+				? (Object)(row * 31.0 + column)
+				: "value " + sheet + "-" + (row % 1000) + "-" + column;
+		}
+		return values;
+	}
+
+	private static String[] newHeaders()
+	{
+		final String[] headers = new String[COLUMNS];
+		for (int column = 0; column < COLUMNS; column++)
+		{
+			headers[column] = "column " + column;
+		}
+		return headers;
+	}
+
+	static List<SheetContent> newSheets(final int sheets, final int rows)
+	{
+		final List<SheetContent> contents = new ArrayList<>();
+		for (int sheet = 0; sheet < sheets; sheet++)
+		{
+			final int sheetNumber = sheet;
+			contents.add(SheetContent.of("sheet " + sheet, newHeaders(), writer -> {
+				for (int row = 0; row < rows; row++)
+				{
+					writer.writeRow(newRow(sheetNumber, row));
+				}
+			}));
+		}
+		return contents;
+	}
+
+	private static void writeSequential(final File file, final int sheets, final int rows)
+		throws Exception
+	{
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook();
+			OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file)))
+		{
+			fillSheets(workbook, sheets, rows);
+			workbook.write(outputStream);
+		}
+	}
+
+	static void fillSheets(final Workbook workbook, final int sheets, final int rows)
+	{
+		final CellStyle headerStyle = ExcelPoiFactory.newCellStyle(workbook, "Arial", true,
+			(short)12);
+		for (int sheetNumber = 0; sheetNumber < sheets; sheetNumber++)
+		{
+			final Sheet sheet = ExcelPoiFactory.newSheet(workbook, "sheet " + sheetNumber);
+			final Row headerRow = sheet.createRow(0);
+			final String[] headers = newHeaders();
+			for (int column = 0; column < COLUMNS; column++)
+			{
+				headerRow.createCell(column).setCellValue(headers[column]);
+				headerRow.getCell(column).setCellStyle(headerStyle);
+			}
+			for (int rowNumber = 0; rowNumber < rows; rowNumber++)
+			{
+				final Row row = sheet.createRow(rowNumber + 1);
+				final Object[] values = newRow(sheetNumber, rowNumber);
+				for (int column = 0; column < COLUMNS; column++)
+				{
+					if (values[column] instanceof Double number)
+					{
+						row.createCell(column).setCellValue(number);
+					}
+					else
+					{
+						row.createCell(column).setCellValue((String)values[column]);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,319 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link ConcurrentXlsxWriter}
+ */
+public class ConcurrentXlsxWriterTest
+{
+	File workbookFile;
+	Path temporaryDirectory;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		workbookFile = new File(PathFinder.getSrcTestResourcesDir(), "concurrent.xlsx");
+		temporaryDirectory = Files.createTempDirectory("concurrent-writer-test");
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		DeleteFileExtensions.delete(workbookFile);
+		DeleteFileExtensions.delete(temporaryDirectory.toFile());
+	}
+
+	/**
+	 * Test method for {@link ConcurrentXlsxWriter#write(File, List)}
+	 */
+	@Test
+	public void testWrite() throws IOException
+	{
+		final List<SheetContent> sheets = new ArrayList<>();
+		for (int i = 0; i < 4; i++)
+		{
+			final int sheetNumber = i;
+			sheets.add(SheetContent.of("sheet " + i, new String[] { "id", "name", "flag", "day" },
+				writer -> {
+					for (int row = 1; row <= 500; row++)
+					{
+						writer.writeRow(row, "name " + (row % 7) + " <" + sheetNumber + ">",
+							row % 2 == 0, LocalDate.of(2024, 1, 1).plusDays(row));
+					}
+				}));
+		}
+		ConcurrentXlsxWriter.builder().temporaryDirectory(temporaryDirectory).build()
+			.write(workbookFile, sheets);
+
+		try (Workbook workbook = ReadExcelExtensions.readXSSFWorkbook(workbookFile))
+		{
+			assertEquals(4, workbook.getNumberOfSheets());
+			final Sheet sheet = workbook.getSheet("sheet 2");
+			assertEquals(500, sheet.getLastRowNum());
+			final Cell header = sheet.getRow(0).getCell(1);
+			assertEquals("name", header.getStringCellValue());
+			assertTrue(workbook.getFontAt(header.getCellStyle().getFontIndex()).getBold());
+			assertEquals(42, sheet.getRow(42).getCell(0).getNumericCellValue());
+			assertEquals("name 0 <2>", sheet.getRow(42).getCell(1).getStringCellValue());
+			assertTrue(sheet.getRow(42).getCell(2).getBooleanCellValue());
+			final Cell day = sheet.getRow(42).getCell(3);
+			assertTrue(DateUtil.isCellDateFormatted(day));
+			assertEquals(LocalDate.of(2024, 2, 12), day.getLocalDateTimeCellValue().toLocalDate());
+		}
+		try (Stream<Path> files = Files.list(temporaryDirectory))
+		{
+			assertEquals(0, files.count());
+		}
+	}
+
+	/**
+	 * Test method for {@link ExportExcelExtensions#exportToExcel(File, List)}
+	 */
+	@Test
+	public void testExportToExcel() throws IOException
+	{
+		ExportExcelExtensions.exportToExcel(workbookFile,
+			List.of(SheetContent.of("first", new String[] { "a", "b" },
+				new String[][] { { "1", "2" }, { "3", "4" } }),
+				SheetContent.of("second", null, new String[][] { { "x" } })));
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			assertEquals(List.of("first", "second"), reader.getSheetNames());
+			final List<String[]> rows = reader.readSheet(0, ReadOptions.ALL);
+			assertArrayEquals(new String[] { "a", "b" }, rows.get(0));
+			assertArrayEquals(new String[] { "3", "4" }, rows.get(2));
+			assertArrayEquals(new String[] { "x" }, reader.readSheet(1, ReadOptions.ALL).get(0));
+		}
+	}
+
+	/**
+	 * Test method for {@link ConcurrentXlsxWriter#write(File, List)} with a failing sheet producer
+	 */
+	@Test
+	public void testWriteWithFailingSheet() throws IOException
+	{
+		final List<SheetContent> sheets = List.of(
+			SheetContent.of("good", null, new String[][] { { "x" } }),
+			SheetContent.of("bad", null, writer -> {
+				throw new IOException("broken source");
+			}));
+		final IOException exception = assertThrows(IOException.class,
+			() -> ConcurrentXlsxWriter.builder().temporaryDirectory(temporaryDirectory).build()
+				.write(workbookFile, sheets));
+		assertEquals("broken source", exception.getMessage());
+		try (Stream<Path> files = Files.list(temporaryDirectory))
+		{
+			assertFalse(files.findAny().isPresent());
+		}
+	}
+
+	/**
+	 * Test method for {@link ConcurrentXlsxWriter#write(File, List)} with the inline strings of
+	 * the fast profile and the compressed temporary files of the archival profile
+	 */
+	@Test
+	public void testWriteWithProfiles() throws IOException
+	{
+		final List<SheetContent> sheets = List.of(SheetContent.of("data",
+			new String[] { "id", "text" }, writer -> {
+				for (int row = 1; row <= 200; row++)
+				{
+					writer.writeRow(row, " text & <" + row + "> ");
+				}
+			}));
+		for (final WriteProfile profile : List.of(WriteProfile.FAST, WriteProfile.ARCHIVAL))
+		{
+			ConcurrentXlsxWriter.builder().temporaryDirectory(temporaryDirectory).profile(profile)
+				.build().write(workbookFile, sheets);
+			try (Workbook workbook = ReadExcelExtensions.readXSSFWorkbook(workbookFile))
+			{
+				final Sheet sheet = workbook.getSheetAt(0);
+				assertEquals("text", sheet.getRow(0).getCell(1).getStringCellValue());
+				assertEquals(" text & <42> ", sheet.getRow(42).getCell(1).getStringCellValue());
+			}
+			try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+			{
+				assertArrayEquals(new String[] { "200", " text & <200> " },
+					reader.readSheet(0, ReadOptions.builder().rows(200, 200).build()).get(0));
+			}
+		}
+	}
+
+	/**
+	 * Test method for {@link ConcurrentXlsxWriter#write(File, List)} that waits for the running
+	 * sheets of a failed write before the temporary files are deleted
+	 */
+	@Test
+	public void testWriteWithFailingSheetWaitsForRunningSheets() throws Exception
+	{
+		final CountDownLatch slowStarted = new CountDownLatch(1);
+		final AtomicBoolean slowFinished = new AtomicBoolean();
+		final List<SheetContent> sheets = List.of(SheetContent.of("slow", null, writer -> {
+			slowStarted.countDown();
+			final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+			while (System.nanoTime() < end)
+			{
+				writer.writeRow("ignores interrupts");
+			}
+			slowFinished.set(true);
+		}), SheetContent.of("bad", null, writer -> {
+			try
+			{
+				slowStarted.await();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			throw new IOException("broken source");
+		}));
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		try
+		{
+			assertThrows(IOException.class,
+				() -> ConcurrentXlsxWriter.builder().temporaryDirectory(temporaryDirectory)
+					.executor(executor).build().write(workbookFile, sheets));
+			assertTrue(slowFinished.get());
+			try (Stream<Path> files = Files.list(temporaryDirectory))
+			{
+				assertFalse(files.findAny().isPresent());
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test method for {@link ConcurrentXlsxWriter#write(File, List)} with sheet names that are
+	 * equal after the truncation to a safe sheet name or that differ only in case
+	 */
+	@Test
+	public void testWriteWithDuplicateSheetNames()
+	{
+		final ConcurrentXlsxWriter writer = ConcurrentXlsxWriter.builder()
+			.temporaryDirectory(temporaryDirectory).build();
+		assertThrows(IllegalArgumentException.class,
+			() -> writer.write(workbookFile,
+				List.of(SheetContent.of("Data", null, new String[][] { { "x" } }),
+					SheetContent.of("data", null, new String[][] { { "y" } }))));
+		assertThrows(IllegalArgumentException.class,
+			() -> writer.write(workbookFile,
+				List.of(
+					SheetContent.of("a very long sheet name for the year 2023", null,
+						new String[][] { { "x" } }),
+					SheetContent.of("a very long sheet name for the year 2024", null,
+						new String[][] { { "y" } }))));
+	}
+
+	/**
+	 * Test method for {@link ConcurrentXlsxWriter#write(File, List)} with a row that has more
+	 * columns than a sheet can hold
+	 */
+	@Test
+	public void testWriteWithTooManyColumns()
+	{
+		final List<SheetContent> sheets = List.of(SheetContent.of("wide", null,
+			writer -> writer.writeRow(new Object[SpreadsheetVersion.EXCEL2007.getMaxColumns() + 1])));
+		final IOException exception = assertThrows(IOException.class,
+			() -> ConcurrentXlsxWriter.builder().temporaryDirectory(temporaryDirectory).build()
+				.write(workbookFile, sheets));
+		assertTrue(exception.getMessage().contains("16384 columns"));
+	}
+
+	/**
+	 * Test method for {@link ConcurrentXlsxWriter#write(File, List)} with date values in a row with
+	 * an explicit style and with text that looks like an encoded character
+	 */
+	@Test
+	public void testWriteWithStyledDatesAndEncodedText() throws IOException
+	{
+		final List<SheetContent> sheets = List.of(SheetContent.of("data", null, writer -> {
+			writer.writeRow(XlsxCellStyle.HEADER, "total", LocalDate.of(2024, 3, 1));
+			writer.writeRow("a_x0041_b", "tab\u0001", "_x00_");
+		}));
+		for (final WriteProfile profile : List.of(WriteProfile.DEFAULT, WriteProfile.FAST))
+		{
+			ConcurrentXlsxWriter.builder().temporaryDirectory(temporaryDirectory).profile(profile)
+				.build().write(workbookFile, sheets);
+			try (Workbook workbook = ReadExcelExtensions.readXSSFWorkbook(workbookFile))
+			{
+				final Sheet sheet = workbook.getSheetAt(0);
+				final Cell day = sheet.getRow(0).getCell(1);
+				assertTrue(DateUtil.isCellDateFormatted(day));
+				assertTrue(workbook.getFontAt(day.getCellStyle().getFontIndex()).getBold());
+				assertEquals("a_x0041_b", sheet.getRow(1).getCell(0).getStringCellValue());
+				assertEquals("tab\u0001", sheet.getRow(1).getCell(1).getStringCellValue());
+				assertEquals("_x00_", sheet.getRow(1).getCell(2).getStringCellValue());
+			}
+		}
+	}
+}
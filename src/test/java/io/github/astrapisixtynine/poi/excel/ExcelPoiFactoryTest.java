@@ -26,15 +26,22 @@ package io.github.astrapisixtynine.poi.excel;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
 
 import org.apache.poi.ss.usermodel.BuiltinFormats;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -201,4 +208,110 @@ public class ExcelPoiFactoryTest
 		assertNotNull(newWorkbook);
 	}
 
+	/**
+	 * Test method for {@link ExcelPoiFactory#writeWorkbook(Workbook, File, WriteProfile)} with
+	 * the deflate levels of the different profiles
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public final void testWriteWorkbookWithProfile() throws IOException
+	{
+		fillSheet(xssfWorkbook);
+		ExcelPoiFactory.writeWorkbook(xssfWorkbook, testWorkbookXlsx,
+			WriteProfile.builder().compressionLevel(Deflater.NO_COMPRESSION).build());
+		final long storedLength = testWorkbookXlsx.length();
+		assertEquals("row 42", readCell(testWorkbookXlsx, 42));
+		ExcelPoiFactory.writeWorkbook(xssfWorkbook, testWorkbookXlsx, WriteProfile.ARCHIVAL);
+		assertTrue(testWorkbookXlsx.length() < storedLength / 2);
+		assertEquals("row 42", readCell(testWorkbookXlsx, 42));
+
+		try (SXSSFWorkbook sxssfWorkbook = ExcelPoiFactory.newSXSSFWorkbook(WriteProfile.FAST))
+		{
+			fillSheet(sxssfWorkbook);
+			ExcelPoiFactory.writeWorkbook(sxssfWorkbook, testWorkbookXlsx, WriteProfile.FAST);
+		}
+		assertEquals("row 42", readCell(testWorkbookXlsx, 42));
+
+		final WriteProfile stored = WriteProfile.builder().compressionLevel(Deflater.NO_COMPRESSION)
+			.build();
+		try (SXSSFWorkbook sxssfWorkbook = ExcelPoiFactory.newSXSSFWorkbook(stored))
+		{
+			fillSheet(sxssfWorkbook);
+			ExcelPoiFactory.writeWorkbook(sxssfWorkbook, testWorkbookXlsx, stored);
+		}
+		final long storedSxssfLength = testWorkbookXlsx.length();
+		try (SXSSFWorkbook sxssfWorkbook = ExcelPoiFactory.newSXSSFWorkbook(stored))
+		{
+			fillSheet(sxssfWorkbook);
+			ExcelPoiFactory.writeWorkbook(sxssfWorkbook, testWorkbookXlsx, WriteProfile.DEFAULT);
+		}
+		assertTrue(testWorkbookXlsx.length() < storedSxssfLength / 2);
+		assertEquals("row 42", readCell(testWorkbookXlsx, 42));
+	}
+
+	/**
+	 * Test method for
+	 * {@link ExcelPoiFactory#writeWorkbook(Workbook, WritableByteChannel, WriteProfile)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public final void testWriteWorkbookToChannel() throws IOException
+	{
+		fillSheet(xssfWorkbook);
+		try (FileChannel channel = FileChannel.open(testWorkbookXlsx.toPath(),
+			StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			ExcelPoiFactory.writeWorkbook(xssfWorkbook, channel, WriteProfile.ARCHIVAL);
+			assertTrue(channel.isOpen());
+		}
+		assertEquals("row 42", readCell(testWorkbookXlsx, 42));
+	}
+
+	/**
+	 * Test method for
+	 * {@link ExcelPoiFactory#writeWorkbook(Workbook, WorkbookBufferPool, WriteProfile)}
+	 *
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	@Test
+	public final void testWriteWorkbookToPooledBuffer() throws IOException
+	{
+		fillSheet(xssfWorkbook);
+		final WorkbookBufferPool pool = new WorkbookBufferPool(1, 1024, Integer.MAX_VALUE);
+		final WorkbookBufferPool.PooledBuffer buffer = ExcelPoiFactory
+			.writeWorkbook(xssfWorkbook, pool, WriteProfile.DEFAULT);
+		assertTrue(0 < buffer.size());
+		try (Workbook read = new XSSFWorkbook(buffer.toInputStream()))
+		{
+			assertEquals("row 42", read.getSheetAt(0).getRow(42).getCell(0).getStringCellValue());
+		}
+		buffer.release();
+		assertEquals(1, pool.getAvailableCount());
+		assertSame(buffer, pool.acquire());
+		assertEquals(0, buffer.size());
+	}
+
+	private static void fillSheet(final Workbook workbook)
+	{
+		final Sheet sheet = ExcelPoiFactory.newSheet(workbook, "data");
+		for (int i = 0; i < 1000; i++)
+		{
+			sheet.createRow(i).createCell(0).setCellValue("row " + i);
+		}
+	}
+
+	private static String readCell(final File file, final int rowIndex) throws IOException
+	{
+		try (XlsxStreamReader reader = XlsxStreamReader.open(file))
+		{
+			return reader.readSheet(0, ReadOptions.builder().rows(rowIndex, rowIndex).build())
+				.get(0)[0];
+		}
+	}
+
 }
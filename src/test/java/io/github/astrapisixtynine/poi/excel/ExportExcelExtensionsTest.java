@@ -24,6 +24,7 @@
  */
 package io.github.astrapisixtynine.poi.excel;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -342,6 +343,29 @@ public class ExportExcelExtensionsTest
 		}
 	}
 
+	/**
+	 * Test method for {@link ExportExcelExtensions#exportWorkbook(File, ReadOptions)} and
+	 * {@link ExportExcelExtensions#exportWorkbookAsStringList(File, ReadOptions)}
+	 */
+	@Test
+	public void testExportWorkbookWithReadOptions() throws URISyntaxException, IOException
+	{
+		final File excelSheet = new File(ClassExtensions.getResource("test.xls").toURI());
+		final ReadOptions options = ReadOptions.builder().columns(2, 0).rows(1, 2).build();
+		List<String[][]> sheetList = ExportExcelExtensions.exportWorkbook(excelSheet, options);
+		final String[][] sheetEntry = sheetList.get(0);
+		assertEquals(2, sheetEntry.length);
+		assertArrayEquals(new String[] { "?", "2" }, sheetEntry[0]);
+		assertArrayEquals(new String[] { "%", "3" }, sheetEntry[1]);
+
+		final File xlsxFile = new File(PathFinder.getSrcTestResourcesDir(), "addresses.xlsx");
+		final List<List<List<String>>> xlsxSheetList = ExportExcelExtensions
+			.exportWorkbookAsStringList(xlsxFile,
+				ReadOptions.builder().columnNames("zip", "city").build());
+		assertEquals(List.of(List.of("zip", "city"), List.of("75345", "Imaginationville")),
+			xlsxSheetList.get(0));
+	}
+
 	/**
 	 * Test method for {@link ExportExcelExtensions#replaceNullCellsIntoEmptyCells(File)}
 	 *
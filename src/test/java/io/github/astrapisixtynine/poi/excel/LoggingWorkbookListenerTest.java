@@ -0,0 +1,91 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link LoggingWorkbookListener}
+ */
+public class LoggingWorkbookListenerTest
+{
+
+	/**
+	 * Test method for the log messages of {@link LoggingWorkbookListener}
+	 */
+	@Test
+	public void testLogMessages()
+	{
+		final List<String> messages = new ArrayList<>();
+		final LoggingWorkbookListener listener = new LoggingWorkbookListener(
+			new Logger()
+			{
+				@Override
+				public String getName()
+				{
+					return "test";
+				}
+
+				@Override
+				public boolean isLoggable(final Level level)
+				{
+					return Level.INFO.getSeverity() <= level.getSeverity();
+				}
+
+				@Override
+				public void log(final Level level, final ResourceBundle bundle, final String msg,
+					final Throwable thrown)
+				{
+					messages.add(msg);
+				}
+
+				@Override
+				public void log(final Level level, final ResourceBundle bundle,
+					final String format, final Object... params)
+				{
+					messages.add(MessageFormat.format(format, params));
+				}
+			}, Level.INFO);
+		listener.sheetCompleted(WorkbookOperation.STREAM_READ, 7, "data", 12000, 36000);
+		listener.bytesTransferred(WorkbookOperation.WRITE_WORKBOOK, 8, 0, 4096);
+		listener.stylesCounted(WorkbookOperation.WRITE_WORKBOOK, 8, 3);
+		listener.phaseCompleted(WorkbookOperation.WRITE_WORKBOOK, 8, WorkbookPhase.WRITE,
+			2_500_000);
+		assertEquals("STREAM_READ#7 sheet 'data' with 12000 rows and 36000 cells",
+			messages.get(0));
+		assertEquals("WRITE_WORKBOOK#8 read 0 bytes and wrote 4096 bytes", messages.get(1));
+		assertEquals("WRITE_WORKBOOK#8 workbook with 3 cell styles", messages.get(2));
+		assertEquals(4, messages.size());
+	}
+}
@@ -0,0 +1,167 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link RollingXlsxWriter}
+ */
+public class RollingXlsxWriterTest
+{
+	File baseFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		baseFile = new File(PathFinder.getSrcTestResourcesDir(), "rolling.xlsx");
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		for (int fileNumber = 1; fileNumber <= 5; fileNumber++)
+		{
+			final File partFile = RollingXlsxWriter.getPartFile(baseFile, fileNumber);
+			if (partFile.exists())
+			{
+				DeleteFileExtensions.delete(partFile);
+			}
+		}
+	}
+
+	private static List<String[]> readSheet(final File file, final int sheetIndex)
+		throws IOException
+	{
+		final List<String[]> rows = new ArrayList<>();
+		try (XlsxStreamReader reader = XlsxStreamReader.open(file))
+		{
+			reader.readSheet(sheetIndex, ReadOptions.ALL, (rowIndex, values) -> rows.add(values));
+		}
+		return rows;
+	}
+
+	/**
+	 * Test method for {@link RollingXlsxWriter#writeRow(Object...)} with a row and a sheet
+	 * threshold
+	 */
+	@Test
+	public void testWriteRowRollsSheetsAndFiles() throws IOException
+	{
+		final RollingXlsxWriter writer = RollingXlsxWriter.builder(baseFile).sheetName("data")
+			.headers("id", "name").maxRowsPerSheet(10).maxSheetsPerFile(2).build();
+		try (writer)
+		{
+			for (int i = 0; i < 25; i++)
+			{
+				writer.writeRow(i, "name " + i);
+			}
+		}
+		final List<RolloverPart> parts = writer.getParts();
+		final File secondFile = RollingXlsxWriter.getPartFile(baseFile, 2);
+		assertEquals("rolling-2.xlsx", secondFile.getName());
+		assertEquals(List.of(new RolloverPart(baseFile, 0, "data", 9),
+			new RolloverPart(baseFile, 1, "data (2)", 9),
+			new RolloverPart(secondFile, 0, "data (3)", 7)), parts);
+		try (XlsxStreamReader reader = XlsxStreamReader.open(secondFile))
+		{
+			assertEquals(List.of("data (3)"), reader.getSheetNames());
+		}
+		final List<String[]> second = readSheet(baseFile, 1);
+		assertEquals(10, second.size());
+		assertArrayEquals(new String[] { "id", "name" }, second.get(0));
+		assertArrayEquals(new String[] { "9", "name 9" }, second.get(1));
+		final List<String[]> third = readSheet(secondFile, 0);
+		assertEquals(8, third.size());
+		assertArrayEquals(new String[] { "24", "name 24" }, third.get(7));
+		assertFalse(RollingXlsxWriter.getPartFile(baseFile, 3).exists());
+	}
+
+	/**
+	 * Test method for {@link RollingXlsxWriter#writeRow(Object...)} with a byte threshold
+	 */
+	@Test
+	public void testWriteRowRollsFilesByBytes() throws IOException
+	{
+		final RollingXlsxWriter writer = RollingXlsxWriter.builder(baseFile).maxBytesPerFile(1)
+			.build();
+		writer.writeRow("a");
+		writer.writeRow("b");
+		writer.writeRow("c");
+		writer.close();
+		assertEquals(3, writer.getParts().size());
+		assertArrayEquals(new String[] { "c" },
+			readSheet(RollingXlsxWriter.getPartFile(baseFile, 3), 0).get(0));
+		assertThrows(IOException.class, () -> writer.writeRow("d"));
+	}
+
+	/**
+	 * Test method for {@link RollingXlsxWriter#close()} without rows
+	 */
+	@Test
+	public void testCloseWithoutRows() throws IOException
+	{
+		final RollingXlsxWriter writer = RollingXlsxWriter.builder(baseFile).headers("id")
+			.build();
+		writer.close();
+		assertEquals(List.of(new RolloverPart(baseFile, 0, "Sheet", 0)), writer.getParts());
+		assertEquals(1, readSheet(baseFile, 0).size());
+		assertThrows(IllegalArgumentException.class,
+			() -> RollingXlsxWriter.builder(baseFile).headers("id").maxRowsPerSheet(1).build());
+		assertThrows(IllegalArgumentException.class,
+			() -> RollingXlsxWriter.builder(baseFile).sheetName("a/b"));
+		assertThrows(IllegalArgumentException.class,
+			() -> RollingXlsxWriter.builder(baseFile).sheetName("'quoted'"));
+		assertThrows(IllegalArgumentException.class,
+			() -> RollingXlsxWriter.builder(baseFile).sheetName("x".repeat(32)));
+	}
+}
@@ -0,0 +1,221 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link RowBatchPublisher}
+ */
+public class RowBatchPublisherTest
+{
+	File workbookFile;
+	ExecutorService executor;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		workbookFile = new File(PathFinder.getSrcTestResourcesDir(), "publisher.xlsx");
+		ExportExcelExtensions.exportToExcel(workbookFile,
+			List.of(SheetContent.of("first", null, new String[][] { { "x" } }),
+				SheetContent.of("data", new String[] { "id", "name" }, writer -> {
+					for (int row = 1; row <= 2500; row++)
+					{
+						writer.writeRow(row, "name " + row);
+					}
+				})));
+		executor = Executors.newSingleThreadExecutor();
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		executor.shutdownNow();
+		DeleteFileExtensions.delete(workbookFile);
+	}
+
+	/**
+	 * Test method for {@link RowBatchPublisher#subscribe(Flow.Subscriber)}
+	 */
+	@Test
+	public void testSubscribe() throws InterruptedException
+	{
+		final RecordingSubscriber subscriber = new RecordingSubscriber(1);
+		RowBatchPublisher.builder(workbookFile).sheet("data")
+			.options(ReadOptions.builder().columns(1).rows(1, Integer.MAX_VALUE).build()).build()
+			.subscribe(subscriber);
+
+		assertTrue(subscriber.done.await(30, TimeUnit.SECONDS));
+		assertTrue(subscriber.completed);
+		assertEquals(3, subscriber.batches.size());
+		assertEquals(1000, subscriber.batches.get(0).size());
+		assertEquals(500, subscriber.batches.get(2).size());
+		assertArrayEquals(new String[] { "name 2500" }, subscriber.batches.get(2).get(499));
+	}
+
+	/**
+	 * Test method for {@link RowBatchPublisher#subscribe(Flow.Subscriber)} with a subscriber that
+	 * requests no further batches
+	 */
+	@Test
+	public void testSubscribeWithoutDemand() throws InterruptedException
+	{
+		final AtomicInteger parsedRows = new AtomicInteger();
+		final RecordingSubscriber subscriber = new RecordingSubscriber(0);
+		RowBatchPublisher.builder(workbookFile).sheet(1).batchSize(100).executor(executor)
+			.options(ReadOptions.builder().rowFilter(rowIndex -> {
+				parsedRows.incrementAndGet();
+				return true;
+			}).build()).build().subscribe(subscriber);
+
+		subscriber.subscription.request(1);
+		while (parsedRows.get() < 200)
+		{
+			Thread.sleep(10);
+		}
+		Thread.sleep(200);
+		assertEquals(200, parsedRows.get());
+		assertEquals(1, subscriber.batches.size());
+
+		subscriber.subscription.cancel();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+		assertEquals(200, parsedRows.get());
+		assertFalse(subscriber.completed);
+		assertEquals(1, subscriber.done.getCount());
+	}
+
+	/**
+	 * Test method for {@link RowBatchPublisher#subscribe(Flow.Subscriber)} with an invalid request
+	 */
+	@Test
+	public void testSubscribeWithInvalidRequest() throws InterruptedException
+	{
+		final RecordingSubscriber subscriber = new RecordingSubscriber(0);
+		RowBatchPublisher.builder(workbookFile).build().subscribe(subscriber);
+		subscriber.subscription.request(0);
+
+		assertTrue(subscriber.done.await(30, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+	}
+
+	/**
+	 * Test method for {@link RowBatchPublisher#subscribe(Flow.Subscriber)} with a missing file
+	 */
+	@Test
+	public void testSubscribeWithMissingFile() throws InterruptedException
+	{
+		final RecordingSubscriber subscriber = new RecordingSubscriber(1);
+		RowBatchPublisher.builder(new File(workbookFile.getParentFile(), "missing.xlsx")).build()
+			.subscribe(subscriber);
+
+		assertTrue(subscriber.done.await(30, TimeUnit.SECONDS));
+		assertNotNull(subscriber.error);
+		assertFalse(subscriber.completed);
+	}
+
+	private static final class RecordingSubscriber implements Flow.Subscriber<List<String[]>>
+	{
+		final List<List<String[]>> batches = new CopyOnWriteArrayList<>();
+		final CountDownLatch done = new CountDownLatch(1);
+		final int requestPerBatch;
+		volatile Flow.Subscription subscription;
+		volatile boolean completed;
+		volatile Throwable error;
+
+		RecordingSubscriber(final int requestPerBatch)
+		{
+			this.requestPerBatch = requestPerBatch;
+		}
+
+		@Override
+		public void onSubscribe(final Flow.Subscription subscription)
+		{
+			this.subscription = subscription;
+			if (0 < requestPerBatch)
+			{
+				subscription.request(requestPerBatch);
+			}
+		}
+
+		@Override
+		public void onNext(final List<String[]> item)
+		{
+			batches.add(item);
+			if (0 < requestPerBatch)
+			{
+				subscription.request(requestPerBatch);
+			}
+		}
+
+		@Override
+		public void onError(final Throwable throwable)
+		{
+			error = throwable;
+			done.countDown();
+		}
+
+		@Override
+		public void onComplete()
+		{
+			completed = true;
+			done.countDown();
+		}
+	}
+}
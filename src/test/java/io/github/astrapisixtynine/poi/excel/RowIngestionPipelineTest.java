@@ -0,0 +1,241 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link RowIngestionPipeline}
+ */
+public class RowIngestionPipelineTest
+{
+	File file;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		file = new File(PathFinder.getSrcTestResourcesDir(), "ingestion.xlsx");
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		if (file.exists())
+		{
+			DeleteFileExtensions.delete(file);
+		}
+	}
+
+	/**
+	 * Test method for {@link RowIngestionPipeline#writeRow(Object...)} with concurrent producers
+	 * and a small ring buffer
+	 */
+	@Test
+	public void testWriteRowFromManyProducers() throws Exception
+	{
+		final int producers = 4;
+		final int rowsPerProducer = 5000;
+		final RowIngestionPipeline pipeline = RowIngestionPipeline.builder(file)
+			.sheetName("events").headers("producer", "sequence").capacity(50).batchSize(16)
+			.build();
+		assertEquals(64, pipeline.getCapacity());
+		final ExecutorService executor = Executors.newFixedThreadPool(producers);
+		try
+		{
+			final List<Future<?>> futures = new ArrayList<>();
+			for (int producer = 0; producer < producers; producer++)
+			{
+				final int producerId = producer;
+				futures.add(executor.submit(() -> {
+					for (int sequence = 0; sequence < rowsPerProducer; sequence++)
+					{
+						pipeline.writeRow(producerId, sequence);
+					}
+					return null;
+				}));
+			}
+			for (final Future<?> future : futures)
+			{
+				future.get();
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+		pipeline.close();
+
+		final long total = (long)producers * rowsPerProducer;
+		assertEquals(total, pipeline.getSubmittedRows());
+		assertEquals(total, pipeline.getWrittenRows());
+		assertEquals(0, pipeline.getQueueDepth());
+		assertTrue(pipeline.getMaxQueueDepth() <= pipeline.getCapacity());
+		assertTrue(0 < pipeline.getBatchCount());
+		assertTrue(0 < pipeline.getRowsPerSecond());
+
+		final List<String[]> rows = new ArrayList<>();
+		try (XlsxStreamReader reader = XlsxStreamReader.open(file))
+		{
+			assertEquals(List.of("events"), reader.getSheetNames());
+			reader.readSheet(0, ReadOptions.ALL, (rowIndex, values) -> rows.add(values));
+		}
+		assertEquals(total + 1, rows.size());
+		assertArrayEquals(new String[] { "producer", "sequence" }, rows.get(0));
+		final int[] nextSequences = new int[producers];
+		for (final String[] row : rows.subList(1, rows.size()))
+		{
+			final int producer = Integer.parseInt(row[0]);
+			assertEquals(nextSequences[producer]++, Integer.parseInt(row[1]));
+		}
+	}
+
+	/**
+	 * Test method for {@link RowIngestionPipeline#close()}
+	 */
+	@Test
+	public void testWriteRowAfterClose() throws IOException
+	{
+		final RowIngestionPipeline pipeline = RowIngestionPipeline.builder(file).build();
+		pipeline.writeRow(XlsxCellStyle.HEADER, "a", 1.5, true);
+		pipeline.close();
+		assertThrows(IOException.class, () -> pipeline.writeRow("b"));
+		final List<String[]> rows = new ArrayList<>();
+		try (XlsxStreamReader reader = XlsxStreamReader.open(file))
+		{
+			reader.readSheet(0, ReadOptions.ALL, (rowIndex, values) -> rows.add(values));
+		}
+		assertEquals(1, rows.size());
+		assertArrayEquals(new String[] { "a", "1.5", "true" }, rows.get(0));
+	}
+
+	/**
+	 * Test method for {@link RowIngestionPipeline#writeRow(Object...)} and
+	 * {@link RowIngestionPipeline#close()} when the writer thread fails with an error
+	 */
+	@Test
+	public void testWriteRowWithFailedWriter() throws IOException
+	{
+		final RowIngestionPipeline pipeline = RowIngestionPipeline.builder(file).capacity(2)
+			.build();
+		pipeline.writeRow(new Object()
+		{
+			@Override
+			public String toString()
+			{
+				throw new InternalError("broken value");
+			}
+		});
+		final IOException exception = assertThrows(IOException.class, () -> {
+			for (int row = 0; row < 1_000_000; row++)
+			{
+				pipeline.writeRow("after the failure");
+			}
+		});
+		assertEquals(InternalError.class, exception.getCause().getClass());
+		assertThrows(InternalError.class, pipeline::close);
+	}
+
+	/**
+	 * Test method for {@link RowIngestionPipeline#writeRow(XlsxCellStyle, Object...)} with a date
+	 * value in a row with an explicit style
+	 */
+	@Test
+	public void testWriteRowWithStyledDate() throws IOException
+	{
+		try (RowIngestionPipeline pipeline = RowIngestionPipeline.builder(file).build())
+		{
+			pipeline.writeRow(XlsxCellStyle.HEADER, "total", LocalDate.of(2024, 3, 1));
+		}
+		try (Workbook workbook = ReadExcelExtensions.readXSSFWorkbook(file))
+		{
+			final Cell day = workbook.getSheetAt(0).getRow(0).getCell(1);
+			assertTrue(DateUtil.isCellDateFormatted(day));
+			assertTrue(workbook.getFontAt(day.getCellStyle().getFontIndex()).getBold());
+		}
+	}
+
+	/**
+	 * Test method for {@link RowIngestionPipeline#close()} that saves the workbook with the write
+	 * profile of the builder
+	 */
+	@Test
+	public void testCloseWithProfile() throws IOException
+	{
+		try (RowIngestionPipeline pipeline = RowIngestionPipeline.builder(file)
+			.profile(WriteProfile.builder().compressionLevel(Deflater.NO_COMPRESSION).build())
+			.build())
+		{
+			for (int row = 0; row < 1000; row++)
+			{
+				pipeline.writeRow("row " + row, row);
+			}
+		}
+		final long storedLength = file.length();
+		try (RowIngestionPipeline pipeline = RowIngestionPipeline.builder(file)
+			.profile(WriteProfile.ARCHIVAL).build())
+		{
+			for (int row = 0; row < 1000; row++)
+			{
+				pipeline.writeRow("row " + row, row);
+			}
+		}
+		assertTrue(file.length() < storedLength / 2);
+	}
+}
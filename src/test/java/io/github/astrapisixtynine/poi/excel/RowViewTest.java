@@ -0,0 +1,191 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the interface {@link RowView}
+ */
+public class RowViewTest
+{
+	File xlsxFile;
+
+	File xlsFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		xlsxFile = new File(PathFinder.getSrcTestResourcesDir(), "row-view.xlsx");
+		xlsFile = new File(PathFinder.getSrcTestResourcesDir(), "row-view.xls");
+		try (Workbook workbook = new XSSFWorkbook())
+		{
+			writeWorkbook(workbook, xlsxFile);
+		}
+		try (Workbook workbook = new HSSFWorkbook())
+		{
+			writeWorkbook(workbook, xlsFile);
+		}
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		DeleteFileExtensions.delete(xlsxFile);
+		DeleteFileExtensions.delete(xlsFile);
+	}
+
+	private static void writeWorkbook(final Workbook workbook, final File file)
+		throws IOException
+	{
+		final Sheet sheet = workbook.createSheet("data");
+		final Row headerRow = sheet.createRow(0);
+		headerRow.createCell(0).setCellValue("number");
+		headerRow.createCell(1).setCellValue("name");
+		headerRow.createCell(2).setCellValue("flag");
+		headerRow.createCell(3).setCellValue("twice");
+		for (int i = 1; i <= 3; i++)
+		{
+			final Row row = sheet.createRow(i);
+			row.createCell(0).setCellValue(i + 0.5);
+			row.createCell(1).setCellValue("name " + i);
+			if (i % 2 == 0)
+			{
+				row.createCell(2).setCellValue(true);
+			}
+			row.createCell(3).setCellFormula("A" + (i + 1) + "*2");
+		}
+		workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+		try (FileOutputStream outputStream = new FileOutputStream(file))
+		{
+			workbook.write(outputStream);
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link ExportExcelExtensions#forEachRow(File, int, ReadOptions, RowViewHandler)}
+	 */
+	@Test
+	public void testForEachRow() throws IOException
+	{
+		for (final File file : new File[] { xlsxFile, xlsFile })
+		{
+			final List<RowView> views = new ArrayList<>();
+			final List<String[]> rows = new ArrayList<>();
+			ExportExcelExtensions.forEachRow(file, 0,
+				ReadOptions.builder().rows(1, Integer.MAX_VALUE).build(), row -> {
+					views.add(row);
+					rows.add(row.copy());
+					assertEquals(CellType.NUMERIC, row.getCellType(0));
+					assertEquals(row.getRowIndex() + 0.5, row.getDouble(0));
+					assertEquals(CellType.STRING, row.getCellType(1));
+					assertEquals("name " + row.getRowIndex(), row.getString(1));
+					assertThrows(IllegalStateException.class, () -> row.getDouble(1));
+					assertEquals(row.getRowIndex() % 2 == 0, !row.isBlank(2));
+					assertEquals(CellType.NUMERIC, row.getCellType(3));
+					assertEquals((row.getRowIndex() + 0.5) * 2, row.getDouble(3));
+					assertTrue(row.isBlank(4));
+					assertEquals("", row.getString(4));
+				});
+			assertEquals(3, views.size());
+			assertSame(views.get(0), views.get(2));
+			assertArrayEquals(new String[] { "1.5", "name 1", "", "3" }, rows.get(0));
+			assertArrayEquals(new String[] { "2.5", "name 2", "true", "5" }, rows.get(1));
+			assertArrayEquals(new String[] { "3.5", "name 3", "", "7" }, rows.get(2));
+		}
+	}
+
+	/**
+	 * Test method for {@link XlsxStreamReader#forEachRow(int, ReadOptions, RowViewHandler)} with
+	 * columns selected by name
+	 */
+	@Test
+	public void testForEachRowWithColumnNames() throws IOException
+	{
+		final ReadOptions options = ReadOptions.builder().columnNames("flag", "number")
+			.rows(1, 2).build();
+		final List<String[]> rows = new ArrayList<>();
+		try (XlsxStreamReader reader = XlsxStreamReader.open(xlsxFile))
+		{
+			reader.forEachRow(0, options, row -> {
+				assertEquals(2, row.getWidth());
+				assertEquals(row.getRowIndex() % 2 == 0, !row.isBlank(0));
+				assertEquals(row.getRowIndex() % 2 == 0 ? 1 : 0,
+					row.isBlank(0) ? 0 : row.getDouble(0));
+				rows.add(row.copy());
+			});
+			assertEquals(reader.readSheet(0, options).size(), rows.size());
+		}
+		assertArrayEquals(new String[] { "", "1.5" }, rows.get(0));
+		assertArrayEquals(new String[] { "true", "2.5" }, rows.get(1));
+
+		final List<String[]> sheetRows = new ArrayList<>();
+		try (Workbook workbook = new HSSFWorkbook(new POIFSFileSystem(xlsFile, true)))
+		{
+			ExportExcelExtensions.forEachRow(workbook.getSheetAt(0), options, row -> {
+				assertEquals(2, row.getWidth());
+				sheetRows.add(row.copy());
+			});
+		}
+		assertArrayEquals(rows.toArray(), sheetRows.toArray());
+	}
+}
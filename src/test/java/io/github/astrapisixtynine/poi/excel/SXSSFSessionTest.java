@@ -0,0 +1,198 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link SXSSFSession}
+ */
+public class SXSSFSessionTest
+{
+	File temporaryDirectory;
+	File targetFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		temporaryDirectory = new File(PathFinder.getSrcTestResourcesDir(), "sxssf-session");
+		Files.createDirectories(temporaryDirectory.toPath());
+		targetFile = new File(PathFinder.getSrcTestResourcesDir(), "sxssf-session.xlsx");
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		DeleteFileExtensions.delete(temporaryDirectory);
+		if (targetFile.exists())
+		{
+			DeleteFileExtensions.delete(targetFile);
+		}
+	}
+
+	private static void writeRows(final SXSSFWorkbook workbook, final int rows)
+	{
+		final Sheet sheet = workbook.createSheet("data");
+		for (int i = 0; i < rows; i++)
+		{
+			final Row row = sheet.createRow(i);
+			row.createCell(0).setCellValue(i);
+			row.createCell(1).setCellValue("name " + i);
+		}
+	}
+
+	private long countFiles() throws IOException
+	{
+		try (Stream<Path> paths = Files.walk(temporaryDirectory.toPath()))
+		{
+			return paths.filter(Files::isRegularFile).count();
+		}
+	}
+
+	/**
+	 * Test method for {@link SXSSFSession#newWorkbook()} and {@link SXSSFSession#close()}
+	 */
+	@Test
+	public void testNewWorkbookAndClose() throws IOException
+	{
+		final TempDiskBudget budget = TempDiskBudget.unlimited();
+		final SXSSFSession session = SXSSFSession.builder()
+			.temporaryDirectory(temporaryDirectory.toPath()).budget(budget).build();
+		assertTrue(session.getDirectory().startsWith(temporaryDirectory.toPath()));
+
+		final SXSSFWorkbook written = session.newWorkbook();
+		writeRows(written, 1000);
+		assertTrue(0 < session.getTempBytesInUse());
+		assertEquals(session.getTempBytesInUse(), budget.getUsedBytes());
+		assertEquals(1, countFiles());
+		ExcelPoiFactory.writeWorkbook(written, targetFile);
+		written.close();
+		assertEquals(0, budget.getUsedBytes());
+		assertTrue(0 < session.getReleasedTempBytes());
+		assertEquals(0, countFiles());
+
+		final SXSSFWorkbook open = session.newWorkbook();
+		writeRows(open, 1000);
+		assertEquals(1, session.getOpenWorkbooks());
+		session.close();
+		assertTrue(session.isClosed());
+		assertEquals(0, session.getOpenWorkbooks());
+		assertEquals(0, budget.getUsedBytes());
+		assertFalse(Files.exists(session.getDirectory()));
+		assertThrows(IllegalStateException.class, session::newWorkbook);
+
+		final List<String[]> rows = new ArrayList<>();
+		try (XlsxStreamReader reader = XlsxStreamReader.open(targetFile))
+		{
+			reader.readSheet(0, ReadOptions.builder().rows(999, 999).build(),
+				(rowIndex, values) -> rows.add(values));
+		}
+		assertEquals("name 999", rows.get(0)[1]);
+	}
+
+	/**
+	 * Test method for {@link TempDiskBudget#failFast(long)}
+	 */
+	@Test
+	public void testFailFastBudget() throws IOException
+	{
+		final TempDiskBudget budget = TempDiskBudget.failFast(16 * 1024);
+		try (SXSSFSession session = SXSSFSession.builder()
+			.temporaryDirectory(temporaryDirectory.toPath()).budget(budget)
+			.profile(WriteProfile.builder().rowAccessWindowSize(10).build()).build())
+		{
+			final SXSSFWorkbook workbook = session.newWorkbook();
+			assertThrows(Exception.class, () -> writeRows(workbook, 10000));
+			assertTrue(budget.getUsedBytes() <= 16 * 1024);
+		}
+		assertEquals(0, budget.getUsedBytes());
+		assertTrue(0 < budget.getPeakBytes());
+	}
+
+	/**
+	 * Test method for {@link TempDiskBudget#blocking(long, Duration)}
+	 */
+	@Test
+	public void testBlockingBudget() throws Exception
+	{
+		final TempDiskBudget budget = TempDiskBudget.blocking(100, Duration.ofSeconds(10));
+		budget.acquire(80);
+		final CompletableFuture<Void> waiting = CompletableFuture.runAsync(() -> {
+			try
+			{
+				budget.acquire(50);
+			}
+			catch (IOException e)
+			{
+				throw new IllegalStateException(e);
+			}
+		});
+		Thread.sleep(100);
+		assertFalse(waiting.isDone());
+		budget.release(80);
+		waiting.get();
+		assertEquals(50, budget.getUsedBytes());
+
+		final TempDiskBudget shortBudget = TempDiskBudget.blocking(10, Duration.ofMillis(20));
+		assertThrows(IOException.class, () -> shortBudget.acquire(11));
+		shortBudget.acquire(10);
+		assertThrows(IOException.class, () -> shortBudget.acquire(1));
+	}
+}
@@ -0,0 +1,144 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * The benchmark class for the {@link SharedStringCache}. It reads the string cells of a string
+ * dominated sheet once with {@link Cell#getRichStringCellValue()} and once from the cache, and
+ * resolves the shared string indexes of the streaming reader once with the
+ * {@link ReadOnlySharedStringsTable} of POI and once from the parsed plain strings. Start it with
+ * the main method, the optional arguments are the number of rows and the number of distinct
+ * strings
+ */
+public class SharedStringCacheBenchmark
+{
+
+	private static final int COLUMNS = 8;
+
+	/**
+	 * The main method
+	 *
+	 * @param args
+	 *            the number of rows and the number of distinct strings
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	public static void main(final String[] args) throws Exception
+	{
+		final int rows = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+		final int distinct = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+		final File file = File.createTempFile("shared-strings-benchmark", ".xlsx");
+		try (XSSFWorkbook workbook = new XSSFWorkbook())
+		{
+			final Sheet sheet = workbook.createSheet("strings");
+			for (int i = 0; i < rows; i++)
+			{
+				final Row row = sheet.createRow(i);
+				for (int column = 0; column < COLUMNS; column++)
+				{
+					row.createCell(column)
+						.setCellValue("value " + (i * COLUMNS + column) % distinct);
+				}
+			}
+			try (OutputStream outputStream = new FileOutputStream(file))
+			{
+				workbook.write(outputStream);
+			}
+			System.out.printf("%d string cells with %d distinct strings%n", rows * COLUMNS,
+				distinct);
+			Benchmarks.measure("getCellValueAsString", 2, 5, () -> readCells(sheet, null));
+			Benchmarks.measure("getCellValueAsString with cache", 2, 5,
+				() -> readCells(sheet, SharedStringCache.of(workbook)));
+
+			try (OPCPackage opcPackage = OPCPackage.open(file, PackageAccess.READ))
+			{
+				final ReadOnlySharedStringsTable table = new ReadOnlySharedStringsTable(
+					opcPackage, false);
+				final SharedStringCache strings = SharedStringCache.read(opcPackage);
+				Benchmarks.measure("ReadOnlySharedStringsTable.getItemAt", 2, 5, () -> {
+					long length = 0;
+					for (int i = 0; i < rows * COLUMNS; i++)
+					{
+						length += table.getItemAt(i % distinct).getString().length();
+					}
+					consume(length);
+				});
+				Benchmarks.measure("SharedStringCache.getString", 2, 5, () -> {
+					long length = 0;
+					for (int i = 0; i < rows * COLUMNS; i++)
+					{
+						length += strings.getString(i % distinct).length();
+					}
+					consume(length);
+				});
+				opcPackage.revert();
+			}
+			Benchmarks.measure("XlsxStreamReader.readSheet", 1, 5, () -> {
+				try (XlsxStreamReader reader = XlsxStreamReader.open(file))
+				{
+					reader.readSheet(0, ReadOptions.ALL, (rowIndex, values) -> {
+					});
+				}
+			});
+		}
+		finally
+		{
+			file.delete();
+		}
+	}
+
+	private static void readCells(final Sheet sheet, final SharedStringCache strings)
+	{
+		long length = 0;
+		for (final Row row : sheet)
+		{
+			for (final Cell cell : row)
+			{
+				length += ExportExcelExtensions.getCellValueAsString(cell, strings).length();
+			}
+		}
+		consume(length);
+	}
+
+	private static void consume(final long length)
+	{
+		if (length == 42)
+		{
+			System.out.println(length);
+		}
+	}
+}
@@ -0,0 +1,109 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link SharedStringCache}
+ */
+public class SharedStringCacheTest
+{
+
+	/**
+	 * Test method for {@link SharedStringCache#getString(org.apache.poi.ss.usermodel.Cell)}
+	 */
+	@Test
+	public void testGetStringOfCell() throws IOException
+	{
+		try (XSSFWorkbook workbook = new XSSFWorkbook())
+		{
+			final Font bold = workbook.createFont();
+			bold.setBold(true);
+			final XSSFRichTextString richText = new XSSFRichTextString("plain and bold");
+			richText.applyFont(10, 14, bold);
+			final Row row = workbook.createSheet().createRow(0);
+			row.createCell(0).setCellValue("first");
+			row.createCell(1).setCellValue(richText);
+			row.createCell(2).setCellValue("first");
+			row.createCell(3).setCellValue(42);
+			final SharedStringCache strings = SharedStringCache.of(workbook);
+			assertEquals(2, strings.getUniqueCount());
+			assertEquals("first", strings.getString(row.getCell(0)));
+			assertEquals("plain and bold", strings.getString(row.getCell(1)));
+			assertEquals("first", strings.getString(row.getCell(2)));
+			assertEquals(2, strings.getRichString(row.getCell(1)).numFormattingRuns());
+			assertEquals("first",
+				ExportExcelExtensions.getCellValueAsString(row.getCell(0), strings));
+			assertEquals("42", ExportExcelExtensions.getCellValueAsString(row.getCell(3), strings));
+			assertEquals("plain and bold",
+				ExportExcelExtensions.getCellValue(row.getCell(1), strings));
+			row.createCell(4).setCellValue("added later");
+			assertEquals("added later", strings.getString(row.getCell(4)));
+			assertEquals("added later",
+				CellFormatCache.of(workbook).formatCellValue(row.getCell(4)));
+		}
+		try (Workbook workbook = new HSSFWorkbook())
+		{
+			final Row row = workbook.createSheet().createRow(0);
+			row.createCell(0).setCellValue("xls");
+			assertEquals("xls", SharedStringCache.of(workbook).getString(row.getCell(0)));
+		}
+	}
+
+	/**
+	 * Test method for {@link SharedStringCache#getString(int)} of a parsed shared strings part
+	 */
+	@Test
+	public void testGetStringOfParsedPart() throws IOException
+	{
+		final String xml = "<sst"
+			+ " xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\""
+			+ " count=\"3\" uniqueCount=\"3\"><si><t>plain</t></si>"
+			+ "<si><r><rPr><b/></rPr><t>rich </t></r><r><t xml:space=\"preserve\">text</t></r>"
+			+ "<rPh sb=\"0\" eb=\"1\"><t>phonetic</t></rPh></si>"
+			+ "<si><t>line_x000D_break &amp; more</t></si></sst>";
+		final SharedStringCache strings = SharedStringCache
+			.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+		assertEquals(3, strings.getUniqueCount());
+		assertEquals("plain", strings.getString(0));
+		assertEquals("rich text", strings.getString(1));
+		assertEquals("line\rbreak & more", strings.getString(2));
+		assertThrows(IndexOutOfBoundsException.class, () -> strings.getString(3));
+	}
+}
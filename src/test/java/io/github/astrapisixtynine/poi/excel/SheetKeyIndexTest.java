@@ -0,0 +1,199 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link SheetKeyIndex}
+ */
+public class SheetKeyIndexTest
+{
+	File workbookFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		workbookFile = new File(PathFinder.getSrcTestResourcesDir(), "key-index.xlsx");
+		writeWorkbook(5000);
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		DeleteFileExtensions.delete(SheetKeyIndex.getSidecarFile(workbookFile, 0, 1, 2));
+		DeleteFileExtensions.delete(workbookFile);
+	}
+
+	private void writeWorkbook(final int rows) throws IOException
+	{
+		ExportExcelExtensions.exportToExcel(workbookFile, List.of(SheetContent.of("codes",
+			new String[] { "code", "country", "region", "name" }, writer -> {
+				for (int row = 1; row < rows; row++)
+				{
+					writer.writeRow("C" + row, "country " + row % 50, "region " + row % 7,
+						"name " + row);
+				}
+				writer.writeRow("", "", "", "blank key");
+			})));
+	}
+
+	/**
+	 * Test method for {@link SheetKeyIndex#build(File, int, int, int...)}
+	 */
+	@Test
+	public void testBuild() throws IOException
+	{
+		final SheetKeyIndex index = SheetKeyIndex.build(workbookFile, 0, 0, 0);
+		assertEquals(4999, index.size());
+		assertEquals(4999, index.getKeyCount());
+		assertEquals(1234, index.lookup("C1234"));
+		assertEquals(-1, index.lookup("C5000"));
+		assertEquals(-1, index.lookup(""));
+		assertTrue(index.contains("C1"));
+		assertFalse(index.contains("c1"));
+		assertThrows(IllegalArgumentException.class, () -> index.lookup("C1", "x"));
+
+		final SheetKeyIndex composite = SheetKeyIndex.build(workbookFile, 0, 0, 1, 2);
+		assertEquals(350, composite.getKeyCount());
+		final int[] rows = composite.lookupAll("country 3", "region 3");
+		assertEquals(15, rows.length);
+		assertEquals(3, rows[0]);
+		assertEquals(353, rows[1]);
+		assertArrayEquals(new int[0], composite.lookupAll("country 3", "region 9"));
+	}
+
+	/**
+	 * Test method for {@link SheetKeyIndex#loadOrBuild(File, int, int, int...)}
+	 */
+	@Test
+	public void testLoadOrBuild() throws IOException
+	{
+		final File sidecarFile = SheetKeyIndex.getSidecarFile(workbookFile, 0, 1, 2);
+		assertFalse(sidecarFile.exists());
+		final SheetKeyIndex index = SheetKeyIndex.loadOrBuild(workbookFile, 0, 0, 1, 2);
+		assertTrue(sidecarFile.exists());
+
+		final SheetKeyIndex loaded = SheetKeyIndex.load(sidecarFile);
+		assertEquals(index.getChecksum(), loaded.getChecksum());
+		assertArrayEquals(new int[] { 1, 2 }, loaded.getKeyColumns());
+		assertArrayEquals(index.lookupAll("country 10", "region 6"),
+			loaded.lookupAll("country 10", "region 6"));
+
+		writeWorkbook(100);
+		assertFalse(loaded.isValidFor(workbookFile));
+		final SheetKeyIndex rebuilt = SheetKeyIndex.loadOrBuild(workbookFile, 0, 0, 1, 2);
+		assertEquals(99, rebuilt.size());
+	}
+
+	/**
+	 * Test method for {@link SheetKeyIndex#loadOrBuild(File, int, int, int...)} with a truncated
+	 * or corrupt sidecar file
+	 */
+	@Test
+	public void testLoadOrBuildCorrupt() throws IOException
+	{
+		final File sidecarFile = SheetKeyIndex.getSidecarFile(workbookFile, 0, 1, 2);
+		final int size = SheetKeyIndex.loadOrBuild(workbookFile, 0, 0, 1, 2).size();
+		final byte[] bytes = Files.readAllBytes(sidecarFile.toPath());
+		Files.write(sidecarFile.toPath(), Arrays.copyOf(bytes, bytes.length - 3));
+		assertThrows(IOException.class, () -> SheetKeyIndex.load(sidecarFile));
+		assertEquals(size, SheetKeyIndex.loadOrBuild(workbookFile, 0, 0, 1, 2).size());
+
+		final byte[] corrupt = Files.readAllBytes(sidecarFile.toPath());
+		corrupt[24] = (byte)0x7f;
+		Files.write(sidecarFile.toPath(), corrupt);
+		assertThrows(IOException.class, () -> SheetKeyIndex.load(sidecarFile));
+		assertEquals(size, SheetKeyIndex.loadOrBuild(workbookFile, 0, 0, 1, 2).size());
+		assertFalse(new File(sidecarFile.getPath() + ".tmp").exists());
+	}
+
+	/**
+	 * Test method for {@link SheetKeyIndex#save(File)} with a key that is longer than 64 KB in
+	 * UTF-8
+	 */
+	@Test
+	public void testSaveWithLongKey() throws IOException
+	{
+		final String longKey = "\u20ac".repeat(30000);
+		ExportExcelExtensions.exportToExcel(workbookFile, List.of(SheetContent.of("codes",
+			new String[] { "code" }, writer -> writer.writeRow(longKey))));
+		final File sidecarFile = SheetKeyIndex.getSidecarFile(workbookFile, 0, 1, 2);
+		final SheetKeyIndex index = SheetKeyIndex.build(workbookFile, 0, 0, 0);
+		index.save(sidecarFile);
+		final SheetKeyIndex loaded = SheetKeyIndex.load(sidecarFile);
+		assertEquals(1, loaded.size());
+		assertTrue(loaded.contains(longKey));
+	}
+
+	/**
+	 * Test method for {@link SheetLookupTable#load(File, int, int, int...)}
+	 */
+	@Test
+	public void testLookupTable() throws IOException
+	{
+		final SheetLookupTable table = SheetLookupTable.load(workbookFile, 0, 0, 0);
+		assertEquals(4999, table.size());
+		assertArrayEquals(new String[] { "C42", "country 42", "region 0", "name 42" },
+			table.get("C42"));
+		assertEquals("name 4999", table.lookup(3, "C4999"));
+		assertEquals("", table.lookup(9, "C1"));
+		assertNull(table.lookup(3, "C0"));
+
+		final SheetLookupTable byCountry = SheetLookupTable.load(workbookFile, 0, 0, 1);
+		assertEquals(100, byCountry.getAll("country 7").size());
+		assertEquals("name 7", byCountry.getAll("country 7").get(0)[3]);
+	}
+}
@@ -0,0 +1,217 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link SheetProfiler}
+ */
+public class SheetProfilerTest
+{
+	File workbookFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		workbookFile = new File(PathFinder.getSrcTestResourcesDir(), "profile.xlsx");
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook();
+			FileOutputStream outputStream = new FileOutputStream(workbookFile))
+		{
+			for (int s = 0; s < 2; s++)
+			{
+				final Sheet sheet = workbook.createSheet("data " + s);
+				final Row headerRow = sheet.createRow(0);
+				headerRow.createCell(0).setCellValue("id");
+				headerRow.createCell(1).setCellValue("category");
+				headerRow.createCell(2).setCellValue("amount");
+				headerRow.createCell(3).setCellValue("note");
+				for (int i = 1; i <= 5000; i++)
+				{
+					final Row row = sheet.createRow(i);
+					row.createCell(0).setCellValue(s * 5000 + i);
+					row.createCell(1).setCellValue(i % 10 < 6 ? "a" : i % 10 < 9 ? "b" : "c");
+					row.createCell(2).setCellValue(i % 100 + 0.5);
+					if (i % 10 == 0)
+					{
+						row.createCell(3).setCellValue("x");
+					}
+				}
+			}
+			workbook.write(outputStream);
+		}
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		DeleteFileExtensions.delete(workbookFile);
+	}
+
+	/**
+	 * Test method for {@link SheetProfiler#profile()}
+	 */
+	@Test
+	public void testProfile() throws IOException
+	{
+		final List<ColumnProfile> profiles = SheetProfiler.builder(workbookFile)
+			.headerRowIndex(0).build().profile();
+		assertEquals(4, profiles.size());
+
+		final ColumnProfile id = profiles.get(0);
+		assertEquals("id", id.getName());
+		assertEquals(10000, id.getCount());
+		assertEquals(0, id.getNullCount());
+		assertEquals(1, id.getMin());
+		assertEquals(10000, id.getMax());
+		assertEquals(5000.5, id.getMean(), 1e-9);
+		assertEquals(10000 * 10001 / 12.0, id.getVariance(), 1e-6);
+		assertTrue(Math.abs(id.getDistinctCount() - 10000) < 300, "" + id.getDistinctCount());
+
+		final ColumnProfile category = profiles.get(1);
+		assertEquals(0, category.getNumericCount());
+		assertTrue(Double.isNaN(category.getMean()));
+		assertEquals(3, category.getDistinctCount());
+		assertEquals(List.of(new TopValue("a", 6000, 0), new TopValue("b", 3000, 0),
+			new TopValue("c", 1000, 0)), category.getTopValues());
+
+		final ColumnProfile amount = profiles.get(2);
+		assertEquals(0.5, amount.getMin());
+		assertEquals(99.5, amount.getMax());
+		assertEquals(50, amount.getMean(), 1e-9);
+		assertEquals(100, amount.getDistinctCount());
+		assertEquals(10, amount.getTopValues().size());
+		final TopValue topAmount = amount.getTopValues().get(0);
+		assertTrue(100 <= topAmount.count());
+		assertTrue(topAmount.count() - topAmount.error() <= 100);
+
+		final ColumnProfile note = profiles.get(3);
+		assertEquals(1000, note.getCount());
+		assertEquals(9000, note.getNullCount());
+		assertEquals(List.of(new TopValue("x", 1000, 0)), note.getTopValues());
+	}
+
+	/**
+	 * Test method for {@link SheetProfiler#profile()} with chunks of a single sheet
+	 */
+	@Test
+	public void testProfileChunks() throws IOException
+	{
+		final List<ColumnProfile> expected = SheetProfiler.builder(workbookFile).sheets(1)
+			.topValues(3).build().profile();
+		final List<ColumnProfile> chunked = SheetProfiler.builder(workbookFile).sheets(1)
+			.topValues(3).chunkRows(700).build().profile();
+		assertEquals(expected.size(), chunked.size());
+		for (int column = 0; column < expected.size(); column++)
+		{
+			final ColumnProfile first = expected.get(column);
+			final ColumnProfile second = chunked.get(column);
+			assertNull(second.getName());
+			assertEquals(first.getCount(), second.getCount());
+			assertEquals(first.getNumericCount(), second.getNumericCount());
+			assertEquals(first.getMin(), second.getMin());
+			assertEquals(first.getMax(), second.getMax());
+			assertEquals(first.getMean(), second.getMean(), 1e-9);
+			assertEquals(first.getVariance(), second.getVariance(), 1e-6);
+			assertEquals(first.getDistinctCount(), second.getDistinctCount());
+		}
+		assertEquals(expected.get(1).getTopValues(), chunked.get(1).getTopValues());
+		assertEquals(5001, chunked.get(0).getCount());
+		assertThrows(IllegalArgumentException.class,
+			() -> SheetProfiler.builder(workbookFile).sheets(2).build().profile());
+	}
+
+	/**
+	 * Test method for {@link HyperLogLog#estimate()} and {@link HyperLogLog#merge(HyperLogLog)}
+	 */
+	@Test
+	public void testHyperLogLog()
+	{
+		final HyperLogLog first = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+		final HyperLogLog second = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+		for (int i = 0; i < 200_000; i++)
+		{
+			(i % 2 == 0 ? first : second).add(RowHashTable.hash("value " + i % 150_000));
+		}
+		first.merge(second);
+		final long estimate = first.estimate();
+		assertTrue(Math.abs(estimate - 150_000) < 150_000 * 0.03, "" + estimate);
+		assertThrows(IllegalArgumentException.class, () -> first.merge(new HyperLogLog(10)));
+	}
+
+	/**
+	 * Test method for {@link HeavyHitters#top(int)} and
+	 * {@link HeavyHitters#merge(HeavyHitters)}
+	 */
+	@Test
+	public void testHeavyHitters()
+	{
+		final HeavyHitters first = new HeavyHitters(16);
+		final HeavyHitters second = new HeavyHitters(16);
+		for (int i = 0; i < 20_000; i++)
+		{
+			final HeavyHitters sketch = i < 10_000 ? first : second;
+			sketch.add(i % 4 == 0 ? "frequent" : i % 10 == 1 ? "common" : "rare " + i);
+		}
+		first.merge(second);
+		final List<TopValue> top = first.top(2);
+		assertEquals("frequent", top.get(0).value());
+		assertEquals("common", top.get(1).value());
+		assertTrue(5000 <= top.get(0).count());
+		assertTrue(top.get(0).count() - top.get(0).error() <= 5000);
+		assertTrue(2000 <= top.get(1).count());
+		assertTrue(top.get(1).count() - top.get(1).error() <= 2000);
+	}
+}
@@ -0,0 +1,175 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link SheetQuery}
+ */
+public class SheetQueryTest
+{
+	File workbookFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		workbookFile = new File(PathFinder.getSrcTestResourcesDir(), "query.xlsx");
+		final String[][] rows = new String[10000][];
+		for (int i = 0; i < rows.length; i++)
+		{
+			rows[i] = new String[] { "region " + i % 3, String.valueOf(i),
+					i % 10 == 0 ? "" : "x" };
+		}
+		ExportExcelExtensions.exportToExcel(workbookFile,
+			List.of(SheetContent.of("first", new String[] { "region", "amount", "flag" }, rows),
+				SheetContent.of("second", new String[] { "region", "amount", "flag" },
+					new String[][] { { "region 0", "5", "x" }, { "region 9", "n/a", "x" } })));
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		DeleteFileExtensions.delete(workbookFile);
+	}
+
+	/**
+	 * Test method for {@link SheetQuery#execute()} with group by columns over all sheets
+	 */
+	@Test
+	public void testExecuteGroupBy() throws IOException
+	{
+		final List<AggregateRow> result = SheetQuery.builder(workbookFile).headerRowIndex(0)
+			.groupBy(0).aggregate(Aggregation.count(), Aggregation.sum(1), Aggregation.avg(1),
+				Aggregation.min(1), Aggregation.max(1))
+			.build().execute();
+		assertEquals(4, result.size());
+		final AggregateRow first = result.get(0);
+		assertArrayEquals(new String[] { "region 0" }, first.key());
+		assertEquals(3335, first.rows());
+		long sum = 5;
+		for (int i = 0; i < 10000; i += 3)
+		{
+			sum += i;
+		}
+		assertEquals(3335, first.values()[0]);
+		assertEquals(sum, first.values()[1]);
+		assertEquals(sum / 3335.0, first.values()[2], 1e-9);
+		assertEquals(0, first.values()[3]);
+		assertEquals(9999, first.values()[4]);
+
+		final AggregateRow unknown = result.get(3);
+		assertArrayEquals(new String[] { "region 9" }, unknown.key());
+		assertEquals(1, unknown.rows());
+		assertEquals(0, unknown.values()[1]);
+		assertTrue(Double.isNaN(unknown.values()[2]));
+		assertTrue(Double.isNaN(unknown.values()[3]));
+	}
+
+	/**
+	 * Test method for {@link SheetQuery#execute()} with filters and chunks
+	 */
+	@Test
+	public void testExecuteWithFiltersAndChunks() throws IOException
+	{
+		final SheetQuery.Builder builder = SheetQuery.builder(workbookFile).sheets(0)
+			.headerRowIndex(0).where(1, value -> value < 100).whereText(2, "x"::equals)
+			.aggregate(Aggregation.count(), Aggregation.sum(1));
+		final List<AggregateRow> whole = builder.build().execute();
+		final List<AggregateRow> chunked = builder.chunkRows(1000).build().execute();
+		assertEquals(1, whole.size());
+		assertEquals(0, whole.get(0).key().length);
+		assertEquals(90, whole.get(0).rows());
+		assertEquals(4950 - 450, whole.get(0).values()[1]);
+		assertEquals(whole.get(0).rows(), chunked.get(0).rows());
+		assertArrayEquals(whole.get(0).values(), chunked.get(0).values());
+
+		final SheetQuery.Builder groupedBuilder = SheetQuery.builder(workbookFile).sheets(0)
+			.headerRowIndex(0).groupBy(0, 2).aggregate(Aggregation.count());
+		final List<AggregateRow> groupedWhole = groupedBuilder.build().execute();
+		final List<AggregateRow> grouped = groupedBuilder.chunkRows(700).build().execute();
+		assertEquals(6, grouped.size());
+		assertEquals(10000, grouped.stream().mapToLong(AggregateRow::rows).sum());
+		for (int i = 0; i < grouped.size(); i++)
+		{
+			assertArrayEquals(groupedWhole.get(i).key(), grouped.get(i).key());
+			assertEquals(groupedWhole.get(i).rows(), grouped.get(i).rows());
+		}
+	}
+
+	/**
+	 * Test method for {@link SheetQuery#execute()} without matching rows
+	 */
+	@Test
+	public void testExecuteWithoutMatchingRows() throws IOException
+	{
+		final List<AggregateRow> result = SheetQuery.builder(workbookFile).headerRowIndex(0)
+			.where(1, value -> value < 0).aggregate(Aggregation.count(), Aggregation.max(1))
+			.build().execute();
+		assertEquals(1, result.size());
+		assertEquals(0, result.get(0).rows());
+		assertTrue(Double.isNaN(result.get(0).values()[1]));
+	}
+
+	/**
+	 * Test method for {@link SheetQuery.Builder#build()} with invalid arguments
+	 */
+	@Test
+	public void testBuildInvalid()
+	{
+		assertThrows(IllegalArgumentException.class,
+			() -> SheetQuery.builder(workbookFile).groupBy(0).build());
+		assertThrows(IllegalArgumentException.class, () -> Aggregation.sum(-1));
+		assertThrows(IllegalArgumentException.class,
+			() -> SheetQuery.builder(workbookFile).sheets(5).aggregate(Aggregation.count())
+				.build().execute());
+	}
+}
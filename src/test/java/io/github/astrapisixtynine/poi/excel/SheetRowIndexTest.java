@@ -0,0 +1,267 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link SheetRowIndex}
+ */
+public class SheetRowIndexTest
+{
+	File workbookFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		workbookFile = new File(PathFinder.getSrcTestResourcesDir(), "row-index.xlsx");
+		writeWorkbook(5000);
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		DeleteFileExtensions.delete(SheetRowIndex.getSidecarFile(workbookFile, 0));
+		DeleteFileExtensions.delete(workbookFile);
+	}
+
+	private void writeWorkbook(final int rows) throws IOException
+	{
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook();
+			FileOutputStream outputStream = new FileOutputStream(workbookFile))
+		{
+			final Sheet sheet = workbook.createSheet("data");
+			final Row headerRow = sheet.createRow(0);
+			headerRow.createCell(0).setCellValue("number");
+			headerRow.createCell(1).setCellValue("name");
+			for (int i = 1; i < rows; i++)
+			{
+				final Row row = sheet.createRow(i);
+				row.createCell(0).setCellValue(i);
+				row.createCell(1).setCellValue("name " + i);
+			}
+			workbook.write(outputStream);
+		}
+	}
+
+	/**
+	 * Test method for {@link SheetRowIndex#build(File, int, int)}
+	 */
+	@Test
+	public void testBuild() throws IOException
+	{
+		final SheetRowIndex index = SheetRowIndex.build(workbookFile, 0, 100);
+		assertEquals(5000, index.getRowCount());
+		assertEquals(4999, index.getLastRowIndex());
+		assertEquals(50, index.getCheckpointCount());
+		assertEquals(0, index.getRowIndex(0));
+		assertEquals(4900, index.getRowIndex(49));
+		assertEquals(32, index.findCheckpoint(3250));
+		assertEquals(32, index.findCheckpoint(3200));
+		assertTrue(index.isValidFor(workbookFile));
+	}
+
+	/**
+	 * Test method for {@link XlsxStreamReader#readWindow(int, SheetRowIndex, ReadOptions)}
+	 */
+	@Test
+	public void testReadWindow() throws IOException
+	{
+		final SheetRowIndex index = SheetRowIndex.build(workbookFile, 0, 100);
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			List<String[]> rows = reader.readWindow(0, index,
+				ReadOptions.builder().rows(3210, 3214).build());
+			assertEquals(5, rows.size());
+			assertArrayEquals(new String[] { "3210", "name 3210" }, rows.get(0));
+			assertArrayEquals(new String[] { "3214", "name 3214" }, rows.get(4));
+
+			rows = reader.readWindow(0, index,
+				ReadOptions.builder().columnNames("name").rows(4998, 6000).build());
+			assertEquals(2, rows.size());
+			assertArrayEquals(new String[] { "name 4998" }, rows.get(0));
+			assertArrayEquals(new String[] { "name 4999" }, rows.get(1));
+		}
+	}
+
+	/**
+	 * Test method for {@link XlsxStreamReader#readWindow(int, SheetRowIndex, ReadOptions)} with
+	 * an index of an older version of the workbook
+	 */
+	@Test
+	public void testReadWindowWithStaleIndex() throws IOException
+	{
+		writeWorkbook(600);
+		final SheetRowIndex staleIndex = SheetRowIndex.build(workbookFile, 0, 100);
+		writeWorkbook(5000);
+		assertFalse(staleIndex.isValidFor(workbookFile));
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			final List<String[]> rows = reader.readWindow(0, staleIndex,
+				ReadOptions.builder().rows(3210, 3211).build());
+			assertEquals(2, rows.size());
+			assertArrayEquals(new String[] { "3210", "name 3210" }, rows.get(0));
+			assertArrayEquals(new String[] { "3211", "name 3211" }, rows.get(1));
+		}
+	}
+
+	/**
+	 * Test method for {@link SheetRowIndex#build(File, int, int)} with row markup inside of a
+	 * comment and a CDATA section
+	 */
+	@Test
+	public void testBuildWithCommentAndCdata() throws IOException
+	{
+		final File commentFile = new File(PathFinder.getSrcTestResourcesDir(),
+			"row-index-comment.xlsx");
+		try
+		{
+			try (ZipFile input = new ZipFile(workbookFile);
+				ZipOutputStream output = new ZipOutputStream(
+					Files.newOutputStream(commentFile.toPath())))
+			{
+				for (final ZipEntry entry : Collections.list(input.entries()))
+				{
+					output.putNextEntry(new ZipEntry(entry.getName()));
+					try (InputStream entryInput = input.getInputStream(entry))
+					{
+						byte[] bytes = entryInput.readAllBytes();
+						if (entry.getName().startsWith("xl/worksheets/"))
+						{
+							final String xml = new String(bytes, StandardCharsets.UTF_8);
+							assertTrue(xml.contains("<sheetData>"));
+							bytes = xml.replace("<sheetData>",
+								"<sheetData><!-- <row r=\"900\"> isn't a row --->"
+									+ "<![CDATA[ <row r=\"901\"> ]]]>")
+								.getBytes(StandardCharsets.UTF_8);
+						}
+						output.write(bytes);
+					}
+					output.closeEntry();
+				}
+			}
+			final SheetRowIndex index = SheetRowIndex.build(commentFile, 0, 100);
+			assertEquals(5000, index.getRowCount());
+			assertEquals(4999, index.getLastRowIndex());
+			assertEquals(0, index.getRowIndex(0));
+			try (XlsxStreamReader reader = XlsxStreamReader.open(commentFile))
+			{
+				final List<String[]> rows = reader.readWindow(0, index,
+					ReadOptions.builder().rows(3210, 3210).build());
+				assertEquals(1, rows.size());
+				assertArrayEquals(new String[] { "3210", "name 3210" }, rows.get(0));
+			}
+		}
+		finally
+		{
+			DeleteFileExtensions.delete(commentFile);
+		}
+	}
+
+	/**
+	 * Test method for {@link SheetRowIndex#loadOrBuild(File, int, int)}
+	 */
+	@Test
+	public void testLoadOrBuild() throws IOException
+	{
+		final File sidecarFile = SheetRowIndex.getSidecarFile(workbookFile, 0);
+		assertFalse(sidecarFile.exists());
+		final SheetRowIndex index = SheetRowIndex.loadOrBuild(workbookFile, 0, 250);
+		assertTrue(sidecarFile.exists());
+
+		final SheetRowIndex loaded = SheetRowIndex.load(sidecarFile);
+		assertEquals(index.getChecksum(), loaded.getChecksum());
+		assertEquals(index.getCheckpointCount(), loaded.getCheckpointCount());
+		assertEquals(index.getByteOffset(7), loaded.getByteOffset(7));
+
+		writeWorkbook(600);
+		assertFalse(loaded.isValidFor(workbookFile));
+		final SheetRowIndex rebuilt = SheetRowIndex.loadOrBuild(workbookFile, 0, 250);
+		assertEquals(600, rebuilt.getRowCount());
+		assertEquals(3, rebuilt.getCheckpointCount());
+	}
+
+	/**
+	 * Test method for {@link SheetRowIndex#loadOrBuild(File, int, int)} with a sidecar file of an
+	 * older version and a truncated sidecar file
+	 */
+	@Test
+	public void testLoadOrBuildOutdated() throws IOException
+	{
+		final File sidecarFile = SheetRowIndex.getSidecarFile(workbookFile, 0);
+		SheetRowIndex.loadOrBuild(workbookFile, 0, 100);
+		final byte[] bytes = Files.readAllBytes(sidecarFile.toPath());
+		// the version follows the magic number
+		bytes[7] = 1;
+		Files.write(sidecarFile.toPath(), bytes);
+		SheetRowIndex index = SheetRowIndex.loadOrBuild(workbookFile, 0, 100);
+		assertEquals(5000, index.getRowCount());
+		assertEquals(50, index.getCheckpointCount());
+		assertEquals(index.getChecksum(), SheetRowIndex.load(sidecarFile).getChecksum());
+
+		Files.write(sidecarFile.toPath(), Arrays.copyOf(bytes, 30));
+		index = SheetRowIndex.loadOrBuild(workbookFile, 0, 100);
+		assertEquals(5000, index.getRowCount());
+		assertEquals(50, SheetRowIndex.load(sidecarFile).getCheckpointCount());
+	}
+}
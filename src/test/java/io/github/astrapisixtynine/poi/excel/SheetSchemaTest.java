@@ -0,0 +1,217 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link SheetSchema}
+ */
+public class SheetSchemaTest
+{
+	File workbookFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		workbookFile = new File(PathFinder.getSrcTestResourcesDir(), "schema.xlsx");
+		ExportExcelExtensions.exportToExcel(workbookFile, List.of(SheetContent.of("data",
+			new String[] { "id", "amount", "active", "day", "name", "comment" }, writer -> {
+				for (int row = 1; row <= 50; row++)
+				{
+					writer.writeRow(row, row % 2 == 0 ? row : row + 0.25, row % 3 == 0,
+						LocalDate.of(2024, 1, 1).plusDays(row), "name " + row,
+						row % 10 == 0 ? "note" : null);
+				}
+			})));
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		DeleteFileExtensions.delete(workbookFile);
+	}
+
+	/**
+	 * Test method for {@link XlsxStreamReader#inferSchema(int, int, int)}
+	 */
+	@Test
+	public void testInferSchema() throws IOException
+	{
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			final SheetSchema schema = reader.inferSchema(0, 0);
+			assertEquals(List.of(new ColumnSchema("id", 0, ColumnType.INTEGER, false),
+				new ColumnSchema("amount", 1, ColumnType.DECIMAL, false),
+				new ColumnSchema("active", 2, ColumnType.BOOLEAN, false),
+				new ColumnSchema("day", 3, ColumnType.DATE, false),
+				new ColumnSchema("name", 4, ColumnType.STRING, false),
+				new ColumnSchema("comment", 5, ColumnType.STRING, true)), schema.getColumns());
+
+			final SheetSchema sample = reader.inferSchema(0, 0, 1);
+			assertEquals(ColumnType.DECIMAL, sample.getColumn(1).type());
+			assertTrue(sample.getColumn(5).nullable());
+
+			final SheetSchema withoutHeader = reader.inferSchema(0, -1, 10);
+			assertEquals("A", withoutHeader.getColumn(0).name());
+			assertEquals(ColumnType.STRING, withoutHeader.getColumn(0).type());
+			assertThrows(IllegalArgumentException.class, () -> reader.inferSchema(0, 100));
+		}
+	}
+
+	/**
+	 * Test method for {@link XlsxStreamReader#readTyped(int, SheetSchema, TypedRowHandler)}
+	 */
+	@Test
+	public void testReadTyped() throws IOException
+	{
+		final List<Object[]> rows = new ArrayList<>();
+		final long[] sum = new long[1];
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			final SheetSchema schema = reader.inferSchema(0, 0);
+			reader.readTyped(0, schema, row -> {
+				sum[0] += row.getLong(0);
+				rows.add(new Object[] { row.getRowIndex(), row.getDouble(1), row.getBoolean(2),
+						row.getLocalDate(3), row.getString(4), row.isNull(5), row.getValue(0) });
+			});
+		}
+		assertEquals(50, rows.size());
+		assertEquals(1275, sum[0]);
+		final Object[] third = rows.get(2);
+		assertEquals(3, third[0]);
+		assertEquals(3.25, third[1]);
+		assertEquals(true, third[2]);
+		assertEquals(LocalDate.of(2024, 1, 4), third[3]);
+		assertEquals("name 3", third[4]);
+		assertEquals(true, third[5]);
+		assertEquals(3L, third[6]);
+		assertEquals(false, rows.get(9)[5]);
+	}
+
+	/**
+	 * Test method for {@link XlsxStreamReader#readTyped(int, SheetSchema, TypedRowHandler)} with
+	 * a reused schema
+	 */
+	@Test
+	public void testReadTypedWithReusedSchema() throws IOException
+	{
+		final SheetSchema schema = SheetSchema.of(0,
+			List.of(new ColumnSchema("day", 3, ColumnType.DATE, false),
+				new ColumnSchema("id", 0, ColumnType.INTEGER, false)));
+		final List<LocalDateTime> days = new ArrayList<>();
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			reader.readTyped(0, schema, row -> {
+				days.add(row.getLocalDateTime(0));
+				assertEquals(row.getRowIndex(), row.getInt(1));
+				assertNull(row.getString(2));
+			});
+			assertEquals(LocalDateTime.of(2024, 1, 2, 0, 0), days.get(0));
+
+			final SheetSchema otherLayout = SheetSchema.of(0,
+				List.of(new ColumnSchema("identifier", 0, ColumnType.INTEGER, false)));
+			assertThrows(IllegalArgumentException.class,
+				() -> reader.readTyped(0, otherLayout, row -> {
+				}));
+		}
+		assertFalse(days.isEmpty());
+	}
+
+	/**
+	 * Test method for {@link TypedRow#getLocalDateTime(int)} with a workbook in the 1904 date
+	 * system
+	 */
+	@Test
+	public void testReadTypedDate1904() throws IOException
+	{
+		try (XSSFWorkbook workbook = new XSSFWorkbook();
+			FileOutputStream outputStream = new FileOutputStream(workbookFile))
+		{
+			workbook.getCTWorkbook().getWorkbookPr().setDate1904(true);
+			final Sheet sheet = workbook.createSheet("dates");
+			sheet.createRow(0).createCell(0).setCellValue("day");
+			sheet.createRow(1).createCell(0).setCellValue(LocalDateTime.of(2024, 1, 31, 18, 0));
+			workbook.write(outputStream);
+		}
+		final SheetSchema schema = SheetSchema.of(0,
+			List.of(new ColumnSchema("day", 0, ColumnType.DATE, false)));
+		final List<LocalDateTime> days = new ArrayList<>();
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			reader.readTyped(0, schema, row -> days.add(row.getLocalDateTime(0)));
+		}
+		assertEquals(List.of(LocalDateTime.of(2024, 1, 31, 18, 0)), days);
+	}
+
+	/**
+	 * Test method for {@link SheetSchema#of(int, List)}
+	 */
+	@Test
+	public void testOf()
+	{
+		assertThrows(IllegalArgumentException.class,
+			() -> SheetSchema.of(0, List.of(new ColumnSchema("a", 1, ColumnType.STRING, true),
+				new ColumnSchema("b", 1, ColumnType.STRING, true))));
+		final SheetSchema schema = SheetSchema.of(-1,
+			List.of(new ColumnSchema("a", 1, ColumnType.STRING, true)));
+		assertEquals(0, schema.indexOf("a"));
+		assertEquals(-1, schema.indexOf("b"));
+		assertFalse(schema.hasHeader());
+	}
+}
@@ -0,0 +1,275 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link SheetSnapshot}
+ */
+public class SheetSnapshotTest
+{
+	File workbookFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		workbookFile = new File(PathFinder.getSrcTestResourcesDir(), "snapshot.xlsx");
+		writeWorkbook(3000);
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		DeleteFileExtensions.delete(SheetSnapshot.getSidecarFile(workbookFile, 0));
+		DeleteFileExtensions.delete(workbookFile);
+	}
+
+	private void writeWorkbook(final int rows) throws IOException
+	{
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook();
+			FileOutputStream outputStream = new FileOutputStream(workbookFile))
+		{
+			final Sheet sheet = workbook.createSheet("data");
+			final Row headerRow = sheet.createRow(0);
+			headerRow.createCell(0).setCellValue("number");
+			headerRow.createCell(1).setCellValue("name");
+			headerRow.createCell(2).setCellValue("flag");
+			for (int i = 1; i < rows; i++)
+			{
+				final Row row = sheet.createRow(i % 100 == 0 ? i + rows : i);
+				row.createCell(0).setCellValue(i + 0.5);
+				row.createCell(1).setCellValue("name " + i % 10);
+				if (i % 2 == 0)
+				{
+					row.createCell(2).setCellValue(true);
+				}
+			}
+			workbook.write(outputStream);
+		}
+	}
+
+	/**
+	 * Test method for {@link SheetSnapshot#build(File, int, File)}
+	 */
+	@Test
+	public void testBuild() throws IOException
+	{
+		final SheetSnapshot snapshot = SheetSnapshot.loadOrBuild(workbookFile, 0);
+		assertEquals(3000, snapshot.getRowCount());
+		assertEquals(3, snapshot.getColumnCount());
+		assertTrue(snapshot.isValidFor(workbookFile));
+
+		final List<String[]> expected = new ArrayList<>();
+		final List<Integer> expectedIndexes = new ArrayList<>();
+		try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+		{
+			reader.readSheet(0, ReadOptions.ALL, (rowIndex, values) -> {
+				expectedIndexes.add(rowIndex);
+				expected.add(values);
+			});
+		}
+		final List<String[]> actual = new ArrayList<>();
+		final List<Integer> actualIndexes = new ArrayList<>();
+		snapshot.readRows((rowIndex, values) -> {
+			actualIndexes.add(rowIndex);
+			actual.add(values);
+		});
+		assertEquals(expectedIndexes, actualIndexes);
+		for (int row = 0; row < expected.size(); row++)
+		{
+			for (int column = 0; column < expected.get(row).length; column++)
+			{
+				assertEquals(expected.get(row)[column], actual.get(row)[column]);
+			}
+		}
+
+		final int row = snapshot.findRow(4);
+		assertEquals(4, snapshot.getRowIndex(row));
+		assertEquals(CellType.NUMERIC, snapshot.getCellType(row, 0));
+		assertEquals(4.5, snapshot.getNumber(row, 0));
+		assertEquals("name 4", snapshot.getString(row, 1));
+		assertEquals(CellType.BOOLEAN, snapshot.getCellType(row, 2));
+		assertEquals(1, snapshot.getNumber(row, 2));
+		assertEquals(CellType.BLANK, snapshot.getCellType(row + 1, 2));
+		assertEquals("", snapshot.getString(row + 1, 2));
+		assertEquals(CellType.BLANK, snapshot.getCellType(row, 7));
+		assertEquals(-1, snapshot.findRow(100));
+		assertEquals(3100, snapshot.getRowIndex(snapshot.findRow(3100)));
+		assertThrows(IllegalStateException.class, () -> snapshot.getNumber(row, 1));
+		assertThrows(IndexOutOfBoundsException.class, () -> snapshot.getString(3000, 0));
+	}
+
+	/**
+	 * Test method for {@link SheetSnapshot#loadOrBuild(File, int)} with a changed workbook
+	 */
+	@Test
+	public void testLoadOrBuildStale() throws IOException
+	{
+		final File sidecarFile = SheetSnapshot.getSidecarFile(workbookFile, 0);
+		SheetSnapshot.loadOrBuild(workbookFile, 0);
+		final long lastModified = sidecarFile.lastModified();
+		final SheetSnapshot reloaded = SheetSnapshot.open(sidecarFile);
+		assertTrue(reloaded.isValidFor(workbookFile));
+		assertEquals(lastModified, sidecarFile.lastModified());
+		assertArrayEquals(new String[] { "number", "name", "flag" }, reloaded.getRow(0));
+
+		writeWorkbook(10);
+		assertFalse(reloaded.isValidFor(workbookFile));
+		final SheetSnapshot rebuilt = SheetSnapshot.loadOrBuild(workbookFile, 0);
+		assertEquals(10, rebuilt.getRowCount());
+		assertTrue(rebuilt.isValidFor(workbookFile));
+	}
+
+	/**
+	 * Test method for {@link SheetSnapshot#open(File)} with a file that is not a snapshot
+	 */
+	@Test
+	public void testOpenInvalid() throws IOException
+	{
+		final File sidecarFile = SheetSnapshot.getSidecarFile(workbookFile, 0);
+		Files.writeString(sidecarFile.toPath(), "not a snapshot");
+		assertThrows(IOException.class, () -> SheetSnapshot.open(sidecarFile));
+	}
+
+	/**
+	 * Test method for {@link SheetSnapshot#loadOrBuild(File, int)} with a truncated or corrupt
+	 * sidecar file
+	 */
+	@Test
+	public void testLoadOrBuildCorrupt() throws IOException
+	{
+		final File sidecarFile = SheetSnapshot.getSidecarFile(workbookFile, 0);
+		SheetSnapshot.loadOrBuild(workbookFile, 0);
+		final byte[] bytes = Files.readAllBytes(sidecarFile.toPath());
+		Files.write(sidecarFile.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+		assertThrows(IOException.class, () -> SheetSnapshot.open(sidecarFile));
+		assertEquals(3000, SheetSnapshot.loadOrBuild(workbookFile, 0).getRowCount());
+
+		bytes[35]++;
+		Files.write(sidecarFile.toPath(), bytes);
+		assertThrows(IOException.class, () -> SheetSnapshot.open(sidecarFile));
+		final SheetSnapshot rebuilt = SheetSnapshot.loadOrBuild(workbookFile, 0);
+		assertEquals(3000, rebuilt.getRowCount());
+		assertEquals("name 4", rebuilt.getString(rebuilt.findRow(4), 1));
+	}
+
+	/**
+	 * Test method for {@link SheetSnapshot#build(File, int, File)} with booleans that are stored
+	 * as the raw text <code>true</code> and <code>false</code>
+	 */
+	@Test
+	public void testBuildWithTextBooleans() throws IOException
+	{
+		final File textBooleansFile = new File(PathFinder.getSrcTestResourcesDir(),
+			"snapshot-booleans.xlsx");
+		final File snapshotFile = SheetSnapshot.getSidecarFile(textBooleansFile, 0);
+		try
+		{
+			try (ZipFile input = new ZipFile(workbookFile);
+				ZipOutputStream output = new ZipOutputStream(
+					Files.newOutputStream(textBooleansFile.toPath())))
+			{
+				for (final ZipEntry entry : Collections.list(input.entries()))
+				{
+					output.putNextEntry(new ZipEntry(entry.getName()));
+					try (InputStream entryInput = input.getInputStream(entry))
+					{
+						copy(entryInput, output, entry.getName().startsWith("xl/worksheets/"));
+					}
+					output.closeEntry();
+				}
+			}
+			final SheetSnapshot snapshot = SheetSnapshot.build(textBooleansFile, 0, snapshotFile);
+			final int row = snapshot.findRow(4);
+			assertEquals(CellType.BOOLEAN, snapshot.getCellType(row, 2));
+			assertEquals(1, snapshot.getNumber(row, 2));
+			assertEquals("true", snapshot.getString(row, 2));
+		}
+		finally
+		{
+			DeleteFileExtensions.delete(snapshotFile);
+			DeleteFileExtensions.delete(textBooleansFile);
+		}
+	}
+
+	private static void copy(final InputStream input, final OutputStream output,
+		final boolean textBooleans) throws IOException
+	{
+		final byte[] bytes = input.readAllBytes();
+		if (!textBooleans)
+		{
+			output.write(bytes);
+			return;
+		}
+		final String xml = new String(bytes, StandardCharsets.UTF_8);
+		assertTrue(xml.contains("t=\"b\"><v>1</v>"));
+		output.write(xml.replace("t=\"b\"><v>1</v>", "t=\"b\"><v>true</v>")
+			.replace("t=\"b\"><v>0</v>", "t=\"b\"><v>false</v>")
+			.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,244 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FormulaError;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link SheetValidator}
+ */
+public class SheetValidatorTest
+{
+	File workbookFile;
+
+	File reportFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		workbookFile = new File(PathFinder.getSrcTestResourcesDir(), "validation.xlsx");
+		reportFile = new File(PathFinder.getSrcTestResourcesDir(), "validation-report.csv");
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook();
+			FileOutputStream outputStream = new FileOutputStream(workbookFile))
+		{
+			final CellStyle dateStyle = workbook.createCellStyle();
+			dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+			final Sheet orders = workbook.createSheet("orders");
+			final Row headerRow = orders.createRow(0);
+			headerRow.createCell(0).setCellValue("id");
+			headerRow.createCell(1).setCellValue("customer");
+			headerRow.createCell(2).setCellValue("amount");
+			headerRow.createCell(3).setCellValue("zip");
+			headerRow.createCell(4).setCellValue("start");
+			headerRow.createCell(5).setCellValue("end");
+			for (int i = 1; i <= 2000; i++)
+			{
+				final Row row = orders.createRow(i);
+				if (i != 1100)
+				{
+					row.createCell(0).setCellValue(i == 500 || i == 1500 ? 10 : i);
+				}
+				row.createCell(1).setCellValue(i == 700 ? "C99" : "C" + i % 20);
+				if (i == 900)
+				{
+					row.createCell(2).setCellValue("abc");
+				}
+				else
+				{
+					row.createCell(2).setCellValue(i == 800 ? -5 : i % 100);
+				}
+				row.createCell(3).setCellValue(i == 1000 ? "1234" : "12345");
+				row.createCell(4).setCellValue(45000 + i % 30);
+				row.getCell(4).setCellStyle(dateStyle);
+				row.createCell(5).setCellValue(i == 1200 ? 44000 : 45100);
+				row.getCell(5).setCellStyle(dateStyle);
+			}
+			final Sheet customers = workbook.createSheet("customers");
+			customers.createRow(0).createCell(0).setCellValue("id");
+			for (int i = 0; i < 20; i++)
+			{
+				customers.createRow(i + 1).createCell(0).setCellValue("C" + i);
+			}
+			workbook.write(outputStream);
+		}
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		DeleteFileExtensions.delete(workbookFile);
+		DeleteFileExtensions.delete(reportFile);
+	}
+
+	private SheetValidator.Builder orderRules() throws IOException
+	{
+		final SheetKeyIndex customers = SheetKeyIndex.build(workbookFile, 1, 0, 0);
+		return SheetValidator.builder(workbookFile).sheets(0).headerRowIndex(0).required(0)
+			.unique(0).reference(customers, 1).type(2, ColumnType.DECIMAL).range(2, 0, 1000)
+			.matches(3, "\\d{5}").type(4, ColumnType.DATE)
+			.check("end after start", row -> row.getDouble(4) <= row.getDouble(5), 4, 5);
+	}
+
+	/**
+	 * Test method for {@link SheetValidator#validate()}
+	 */
+	@Test
+	public void testValidate() throws IOException
+	{
+		final ValidationReport report = orderRules().chunkRows(300).build().validate();
+		assertFalse(report.isValid());
+		assertEquals(2000, report.getRowCount());
+		assertEquals(9, report.getErrorCount());
+		assertEquals(List.of(new ValidationError(0, "orders", 500, 0, "unique", "10"),
+			new ValidationError(0, "orders", 700, 1, "reference to sheet 1", "C99"),
+			new ValidationError(0, "orders", 800, 2, "range 0.0 to 1000.0", "-5"),
+			new ValidationError(0, "orders", 900, 2, "range 0.0 to 1000.0", "abc"),
+			new ValidationError(0, "orders", 900, 2, "type DECIMAL", "abc"),
+			new ValidationError(0, "orders", 1000, 3, "matches \\d{5}", "1234"),
+			new ValidationError(0, "orders", 1100, 0, "required", ""),
+			new ValidationError(0, "orders", 1200, -1, "end after start", "45000, 44000"),
+			new ValidationError(0, "orders", 1500, 0, "unique", "10")), report.getErrors());
+		assertEquals("A501", report.getErrors().get(0).cellReference());
+		assertEquals("1201", report.getErrors().get(7).cellReference());
+
+		final ValidationReport allSheets = SheetValidator.builder(workbookFile).headerRowIndex(0)
+			.required(0).build().validate();
+		assertEquals(1, allSheets.getErrorCount());
+		assertEquals(2020, allSheets.getRowCount());
+		assertThrows(IllegalArgumentException.class,
+			() -> SheetValidator.builder(workbookFile).build());
+	}
+
+	/**
+	 * Test method for {@link SheetValidator#validate()} with {@link ValidationMode#FAIL_FAST}
+	 */
+	@Test
+	public void testValidateFailFast() throws IOException
+	{
+		final ValidationReport report = orderRules().mode(ValidationMode.FAIL_FAST).build()
+			.validate();
+		assertEquals(1, report.getErrorCount());
+		assertEquals(500, report.getRowCount());
+		assertEquals(500, report.getErrors().get(0).row());
+	}
+
+	/**
+	 * Test method for {@link SheetValidator#validate()} with error cells
+	 */
+	@Test
+	public void testValidateWithErrorCells() throws IOException
+	{
+		final File errorsFile = new File(PathFinder.getSrcTestResourcesDir(),
+			"validation-errors.xlsx");
+		try
+		{
+			try (SXSSFWorkbook workbook = new SXSSFWorkbook();
+				FileOutputStream outputStream = new FileOutputStream(errorsFile))
+			{
+				final Sheet sheet = workbook.createSheet("errors");
+				sheet.createRow(0).createCell(0).setCellValue("header");
+				final Row errorRow = sheet.createRow(1);
+				for (int i = 0; i < 5; i++)
+				{
+					errorRow.createCell(i).setCellErrorValue(FormulaError.DIV0.getCode());
+				}
+				final Row validRow = sheet.createRow(2);
+				validRow.createCell(0).setCellValue(7);
+				validRow.createCell(1).setCellValue(5);
+				validRow.createCell(2).setCellValue("12345");
+				validRow.createCell(3).setCellValue("a");
+				validRow.createCell(4).setCellValue("C3");
+				workbook.write(outputStream);
+			}
+			final SheetKeyIndex customers = SheetKeyIndex.build(workbookFile, 1, 0, 0);
+			final ValidationReport report = SheetValidator.builder(errorsFile).headerRowIndex(0)
+				.required(0).type(0, ColumnType.INTEGER).range(1, 0, 10).matches(2, "\\d{5}")
+				.oneOf(3, Set.of("a", "b")).reference(customers, 4).unique(0).build().validate();
+			assertEquals(2, report.getRowCount());
+			assertEquals(List.of(new ValidationError(0, "errors", 1, 0, "required", "#DIV/0!"),
+				new ValidationError(0, "errors", 1, 0, "type INTEGER", "#DIV/0!"),
+				new ValidationError(0, "errors", 1, 1, "range 0.0 to 10.0", "#DIV/0!"),
+				new ValidationError(0, "errors", 1, 2, "matches \\d{5}", "#DIV/0!"),
+				new ValidationError(0, "errors", 1, 3, "one of 2 values", "#DIV/0!"),
+				new ValidationError(0, "errors", 1, 4, "reference to sheet 1", "#DIV/0!")),
+				report.getErrors());
+		}
+		finally
+		{
+			DeleteFileExtensions.delete(errorsFile);
+		}
+	}
+
+	/**
+	 * Test method for {@link ValidationReport#write(File)}
+	 */
+	@Test
+	public void testWrite() throws IOException
+	{
+		final ValidationReport report = orderRules().maxErrors(3).build().validate();
+		assertEquals(9, report.getErrorCount());
+		assertEquals(3, report.getErrors().size());
+		report.write(reportFile);
+		final List<String> lines = Files.readAllLines(reportFile.toPath(), StandardCharsets.UTF_8);
+		assertEquals(List.of("sheet,cell,rule,value", "orders,A501,unique,10",
+			"orders,B701,reference to sheet 1,C99", "orders,C801,range 0.0 to 1000.0,-5"), lines);
+		assertTrue(report.toString().contains("errorCount=9"));
+	}
+}
@@ -0,0 +1,63 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link WorkbookBufferPool}
+ */
+public class WorkbookBufferPoolTest
+{
+
+	/**
+	 * Test method for {@link WorkbookBufferPool.PooledBuffer#release()} with a buffer that is
+	 * released twice
+	 */
+	@Test
+	public void testReleaseTwice()
+	{
+		final WorkbookBufferPool pool = new WorkbookBufferPool(2, 16, Integer.MAX_VALUE);
+		final WorkbookBufferPool.PooledBuffer buffer = pool.acquire();
+		buffer.write(1);
+		buffer.release();
+		buffer.release();
+		assertEquals(1, pool.getAvailableCount());
+
+		final WorkbookBufferPool.PooledBuffer first = pool.acquire();
+		final WorkbookBufferPool.PooledBuffer second = pool.acquire();
+		assertSame(buffer, first);
+		assertNotSame(first, second);
+		assertEquals(0, first.size());
+
+		first.release();
+		assertEquals(1, pool.getAvailableCount());
+		assertSame(first, pool.acquire());
+	}
+}
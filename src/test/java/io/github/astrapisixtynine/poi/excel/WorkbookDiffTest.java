@@ -0,0 +1,228 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link WorkbookDiff}
+ */
+public class WorkbookDiffTest
+{
+	File oldFile;
+	File newFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		oldFile = new File(PathFinder.getSrcTestResourcesDir(), "diff-old.xlsx");
+		newFile = new File(PathFinder.getSrcTestResourcesDir(), "diff-new.xlsx");
+		final String[] headers = { "id", "name", "amount" };
+		ExportExcelExtensions.exportToExcel(oldFile,
+			List.of(SheetContent.of("data", headers,
+				new String[][] { { "1", "one", "10" }, { "2", "two", "20" },
+						{ "3", "three", "30" }, { "4", "four", "40" } }),
+				SheetContent.of("old only", null, new String[][] { { "x" } })));
+		ExportExcelExtensions.exportToExcel(newFile,
+			List.of(SheetContent.of("new only", null, new String[][] { { "y" }, { "z" } }),
+				SheetContent.of("data", headers,
+					new String[][] { { "4", "four", "40" }, { "2", "two", "22" },
+							{ "1", "one", "10" }, { "5", "five", "50" } })));
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		DeleteFileExtensions.delete(oldFile);
+		DeleteFileExtensions.delete(newFile);
+	}
+
+	/**
+	 * Test method for {@link WorkbookDiff#diff(File, File)} with a key column
+	 */
+	@Test
+	public void testDiffWithKeyColumn() throws IOException
+	{
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		final List<RowDiff> diffs;
+		try
+		{
+			diffs = WorkbookDiff.builder().keyColumns(0).headerRowIndex(0).executor(executor)
+				.build().diff(oldFile, newFile);
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+		assertEquals(4, diffs.size());
+		assertEquals(DiffType.ADDED, diffs.get(0).type());
+		assertEquals("new only", diffs.get(0).sheetName());
+		assertArrayEquals(new String[] { "z" }, diffs.get(0).newValues());
+
+		final RowDiff changed = diffs.get(1);
+		assertEquals(DiffType.CHANGED, changed.type());
+		assertEquals("data", changed.sheetName());
+		assertEquals(2, changed.oldRowIndex());
+		assertEquals(2, changed.newRowIndex());
+		assertEquals(List.of(new CellChange(2, "20", "22")), changed.cellChanges());
+
+		final RowDiff added = diffs.get(2);
+		assertEquals(DiffType.ADDED, added.type());
+		assertEquals(4, added.newRowIndex());
+		assertArrayEquals(new String[] { "5", "five", "50" }, added.newValues());
+
+		final RowDiff removed = diffs.get(3);
+		assertEquals(DiffType.REMOVED, removed.type());
+		assertEquals(3, removed.oldRowIndex());
+		assertArrayEquals(new String[] { "3", "three", "30" }, removed.oldValues());
+
+		final List<RowDiff> withoutHeader = WorkbookDiff.builder().keyColumns(0).build()
+			.diff(oldFile, newFile);
+		assertEquals(DiffType.ADDED, withoutHeader.get(0).type());
+		assertArrayEquals(new String[] { "y" }, withoutHeader.get(0).newValues());
+		final RowDiff oldOnly = withoutHeader.get(withoutHeader.size() - 1);
+		assertEquals(DiffType.REMOVED, oldOnly.type());
+		assertEquals("old only", oldOnly.sheetName());
+		assertArrayEquals(new String[] { "x" }, oldOnly.oldValues());
+	}
+
+	/**
+	 * Test method for {@link WorkbookDiff#diff(File, File, RowDiffHandler)} without key columns
+	 */
+	@Test
+	public void testDiffByRowIndex() throws IOException
+	{
+		final List<RowDiff> diffs = new ArrayList<>();
+		WorkbookDiff.builder().headerRowIndex(0).build().diff(oldFile, newFile, diff -> {
+			if ("data".equals(diff.sheetName()))
+			{
+				diffs.add(diff);
+			}
+		});
+		assertEquals(4, diffs.size());
+		assertTrue(diffs.stream().allMatch(diff -> diff.type() == DiffType.CHANGED));
+		assertEquals(List.of(new CellChange(0, "1", "4"), new CellChange(1, "one", "four"),
+			new CellChange(2, "10", "40")), diffs.get(0).cellChanges());
+	}
+
+	/**
+	 * Test method for {@link WorkbookDiff#diff(File, File)} with equal files
+	 */
+	@Test
+	public void testDiffEqualFiles() throws IOException
+	{
+		assertTrue(WorkbookDiff.builder().keyColumns(0, 1).build().diff(oldFile, oldFile)
+			.isEmpty());
+	}
+
+	/**
+	 * Test method for {@link RowHashTable} with duplicate keys
+	 */
+	@Test
+	public void testRowHashTableWithDuplicateKeys()
+	{
+		final RowHashTable table = new RowHashTable();
+		for (int row = 0; row < 1000; row++)
+		{
+			table.add(RowHashTable.hash(new String[] { "key " + row % 10 }, null), row, row);
+		}
+		final long key = RowHashTable.hash(new String[] { "key 3" }, null);
+		for (int occurrence = 0; occurrence < 100; occurrence++)
+		{
+			final int entry = table.findUnmatched(key);
+			assertEquals(3 + occurrence * 10, table.getRowIndex(entry));
+			table.markMatched(entry);
+		}
+		assertEquals(-1, table.findUnmatched(key));
+		assertEquals(RowHashTable.hash(new String[] { "a", "" }, null),
+			RowHashTable.hash(new String[] { "a" }, null));
+	}
+
+	/**
+	 * Test method for {@link WorkbookDiff#diff(File, File)} with chunks and reordered rows, so the
+	 * old values of the changed rows are read with backward jumps
+	 */
+	@Test
+	public void testDiffWithChunksAndReorderedRows() throws IOException
+	{
+		final String[][] oldRows = new String[3000][];
+		final String[][] newRows = new String[3000][];
+		for (int row = 0; row < oldRows.length; row++)
+		{
+			oldRows[row] = new String[] { Integer.toString(row), "value " + row };
+			final int id = oldRows.length - 1 - row;
+			newRows[row] = new String[] { Integer.toString(id),
+					id % 100 == 0 ? "changed " + id : "value " + id };
+		}
+		ExportExcelExtensions.exportToExcel(oldFile,
+			List.of(SheetContent.of("data", new String[] { "id", "value" }, oldRows)));
+		ExportExcelExtensions.exportToExcel(newFile,
+			List.of(SheetContent.of("data", new String[] { "id", "value" }, newRows)));
+		for (final int chunkRows : new int[] { 0, 250 })
+		{
+			final List<RowDiff> diffs = WorkbookDiff.builder().keyColumns(0).headerRowIndex(0)
+				.chunkRows(chunkRows).build().diff(oldFile, newFile);
+			assertEquals(30, diffs.size());
+			for (int i = 0; i < diffs.size(); i++)
+			{
+				final RowDiff diff = diffs.get(i);
+				final int id = 2900 - i * 100;
+				assertEquals(DiffType.CHANGED, diff.type());
+				assertEquals(id + 1, diff.oldRowIndex());
+				assertEquals(oldRows.length - id, diff.newRowIndex());
+				assertEquals(List.of(new CellChange(1, "value " + id, "changed " + id)),
+					diff.cellChanges());
+			}
+		}
+	}
+}
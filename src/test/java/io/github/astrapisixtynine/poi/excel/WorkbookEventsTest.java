@@ -0,0 +1,159 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the flight recorder events of the read and write operations
+ */
+public class WorkbookEventsTest
+{
+	File workbookFile;
+	Path recordingFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		workbookFile = new File(PathFinder.getSrcTestResourcesDir(), "events.xlsx");
+		recordingFile = Files.createTempFile("workbook-events", ".jfr");
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		DeleteFileExtensions.delete(workbookFile);
+		Files.deleteIfExists(recordingFile);
+	}
+
+	/**
+	 * Test method for the enabled flight recorder events
+	 */
+	@Test
+	public void testEnabledEvents() throws IOException
+	{
+		final List<RecordedEvent> events = record(true);
+		final RecordedEvent autoSize = find(events, AutoSizeEvent.NAME);
+		assertEquals("data", autoSize.getString("sheet"));
+		assertEquals(3, autoSize.getLong("rows"));
+		final RecordedEvent open = find(events, WorkbookOpenEvent.NAME);
+		assertEquals(workbookFile.getPath(), open.getString("file"));
+		assertEquals("xlsx", open.getString("format"));
+		assertTrue(0 < open.getLong("fileSize"));
+		final RecordedEvent parsed = find(events, SheetParsedEvent.NAME);
+		assertEquals("data", parsed.getString("sheet"));
+		assertEquals(3, parsed.getLong("rows"));
+		assertEquals(6, parsed.getLong("cells"));
+		final RecordedEvent batch = find(events, RowBatchWrittenEvent.NAME);
+		assertEquals("concurrent", batch.getString("sheet"));
+		assertEquals(0, batch.getLong("firstRow"));
+		assertEquals(RowBatchWrittenEvent.BATCH_SIZE, batch.getLong("rows"));
+		assertEquals(3, events.stream()
+			.filter(event -> event.getEventType().getName().equals(RowBatchWrittenEvent.NAME))
+			.count());
+		final RecordedEvent written = find(events, WorkbookWrittenEvent.NAME);
+		assertEquals(workbookFile.getPath(), written.getString("target"));
+		assertTrue(0 < written.getLong("bytes"));
+		assertTrue(0 < find(events, StyleCreatedEvent.NAME).getInt("styleCount"));
+	}
+
+	/**
+	 * Test method for the flight recorder events that are disabled by default
+	 */
+	@Test
+	public void testDisabledByDefault() throws IOException
+	{
+		final List<RecordedEvent> events = record(false);
+		assertTrue(events.stream()
+			.noneMatch(event -> event.getEventType().getName().startsWith("io.github")));
+	}
+
+	private List<RecordedEvent> record(final boolean enabled) throws IOException
+	{
+		try (Recording recording = new Recording())
+		{
+			if (enabled)
+			{
+				for (final String name : new String[] { WorkbookOpenEvent.NAME,
+						SheetParsedEvent.NAME, RowBatchWrittenEvent.NAME,
+						WorkbookWrittenEvent.NAME, AutoSizeEvent.NAME, StyleCreatedEvent.NAME })
+				{
+					recording.enable(name);
+				}
+			}
+			recording.start();
+			ExportExcelExtensions.exportToExcel(workbookFile, new String[] { "a", "b" },
+				new String[][] { { "1", "2" }, { "3", "4" } }, "data");
+			ExportExcelExtensions.exportWorkbook(workbookFile, ReadOptions.ALL);
+			ConcurrentXlsxWriter.builder().build().write(workbookFile,
+				List.of(SheetContent.of("concurrent", null, writer -> {
+					for (int row = 0; row < 2500; row++)
+					{
+						writer.writeRow(row);
+					}
+				})));
+			recording.stop();
+			recording.dump(recordingFile);
+		}
+		return new ArrayList<>(RecordingFile.readAllEvents(recordingFile));
+	}
+
+	private static RecordedEvent find(final List<RecordedEvent> events, final String name)
+	{
+		return events.stream().filter(event -> event.getEventType().getName().equals(name))
+			.findFirst().orElseThrow(() -> new AssertionError("No event " + name));
+	}
+}
@@ -0,0 +1,193 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link WorkbookMerger}
+ */
+public class WorkbookMergerTest
+{
+	List<File> sources;
+	File target;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		sources = new ArrayList<>();
+		for (int source = 0; source < 3; source++)
+		{
+			final File file = new File(PathFinder.getSrcTestResourcesDir(),
+				"merge-source-" + source + ".xlsx");
+			writeSource(file, source);
+			sources.add(file);
+		}
+		target = new File(PathFinder.getSrcTestResourcesDir(), "merge-target.xlsx");
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		for (final File source : sources)
+		{
+			DeleteFileExtensions.delete(source);
+		}
+		if (target.exists())
+		{
+			DeleteFileExtensions.delete(target);
+		}
+	}
+
+	private static void writeSource(final File file, final int source) throws IOException
+	{
+		try (XSSFWorkbook workbook = new XSSFWorkbook();
+			FileOutputStream outputStream = new FileOutputStream(file))
+		{
+			final Font font = workbook.createFont();
+			font.setBold(true);
+			final CellStyle headerStyle = workbook.createCellStyle();
+			headerStyle.setFont(font);
+			final CellStyle dateStyle = workbook.createCellStyle();
+			dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+			if (source == 1)
+			{
+				workbook.createSheet("extra").createRow(0).createCell(0).setCellValue("extra");
+			}
+			final Sheet sheet = workbook.createSheet("data");
+			final Row header = sheet.createRow(0);
+			header.createCell(0).setCellValue("branch");
+			header.createCell(1).setCellValue("date");
+			header.createCell(2).setCellValue("open");
+			header.getCell(0).setCellStyle(headerStyle);
+			for (int i = 1; i <= 100; i++)
+			{
+				final Row row = sheet.createRow(i);
+				row.createCell(0).setCellValue("branch " + source);
+				row.createCell(1).setCellValue(45000 + i);
+				row.getCell(1).setCellStyle(dateStyle);
+				row.createCell(2).setCellValue(i % 2 == 0);
+			}
+			workbook.write(outputStream);
+		}
+	}
+
+	private List<String[]> readSheet(final int sheetIndex) throws IOException
+	{
+		final List<String[]> rows = new ArrayList<>();
+		try (XlsxStreamReader reader = XlsxStreamReader.open(target))
+		{
+			reader.readSheet(sheetIndex, ReadOptions.builder().formattedValues(true).build(),
+				(rowIndex, values) -> rows.add(values));
+		}
+		return rows;
+	}
+
+	/**
+	 * Test method for {@link WorkbookMerger#merge(List, File)} by sheet name
+	 */
+	@Test
+	public void testMergeBySheetName() throws Exception
+	{
+		final Map<String, Integer> rowCounts = WorkbookMerger.builder().headerRowIndex(0)
+			.parallelism(2).build().merge(sources, target);
+		assertEquals(List.of("data", "extra"), List.copyOf(rowCounts.keySet()));
+		assertEquals(301, rowCounts.get("data"));
+		assertEquals(1, rowCounts.get("extra"));
+
+		final List<String[]> rows = readSheet(0);
+		assertEquals(301, rows.size());
+		assertArrayEquals(new String[] { "branch", "date", "open" }, rows.get(0));
+		assertArrayEquals(new String[] { "branch 0", "2023-03-16", "false" }, rows.get(1));
+		assertEquals("branch 1", rows.get(101)[0]);
+		assertEquals("branch 2", rows.get(300)[0]);
+		try (XSSFWorkbook workbook = new XSSFWorkbook(target))
+		{
+			assertTrue(workbook.getSheet("data").getRow(0).getCell(0).getCellStyle().getFont()
+				.getBold());
+			assertEquals(3, workbook.getNumCellStyles());
+		}
+	}
+
+	/**
+	 * Test method for {@link WorkbookMerger#merge(List, File)} into a single sheet
+	 */
+	@Test
+	public void testMergeIntoOneSheet() throws IOException
+	{
+		final Map<String, Integer> rowCounts = WorkbookMerger.builder().appendInto("all")
+			.headerRowIndex(0).parallelism(1).build().merge(sources, target);
+		assertEquals(Map.of("all", 301), rowCounts);
+		final List<String[]> rows = readSheet(0);
+		assertEquals("branch", rows.get(0)[0]);
+		assertEquals("branch 1", rows.get(101)[0]);
+	}
+
+	/**
+	 * Test method for {@link WorkbookMerger#merge(List, File)} with a missing source
+	 */
+	@Test
+	public void testMergeMissingSource()
+	{
+		final List<File> missing = List.of(sources.get(0),
+			new File(PathFinder.getSrcTestResourcesDir(), "missing.xlsx"));
+		assertThrows(Exception.class, () -> WorkbookMerger.builder().build().merge(missing,
+			target));
+	}
+}
@@ -0,0 +1,301 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+import io.github.astrapi69.lang.ClassExtensions;
+
+/**
+ * The unit test class for the class {@link WorkbookMetrics}
+ */
+public class WorkbookMetricsTest
+{
+	File workbookFile;
+	WorkbookMetrics metrics;
+	WorkbookListeners.Binding binding;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		workbookFile = new File(PathFinder.getSrcTestResourcesDir(), "metrics.xlsx");
+		metrics = new WorkbookMetrics();
+		binding = WorkbookListeners.bind(metrics);
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		binding.close();
+		DeleteFileExtensions.delete(workbookFile);
+	}
+
+	/**
+	 * Test method for the export and read operations that report to a {@link WorkbookMetrics}
+	 */
+	@Test
+	public void testExportAndRead() throws IOException
+	{
+		ExportExcelExtensions.exportToExcel(workbookFile, new String[] { "a", "b" },
+			new String[][] { { "1", "2" }, { "3", "4" }, { "5", "6" } }, "data");
+		assertEquals(1, metrics.getSheetCount(WorkbookOperation.EXPORT_TO_EXCEL));
+		assertEquals(4, metrics.getRowCount(WorkbookOperation.EXPORT_TO_EXCEL));
+		assertEquals(8, metrics.getCellCount(WorkbookOperation.EXPORT_TO_EXCEL));
+		assertEquals(workbookFile.length(),
+			metrics.getBytesOut(WorkbookOperation.EXPORT_TO_EXCEL));
+		assertTrue(0 < metrics.getMaxStyleCount(WorkbookOperation.EXPORT_TO_EXCEL));
+		assertEquals(1,
+			metrics.getPhaseCount(WorkbookOperation.EXPORT_TO_EXCEL, WorkbookPhase.WRITE));
+
+		ExportExcelExtensions.exportWorkbook(workbookFile,
+			ReadOptions.builder().columns(1).rows(1, 2).build());
+		assertEquals(1, metrics.getPhaseCount(WorkbookOperation.STREAM_READ, WorkbookPhase.OPEN));
+		assertEquals(1,
+			metrics.getPhaseCount(WorkbookOperation.STREAM_READ, WorkbookPhase.PARSE));
+		assertEquals(2, metrics.getRowCount(WorkbookOperation.STREAM_READ));
+		assertEquals(2, metrics.getCellCount(WorkbookOperation.STREAM_READ));
+		assertEquals(workbookFile.length(), metrics.getBytesIn(WorkbookOperation.STREAM_READ));
+		assertTrue(metrics.toString().contains("STREAM_READ: sheets=1, rows=2"));
+	}
+
+	/**
+	 * Test method for the write operations that report to a {@link WorkbookMetrics}
+	 */
+	@Test
+	public void testWrite() throws IOException
+	{
+		try (XSSFWorkbook workbook = new XSSFWorkbook())
+		{
+			workbook.createSheet("data").createRow(0).createCell(0).setCellValue("x");
+			ExcelPoiFactory.writeWorkbook(workbook, workbookFile);
+		}
+		assertEquals(workbookFile.length(), metrics.getBytesOut(WorkbookOperation.WRITE_WORKBOOK));
+		assertEquals(1,
+			metrics.getPhaseCount(WorkbookOperation.WRITE_WORKBOOK, WorkbookPhase.WRITE));
+
+		ExportExcelExtensions.exportToExcel(workbookFile,
+			List.of(SheetContent.of("first", null, new String[][] { { "1", "2" } }),
+				SheetContent.of("second", null, new String[][] { { "3" }, { "4" } })));
+		assertEquals(2, metrics.getSheetCount(WorkbookOperation.CONCURRENT_WRITE));
+		assertEquals(3, metrics.getRowCount(WorkbookOperation.CONCURRENT_WRITE));
+		assertEquals(4, metrics.getCellCount(WorkbookOperation.CONCURRENT_WRITE));
+		assertEquals(2,
+			metrics.getPhaseCount(WorkbookOperation.CONCURRENT_WRITE, WorkbookPhase.CONVERT));
+		assertEquals(workbookFile.length(),
+			metrics.getBytesOut(WorkbookOperation.CONCURRENT_WRITE));
+
+		metrics.reset();
+		assertEquals(0, metrics.getSheetCount(WorkbookOperation.CONCURRENT_WRITE));
+	}
+
+	/**
+	 * Test method for {@link WorkbookListeners} with a failing listener
+	 */
+	@Test
+	public void testFailingListener() throws IOException
+	{
+		final WorkbookListener failing = new WorkbookListener()
+		{
+			@Override
+			public void sheetCompleted(final WorkbookOperation operation, final long operationId,
+				final String sheetName, final long rows, final long cells)
+			{
+				throw new IllegalStateException("broken listener");
+			}
+		};
+		final WorkbookListeners.Binding failingBinding = WorkbookListeners.bind(failing);
+		try
+		{
+			ExportExcelExtensions.exportToExcel(workbookFile, new String[] { "a" },
+				new String[][] { { "1" } }, "data");
+			assertEquals(1, metrics.getSheetCount(WorkbookOperation.EXPORT_TO_EXCEL));
+		}
+		finally
+		{
+			failingBinding.close();
+		}
+		ExportExcelExtensions.exportToExcel(workbookFile, new String[] { "a" },
+			new String[][] { { "1" } }, "data");
+		assertEquals(2, metrics.getSheetCount(WorkbookOperation.EXPORT_TO_EXCEL));
+	}
+
+	/**
+	 * Test method for {@link WorkbookListeners#bind(WorkbookListener)} with operations on other
+	 * threads
+	 */
+	@Test
+	public void testBindingPerThread() throws Exception
+	{
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try
+		{
+			final Future<?> unbound = executor.submit(() -> {
+				ExportExcelExtensions.exportToExcel(workbookFile, new String[] { "a" },
+					new String[][] { { "1" } }, "data");
+				return null;
+			});
+			unbound.get();
+			assertEquals(0, metrics.getSheetCount(WorkbookOperation.EXPORT_TO_EXCEL));
+
+			ExportExcelExtensions.exportToExcel(workbookFile, new String[] { "a" },
+				new String[][] { { "1" } }, "data");
+			try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+			{
+				executor.submit(() -> reader.readSheet(0, ReadOptions.builder().build())).get();
+			}
+			assertEquals(1, metrics.getSheetCount(WorkbookOperation.STREAM_READ));
+
+			final WorkbookListeners.Binding otherBinding = executor
+				.submit(() -> WorkbookListeners.bind(metrics)).get();
+			assertThrows(IllegalStateException.class, otherBinding::close);
+			executor.submit(otherBinding::close).get();
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Test method for the operation ids that are passed to a {@link WorkbookListener}
+	 */
+	@Test
+	public void testOperationIds() throws IOException
+	{
+		final Set<Long> exportIds = ConcurrentHashMap.newKeySet();
+		final Set<Long> readIds = ConcurrentHashMap.newKeySet();
+		final WorkbookListener recording = new WorkbookListener()
+		{
+			@Override
+			public void phaseCompleted(final WorkbookOperation operation, final long operationId,
+				final WorkbookPhase phase, final long durationNanos)
+			{
+				(operation == WorkbookOperation.STREAM_READ ? readIds : exportIds)
+					.add(operationId);
+			}
+
+			@Override
+			public void sheetCompleted(final WorkbookOperation operation, final long operationId,
+				final String sheetName, final long rows, final long cells)
+			{
+				(operation == WorkbookOperation.STREAM_READ ? readIds : exportIds)
+					.add(operationId);
+			}
+		};
+		final WorkbookListeners.Binding recordingBinding = WorkbookListeners.bind(recording);
+		try
+		{
+			ExportExcelExtensions.exportToExcel(workbookFile, new String[] { "a" },
+				new String[][] { { "1" } }, "data");
+			try (XlsxStreamReader reader = XlsxStreamReader.open(workbookFile))
+			{
+				reader.readSheet(0, ReadOptions.builder().build());
+				reader.readSheet(0, ReadOptions.builder().build());
+			}
+		}
+		finally
+		{
+			recordingBinding.close();
+		}
+		assertEquals(1, exportIds.size());
+		assertEquals(1, readIds.size());
+		assertNotEquals(exportIds.iterator().next(), readIds.iterator().next());
+	}
+
+	/**
+	 * Test method for {@link ExportExcelExtensions#exportWorkbookAsStringList(File)} that reports
+	 * all its events under one operation id
+	 */
+	@Test
+	public void testExportWorkbookAsStringList() throws IOException, URISyntaxException
+	{
+		final File excelSheet = new File(ClassExtensions.getResource("test.xls").toURI());
+		final Set<Long> operationIds = ConcurrentHashMap.newKeySet();
+		final WorkbookListener recording = new WorkbookListener()
+		{
+			@Override
+			public void phaseCompleted(final WorkbookOperation operation, final long operationId,
+				final WorkbookPhase phase, final long durationNanos)
+			{
+				operationIds.add(operationId);
+			}
+
+			@Override
+			public void bytesTransferred(final WorkbookOperation operation, final long operationId,
+				final long bytesIn, final long bytesOut)
+			{
+				operationIds.add(operationId);
+			}
+		};
+		final WorkbookListeners.Binding recordingBinding = WorkbookListeners.bind(recording);
+		try
+		{
+			ExportExcelExtensions.exportWorkbookAsStringList(excelSheet);
+		}
+		finally
+		{
+			recordingBinding.close();
+		}
+		assertEquals(1, operationIds.size());
+		assertEquals(0, metrics.getPhaseCount(WorkbookOperation.READ_WORKBOOK, WorkbookPhase.OPEN));
+		assertEquals(1,
+			metrics.getPhaseCount(WorkbookOperation.EXPORT_WORKBOOK, WorkbookPhase.OPEN));
+		assertEquals(1,
+			metrics.getPhaseCount(WorkbookOperation.EXPORT_WORKBOOK, WorkbookPhase.CONVERT));
+		assertEquals(excelSheet.length(), metrics.getBytesIn(WorkbookOperation.EXPORT_WORKBOOK));
+	}
+}
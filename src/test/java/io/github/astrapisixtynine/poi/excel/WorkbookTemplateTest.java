@@ -0,0 +1,184 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Name;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link WorkbookTemplate}
+ */
+public class WorkbookTemplateTest
+{
+	File templateFile;
+
+	File firstFile;
+
+	File secondFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		templateFile = new File(PathFinder.getSrcTestResourcesDir(), "template.xlsx");
+		firstFile = new File(PathFinder.getSrcTestResourcesDir(), "template-first.xlsx");
+		secondFile = new File(PathFinder.getSrcTestResourcesDir(), "template-second.xlsx");
+		try (XSSFWorkbook workbook = new XSSFWorkbook())
+		{
+			final Font font = workbook.createFont();
+			font.setBold(true);
+			final CellStyle boldStyle = workbook.createCellStyle();
+			boldStyle.setFont(font);
+			final CellStyle amountStyle = workbook.createCellStyle();
+			amountStyle.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+			final Sheet report = workbook.createSheet("report");
+			report.createRow(0).createCell(0).setCellValue("Report ${title} of ${month}");
+			final Row totalRow = report.createRow(1);
+			totalRow.createCell(0).setCellValue("Total");
+			totalRow.createCell(1).setCellStyle(boldStyle);
+			final Name total = workbook.createName();
+			total.setNameName("total");
+			total.setRefersToFormula("report!$B$2");
+			final Sheet data = workbook.createSheet("data");
+			final Row header = data.createRow(0);
+			header.createCell(0).setCellValue("id");
+			header.createCell(1).setCellValue("amount");
+			final Row styled = data.createRow(1);
+			styled.createCell(0).setCellStyle(boldStyle);
+			styled.createCell(1).setCellStyle(amountStyle);
+			try (OutputStream outputStream = new FileOutputStream(templateFile))
+			{
+				workbook.write(outputStream);
+			}
+		}
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		for (final File file : List.of(templateFile, firstFile, secondFile))
+		{
+			if (file.exists())
+			{
+				DeleteFileExtensions.delete(file);
+			}
+		}
+	}
+
+	private static List<String[]> readSheet(final File file, final int sheetIndex)
+		throws IOException
+	{
+		final List<String[]> rows = new ArrayList<>();
+		try (XlsxStreamReader reader = XlsxStreamReader.open(file))
+		{
+			reader.readSheet(sheetIndex, ReadOptions.ALL, (rowIndex, values) -> rows.add(values));
+		}
+		return rows;
+	}
+
+	/**
+	 * Test method for {@link WorkbookTemplate#load(File)}
+	 */
+	@Test
+	public void testLoad() throws IOException
+	{
+		final WorkbookTemplate template = WorkbookTemplate.load(templateFile);
+		assertEquals(List.of("report", "data"), template.getSheetNames());
+		assertEquals(Set.of("month", "title"), template.getPlaceholders());
+		assertEquals(Set.of("total"), template.getNames());
+	}
+
+	/**
+	 * Test method for {@link WorkbookTemplate#render(TemplateData, File)}
+	 */
+	@Test
+	public void testRender() throws Exception
+	{
+		final WorkbookTemplate template = WorkbookTemplate.load(templateFile);
+		template.render(TemplateData.builder().value("title", "Sales & Costs")
+			.value("month", "May").value("total", 42.5).rows("data", writer -> {
+				writer.writeRow(1, 10.25);
+				writer.writeRow(2, null);
+				writer.writeRow(3, 30);
+			}).build(), firstFile);
+		template.render(TemplateData.builder().build(), secondFile);
+
+		final List<String[]> report = readSheet(firstFile, 0);
+		assertEquals("Report Sales & Costs of May", report.get(0)[0]);
+		assertArrayEquals(new String[] { "Total", "42.5" }, report.get(1));
+		final List<String[]> data = readSheet(firstFile, 1);
+		assertEquals(5, data.size());
+		assertArrayEquals(new String[] { "id", "amount" }, data.get(0));
+		assertArrayEquals(new String[] { "1", "10.25" }, data.get(2));
+		assertArrayEquals(new String[] { "2" }, data.get(3));
+		assertArrayEquals(new String[] { "3", "30" }, data.get(4));
+		try (XSSFWorkbook workbook = new XSSFWorkbook(firstFile))
+		{
+			final Sheet sheet = workbook.getSheet("data");
+			assertEquals(sheet.getRow(1).getCell(0).getCellStyle().getIndex(),
+				sheet.getRow(2).getCell(0).getCellStyle().getIndex());
+			assertEquals("#,##0.00", sheet.getRow(4).getCell(1).getCellStyle().getDataFormatString());
+			assertEquals(42.5, workbook.getSheet("report").getRow(1).getCell(1)
+				.getNumericCellValue());
+			assertEquals(true, workbook.getSheet("report").getRow(1).getCell(1).getCellStyle()
+				.getFont().getBold());
+		}
+
+		assertEquals("Report ${title} of ${month}", readSheet(secondFile, 0).get(0)[0]);
+		assertEquals(2, readSheet(secondFile, 1).size());
+	}
+}
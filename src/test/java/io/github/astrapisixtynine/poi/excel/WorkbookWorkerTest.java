@@ -0,0 +1,184 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link WorkbookWorker}
+ */
+public class WorkbookWorkerTest
+{
+	File workerDirectory;
+
+	File inbox;
+
+	File outbox;
+
+	File errorDirectory;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		workerDirectory = new File(PathFinder.getSrcTestResourcesDir(), "worker");
+		inbox = new File(workerDirectory, "inbox");
+		outbox = new File(workerDirectory, "outbox");
+		errorDirectory = new File(workerDirectory, "error");
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		if (workerDirectory.exists())
+		{
+			DeleteFileExtensions.delete(workerDirectory);
+		}
+	}
+
+	private void deliver(final String name, final String... values) throws IOException
+	{
+		final File hiddenFile = new File(inbox, "." + name);
+		try (Workbook workbook = name.endsWith(".xls") ? new HSSFWorkbook() : new XSSFWorkbook();
+			OutputStream outputStream = new FileOutputStream(hiddenFile))
+		{
+			final Sheet sheet = workbook.createSheet("data");
+			for (int i = 0; i < values.length; i++)
+			{
+				final Row row = sheet.createRow(i);
+				row.createCell(0).setCellValue(i);
+				row.createCell(1).setCellValue(values[i]);
+			}
+			workbook.write(outputStream);
+		}
+		Files.move(hiddenFile.toPath(), new File(inbox, name).toPath(),
+			StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static void awaitFiles(final WorkbookWorker worker, final long files)
+		throws InterruptedException
+	{
+		final long deadline = System.nanoTime() + 30_000_000_000L;
+		while (worker.getProcessedCount() + worker.getFailedCount() < files
+			&& System.nanoTime() < deadline)
+		{
+			Thread.sleep(20);
+		}
+	}
+
+	/**
+	 * Test method for {@link WorkbookWorker#run()}
+	 */
+	@Test
+	public void testRun() throws Exception
+	{
+		Files.createDirectories(inbox.toPath());
+		deliver("existing.xlsx", "a", "b");
+		try (WorkbookWorker worker = WorkbookWorker
+			.builder(inbox, WorkbookProcessor.csvExport()).maxConcurrency(2).build().start())
+		{
+			deliver("report.xlsx", "x,y", "say \"hi\"");
+			deliver("report.xls", "x,y", "say \"hi\"");
+			Files.writeString(new File(inbox, "broken.xlsx").toPath(), "no workbook");
+			Files.writeString(new File(inbox, "notes.txt").toPath(), "ignored");
+			awaitFiles(worker, 4);
+			assertEquals(3, worker.getProcessedCount());
+			assertEquals(1, worker.getFailedCount());
+			assertNotNull(worker.getLastFailure());
+			assertTrue(0 < worker.getProcessedBytes());
+			assertTrue(0 < worker.getMaxProcessingNanos());
+			assertTrue(worker.getMaxProcessingNanos() <= worker.getProcessingNanos());
+		}
+		assertEquals("0,a\r\n1,b\r\n", Files
+			.readString(new File(outbox, "existing.xlsx.csv").toPath(), StandardCharsets.UTF_8));
+		assertEquals("0,\"x,y\"\r\n1,\"say \"\"hi\"\"\"\r\n", Files
+			.readString(new File(outbox, "report.xlsx.csv").toPath(), StandardCharsets.UTF_8));
+		assertEquals("0,\"x,y\"\r\n1,\"say \"\"hi\"\"\"\r\n", Files
+			.readString(new File(outbox, "report.xls.csv").toPath(), StandardCharsets.UTF_8));
+		assertTrue(new File(errorDirectory, "broken.xlsx").exists());
+		assertTrue(new File(errorDirectory, "broken.xlsx" + WorkbookWorker.ERROR_SUFFIX).exists());
+		assertFalse(new File(inbox, "existing.xlsx").exists());
+		assertFalse(new File(inbox, "report.xlsx").exists());
+		assertFalse(new File(inbox, "report.xls").exists());
+		assertTrue(new File(inbox, "notes.txt").exists());
+		assertEquals(3, outbox.list().length);
+	}
+
+	/**
+	 * Test method for {@link WorkbookWorker#run()} with a processor that fails with an error
+	 */
+	@Test
+	public void testRunWithFailingProcessor() throws Exception
+	{
+		Files.createDirectories(inbox.toPath());
+		deliver("existing.xlsx", "a");
+		try (WorkbookWorker worker = WorkbookWorker.builder(inbox, (input, output) -> {
+			throw new InternalError("broken processor");
+		}).build().start())
+		{
+			awaitFiles(worker, 1);
+			assertEquals(1, worker.getFailedCount());
+			assertEquals(InternalError.class, worker.getLastFailure().getClass());
+		}
+		assertFalse(new File(inbox, "existing.xlsx").exists());
+		assertTrue(new File(errorDirectory, "existing.xlsx").exists());
+		assertTrue(
+			new File(errorDirectory, "existing.xlsx" + WorkbookWorker.ERROR_SUFFIX).exists());
+	}
+}
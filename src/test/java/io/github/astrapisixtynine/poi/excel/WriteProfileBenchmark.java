@@ -0,0 +1,108 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * The benchmark class for the presets of {@link WriteProfile}. Every profile is measured on the
+ * SXSSF path of {@link ExcelPoiFactory} and on the {@link ConcurrentXlsxWriter}, followed by the
+ * channel and pooled buffer sinks. Start it with the main method, the optional arguments are the
+ * number of sheets and the number of rows per sheet
+ */
+public class WriteProfileBenchmark
+{
+
+	private static final String[] NAMES = { "DEFAULT", "FAST", "ARCHIVAL" };
+
+	private static final WriteProfile[] PROFILES = { WriteProfile.DEFAULT, WriteProfile.FAST,
+			WriteProfile.ARCHIVAL };
+
+	/**
+	 * The main method
+	 *
+	 * @param args
+	 *            the number of sheets and the number of rows per sheet
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	public static void main(final String[] args) throws Exception
+	{
+		final int sheets = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+		final int rows = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+		final File file = File.createTempFile("profile-benchmark", ".xlsx");
+		try
+		{
+			System.out.printf("%d sheets with %d rows%n", sheets, rows);
+			for (int i = 0; i < PROFILES.length; i++)
+			{
+				final String name = NAMES[i];
+				final WriteProfile profile = PROFILES[i];
+				Benchmarks.measure("SXSSF " + name, 1, 3,
+					() -> writeSXSSF(file, sheets, rows, profile));
+				System.out.printf("%-40s %10d bytes%n", "", file.length());
+				Benchmarks.measure("ConcurrentXlsxWriter " + name, 1, 3,
+					() -> ConcurrentXlsxWriter.builder().profile(profile).build().write(file,
+						ConcurrentXlsxWriterBenchmark.newSheets(sheets, rows)));
+				System.out.printf("%-40s %10d bytes%n", "", file.length());
+			}
+			Benchmarks.measure("SXSSF FAST to FileChannel", 1, 3, () -> {
+				try (SXSSFWorkbook workbook = ExcelPoiFactory.newSXSSFWorkbook(WriteProfile.FAST);
+					FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE,
+						StandardOpenOption.TRUNCATE_EXISTING))
+				{
+					ConcurrentXlsxWriterBenchmark.fillSheets(workbook, sheets, rows);
+					ExcelPoiFactory.writeWorkbook(workbook, channel, WriteProfile.FAST);
+				}
+			});
+			final WorkbookBufferPool pool = new WorkbookBufferPool(1);
+			Benchmarks.measure("SXSSF FAST to pooled buffer", 1, 3, () -> {
+				try (SXSSFWorkbook workbook = ExcelPoiFactory.newSXSSFWorkbook(WriteProfile.FAST))
+				{
+					ConcurrentXlsxWriterBenchmark.fillSheets(workbook, sheets, rows);
+					ExcelPoiFactory.writeWorkbook(workbook, pool, WriteProfile.FAST).release();
+				}
+			});
+		}
+		finally
+		{
+			file.delete();
+		}
+	}
+
+	private static void writeSXSSF(final File file, final int sheets, final int rows,
+		final WriteProfile profile) throws Exception
+	{
+		try (SXSSFWorkbook workbook = ExcelPoiFactory.newSXSSFWorkbook(profile))
+		{
+			ConcurrentXlsxWriterBenchmark.fillSheets(workbook, sheets, rows);
+			ExcelPoiFactory.writeWorkbook(workbook, file, profile);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.zip.Deflater;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The unit test class for the class {@link WriteProfile}
+ */
+public class WriteProfileTest
+{
+
+	/**
+	 * Test method for the presets of {@link WriteProfile}
+	 */
+	@Test
+	public void testPresets()
+	{
+		assertTrue(WriteProfile.DEFAULT.isDefaultCompressionLevel());
+		assertTrue(WriteProfile.DEFAULT.isSharedStrings());
+		assertFalse(WriteProfile.DEFAULT.isCompressTempFiles());
+		assertEquals(Deflater.BEST_SPEED, WriteProfile.FAST.getCompressionLevel());
+		assertFalse(WriteProfile.FAST.isSharedStrings());
+		assertEquals(Deflater.BEST_COMPRESSION, WriteProfile.ARCHIVAL.getCompressionLevel());
+		assertTrue(WriteProfile.ARCHIVAL.isCompressTempFiles());
+	}
+
+	/**
+	 * Test method for {@link WriteProfile.Builder#build()}
+	 */
+	@Test
+	public void testBuild()
+	{
+		final WriteProfile profile = WriteProfile.builder().compressionLevel(0)
+			.outputBufferSize(8192).rowBufferSize(4096).rowAccessWindowSize(10).build();
+		assertEquals(0, profile.getCompressionLevel());
+		assertEquals(8192, profile.getOutputBufferSize());
+		assertEquals(4096, profile.getRowBufferSize());
+		assertEquals(10, profile.getRowAccessWindowSize());
+		assertThrows(IllegalArgumentException.class,
+			() -> WriteProfile.builder().compressionLevel(10));
+		assertThrows(IllegalArgumentException.class,
+			() -> WriteProfile.builder().outputBufferSize(0));
+	}
+}
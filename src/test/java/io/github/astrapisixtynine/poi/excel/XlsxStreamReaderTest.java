@@ -0,0 +1,271 @@
+/**
+ * The MIT License
+ *
+ * Copyright (C) 2022 Asterios Raptis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining
+ * a copy of this software and associated documentation files (the
+ * "Software"), to deal in the Software without restriction, including
+ * without limitation the rights to use, copy, modify, merge, publish,
+ * distribute, sublicense, and/or sell copies of the Software, and to
+ * permit persons to whom the Software is furnished to do so, subject to
+ * the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be
+ * included in all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND,
+ * EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF
+ * MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE
+ * LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION
+ * OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION
+ * WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package io.github.astrapisixtynine.poi.excel;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.crypt.EncryptionInfo;
+import org.apache.poi.poifs.crypt.EncryptionMode;
+import org.apache.poi.poifs.crypt.Encryptor;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.github.astrapi69.file.delete.DeleteFileExtensions;
+import io.github.astrapi69.file.search.PathFinder;
+
+/**
+ * The unit test class for the class {@link XlsxStreamReader}
+ */
+public class XlsxStreamReaderTest
+{
+	File addressesFile;
+	File numbersFile;
+
+	/**
+	 * Sets up method will be invoked before every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@BeforeEach
+	protected void setUp() throws Exception
+	{
+		addressesFile = new File(PathFinder.getSrcTestResourcesDir(), "addresses.xlsx");
+		numbersFile = new File(PathFinder.getSrcTestResourcesDir(), "numbers-stream.xlsx");
+		try (Workbook workbook = new XSSFWorkbook();
+			FileOutputStream outputStream = new FileOutputStream(numbersFile))
+		{
+			final Sheet sheet = workbook.createSheet("numbers");
+			for (int i = 0; i < 100; i++)
+			{
+				final Row row = sheet.createRow(i);
+				row.createCell(0).setCellValue(i);
+				row.createCell(1).setCellValue("row " + i);
+				row.createCell(3).setCellValue(i % 2 == 0);
+			}
+			workbook.write(outputStream);
+		}
+	}
+
+	/**
+	 * Tear down method will be invoked after every unit test method
+	 *
+	 * @throws Exception
+	 *             is thrown if an exception occurs
+	 */
+	@AfterEach
+	protected void tearDown() throws Exception
+	{
+		DeleteFileExtensions.delete(numbersFile);
+	}
+
+	/**
+	 * Test method for {@link XlsxStreamReader#getSheetNames()}
+	 */
+	@Test
+	public void testGetSheetNames() throws IOException
+	{
+		try (XlsxStreamReader reader = XlsxStreamReader.open(numbersFile))
+		{
+			assertEquals(List.of("numbers"), reader.getSheetNames());
+			assertEquals(0, reader.getSheetIndex("numbers"));
+			assertEquals(-1, reader.getSheetIndex("foo"));
+		}
+	}
+
+	/**
+	 * Test method for {@link XlsxStreamReader#readSheet(int, ReadOptions)}
+	 */
+	@Test
+	public void testReadSheet() throws IOException
+	{
+		try (XlsxStreamReader reader = XlsxStreamReader.open(addressesFile))
+		{
+			final List<String[]> rows = reader.readSheet(0, ReadOptions.ALL);
+			assertEquals(2, rows.size());
+			assertArrayEquals(new String[] { "Firstname", "Surname", "Street", "zip", "city", "id" },
+				rows.get(0));
+			assertArrayEquals(
+				new String[] { "Henry", "Miller", "Seaside 5", "75345", "Imaginationville", "1" },
+				rows.get(1));
+		}
+	}
+
+	/**
+	 * Test method for {@link XlsxStreamReader#open(File, SharedStringCache)}
+	 */
+	@Test
+	public void testOpenWithSharedStrings() throws IOException
+	{
+		try (XlsxStreamReader reader = XlsxStreamReader.open(addressesFile);
+			XlsxStreamReader sharedReader = XlsxStreamReader.open(addressesFile,
+				reader.getSharedStrings()))
+		{
+			assertSame(reader.getSharedStrings(), sharedReader.getSharedStrings());
+			assertArrayEquals(reader.readSheet(0, ReadOptions.ALL).get(1),
+				sharedReader.readSheet(0, ReadOptions.ALL).get(1));
+		}
+	}
+
+	/**
+	 * Test method for {@link XlsxStreamReader#readSheet(int, ReadOptions)} with columns selected by
+	 * index and by name
+	 */
+	@Test
+	public void testReadSheetWithColumns() throws IOException
+	{
+		try (XlsxStreamReader reader = XlsxStreamReader.open(addressesFile))
+		{
+			List<String[]> rows = reader.readSheet(0, ReadOptions.builder().columns(4, 0).build());
+			assertArrayEquals(new String[] { "city", "Firstname" }, rows.get(0));
+			assertArrayEquals(new String[] { "Imaginationville", "Henry" }, rows.get(1));
+
+			rows = reader.readSheet(0,
+				ReadOptions.builder().columnNames("id", "Surname").rows(1, 1).build());
+			assertEquals(1, rows.size());
+			assertArrayEquals(new String[] { "1", "Miller" }, rows.get(0));
+
+			assertThrows(IllegalArgumentException.class,
+				() -> reader.readSheet(0, ReadOptions.builder().columnNames("foo").build()));
+		}
+	}
+
+	/**
+	 * Test method for {@link XlsxStreamReader#readSheet(int, ReadOptions, RowHandler)} with a row
+	 * range and a row filter
+	 */
+	@Test
+	public void testReadSheetWithRows() throws IOException
+	{
+		final List<Integer> rowIndexes = new ArrayList<>();
+		final List<String[]> rows = new ArrayList<>();
+		try (XlsxStreamReader reader = XlsxStreamReader.open(numbersFile))
+		{
+			reader.readSheet(0, ReadOptions.builder().columns(0, 2, 3).rows(10, 19)
+				.rowFilter(rowIndex -> rowIndex % 3 == 0).build(), (rowIndex, values) -> {
+					rowIndexes.add(rowIndex);
+					rows.add(values);
+				});
+		}
+		assertEquals(List.of(12, 15, 18), rowIndexes);
+		assertArrayEquals(new String[] { "12", "", "true" }, rows.get(0));
+		assertArrayEquals(new String[] { "15", "", "false" }, rows.get(1));
+	}
+
+	/**
+	 * Test method for {@link ReadOptions.Builder#build()} with invalid options
+	 */
+	@Test
+	public void testInvalidReadOptions()
+	{
+		assertThrows(IllegalArgumentException.class,
+			() -> ReadOptions.builder().rows(5, 4).build());
+		assertThrows(IllegalArgumentException.class,
+			() -> ReadOptions.builder().columnNames("id").headerRowIndex(2).rows(1, 3).build());
+		assertThrows(IllegalArgumentException.class, () -> ReadOptions.builder().columns(-1));
+	}
+
+	/**
+	 * Test method for {@link XlsxStreamReader#openEncrypted(File, String)}
+	 */
+	@Test
+	public void testOpenEncrypted() throws Exception
+	{
+		final File plainFile = new File(PathFinder.getSrcTestResourcesDir(), "plain-stream.xlsx");
+		final File encryptedFile = new File(PathFinder.getSrcTestResourcesDir(),
+			"encrypted-stream.xlsx");
+		try
+		{
+			try (Workbook workbook = new XSSFWorkbook();
+				FileOutputStream outputStream = new FileOutputStream(plainFile))
+			{
+				final Sheet sheet = workbook.createSheet("large");
+				for (int i = 0; i < 8000; i++)
+				{
+					final Row row = sheet.createRow(i);
+					row.createCell(0).setCellValue(i);
+					row.createCell(1).setCellValue("value " + i);
+				}
+				workbook.createSheet("small").createRow(0).createCell(0).setCellValue("secret");
+				workbook.write(outputStream);
+			}
+			try (POIFSFileSystem fileSystem = new POIFSFileSystem())
+			{
+				final Encryptor encryptor = new EncryptionInfo(EncryptionMode.agile).getEncryptor();
+				encryptor.confirmPassword("pass");
+				try (OPCPackage opcPackage = OPCPackage.open(plainFile, PackageAccess.READ_WRITE);
+					OutputStream outputStream = encryptor.getDataStream(fileSystem))
+				{
+					opcPackage.save(outputStream);
+				}
+				try (FileOutputStream outputStream = new FileOutputStream(encryptedFile))
+				{
+					fileSystem.writeFilesystem(outputStream);
+				}
+			}
+
+			try (XlsxStreamReader reader = XlsxStreamReader.openEncrypted(encryptedFile, "pass"))
+			{
+				assertEquals(List.of("large", "small"), reader.getSheetNames());
+				final List<String[]> rows = reader.readSheet(0, ReadOptions.ALL);
+				assertEquals(8000, rows.size());
+				assertArrayEquals(new String[] { "7999", "value 7999" }, rows.get(7999));
+				assertArrayEquals(new String[] { "secret" },
+					reader.readSheet(1, ReadOptions.ALL).get(0));
+			}
+			assertThrows(IOException.class,
+				() -> XlsxStreamReader.openEncrypted(encryptedFile, "wrong"));
+			assertThrows(IOException.class, () -> XlsxStreamReader.openEncrypted(plainFile, "pass"));
+		}
+		finally
+		{
+			for (final File file : List.of(plainFile, encryptedFile))
+			{
+				if (file.exists())
+				{
+					DeleteFileExtensions.delete(file);
+				}
+			}
+		}
+	}
+}